@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Member;
+import com.hazelcast.instance.HazelcastInstanceProxy;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.partition.IPartitionService;
+
+import java.util.UUID;
+
+import static com.hazelcast.spi.properties.GroupProperty.PHONE_HOME_ENABLED;
+
+/**
+ * Starts and stops the embedded members the benchmarks run against.
+ */
+public final class BenchmarkSupport {
+
+    private static final long CLUSTER_START_TIMEOUT_MILLIS = 60000;
+    private static final long CLUSTER_START_POLL_MILLIS = 100;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Creates the configuration of a member of an isolated benchmark cluster, joining over the loopback interface.
+     *
+     * @return a new configuration, to be customized by the benchmark
+     */
+    public static Config newConfig() {
+        Config config = new Config();
+        config.getGroupConfig().setName("benchmark-" + UUID.randomUUID());
+        config.setProperty(PHONE_HOME_ENABLED.getName(), "false");
+
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        config.getNetworkConfig().getInterfaces().setEnabled(true).addInterface("127.0.0.1");
+        return config;
+    }
+
+    /**
+     * Starts the given number of members and waits until they have formed a cluster.
+     *
+     * @param config      the configuration of the members
+     * @param memberCount the number of members to start
+     * @return the started members
+     */
+    public static HazelcastInstance[] newMembers(Config config, int memberCount) {
+        HazelcastInstance[] members = new HazelcastInstance[memberCount];
+        for (int i = 0; i < memberCount; i++) {
+            members[i] = Hazelcast.newHazelcastInstance(config);
+        }
+        waitClusterSize(members[0], memberCount);
+        return members;
+    }
+
+    /**
+     * Shuts down the given members.
+     */
+    public static void shutdown(HazelcastInstance... members) {
+        if (members == null) {
+            return;
+        }
+        for (HazelcastInstance member : members) {
+            if (member != null) {
+                member.getLifecycleService().terminate();
+            }
+        }
+    }
+
+    public static NodeEngineImpl getNodeEngine(HazelcastInstance member) {
+        return ((HazelcastInstanceProxy) member).getOriginal().node.getNodeEngine();
+    }
+
+    /**
+     * Returns distinct keys whose partitions are owned by the given member.
+     *
+     * @param member the owner of the keys
+     * @param count  the number of keys to return
+     * @return the keys
+     */
+    public static String[] generateKeysOwnedBy(HazelcastInstance member, int count) {
+        Member localMember = member.getCluster().getLocalMember();
+        String[] keys = new String[count];
+        int found = 0;
+        for (int i = 0; found < count; i++) {
+            String key = "key-" + i;
+            if (localMember.equals(member.getPartitionService().getPartition(key).getOwner())) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Waits until all partitions have an owner, so the benchmark doesn't measure the initial partition assignment.
+     */
+    public static void warmUpPartitions(HazelcastInstance member) {
+        IPartitionService partitionService = getNodeEngine(member).getPartitionService();
+        for (int partitionId = 0; partitionId < partitionService.getPartitionCount(); partitionId++) {
+            partitionService.getPartitionOwnerOrWait(partitionId);
+        }
+    }
+
+    private static void waitClusterSize(HazelcastInstance member, int clusterSize) {
+        long deadline = System.currentTimeMillis() + CLUSTER_START_TIMEOUT_MILLIS;
+        while (member.getCluster().getMembers().size() != clusterSize) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("The members didn't form a cluster of " + clusterSize
+                        + " within " + CLUSTER_START_TIMEOUT_MILLIS + " ms");
+            }
+            try {
+                Thread.sleep(CLUSTER_START_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.client;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapGetCodec;
+import com.hazelcast.client.impl.protocol.codec.MapPutCodec;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding and decoding the {@link ClientMessage}s of the most common client requests, map put and get.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ClientMessageBenchmark {
+
+    private static final String MAP_NAME = "map";
+    private static final long THREAD_ID = 1;
+    private static final long TTL = -1;
+    private static final int PARTITION_ID = 7;
+    private static final long CORRELATION_ID = 42;
+
+    @Param({"100", "1000"})
+    public int valueSize;
+
+    private InternalSerializationService serializationService;
+    private Data key;
+    private Data value;
+    private ClientMessage putRequest;
+    private ClientMessage getResponse;
+
+    @Setup
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        key = serializationService.toData("key");
+        byte[] bytes = new byte[valueSize];
+        Arrays.fill(bytes, (byte) 1);
+        value = serializationService.toData(bytes);
+
+        putRequest = encodePutRequest();
+        getResponse = MapGetCodec.encodeResponse(value);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public ClientMessage encodePutRequest() {
+        ClientMessage request = MapPutCodec.encodeRequest(MAP_NAME, key, value, THREAD_ID, TTL);
+        request.setCorrelationId(CORRELATION_ID).setPartitionId(PARTITION_ID);
+        return request;
+    }
+
+    @Benchmark
+    public MapPutCodec.RequestParameters decodePutRequest() {
+        return MapPutCodec.decodeRequest(ClientMessage.createForDecode(putRequest.buffer(), 0));
+    }
+
+    @Benchmark
+    public ClientMessage encodeGetRequest() {
+        ClientMessage request = MapGetCodec.encodeRequest(MAP_NAME, key, THREAD_ID);
+        request.setCorrelationId(CORRELATION_ID).setPartitionId(PARTITION_ID);
+        return request;
+    }
+
+    @Benchmark
+    public ClientMessage encodeGetResponse() {
+        return MapGetCodec.encodeResponse(value);
+    }
+
+    @Benchmark
+    public MapGetCodec.ResponseParameters decodeGetResponse() {
+        return MapGetCodec.decodeResponse(ClientMessage.createForDecode(getResponse.buffer(), 0));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.benchmarks.BenchmarkSupport.generateKeysOwnedBy;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newConfig;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newMembers;
+import static com.hazelcast.benchmarks.BenchmarkSupport.shutdown;
+
+/**
+ * Measures get and put on an {@link IMap} proxy for keys owned by the local or by a remote member,
+ * for the different record formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MapBenchmark {
+
+    private static final int KEY_COUNT = 1024;
+    private static final int KEY_MASK = KEY_COUNT - 1;
+
+    @Param({"local", "remote"})
+    public String owner;
+
+    @Param({"binary", "object", "compactBinary"})
+    public String recordFormat;
+
+    @Param({"100"})
+    public int valueSize;
+
+    private HazelcastInstance[] members;
+    private IMap<String, byte[]> map;
+    private String[] keys;
+    private byte[] value;
+
+    @Setup
+    public void setup() {
+        Config config = newConfig();
+        MapConfig mapConfig = config.getMapConfig("map");
+        mapConfig.setInMemoryFormat("object".equals(recordFormat) ? InMemoryFormat.OBJECT : InMemoryFormat.BINARY);
+        mapConfig.setCompactRecordsEnabled("compactBinary".equals(recordFormat));
+
+        members = newMembers(config, 2);
+        map = members[0].getMap("map");
+        keys = generateKeysOwnedBy("local".equals(owner) ? members[0] : members[1], KEY_COUNT);
+        value = new byte[valueSize];
+        for (String key : keys) {
+            map.set(key, value);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdown(members);
+    }
+
+    @Benchmark
+    public byte[] get(KeyCursor cursor) {
+        return map.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public byte[] put(KeyCursor cursor) {
+        return map.put(keys[cursor.next()], value);
+    }
+
+    @Benchmark
+    public void set(KeyCursor cursor) {
+        map.set(keys[cursor.next()], value);
+    }
+
+    /**
+     * Cycles every benchmark thread through the keys.
+     */
+    @State(Scope.Thread)
+    public static class KeyCursor {
+
+        private int index;
+
+        int next() {
+            return index++ & KEY_MASK;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.map;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.nearcache.NearCache;
+import com.hazelcast.internal.nearcache.impl.DefaultNearCache;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures hits, misses and updates of a {@link DefaultNearCache} holding fewer entries than its maximum size,
+ * so no eviction takes place.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class NearCacheBenchmark {
+
+    private static final int KEY_COUNT = 1024;
+    private static final int KEY_MASK = KEY_COUNT - 1;
+
+    @Param({"BINARY", "OBJECT"})
+    public InMemoryFormat inMemoryFormat;
+
+    private InternalSerializationService serializationService;
+    private NearCache<Integer, String> nearCache;
+    private Integer[] keys;
+    private Integer[] missingKeys;
+    private Data[] keyData;
+    private String value;
+
+    @Setup
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        NearCacheConfig nearCacheConfig = new NearCacheConfig("nearCache").setInMemoryFormat(inMemoryFormat);
+        // no expiration is configured, so the near cache doesn't need a task scheduler
+        nearCache = new DefaultNearCache<Integer, String>("nearCache", nearCacheConfig, serializationService, null,
+                NearCacheBenchmark.class.getClassLoader());
+        nearCache.initialize();
+
+        keys = new Integer[KEY_COUNT];
+        missingKeys = new Integer[KEY_COUNT];
+        keyData = new Data[KEY_COUNT];
+        value = "value";
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = i;
+            missingKeys[i] = KEY_COUNT + i;
+            keyData[i] = serializationService.toData(keys[i]);
+            nearCache.put(keys[i], keyData[i], value);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        nearCache.destroy();
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public String getHit(KeyCursor cursor) {
+        return nearCache.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public String getMiss(KeyCursor cursor) {
+        return nearCache.get(missingKeys[cursor.next()]);
+    }
+
+    @Benchmark
+    public void put(KeyCursor cursor) {
+        int index = cursor.next();
+        nearCache.put(keys[index], keyData[index], value);
+    }
+
+    /**
+     * Cycles every benchmark thread through the keys.
+     */
+    @State(Scope.Thread)
+    public static class KeyCursor {
+
+        private int index;
+
+        int next() {
+            return index++ & KEY_MASK;
+        }
+    }
+}
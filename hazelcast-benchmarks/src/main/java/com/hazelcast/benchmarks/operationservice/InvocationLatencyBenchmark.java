@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.operationservice;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.benchmarks.BenchmarkSupport.generateKeysOwnedBy;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newConfig;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newMembers;
+import static com.hazelcast.benchmarks.BenchmarkSupport.shutdown;
+import static com.hazelcast.spi.impl.operationservice.impl.AsyncInboundResponseHandler.RESPONSE_THREAD_ENABLED;
+
+/**
+ * Samples the end to end latency of remote map operations with the default threading model, where a response thread
+ * completes the invocations, against completing the invocations on the io threads that read the responses.
+ * <p>
+ * Run it with a few threads ({@code -t}) as well, since the threading models differ most under contention.
+ * The benchmarks cover the common response types: data ({@code get}), boolean ({@code containsKey}) and
+ * null ({@code set}). Add {@code -prof gc} to see the allocation rate of the invocation and response path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class InvocationLatencyBenchmark {
+
+    @Param({"default", "noResponseThread"})
+    public String threadingModel;
+
+    private HazelcastInstance[] members;
+    private IMap<String, String> map;
+    private String remoteKey;
+
+    @Setup
+    public void setup() {
+        Config config = newConfig();
+        if ("noResponseThread".equals(threadingModel)) {
+            config.setProperty(RESPONSE_THREAD_ENABLED.getName(), "false");
+        }
+        members = newMembers(config, 2);
+        map = members[0].getMap("latency");
+        remoteKey = generateKeysOwnedBy(members[1], 1)[0];
+        map.put(remoteKey, "value");
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdown(members);
+    }
+
+    @Benchmark
+    public String remoteGet() {
+        return map.get(remoteKey);
+    }
+
+    @Benchmark
+    public boolean remoteContainsKey() {
+        return map.containsKey(remoteKey);
+    }
+
+    @Benchmark
+    public void remoteSet() {
+        map.set(remoteKey, "value");
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.operationservice;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.InternalCompletableFuture;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.spi.partition.IPartitionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.benchmarks.BenchmarkSupport.getNodeEngine;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newConfig;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newMembers;
+import static com.hazelcast.benchmarks.BenchmarkSupport.shutdown;
+import static com.hazelcast.benchmarks.BenchmarkSupport.warmUpPartitions;
+
+/**
+ * Measures invocations of a trivial operation on a partition owned by the local or by a remote member, and invoking
+ * a batch of such operations one by one or as a single batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class OperationServiceBenchmark {
+
+    @Param({"local", "remote"})
+    public String target;
+
+    @Param({"32"})
+    public int batchSize;
+
+    private HazelcastInstance[] members;
+    private OperationService operationService;
+    private Address targetAddress;
+    private int[] targetPartitions;
+
+    @Setup
+    public void setup() {
+        members = newMembers(newConfig(), 2);
+        warmUpPartitions(members[0]);
+        operationService = getNodeEngine(members[0]).getOperationService();
+
+        HazelcastInstance targetMember = "local".equals(target) ? members[0] : members[1];
+        targetAddress = targetMember.getCluster().getLocalMember().getAddress();
+        IPartitionService partitionService = getNodeEngine(members[0]).getPartitionService();
+        List<Integer> partitions = partitionService.getMemberPartitions(targetAddress);
+        targetPartitions = new int[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            targetPartitions[i] = partitions.get(i % partitions.size());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdown(members);
+    }
+
+    @Benchmark
+    public Object invokeOnPartition() {
+        return operationService.invokeOnPartition(null, new EchoOperation(1), targetPartitions[0]).join();
+    }
+
+    @Benchmark
+    public Object invokeOnTarget() {
+        return operationService.invokeOnTarget(null, new EchoOperation(1), targetAddress).join();
+    }
+
+    @Benchmark
+    public int invokeOnPartitionPipelined() {
+        List<InternalCompletableFuture<Integer>> futures = new ArrayList<InternalCompletableFuture<Integer>>(batchSize);
+        for (int partitionId : targetPartitions) {
+            futures.add(operationService.<Integer>invokeOnPartition(null, new EchoOperation(1), partitionId));
+        }
+        return sum(futures);
+    }
+
+    @Benchmark
+    public int invokeOnTargetBatch() {
+        List<Operation> operations = new ArrayList<Operation>(batchSize);
+        for (int partitionId : targetPartitions) {
+            operations.add(new EchoOperation(1).setPartitionId(partitionId));
+        }
+        return sum(operationService.<Integer>invokeOnTargetBatch(null, operations, targetAddress));
+    }
+
+    private static int sum(List<InternalCompletableFuture<Integer>> futures) {
+        int sum = 0;
+        for (InternalCompletableFuture<Integer> future : futures) {
+            sum += future.join();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Contains the JMH benchmarks of the hot paths of Hazelcast.
+ * <p>
+ * The benchmarks run on a single box with embedded members talking over the loopback interface, so they
+ * don't need any cluster setup. Build the self-contained benchmark jar and run the benchmarks by a
+ * regular expression on their names, e.g.:
+ * <pre>
+ * mvn -pl hazelcast-benchmarks -am package -DskipTests
+ * java -jar hazelcast-benchmarks/target/benchmarks.jar IndexQueryBenchmark -f 1 -wi 5 -i 10
+ * </pre>
+ * Run {@code java -jar hazelcast-benchmarks/target/benchmarks.jar -h} for the JMH options, e.g. to pick
+ * the {@code @Param} values or to add a profiler.
+ */
+package com.hazelcast.benchmarks;
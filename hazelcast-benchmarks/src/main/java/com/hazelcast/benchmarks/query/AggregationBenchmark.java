@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MapIndexConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.benchmarks.BenchmarkSupport.newConfig;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newMembers;
+import static com.hazelcast.benchmarks.BenchmarkSupport.shutdown;
+
+/**
+ * Measures the built-in aggregations over a whole map and over a predicate, with and without an ordered
+ * index on the aggregated attribute.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AggregationBenchmark {
+
+    @Param({"100000"})
+    public int entryCount;
+
+    @Param({"none", "ordered"})
+    public String salaryIndex;
+
+    private HazelcastInstance member;
+    private IMap<Integer, Employee> map;
+    private Predicate upperHalf;
+
+    @Setup
+    public void setup() {
+        Config config = newConfig();
+        MapConfig mapConfig = config.getMapConfig("employees");
+        mapConfig.addMapIndexConfig(new MapIndexConfig("department", false));
+        if ("ordered".equals(salaryIndex)) {
+            mapConfig.addMapIndexConfig(new MapIndexConfig("salary", true));
+        }
+        member = newMembers(config, 1)[0];
+        map = member.getMap("employees");
+        Employee.populate(map, entryCount);
+
+        upperHalf = Predicates.greaterEqual("salary", (long) entryCount / 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdown(member);
+    }
+
+    @Benchmark
+    public long count() {
+        return map.aggregate(Aggregators.<Map.Entry<Integer, Employee>>count());
+    }
+
+    @Benchmark
+    public long countWithPredicate() {
+        return map.aggregate(Aggregators.<Map.Entry<Integer, Employee>>count(), upperHalf);
+    }
+
+    @Benchmark
+    public long sumSalary() {
+        return map.aggregate(Aggregators.<Map.Entry<Integer, Employee>>longSum("salary"));
+    }
+
+    @Benchmark
+    public long maxSalary() {
+        return map.aggregate(Aggregators.<Map.Entry<Integer, Employee>>longMax("salary"));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MapIndexConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.benchmarks.BenchmarkSupport.newConfig;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newMembers;
+import static com.hazelcast.benchmarks.BenchmarkSupport.shutdown;
+
+/**
+ * Compares bitmap indexes with regular hash indexes on low-cardinality attributes, for equality, IN and
+ * conjunctive predicates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BitmapIndexBenchmark {
+
+    @Param({"100000"})
+    public int entryCount;
+
+    @Param({"hash", "bitmap"})
+    public String indexType;
+
+    private HazelcastInstance member;
+    private IMap<Integer, Employee> map;
+    private Predicate equalDepartment;
+    private Predicate inDepartments;
+    private Predicate activeInDepartment;
+
+    @Setup
+    public void setup() {
+        boolean bitmap = "bitmap".equals(indexType);
+        Config config = newConfig();
+        MapConfig mapConfig = config.getMapConfig("employees");
+        mapConfig.addMapIndexConfig(new MapIndexConfig("department", false).setBitmap(bitmap));
+        mapConfig.addMapIndexConfig(new MapIndexConfig("active", false).setBitmap(bitmap));
+        member = newMembers(config, 1)[0];
+        map = member.getMap("employees");
+        Employee.populate(map, entryCount);
+
+        equalDepartment = Predicates.equal("department", Employee.department(0));
+        inDepartments = Predicates.in("department", Employee.department(1), Employee.department(2));
+        activeInDepartment = Predicates.and(Predicates.equal("active", true), equalDepartment);
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdown(member);
+    }
+
+    @Benchmark
+    public int equalityQuery() {
+        return map.keySet(equalDepartment).size();
+    }
+
+    @Benchmark
+    public int inQuery() {
+        return map.keySet(inDepartments).size();
+    }
+
+    @Benchmark
+    public int conjunctionQuery() {
+        return map.keySet(activeInDepartment).size();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.query;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The value stored in the maps of the query benchmarks.
+ * <p>
+ * The attributes are derived from the ID, so the selectivity of the benchmark predicates is known up front:
+ * <ul>
+ * <li>{@code salary} is unique and equals the ID</li>
+ * <li>{@code age} has {@value #AGE_COUNT} distinct values</li>
+ * <li>{@code department} has {@value #DEPARTMENT_COUNT} distinct values</li>
+ * <li>{@code active} is true for every second employee</li>
+ * </ul>
+ */
+public class Employee implements DataSerializable {
+
+    public static final int AGE_COUNT = 50;
+    public static final int DEPARTMENT_COUNT = 8;
+
+    private static final int MIN_AGE = 18;
+    private static final int PUT_ALL_BATCH_SIZE = 10000;
+
+    private int id;
+    private String name;
+    private int age;
+    private String department;
+    private long salary;
+    private boolean active;
+
+    public Employee() {
+    }
+
+    public Employee(int id) {
+        this.id = id;
+        this.name = "employee-" + id;
+        this.age = MIN_AGE + id % AGE_COUNT;
+        this.department = department(id % DEPARTMENT_COUNT);
+        this.salary = id;
+        this.active = id % 2 == 0;
+    }
+
+    /**
+     * Returns the name of a department.
+     *
+     * @param index the index of the department, between 0 and {@value #DEPARTMENT_COUNT} (exclusive)
+     * @return the department name
+     */
+    public static String department(int index) {
+        return "department-" + index;
+    }
+
+    /**
+     * Fills the map with employees with the IDs from 0 to {@code count} (exclusive), keyed by their ID.
+     */
+    public static void populate(IMap<Integer, Employee> map, int count) {
+        Map<Integer, Employee> batch = new HashMap<Integer, Employee>();
+        for (int id = 0; id < count; id++) {
+            batch.put(id, new Employee(id));
+            if (batch.size() == PUT_ALL_BATCH_SIZE) {
+                map.putAll(batch);
+                batch.clear();
+            }
+        }
+        map.putAll(batch);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public long getSalary() {
+        return salary;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(id);
+        out.writeUTF(name);
+        out.writeInt(age);
+        out.writeUTF(department);
+        out.writeLong(salary);
+        out.writeBoolean(active);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        id = in.readInt();
+        name = in.readUTF();
+        age = in.readInt();
+        department = in.readUTF();
+        salary = in.readLong();
+        active = in.readBoolean();
+    }
+}
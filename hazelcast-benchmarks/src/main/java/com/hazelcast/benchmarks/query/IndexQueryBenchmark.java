@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MapIndexConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.benchmarks.BenchmarkSupport.newConfig;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newMembers;
+import static com.hazelcast.benchmarks.BenchmarkSupport.shutdown;
+import static com.hazelcast.spi.properties.GroupProperty.QUERY_INDEX_BPLUS_TREE_ENABLED;
+
+/**
+ * Compares the ordered index stores, backed by a skip list or by a B+tree, for range and equality queries
+ * and for the index maintenance on updates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class IndexQueryBenchmark {
+
+    private static final int RANGE_SIZE = 100;
+    private static final int UPDATED_KEY_COUNT = 1024;
+    private static final int UPDATED_KEY_MASK = UPDATED_KEY_COUNT - 1;
+
+    @Param({"100000"})
+    public int entryCount;
+
+    @Param({"skipList", "bPlusTree"})
+    public String indexStore;
+
+    private HazelcastInstance member;
+    private IMap<Integer, Employee> map;
+    private Predicate narrowRange;
+    private Predicate wideRange;
+    private Predicate equalAge;
+    private Employee[] updates;
+    private int updateIndex;
+
+    @Setup
+    public void setup() {
+        Config config = newConfig();
+        config.setProperty(QUERY_INDEX_BPLUS_TREE_ENABLED.getName(), String.valueOf("bPlusTree".equals(indexStore)));
+        MapConfig mapConfig = config.getMapConfig("employees");
+        mapConfig.addMapIndexConfig(new MapIndexConfig("salary", true));
+        mapConfig.addMapIndexConfig(new MapIndexConfig("age", true));
+        member = newMembers(config, 1)[0];
+        map = member.getMap("employees");
+        Employee.populate(map, entryCount);
+
+        long middle = entryCount / 2;
+        narrowRange = Predicates.between("salary", middle, middle + RANGE_SIZE - 1);
+        wideRange = Predicates.greaterEqual("salary", middle);
+        equalAge = Predicates.equal("age", Employee.AGE_COUNT / 2);
+
+        updates = new Employee[UPDATED_KEY_COUNT];
+        for (int i = 0; i < UPDATED_KEY_COUNT; i++) {
+            updates[i] = new Employee(entryCount - 1 - i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdown(member);
+    }
+
+    @Benchmark
+    public int narrowRangeQuery() {
+        return map.keySet(narrowRange).size();
+    }
+
+    @Benchmark
+    public int wideRangeQuery() {
+        return map.keySet(wideRange).size();
+    }
+
+    @Benchmark
+    public int equalityQuery() {
+        return map.keySet(equalAge).size();
+    }
+
+    @Benchmark
+    public void updateIndexedEntry() {
+        Employee employee = updates[updateIndex++ & UPDATED_KEY_MASK];
+        map.set(employee.getId(), employee);
+    }
+}
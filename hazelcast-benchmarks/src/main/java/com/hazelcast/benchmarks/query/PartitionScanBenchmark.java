@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.benchmarks.BenchmarkSupport.newConfig;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newMembers;
+import static com.hazelcast.benchmarks.BenchmarkSupport.shutdown;
+
+/**
+ * Measures full partition scans of a map without indexes, for predicates matching no, few or many entries,
+ * so both the cost of evaluating the predicates and the cost of collecting the matches are visible.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PartitionScanBenchmark {
+
+    private static final int PERCENT = 100;
+
+    @Param({"100000"})
+    public int entryCount;
+
+    @Param({"BINARY", "OBJECT"})
+    public InMemoryFormat inMemoryFormat;
+
+    private HazelcastInstance member;
+    private IMap<Integer, Employee> map;
+    private Predicate noMatch;
+    private Predicate onePercent;
+    private Predicate halfAndDepartment;
+
+    @Setup
+    public void setup() {
+        Config config = newConfig();
+        config.getMapConfig("employees").setInMemoryFormat(inMemoryFormat);
+        member = newMembers(config, 1)[0];
+        map = member.getMap("employees");
+        Employee.populate(map, entryCount);
+
+        noMatch = Predicates.greaterThan("salary", (long) entryCount);
+        onePercent = Predicates.lessThan("salary", (long) entryCount / PERCENT);
+        halfAndDepartment = Predicates.and(Predicates.equal("active", true),
+                Predicates.equal("department", Employee.department(0)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdown(member);
+    }
+
+    @Benchmark
+    public int scanNoMatch() {
+        return map.keySet(noMatch).size();
+    }
+
+    @Benchmark
+    public int scanOnePercentKeys() {
+        return map.keySet(onePercent).size();
+    }
+
+    @Benchmark
+    public int scanOnePercentValues() {
+        return map.values(onePercent).size();
+    }
+
+    @Benchmark
+    public int scanConjunction() {
+        return map.keySet(halfAndDepartment).size();
+    }
+}
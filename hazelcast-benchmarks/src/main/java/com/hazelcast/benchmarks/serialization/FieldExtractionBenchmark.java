@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.getters.Extractors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures extracting a single attribute from a serialized value the way a query predicate does. Identified data
+ * serializable values are de-serialized first, portable and compact values are read in their serialized form.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FieldExtractionBenchmark {
+
+    @Param({"identifiedDataSerializable", "portable", "compact"})
+    public String serializer;
+
+    private InternalSerializationService serializationService;
+    private Extractors extractors;
+    private Data data;
+
+    @Setup
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder()
+                .addDataSerializableFactory(SampleValues.FACTORY_ID, new SampleValues.IdentifiedValueFactory())
+                .addPortableFactory(SampleValues.FACTORY_ID, new SampleValues.PortableValueFactory())
+                .addCompactFactory(SampleValues.FACTORY_ID, new SampleValues.CompactValueFactory())
+                .build();
+        extractors = Extractors.empty();
+        data = serializationService.toData(SampleValues.create(serializer));
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public Object extractFixedSizeField() {
+        return extractors.extract(serializationService, data, "salary");
+    }
+
+    @Benchmark
+    public Object extractVariableSizeField() {
+        return extractors.extract(serializationService, data, "name");
+    }
+}
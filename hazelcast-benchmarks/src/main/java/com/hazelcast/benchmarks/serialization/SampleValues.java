@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Compact;
+import com.hazelcast.nio.serialization.CompactFactory;
+import com.hazelcast.nio.serialization.CompactReader;
+import com.hazelcast.nio.serialization.CompactWriter;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.nio.serialization.DataSerializableFactory;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableFactory;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+
+/**
+ * The same small value object implemented for each of the serialization mechanisms of Hazelcast.
+ */
+public final class SampleValues {
+
+    public static final int FACTORY_ID = 1;
+    public static final int CLASS_ID = 1;
+
+    static final int ID = 42;
+    static final String NAME = "Jane Doe";
+    static final long TIMESTAMP = 1483228800000L;
+    static final double SALARY = 12345.67;
+
+    private SampleValues() {
+    }
+
+    /**
+     * Creates the sample value implemented by the given serialization mechanism.
+     *
+     * @param serializer the name of the serialization mechanism
+     * @return the sample value
+     */
+    public static Object create(String serializer) {
+        if ("string".equals(serializer)) {
+            return NAME;
+        } else if ("long".equals(serializer)) {
+            return TIMESTAMP;
+        } else if ("byteArray".equals(serializer)) {
+            return new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+        } else if ("serializable".equals(serializer)) {
+            return new SerializableValue();
+        } else if ("externalizable".equals(serializer)) {
+            return new ExternalizableValue();
+        } else if ("dataSerializable".equals(serializer)) {
+            return new DataSerializableValue();
+        } else if ("identifiedDataSerializable".equals(serializer)) {
+            return new IdentifiedValue();
+        } else if ("portable".equals(serializer)) {
+            return new PortableValue();
+        } else if ("compact".equals(serializer)) {
+            return new CompactValue();
+        } else if ("pojo".equals(serializer)) {
+            return new PojoValue();
+        }
+        throw new IllegalArgumentException("Unknown serializer: " + serializer);
+    }
+
+    /**
+     * Creates the instances of the {@link IdentifiedDataSerializable} sample.
+     */
+    public static class IdentifiedValueFactory implements DataSerializableFactory {
+
+        @Override
+        public IdentifiedDataSerializable create(int typeId) {
+            return new IdentifiedValue();
+        }
+    }
+
+    /**
+     * Creates the instances of the {@link Portable} sample.
+     */
+    public static class PortableValueFactory implements PortableFactory {
+
+        @Override
+        public Portable create(int classId) {
+            return new PortableValue();
+        }
+    }
+
+    /**
+     * Creates the instances of the {@link Compact} sample.
+     */
+    public static class CompactValueFactory implements CompactFactory {
+
+        @Override
+        public Compact create(int classId) {
+            return new CompactValue();
+        }
+    }
+
+    /**
+     * The sample value without any serialization code, serialized field by field by a
+     * {@link com.hazelcast.nio.serialization.PojoSerializer}.
+     */
+    public static class PojoValue {
+
+        private int id = ID;
+        private String name = NAME;
+        private long timestamp = TIMESTAMP;
+        private double salary = SALARY;
+    }
+
+    /**
+     * The sample value serialized by Java serialization.
+     */
+    public static class SerializableValue implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private int id = ID;
+        private String name = NAME;
+        private long timestamp = TIMESTAMP;
+        private double salary = SALARY;
+    }
+
+    /**
+     * The sample value serialized by Java externalization.
+     */
+    public static class ExternalizableValue implements Externalizable {
+
+        private int id = ID;
+        private String name = NAME;
+        private long timestamp = TIMESTAMP;
+        private double salary = SALARY;
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeInt(id);
+            out.writeUTF(name);
+            out.writeLong(timestamp);
+            out.writeDouble(salary);
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException {
+            id = in.readInt();
+            name = in.readUTF();
+            timestamp = in.readLong();
+            salary = in.readDouble();
+        }
+    }
+
+    /**
+     * The sample value serialized as {@link DataSerializable}, so its class name is written and it is created
+     * by reflection.
+     */
+    public static class DataSerializableValue implements DataSerializable {
+
+        private int id = ID;
+        private String name = NAME;
+        private long timestamp = TIMESTAMP;
+        private double salary = SALARY;
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeInt(id);
+            out.writeUTF(name);
+            out.writeLong(timestamp);
+            out.writeDouble(salary);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            id = in.readInt();
+            name = in.readUTF();
+            timestamp = in.readLong();
+            salary = in.readDouble();
+        }
+    }
+
+    /**
+     * The sample value serialized as {@link IdentifiedDataSerializable}.
+     */
+    public static class IdentifiedValue extends DataSerializableValue implements IdentifiedDataSerializable {
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getId() {
+            return CLASS_ID;
+        }
+    }
+
+    /**
+     * The sample value serialized as {@link Portable}.
+     */
+    public static class PortableValue implements Portable {
+
+        private int id = ID;
+        private String name = NAME;
+        private long timestamp = TIMESTAMP;
+        private double salary = SALARY;
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeInt("id", id);
+            writer.writeUTF("name", name);
+            writer.writeLong("timestamp", timestamp);
+            writer.writeDouble("salary", salary);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            id = reader.readInt("id");
+            name = reader.readUTF("name");
+            timestamp = reader.readLong("timestamp");
+            salary = reader.readDouble("salary");
+        }
+    }
+
+    /**
+     * The sample value serialized as {@link Compact}.
+     */
+    public static class CompactValue implements Compact {
+
+        private int id = ID;
+        private String name = NAME;
+        private long timestamp = TIMESTAMP;
+        private double salary = SALARY;
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writeCompact(CompactWriter writer) throws IOException {
+            writer.writeInt("id", id);
+            writer.writeUTF("name", name);
+            writer.writeLong("timestamp", timestamp);
+            writer.writeDouble("salary", salary);
+        }
+
+        @Override
+        public void readCompact(CompactReader reader) throws IOException {
+            id = reader.readInt("id");
+            name = reader.readUTF("name");
+            timestamp = reader.readLong("timestamp");
+            salary = reader.readDouble("salary");
+        }
+    }
+}
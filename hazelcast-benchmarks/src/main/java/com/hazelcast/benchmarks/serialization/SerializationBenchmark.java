@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.config.GlobalSerializerConfig;
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.PojoSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serializing and deserializing a small value with each serializer of the {@link InternalSerializationService}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"string", "long", "byteArray", "serializable", "externalizable", "dataSerializable",
+            "identifiedDataSerializable", "portable", "compact", "pojo"})
+    public String serializer;
+
+    private InternalSerializationService serializationService;
+    private Object value;
+    private Data data;
+
+    @Setup
+    public void setup() {
+        PojoSerializer pojoSerializer = new PojoSerializer().register(SampleValues.CLASS_ID, SampleValues.PojoValue.class);
+        SerializationConfig config = new SerializationConfig()
+                .setGlobalSerializerConfig(new GlobalSerializerConfig().setImplementation(pojoSerializer));
+        serializationService = new DefaultSerializationServiceBuilder()
+                .setConfig(config)
+                .addDataSerializableFactory(SampleValues.FACTORY_ID, new SampleValues.IdentifiedValueFactory())
+                .addPortableFactory(SampleValues.FACTORY_ID, new SampleValues.PortableValueFactory())
+                .addCompactFactory(SampleValues.FACTORY_ID, new SampleValues.CompactValueFactory())
+                .build();
+        value = SampleValues.create(serializer);
+        data = serializationService.toData(value);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public Data toData() {
+        return serializationService.toData(value);
+    }
+
+    @Benchmark
+    public Object toObject() {
+        return serializationService.toObject(data);
+    }
+
+    @Benchmark
+    public byte[] toBytes() {
+        return serializationService.toBytes(value);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.client.impl.protocol.util.MessageFlyweight;
+import com.hazelcast.client.impl.protocol.util.ParameterUtil;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.BufferObjectDataOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding and decoding strings with the {@link BufferObjectDataOutput}/{@link BufferObjectDataInput} of the
+ * serialization service and with the {@link MessageFlyweight} of the client protocol, for short keys and long text,
+ * ASCII and not. The deduplication of the read strings can be measured by adding
+ * {@code -Dhazelcast.serialization.string.deduplication.enabled=true} to the JVM arguments of the fork.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StringCodecBenchmark {
+
+    private static final int LONG_TEXT_LENGTH = 2000;
+
+    @Param({"shortKey", "longText", "nonAsciiShortKey", "nonAsciiLongText"})
+    public String text;
+
+    private InternalSerializationService serializationService;
+    private String value;
+    private BufferObjectDataOutput out;
+    private byte[] encoded;
+    private MessageFlyweight flyweight;
+
+    @Setup
+    public void setup() throws IOException {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        value = createText(text);
+        out = serializationService.createObjectDataOutput();
+        out.writeUTF(value);
+        encoded = out.toByteArray();
+
+        flyweight = new MessageFlyweight();
+        flyweight.wrap(new byte[ParameterUtil.calculateDataSize(value)], 0, true);
+        flyweight.set(value);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public int writeUTF() throws IOException {
+        out.clear();
+        out.writeUTF(value);
+        return out.position();
+    }
+
+    @Benchmark
+    public String readUTF() throws IOException {
+        BufferObjectDataInput in = serializationService.createObjectDataInput(encoded);
+        return in.readUTF();
+    }
+
+    @Benchmark
+    public int clientEncode() {
+        flyweight.index(0);
+        flyweight.set(value);
+        return flyweight.index();
+    }
+
+    @Benchmark
+    public String clientDecode() {
+        flyweight.index(0);
+        return flyweight.getStringUtf8();
+    }
+
+    private static String createText(String text) {
+        if ("shortKey".equals(text)) {
+            return "key-123456";
+        } else if ("nonAsciiShortKey".equals(text)) {
+            return "cl\u00e9-123456";
+        }
+        String word = "longText".equals(text) ? "lorem ipsum " : "l\u00f6rem \u00eepsum ";
+        StringBuilder sb = new StringBuilder(LONG_TEXT_LENGTH);
+        while (sb.length() < LONG_TEXT_LENGTH) {
+            sb.append(word);
+        }
+        return sb.toString();
+    }
+}
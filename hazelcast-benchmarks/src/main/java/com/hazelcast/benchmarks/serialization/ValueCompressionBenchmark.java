@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.config.CompressionConfig;
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.CompressionDictionaryTrainer;
+import com.hazelcast.nio.serialization.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.nio.Bits.UTF_8;
+
+/**
+ * Measures compressing JSON like string values with the built-in codecs, with and without a dictionary trained from
+ * similar values, and the cost of their lazy decompression when they are deserialized. The {@code toObject}
+ * benchmark of the uncompressed value is the baseline; the saved memory is the difference of
+ * {@link Data#getHeapCost()} of the uncompressed and compressed values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ValueCompressionBenchmark {
+
+    private static final int DICTIONARY_ID = 1;
+    private static final int DICTIONARY_SIZE = 4096;
+    private static final int SAMPLE_COUNT = 100;
+    private static final int LARGE_DOCUMENT_RECORDS = 50;
+
+    @Param({"lz4", "deflate"})
+    public String codec;
+
+    @Param({"false", "true"})
+    public boolean dictionary;
+
+    @Param({"smallDocument", "largeDocument"})
+    public String document;
+
+    private InternalSerializationService serializationService;
+    private CompressionConfig compressionConfig;
+    private Data data;
+    private Data compressed;
+
+    @Setup
+    public void setup() {
+        SerializationConfig serializationConfig = new SerializationConfig();
+        compressionConfig = new CompressionConfig().setEnabled(true).setCodec(codec).setMinSize(0);
+        if (dictionary) {
+            List<byte[]> samples = new ArrayList<byte[]>(SAMPLE_COUNT);
+            for (int i = 0; i < SAMPLE_COUNT; i++) {
+                samples.add(createDocument(i, 1).getBytes(UTF_8));
+            }
+            serializationConfig.addCompressionDictionary(DICTIONARY_ID,
+                    CompressionDictionaryTrainer.train(samples, DICTIONARY_SIZE));
+            compressionConfig.setDictionaryId(DICTIONARY_ID);
+        }
+        serializationService = new DefaultSerializationServiceBuilder().setConfig(serializationConfig).build();
+
+        int records = "largeDocument".equals(document) ? LARGE_DOCUMENT_RECORDS : 1;
+        data = serializationService.toData(createDocument(SAMPLE_COUNT, records));
+        compressed = serializationService.compress(data, compressionConfig);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public Data compress() {
+        return serializationService.compress(data, compressionConfig);
+    }
+
+    @Benchmark
+    public Data decompress() {
+        return serializationService.decompress(compressed);
+    }
+
+    @Benchmark
+    public Object toObject() {
+        return serializationService.toObject(data);
+    }
+
+    @Benchmark
+    public Object toObjectCompressed() {
+        return serializationService.toObject(compressed);
+    }
+
+    private static String createDocument(int firstId, int records) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = firstId; i < firstId + records; i++) {
+            sb.append("{\"id\":").append(i)
+                    .append(",\"name\":\"customer-").append(i)
+                    .append("\",\"email\":\"customer-").append(i).append("@example.com\"")
+                    .append(",\"address\":{\"street\":\"").append(i).append(" Main Street\",\"city\":\"Springfield\"}")
+                    .append(",\"active\":").append(i % 2 == 0)
+                    .append("},");
+        }
+        return sb.append("{}]").toString();
+    }
+}
@@ -53,6 +53,13 @@ public abstract class AbstractAggregator<I, E, R> extends Aggregator<I, R> {
         this.attributePath = attributePath;
     }
 
+    /**
+     * @return the path of the accumulated attribute or {@code null} if the values of the entries are accumulated
+     */
+    public String getAttributePath() {
+        return attributePath;
+    }
+
     @Override
     public final void accumulate(I entry) {
 
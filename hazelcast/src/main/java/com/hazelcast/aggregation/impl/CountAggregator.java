@@ -39,6 +39,16 @@ public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long
         count++;
     }
 
+    /**
+     * Counts the given number of entries at once. Has the same effect as accumulating each of the entries
+     * if the aggregator has no attribute path.
+     *
+     * @param entryCount the number of counted entries
+     */
+    public void accumulateEntries(long entryCount) {
+        count += entryCount;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         CountAggregator countAggregator = (CountAggregator) aggregator;
@@ -24,7 +24,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 
 public final class DoubleAverageAggregator<I> extends AbstractAggregator<I, Double, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, DoubleValueAccumulator {
 
     private double sum;
 
@@ -40,6 +40,11 @@ public final class DoubleAverageAggregator<I> extends AbstractAggregator<I, Doub
 
     @Override
     public void accumulateExtracted(Double value) {
+        accumulateDouble(value);
+    }
+
+    @Override
+    public void accumulateDouble(double value) {
         count++;
         sum += value;
     }
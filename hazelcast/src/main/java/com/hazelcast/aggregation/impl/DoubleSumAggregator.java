@@ -24,7 +24,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 
 public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Double, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, DoubleValueAccumulator {
 
     private double sum;
 
@@ -38,6 +38,11 @@ public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Double,
 
     @Override
     public void accumulateExtracted(Double value) {
+        accumulateDouble(value);
+    }
+
+    @Override
+    public void accumulateDouble(double value) {
         sum += value;
     }
 
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation.impl;
+
+/**
+ * Implemented by aggregators of {@code double} values which are able to accumulate a value
+ * without it being boxed first.
+ * <p>
+ * Accumulating a value by {@link #accumulateDouble(double)} has the same effect as accumulating the
+ * equal {@link Double} extracted from an entry.
+ */
+public interface DoubleValueAccumulator {
+
+    /**
+     * Accumulates a single extracted value.
+     *
+     * @param value the value
+     */
+    void accumulateDouble(double value);
+}
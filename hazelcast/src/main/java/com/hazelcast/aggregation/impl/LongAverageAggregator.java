@@ -23,7 +23,8 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 
 import java.io.IOException;
 
-public final class LongAverageAggregator<I> extends AbstractAggregator<I, Long, Double> implements IdentifiedDataSerializable {
+public final class LongAverageAggregator<I> extends AbstractAggregator<I, Long, Double>
+        implements IdentifiedDataSerializable, LongValueAccumulator {
 
     private long sum;
 
@@ -39,6 +40,11 @@ public final class LongAverageAggregator<I> extends AbstractAggregator<I, Long,
 
     @Override
     public void accumulateExtracted(Long value) {
+        accumulateLong(value);
+    }
+
+    @Override
+    public void accumulateLong(long value) {
         count++;
         sum += value;
     }
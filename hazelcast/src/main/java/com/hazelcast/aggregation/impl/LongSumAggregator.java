@@ -23,7 +23,8 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 
 import java.io.IOException;
 
-public final class LongSumAggregator<I> extends AbstractAggregator<I, Long, Long> implements IdentifiedDataSerializable {
+public final class LongSumAggregator<I> extends AbstractAggregator<I, Long, Long>
+        implements IdentifiedDataSerializable, LongValueAccumulator {
 
     private long sum;
 
@@ -37,6 +38,11 @@ public final class LongSumAggregator<I> extends AbstractAggregator<I, Long, Long
 
     @Override
     public void accumulateExtracted(Long value) {
+        accumulateLong(value);
+    }
+
+    @Override
+    public void accumulateLong(long value) {
         sum += value;
     }
 
@@ -23,8 +23,11 @@ import com.hazelcast.cache.impl.merge.entry.LazyCacheEntryView;
 import com.hazelcast.cache.impl.record.CacheRecord;
 import com.hazelcast.cache.impl.record.CacheRecordFactory;
 import com.hazelcast.cache.impl.record.CacheRecordHashMap;
+import com.hazelcast.config.CompressionConfig;
 import com.hazelcast.config.EvictionConfig.MaxSizePolicy;
+import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.serialization.SerializationService;
@@ -64,11 +67,24 @@ public class CacheRecordStore
     protected SerializationService serializationService;
     protected CacheRecordFactory cacheRecordFactory;
 
+    /**
+     * The value compression config, {@code null} if the values are not compressed.
+     */
+    private final CompressionConfig compressionConfig;
+
     public CacheRecordStore(String name, int partitionId, NodeEngine nodeEngine,
                             AbstractCacheService cacheService) {
         super(name, partitionId, nodeEngine, cacheService);
         this.serializationService = nodeEngine.getSerializationService();
         this.cacheRecordFactory = createCacheRecordFactory();
+        this.compressionConfig = compressionConfigOf(cacheConfig.getCompressionConfig());
+    }
+
+    private CompressionConfig compressionConfigOf(CompressionConfig config) {
+        boolean compressed = config != null && config.isEnabled()
+                && cacheConfig.getInMemoryFormat() == InMemoryFormat.BINARY
+                && serializationService instanceof InternalSerializationService;
+        return compressed ? new CompressionConfig(config) : null;
     }
 
     /**
@@ -118,7 +134,31 @@ public class CacheRecordStore
     protected CacheRecord createRecord(Object value, long creationTime, long expiryTime) {
         evictIfRequired();
 
-        return cacheRecordFactory.newRecordWithExpiry(value, creationTime, expiryTime);
+        return cacheRecordFactory.newRecordWithExpiry(compress(value), creationTime, expiryTime);
+    }
+
+    @Override
+    protected void updateRecordValue(CacheRecord record, Object recordValue) {
+        super.updateRecordValue(record, compress(recordValue));
+    }
+
+    @Override
+    protected boolean compare(Object v1, Object v2) {
+        return super.compare(decompress(v1), decompress(v2));
+    }
+
+    private Object compress(Object value) {
+        if (compressionConfig == null || value == null) {
+            return value;
+        }
+        return ((InternalSerializationService) serializationService).compress(valueToData(value), compressionConfig);
+    }
+
+    private Object decompress(Object value) {
+        if (compressionConfig == null || !(value instanceof Data)) {
+            return value;
+        }
+        return ((InternalSerializationService) serializationService).decompress((Data) value);
     }
 
     @Override
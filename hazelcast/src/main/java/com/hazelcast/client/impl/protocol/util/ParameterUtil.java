@@ -25,11 +25,25 @@ public final class ParameterUtil {
 
     static final int UTF8_MAX_BYTES_PER_CHAR = 3;
 
+    private static final int ASCII_LIMIT = 0x80;
+
     private ParameterUtil() {
     }
 
+    /**
+     * Returns an upper bound of the encoded size of the string: one byte per ASCII char and
+     * {@value #UTF8_MAX_BYTES_PER_CHAR} bytes per other char, so mostly ASCII strings do not
+     * reserve three times their length in the message.
+     */
     public static int calculateDataSize(String string) {
-        return Bits.INT_SIZE_IN_BYTES + string.length() * UTF8_MAX_BYTES_PER_CHAR;
+        int length = string.length();
+        int size = Bits.INT_SIZE_IN_BYTES + length;
+        for (int i = 0; i < length; i++) {
+            if (string.charAt(i) >= ASCII_LIMIT) {
+                size += UTF8_MAX_BYTES_PER_CHAR - 1;
+            }
+        }
+        return size;
     }
 
     public static int calculateDataSize(Data data) {
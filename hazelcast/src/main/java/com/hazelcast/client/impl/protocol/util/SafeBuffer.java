@@ -87,6 +87,13 @@ public class SafeBuffer implements ClientProtocolBuffer {
 
     @Override
     public int putStringUtf8(int index, String value, int maxEncodedSize) {
+        int length = value.length();
+        if (index >= 0 && length <= maxEncodedSize && index + Bits.INT_SIZE_IN_BYTES + length <= capacity()
+                && Bits.writeAsciiPrefix(byteArray(), index + Bits.INT_SIZE_IN_BYTES, value) == length) {
+            putInt(index, length);
+            return Bits.INT_SIZE_IN_BYTES + length;
+        }
+
         final byte[] bytes = value.getBytes(Bits.UTF_8);
         if (bytes.length > maxEncodedSize) {
             throw new IllegalArgumentException("Encoded string larger than maximum size: " + maxEncodedSize);
@@ -147,8 +154,14 @@ public class SafeBuffer implements ClientProtocolBuffer {
 
     @Override
     public String getStringUtf8(int offset, int length) {
+        int start = offset + Bits.INT_SIZE_IN_BYTES;
+        if (offset >= 0 && length >= 0 && start + length <= capacity()
+                && Bits.asciiPrefixLength(byteArray(), start, length) == length) {
+            return Bits.newAsciiString(byteArray(), start, length);
+        }
+
         final byte[] stringInBytes = new byte[length];
-        getBytes(offset + Bits.INT_SIZE_IN_BYTES, stringInBytes);
+        getBytes(start, stringInBytes);
 
         return new String(stringInBytes, Bits.UTF_8);
     }
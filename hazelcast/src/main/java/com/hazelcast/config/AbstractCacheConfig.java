@@ -97,6 +97,8 @@ abstract class AbstractCacheConfig<K, V> implements CacheConfiguration<K, V>, Da
 
     protected HotRestartConfig hotRestartConfig = new HotRestartConfig();
 
+    protected CompressionConfig compressionConfig = new CompressionConfig();
+
     public AbstractCacheConfig() {
         this.keyType = (Class<K>) Object.class;
         this.valueType = (Class<V>) Object.class;
@@ -251,6 +253,28 @@ abstract class AbstractCacheConfig<K, V> implements CacheConfiguration<K, V>, Da
         return this;
     }
 
+    /**
+     * Gets the {@code CompressionConfig} for this {@code CacheConfiguration}
+     *
+     * @return value compression config
+     */
+    public CompressionConfig getCompressionConfig() {
+        return compressionConfig;
+    }
+
+    /**
+     * Sets the {@code CompressionConfig} for this {@code CacheConfiguration}.
+     * <p>
+     * Values are only compressed with {@link InMemoryFormat#BINARY} in-memory format.
+     *
+     * @param compressionConfig value compression config
+     * @return this {@code CacheConfiguration} instance
+     */
+    public CacheConfiguration<K, V> setCompressionConfig(CompressionConfig compressionConfig) {
+        this.compressionConfig = compressionConfig;
+        return this;
+    }
+
     @Override
     public Factory<CacheLoader<K, V>> getCacheLoaderFactory() {
         return cacheLoaderFactory;
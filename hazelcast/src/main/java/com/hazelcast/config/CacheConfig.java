@@ -98,6 +98,7 @@ public class CacheConfig<K, V> extends AbstractCacheConfig<K, V> {
             this.backupCount = config.backupCount;
             this.inMemoryFormat = config.inMemoryFormat;
             this.hotRestartConfig = new HotRestartConfig(config.hotRestartConfig);
+            this.compressionConfig = new CompressionConfig(config.compressionConfig);
             // eviction config is not allowed to be null
             if (config.evictionConfig != null) {
                 this.evictionConfig = new CacheEvictionConfig(config.evictionConfig);
@@ -173,6 +174,7 @@ public class CacheConfig<K, V> extends AbstractCacheConfig<K, V> {
         this.quorumName = simpleConfig.getQuorumName();
         this.mergePolicy = simpleConfig.getMergePolicy();
         this.hotRestartConfig = new HotRestartConfig(simpleConfig.getHotRestartConfig());
+        this.compressionConfig = new CompressionConfig(simpleConfig.getCompressionConfig());
         this.disablePerEntryInvalidationEvents = simpleConfig.isDisablePerEntryInvalidationEvents();
     }
 
@@ -553,6 +555,7 @@ public class CacheConfig<K, V> extends AbstractCacheConfig<K, V> {
 
         out.writeUTF(mergePolicy);
         out.writeBoolean(disablePerEntryInvalidationEvents);
+        out.writeObject(compressionConfig);
     }
 
     @Override
@@ -597,6 +600,7 @@ public class CacheConfig<K, V> extends AbstractCacheConfig<K, V> {
 
         mergePolicy = in.readUTF();
         disablePerEntryInvalidationEvents = in.readBoolean();
+        compressionConfig = in.readObject();
     }
 
     @Override
@@ -639,6 +643,7 @@ public class CacheConfig<K, V> extends AbstractCacheConfig<K, V> {
                 + ", inMemoryFormat=" + inMemoryFormat
                 + ", backupCount=" + backupCount
                 + ", hotRestart=" + hotRestartConfig
+                + ", compression=" + compressionConfig
                 + '}';
     }
 }
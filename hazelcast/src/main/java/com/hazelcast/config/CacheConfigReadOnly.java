@@ -154,6 +154,11 @@ public class CacheConfigReadOnly<K, V> extends CacheConfig<K, V> {
         throw new UnsupportedOperationException("This config is read-only cache: " + getName());
     }
 
+    @Override
+    public CacheConfiguration<K, V> setCompressionConfig(CompressionConfig compressionConfig) {
+        throw new UnsupportedOperationException("This config is read-only cache: " + getName());
+    }
+
     @Override
     public CacheConfig<K, V> setPartitionLostListenerConfigs(
             List<CachePartitionLostListenerConfig> partitionLostListenerConfigs) {
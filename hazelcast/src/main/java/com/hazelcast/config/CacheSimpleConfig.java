@@ -110,6 +110,8 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable {
 
     private HotRestartConfig hotRestartConfig = new HotRestartConfig();
 
+    private CompressionConfig compressionConfig = new CompressionConfig();
+
     /**
      * Disables invalidation events for per entry but full-flush invalidation events are still enabled.
      * Full-flush invalidation means the invalidation of events for all entries when clear is called.
@@ -142,6 +144,7 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable {
         this.quorumName = cacheSimpleConfig.quorumName;
         this.mergePolicy = cacheSimpleConfig.mergePolicy;
         this.hotRestartConfig = new HotRestartConfig(cacheSimpleConfig.hotRestartConfig);
+        this.compressionConfig = new CompressionConfig(cacheSimpleConfig.compressionConfig);
         this.disablePerEntryInvalidationEvents = cacheSimpleConfig.disablePerEntryInvalidationEvents;
     }
 
@@ -664,6 +667,28 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable {
         return this;
     }
 
+    /**
+     * Gets the {@code CompressionConfig} for this {@code CacheSimpleConfig}
+     *
+     * @return value compression config
+     */
+    public CompressionConfig getCompressionConfig() {
+        return compressionConfig;
+    }
+
+    /**
+     * Sets the {@code CompressionConfig} for this {@code CacheSimpleConfig}.
+     * <p>
+     * Values are only compressed with {@link InMemoryFormat#BINARY} in-memory format.
+     *
+     * @param compressionConfig value compression config
+     * @return this {@code CacheSimpleConfig} instance
+     */
+    public CacheSimpleConfig setCompressionConfig(CompressionConfig compressionConfig) {
+        this.compressionConfig = compressionConfig;
+        return this;
+    }
+
     /**
      * Returns invalidation events disabled status for per entry.
      *
@@ -718,6 +743,7 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable {
         writeNullableList(partitionLostListenerConfigs, out);
         out.writeUTF(mergePolicy);
         out.writeObject(hotRestartConfig);
+        out.writeObject(compressionConfig);
     }
 
     @Override
@@ -745,6 +771,7 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable {
         partitionLostListenerConfigs = readNullableList(in);
         mergePolicy = in.readUTF();
         hotRestartConfig = in.readObject();
+        compressionConfig = in.readObject();
     }
 
     @Override
@@ -833,6 +860,9 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable {
         if (mergePolicy != null ? !mergePolicy.equals(that.mergePolicy) : that.mergePolicy != null) {
             return false;
         }
+        if (compressionConfig != null ? !compressionConfig.equals(that.compressionConfig) : that.compressionConfig != null) {
+            return false;
+        }
         return hotRestartConfig != null ? hotRestartConfig.equals(that.hotRestartConfig) : that.hotRestartConfig == null;
     }
 
@@ -861,6 +891,7 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable {
         result = 31 * result + (partitionLostListenerConfigs != null ? partitionLostListenerConfigs.hashCode() : 0);
         result = 31 * result + (mergePolicy != null ? mergePolicy.hashCode() : 0);
         result = 31 * result + (hotRestartConfig != null ? hotRestartConfig.hashCode() : 0);
+        result = 31 * result + (compressionConfig != null ? compressionConfig.hashCode() : 0);
         result = 31 * result + (disablePerEntryInvalidationEvents ? 1 : 0);
         return result;
     }
@@ -890,6 +921,7 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable {
                 + ", partitionLostListenerConfigs=" + partitionLostListenerConfigs
                 + ", mergePolicy=" + mergePolicy
                 + ", hotRestartConfig=" + hotRestartConfig
+                + ", compressionConfig=" + compressionConfig
                 + '}';
     }
 
@@ -171,4 +171,9 @@ public class CacheSimpleConfigReadOnly extends CacheSimpleConfig {
     public CacheSimpleConfig setHotRestartConfig(HotRestartConfig hotRestartConfig) {
         throw new UnsupportedOperationException("This config is read-only cache: " + getName());
     }
+
+    @Override
+    public CacheSimpleConfig setCompressionConfig(CompressionConfig compressionConfig) {
+        throw new UnsupportedOperationException("This config is read-only cache: " + getName());
+    }
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.config;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.CompressionCodec;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+
+import static com.hazelcast.util.Preconditions.checkHasText;
+import static com.hazelcast.util.Preconditions.checkNotNegative;
+
+/**
+ * Configures the compression of the values of a map or cache with {@link InMemoryFormat#BINARY} in-memory format.
+ * <p>
+ * When enabled, the serialized values at least {@link #getMinSize()} bytes long are stored compressed with the
+ * configured {@link CompressionCodec}, as long as the compressed form is smaller. Values are decompressed lazily,
+ * only when they are deserialized, so they also stay compressed in backups, migrations and the responses sent to
+ * members and clients. A shared dictionary registered with
+ * {@link SerializationConfig#addCompressionDictionary(int, byte[])} can be used to compress small values which
+ * share content with each other, like JSON documents with the same field names.
+ */
+public class CompressionConfig implements IdentifiedDataSerializable {
+
+    /**
+     * Default minimum size of the compressed values in bytes.
+     */
+    public static final int DEFAULT_MIN_SIZE = 512;
+
+    /**
+     * Dictionary id meaning that no dictionary is used.
+     */
+    public static final int NO_DICTIONARY = 0;
+
+    private boolean enabled;
+    private String codec = CompressionCodec.LZ4;
+    private int minSize = DEFAULT_MIN_SIZE;
+    private int dictionaryId = NO_DICTIONARY;
+
+    public CompressionConfig() {
+    }
+
+    public CompressionConfig(CompressionConfig compressionConfig) {
+        enabled = compressionConfig.enabled;
+        codec = compressionConfig.codec;
+        minSize = compressionConfig.minSize;
+        dictionaryId = compressionConfig.dictionaryId;
+    }
+
+    /**
+     * Returns whether the values of the related data structure are compressed.
+     *
+     * @return true if compression is enabled, false otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the values of the related data structure are compressed.
+     *
+     * @param enabled true to enable compression
+     * @return this CompressionConfig
+     */
+    public CompressionConfig setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    /**
+     * Returns the name of the {@link CompressionCodec} used to compress the values.
+     *
+     * @return the codec name, {@value CompressionCodec#LZ4} by default
+     */
+    public String getCodec() {
+        return codec;
+    }
+
+    /**
+     * Sets the name of the {@link CompressionCodec} used to compress the values: one of the built-in
+     * {@value CompressionCodec#LZ4} and {@value CompressionCodec#DEFLATE} codecs or a codec registered with
+     * {@link SerializationConfig#addCompressionCodec(CompressionCodec)}.
+     *
+     * @param codec the codec name
+     * @return this CompressionConfig
+     */
+    public CompressionConfig setCodec(String codec) {
+        this.codec = checkHasText(codec, "codec must contain text");
+        return this;
+    }
+
+    /**
+     * Returns the minimum serialized size of the values which are compressed.
+     *
+     * @return the minimum size in bytes
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Sets the minimum serialized size of the values which are compressed, smaller values are stored as they are.
+     *
+     * @param minSize the minimum size in bytes
+     * @return this CompressionConfig
+     */
+    public CompressionConfig setMinSize(int minSize) {
+        this.minSize = checkNotNegative(minSize, "minSize can't be negative");
+        return this;
+    }
+
+    /**
+     * Returns the id of the dictionary the values are compressed with.
+     *
+     * @return the dictionary id, {@value #NO_DICTIONARY} if no dictionary is used
+     */
+    public int getDictionaryId() {
+        return dictionaryId;
+    }
+
+    /**
+     * Sets the id of the dictionary the values are compressed with. The dictionary must be registered with
+     * {@link SerializationConfig#addCompressionDictionary(int, byte[])} on every member and client.
+     *
+     * @param dictionaryId the dictionary id, {@value #NO_DICTIONARY} to use no dictionary
+     * @return this CompressionConfig
+     */
+    public CompressionConfig setDictionaryId(int dictionaryId) {
+        this.dictionaryId = checkNotNegative(dictionaryId, "dictionaryId can't be negative");
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionConfig{"
+                + "enabled=" + enabled
+                + ", codec='" + codec + '\''
+                + ", minSize=" + minSize
+                + ", dictionaryId=" + dictionaryId
+                + '}';
+    }
+
+    @Override
+    public int getFactoryId() {
+        return ConfigDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getId() {
+        return ConfigDataSerializerHook.COMPRESSION_CONFIG;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeBoolean(enabled);
+        out.writeUTF(codec);
+        out.writeInt(minSize);
+        out.writeInt(dictionaryId);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        enabled = in.readBoolean();
+        codec = in.readUTF();
+        minSize = in.readInt();
+        dictionaryId = in.readInt();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        CompressionConfig that = (CompressionConfig) o;
+        if (enabled != that.enabled) {
+            return false;
+        }
+        if (minSize != that.minSize) {
+            return false;
+        }
+        if (dictionaryId != that.dictionaryId) {
+            return false;
+        }
+        return codec.equals(that.codec);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (enabled ? 1 : 0);
+        result = 31 * result + codec.hashCode();
+        result = 31 * result + minSize;
+        result = 31 * result + dictionaryId;
+        return result;
+    }
+}
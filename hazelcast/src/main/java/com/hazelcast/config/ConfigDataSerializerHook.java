@@ -87,8 +87,9 @@ public final class ConfigDataSerializerHook implements DataSerializerHook {
     public static final int QUORUM_LISTENER_CONFIG = 45;
     public static final int CACHE_PARTITION_LOST_LISTENER_CONFIG = 46;
     public static final int SIMPLE_CACHE_ENTRY_LISTENER_CONFIG = 47;
+    public static final int COMPRESSION_CONFIG = 48;
 
-    private static final int LEN = SIMPLE_CACHE_ENTRY_LISTENER_CONFIG + 1;
+    private static final int LEN = COMPRESSION_CONFIG + 1;
 
     @Override
     public int getFactoryId() {
@@ -391,6 +392,12 @@ public final class ConfigDataSerializerHook implements DataSerializerHook {
                         return new CacheSimpleEntryListenerConfig();
                     }
                 };
+        constructors[COMPRESSION_CONFIG] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            @Override
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new CompressionConfig();
+            }
+        };
 
 
         return new ArrayDataSerializableFactory(constructors);
@@ -553,9 +553,11 @@ public class ConfigXmlGenerator {
                     .node("eviction-percentage", m.getEvictionPercentage())
                     .node("min-eviction-check-millis", m.getMinEvictionCheckMillis())
                     .node("merge-policy", m.getMergePolicy())
-                    .node("read-backup-data", m.isReadBackupData());
+                    .node("read-backup-data", m.isReadBackupData())
+                    .node("compact-records-enabled", m.isCompactRecordsEnabled());
 
             appendHotRestartConfig(gen, m.getHotRestartConfig());
+            appendCompressionConfig(gen, m.getCompressionConfig());
             mapStoreConfigXmlGenerator(gen, m);
             mapNearCacheConfigXmlGenerator(gen, m.getNearCacheConfig());
             wanReplicationConfigXmlGenerator(gen, m.getWanReplicationRef());
@@ -574,6 +576,17 @@ public class ConfigXmlGenerator {
                 .close();
     }
 
+    private static void appendCompressionConfig(XmlGenerator gen, CompressionConfig c) {
+        if (c == null) {
+            return;
+        }
+        gen.open("compression", "enabled", c.isEnabled())
+                .node("codec", c.getCodec())
+                .node("min-size", c.getMinSize())
+                .node("dictionary-id", c.getDictionaryId())
+                .close();
+    }
+
     private static void cacheConfigXmlGenerator(XmlGenerator gen, Config config) {
         for (CacheSimpleConfig c : config.getCacheConfigs().values()) {
             gen.open("cache", "name", c.getName());
@@ -617,6 +630,7 @@ public class ConfigXmlGenerator {
 
             gen.node("merge-policy", c.getMergePolicy());
             appendHotRestartConfig(gen, c.getHotRestartConfig());
+            appendCompressionConfig(gen, c.getCompressionConfig());
 
             gen.node("disable-per-entry-invalidation-events", c.isDisablePerEntryInvalidationEvents())
                     .close();
@@ -720,7 +734,7 @@ public class ConfigXmlGenerator {
         if (!m.getMapIndexConfigs().isEmpty()) {
             gen.open("indexes");
             for (MapIndexConfig indexCfg : m.getMapIndexConfigs()) {
-                gen.node("index", indexCfg.getAttribute(), "ordered", indexCfg.isOrdered());
+                gen.node("index", indexCfg.getAttribute(), "ordered", indexCfg.isOrdered(), "bitmap", indexCfg.isBitmap());
             }
             gen.close();
         }
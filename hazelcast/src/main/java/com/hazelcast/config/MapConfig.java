@@ -150,12 +150,16 @@ public class MapConfig implements IdentifiedDataSerializable {
 
     private boolean statisticsEnabled = true;
 
+    private boolean compactRecordsEnabled;
+
     private PartitioningStrategyConfig partitioningStrategyConfig;
 
     private String quorumName;
 
     private HotRestartConfig hotRestartConfig = new HotRestartConfig();
 
+    private CompressionConfig compressionConfig = new CompressionConfig();
+
     private transient MapConfigReadOnly readOnly;
 
     // we use these 2 flags to detect a conflict between (deprecated) #setOptimizeQueries()
@@ -188,6 +192,7 @@ public class MapConfig implements IdentifiedDataSerializable {
         this.readBackupData = config.readBackupData;
         this.cacheDeserializedValues = config.cacheDeserializedValues;
         this.statisticsEnabled = config.statisticsEnabled;
+        this.compactRecordsEnabled = config.compactRecordsEnabled;
         this.mergePolicy = config.mergePolicy;
         this.wanReplicationRef = config.wanReplicationRef != null ? new WanReplicationRef(config.wanReplicationRef) : null;
         this.entryListenerConfigs = new ArrayList<EntryListenerConfig>(config.getEntryListenerConfigs());
@@ -200,6 +205,7 @@ public class MapConfig implements IdentifiedDataSerializable {
                 ? new PartitioningStrategyConfig(config.getPartitioningStrategyConfig()) : null;
         this.quorumName = config.quorumName;
         this.hotRestartConfig = new HotRestartConfig(config.hotRestartConfig);
+        this.compressionConfig = new CompressionConfig(config.compressionConfig);
     }
 
     /**
@@ -580,6 +586,32 @@ public class MapConfig implements IdentifiedDataSerializable {
         return this;
     }
 
+    /**
+     * Checks if compact records are enabled for this map.
+     *
+     * @return {@code true} if compact records are enabled, {@code false} otherwise
+     * @see #setCompactRecordsEnabled(boolean)
+     */
+    public boolean isCompactRecordsEnabled() {
+        return compactRecordsEnabled;
+    }
+
+    /**
+     * Enables or disables compact records for this map.
+     * <p>
+     * Compact records reduce the per-entry heap overhead of maps with {@link InMemoryFormat#BINARY}
+     * in-memory format: timestamps are stored with second granularity, the last stored time and
+     * expiration time statistics are not tracked and deserialized values are never cached.
+     * The setting is ignored for other in-memory formats.
+     *
+     * @param compactRecordsEnabled {@code true} to enable compact records, {@code false} to disable
+     * @return the current map config instance
+     */
+    public MapConfig setCompactRecordsEnabled(boolean compactRecordsEnabled) {
+        this.compactRecordsEnabled = compactRecordsEnabled;
+        return this;
+    }
+
     /**
      * Checks if read-backup-data (reading local backup entries) is enabled for this map.
      *
@@ -845,6 +877,28 @@ public class MapConfig implements IdentifiedDataSerializable {
         return this;
     }
 
+    /**
+     * Gets the {@code CompressionConfig} for this {@code MapConfig}
+     *
+     * @return value compression config
+     */
+    public CompressionConfig getCompressionConfig() {
+        return compressionConfig;
+    }
+
+    /**
+     * Sets the {@code CompressionConfig} for this {@code MapConfig}.
+     * <p>
+     * Values are only compressed with {@link InMemoryFormat#BINARY} in-memory format.
+     *
+     * @param compressionConfig value compression config
+     * @return this {@code MapConfig} instance
+     */
+    public MapConfig setCompressionConfig(CompressionConfig compressionConfig) {
+        this.compressionConfig = compressionConfig;
+        return this;
+    }
+
     /**
      * Get current value cache settings
      *
@@ -894,6 +948,9 @@ public class MapConfig implements IdentifiedDataSerializable {
         if (statisticsEnabled != mapConfig.statisticsEnabled) {
             return false;
         }
+        if (compactRecordsEnabled != mapConfig.compactRecordsEnabled) {
+            return false;
+        }
         if (!name.equals(mapConfig.name)) {
             return false;
         }
@@ -951,6 +1008,10 @@ public class MapConfig implements IdentifiedDataSerializable {
         if (quorumName != null ? !quorumName.equals(mapConfig.quorumName) : mapConfig.quorumName != null) {
             return false;
         }
+        if (compressionConfig != null ? !compressionConfig.equals(mapConfig.compressionConfig)
+                : mapConfig.compressionConfig != null) {
+            return false;
+        }
         return hotRestartConfig != null ? hotRestartConfig.equals(mapConfig.hotRestartConfig)
                 : mapConfig.hotRestartConfig == null;
     }
@@ -978,9 +1039,11 @@ public class MapConfig implements IdentifiedDataSerializable {
         result = 31 * result + getMapAttributeConfigs().hashCode();
         result = 31 * result + getQueryCacheConfigs().hashCode();
         result = 31 * result + (statisticsEnabled ? 1 : 0);
+        result = 31 * result + (compactRecordsEnabled ? 1 : 0);
         result = 31 * result + (partitioningStrategyConfig != null ? partitioningStrategyConfig.hashCode() : 0);
         result = 31 * result + (quorumName != null ? quorumName.hashCode() : 0);
         result = 31 * result + (hotRestartConfig != null ? hotRestartConfig.hashCode() : 0);
+        result = 31 * result + (compressionConfig != null ? compressionConfig.hashCode() : 0);
         return result;
     }
 
@@ -1000,6 +1063,7 @@ public class MapConfig implements IdentifiedDataSerializable {
                 + ", maxSizeConfig=" + maxSizeConfig
                 + ", readBackupData=" + readBackupData
                 + ", hotRestart=" + hotRestartConfig
+                + ", compression=" + compressionConfig
                 + ", nearCacheConfig=" + nearCacheConfig
                 + ", mapStoreConfig=" + mapStoreConfig
                 + ", mergePolicyConfig='" + mergePolicy + '\''
@@ -1010,6 +1074,7 @@ public class MapConfig implements IdentifiedDataSerializable {
                 + ", quorumName=" + quorumName
                 + ", queryCacheConfigs=" + queryCacheConfigs
                 + ", cacheDeserializedValues=" + cacheDeserializedValues
+                + ", compactRecordsEnabled=" + compactRecordsEnabled
                 + '}';
     }
 
@@ -1049,6 +1114,8 @@ public class MapConfig implements IdentifiedDataSerializable {
         out.writeObject(partitioningStrategyConfig);
         out.writeUTF(quorumName);
         out.writeObject(hotRestartConfig);
+        out.writeBoolean(compactRecordsEnabled);
+        out.writeObject(compressionConfig);
     }
 
     @Override
@@ -1077,5 +1144,7 @@ public class MapConfig implements IdentifiedDataSerializable {
         partitioningStrategyConfig = in.readObject();
         quorumName = in.readUTF();
         hotRestartConfig = in.readObject();
+        compactRecordsEnabled = in.readBoolean();
+        compressionConfig = in.readObject();
     }
 }
@@ -124,6 +124,11 @@ public class MapConfigReadOnly extends MapConfig {
         throw new UnsupportedOperationException("This config is read-only map: " + getName());
     }
 
+    @Override
+    public MapConfig setCompressionConfig(CompressionConfig compressionConfig) {
+        throw new UnsupportedOperationException("This config is read-only map: " + getName());
+    }
+
     @Override
     public MapConfig setName(String name) {
         throw new UnsupportedOperationException("This config is read-only map: " + getName());
@@ -199,6 +204,11 @@ public class MapConfigReadOnly extends MapConfig {
         throw new UnsupportedOperationException("This config is read-only map: " + getName());
     }
 
+    @Override
+    public MapConfig setCompactRecordsEnabled(boolean compactRecordsEnabled) {
+        throw new UnsupportedOperationException("This config is read-only map: " + getName());
+    }
+
     @Override
     public MapConfig setReadBackupData(boolean readBackupData) {
         throw new UnsupportedOperationException("This config is read-only map: " + getName());
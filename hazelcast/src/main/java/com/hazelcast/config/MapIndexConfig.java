@@ -38,6 +38,7 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
 
     private String attribute;
     private boolean ordered;
+    private boolean bitmap;
     private transient MapIndexConfigReadOnly readOnly;
 
     /**
@@ -62,6 +63,7 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
     public MapIndexConfig(MapIndexConfig config) {
         attribute = config.getAttribute();
         ordered = config.isOrdered();
+        bitmap = config.isBitmap();
     }
 
     /**
@@ -89,6 +91,10 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
 
     /**
      * Sets the attribute that is going to be indexed.
+     * <p>
+     * A comma separated list of attributes, e.g. {@code "country, age"}, creates a composite index over
+     * all of them. A composite index is used for queries combining equality predicates on a prefix of
+     * the listed attributes with AND and, for an ordered index, a range predicate on the following one.
      *
      * @param attribute the attribute that is going to be indexed
      * @return the updated MapIndexConfig
@@ -122,9 +128,35 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
         return this;
     }
 
+    /**
+     * Checks if the index is a bitmap index.
+     *
+     * @return {@code true} if bitmap, {@code false} otherwise
+     * @see #setBitmap(boolean)
+     */
+    public boolean isBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * Configures the index to be a bitmap index. A bitmap index keeps a compressed bitmap of the matching
+     * entries per distinct attribute value, so it is meant for attributes with few distinct values, such as
+     * a status or a country. Equality, IN and NOT predicates on bitmap indexed attributes, also when combined
+     * with AND and OR, are evaluated by combining their bitmaps.
+     * <p>
+     * Bitmap indexes are supported for the on-heap in-memory formats only and are ignored for composite indexes.
+     *
+     * @param bitmap if the index should be a bitmap index
+     * @return the updated MapIndexConfig
+     */
+    public MapIndexConfig setBitmap(boolean bitmap) {
+        this.bitmap = bitmap;
+        return this;
+    }
+
     @Override
     public String toString() {
-        return "MapIndexConfig{attribute='" + attribute + "', ordered=" + ordered + '}';
+        return "MapIndexConfig{attribute='" + attribute + "', ordered=" + ordered + ", bitmap=" + bitmap + '}';
     }
 
     /**
@@ -135,6 +167,12 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
      */
     public static String validateIndexAttribute(String attribute) {
         checkHasText(attribute, "Map index attribute must contain text");
+        if (attribute.contains(",")) {
+            for (String component : attribute.split(",")) {
+                validateIndexAttribute(component.trim());
+            }
+            return attribute;
+        }
         String keyPrefix = KEY_ATTRIBUTE_NAME.value();
         if (attribute.startsWith(keyPrefix) && attribute.length() > keyPrefix.length()) {
             if (attribute.charAt(keyPrefix.length()) != '#') {
@@ -159,12 +197,14 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
     public void writeData(ObjectDataOutput out) throws IOException {
         out.writeUTF(attribute);
         out.writeBoolean(ordered);
+        out.writeBoolean(bitmap);
     }
 
     @Override
     public void readData(ObjectDataInput in) throws IOException {
         attribute = in.readUTF();
         ordered = in.readBoolean();
+        bitmap = in.readBoolean();
     }
 
     @Override
@@ -180,6 +220,9 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
         if (ordered != that.ordered) {
             return false;
         }
+        if (bitmap != that.bitmap) {
+            return false;
+        }
         return attribute != null ? attribute.equals(that.attribute) : that.attribute == null;
     }
 
@@ -187,6 +230,7 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
     public int hashCode() {
         int result = attribute != null ? attribute.hashCode() : 0;
         result = 31 * result + (ordered ? 1 : 0);
+        result = 31 * result + (bitmap ? 1 : 0);
         return result;
     }
 }
@@ -17,6 +17,8 @@
 package com.hazelcast.config;
 
 import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.CompactFactory;
+import com.hazelcast.nio.serialization.CompressionCodec;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.PortableFactory;
 
@@ -45,6 +47,12 @@ public class SerializationConfig {
 
     private Map<Integer, PortableFactory> portableFactories;
 
+    private Map<Integer, CompactFactory> compactFactories;
+
+    private Collection<CompressionCodec> compressionCodecs;
+
+    private Map<Integer, byte[]> compressionDictionaries;
+
     private GlobalSerializerConfig globalSerializerConfig;
 
     private Collection<SerializerConfig> serializerConfigs;
@@ -285,6 +293,110 @@ public class SerializationConfig {
         return this;
     }
 
+    /**
+     * @return map of factory ID and corresponding compact factories
+     * @see com.hazelcast.nio.serialization.CompactFactory
+     */
+    public Map<Integer, CompactFactory> getCompactFactories() {
+        if (compactFactories == null) {
+            compactFactories = new HashMap<Integer, CompactFactory>();
+        }
+        return compactFactories;
+    }
+
+    /**
+     * @param compactFactories map of factory ID and corresponding factory objects
+     * @return configured {@link com.hazelcast.config.SerializerConfig} for chaining
+     * @see com.hazelcast.nio.serialization.CompactFactory
+     */
+    public SerializationConfig setCompactFactories(Map<Integer, CompactFactory> compactFactories) {
+        this.compactFactories = compactFactories;
+        return this;
+    }
+
+    /**
+     * @param factoryId      factory ID of compactFactory to be registered
+     * @param compactFactory compactFactory object to be registered
+     * @return configured {@link com.hazelcast.config.SerializerConfig} for chaining
+     * @see com.hazelcast.nio.serialization.CompactFactory
+     */
+    public SerializationConfig addCompactFactory(int factoryId, CompactFactory compactFactory) {
+        getCompactFactories().put(factoryId, compactFactory);
+        return this;
+    }
+
+    /**
+     * @return custom codecs the values of maps and caches can be compressed with
+     * @see CompressionConfig
+     */
+    public Collection<CompressionCodec> getCompressionCodecs() {
+        if (compressionCodecs == null) {
+            compressionCodecs = new LinkedList<CompressionCodec>();
+        }
+        return compressionCodecs;
+    }
+
+    /**
+     * @param compressionCodecs custom compression codecs
+     * @return configured {@link com.hazelcast.config.SerializerConfig} for chaining
+     * @see CompressionConfig
+     */
+    public SerializationConfig setCompressionCodecs(Collection<CompressionCodec> compressionCodecs) {
+        this.compressionCodecs = compressionCodecs;
+        return this;
+    }
+
+    /**
+     * Adds a custom compression codec, referenced by its name in {@link CompressionConfig#setCodec(String)}.
+     * The built-in {@value CompressionCodec#LZ4} and {@value CompressionCodec#DEFLATE} codecs are always available.
+     *
+     * @param compressionCodec custom compression codec to be registered
+     * @return configured {@link com.hazelcast.config.SerializerConfig} for chaining
+     * @see CompressionConfig
+     */
+    public SerializationConfig addCompressionCodec(CompressionCodec compressionCodec) {
+        getCompressionCodecs().add(compressionCodec);
+        return this;
+    }
+
+    /**
+     * @return map of dictionary ID and corresponding compression dictionaries
+     * @see CompressionConfig
+     */
+    public Map<Integer, byte[]> getCompressionDictionaries() {
+        if (compressionDictionaries == null) {
+            compressionDictionaries = new HashMap<Integer, byte[]>();
+        }
+        return compressionDictionaries;
+    }
+
+    /**
+     * @param compressionDictionaries map of dictionary ID and corresponding compression dictionaries
+     * @return configured {@link com.hazelcast.config.SerializerConfig} for chaining
+     * @see CompressionConfig
+     */
+    public SerializationConfig setCompressionDictionaries(Map<Integer, byte[]> compressionDictionaries) {
+        this.compressionDictionaries = compressionDictionaries;
+        return this;
+    }
+
+    /**
+     * Adds a compression dictionary, referenced by its ID in {@link CompressionConfig#setDictionaryId(int)}.
+     * <p>
+     * A dictionary should hold the content the compressed values are expected to share, like the common field names
+     * of JSON documents, see {@link com.hazelcast.nio.serialization.CompressionDictionaryTrainer}. Values are
+     * decompressed with the dictionary they were compressed with, so a dictionary must not be changed once used
+     * and it has to be added with the same ID on every member and client.
+     *
+     * @param dictionaryId ID of the dictionary, must be positive
+     * @param dictionary   the dictionary bytes
+     * @return configured {@link com.hazelcast.config.SerializerConfig} for chaining
+     */
+    public SerializationConfig addCompressionDictionary(int dictionaryId, byte[] dictionary) {
+        getCompressionDictionaries().put(dictionaryId, dictionary);
+        return this;
+    }
+
     /**
      * @return registered class definitions of portable classes
      * @see ClassDefinition
@@ -450,6 +562,9 @@ public class SerializationConfig {
                 + ", dataSerializableFactories=" + dataSerializableFactories
                 + ", portableFactoryClasses=" + portableFactoryClasses
                 + ", portableFactories=" + portableFactories
+                + ", compactFactories=" + compactFactories
+                + ", compressionCodecs=" + compressionCodecs
+                + ", compressionDictionaryIds=" + (compressionDictionaries == null ? null : compressionDictionaries.keySet())
                 + ", globalSerializerConfig=" + globalSerializerConfig
                 + ", serializerConfigs=" + serializerConfigs
                 + ", checkClassDefErrors=" + checkClassDefErrors
@@ -1198,8 +1198,12 @@ public class XmlConfigBuilder extends AbstractConfigBuilder implements ConfigBui
                 mapConfig.setMergePolicy(value);
             } else if ("hot-restart".equals(nodeName)) {
                 mapConfig.setHotRestartConfig(createHotRestartConfig(node));
+            } else if ("compression".equals(nodeName)) {
+                mapConfig.setCompressionConfig(createCompressionConfig(node));
             } else if ("read-backup-data".equals(nodeName)) {
                 mapConfig.setReadBackupData(getBooleanValue(value));
+            } else if ("compact-records-enabled".equals(nodeName)) {
+                mapConfig.setCompactRecordsEnabled(getBooleanValue(value));
             } else if ("statistics-enabled".equals(nodeName)) {
                 mapConfig.setStatisticsEnabled(getBooleanValue(value));
             } else if ("optimize-queries".equals(nodeName)) {
@@ -1294,6 +1298,28 @@ public class XmlConfigBuilder extends AbstractConfigBuilder implements ConfigBui
         return hotRestartConfig;
     }
 
+    private CompressionConfig createCompressionConfig(Node node) {
+        CompressionConfig compressionConfig = new CompressionConfig();
+
+        Node attrEnabled = node.getAttributes().getNamedItem("enabled");
+        boolean enabled = getBooleanValue(getTextContent(attrEnabled));
+        compressionConfig.setEnabled(enabled);
+
+        for (Node n : childElements(node)) {
+            String name = cleanNodeName(n);
+            String value = getTextContent(n).trim();
+            if ("codec".equals(name)) {
+                compressionConfig.setCodec(value);
+            } else if ("min-size".equals(name)) {
+                compressionConfig.setMinSize(getIntegerValue("min-size", value));
+            } else if ("dictionary-id".equals(name)) {
+                compressionConfig.setDictionaryId(getIntegerValue("dictionary-id", value));
+            }
+        }
+
+        return compressionConfig;
+    }
+
     private void handleCache(Node node) throws Exception {
         String name = getAttribute(node, "name");
         CacheSimpleConfig cacheConfig = new CacheSimpleConfig();
@@ -1343,6 +1369,8 @@ public class XmlConfigBuilder extends AbstractConfigBuilder implements ConfigBui
                 cacheConfig.setMergePolicy(value);
             } else if ("hot-restart".equals(nodeName)) {
                 cacheConfig.setHotRestartConfig(createHotRestartConfig(n));
+            } else if ("compression".equals(nodeName)) {
+                cacheConfig.setCompressionConfig(createCompressionConfig(n));
             } else if ("disable-per-entry-invalidation-events".equals(nodeName)) {
                 cacheConfig.setDisablePerEntryInvalidationEvents(getBooleanValue(value));
             }
@@ -1516,8 +1544,9 @@ public class XmlConfigBuilder extends AbstractConfigBuilder implements ConfigBui
             if ("index".equals(cleanNodeName(indexNode))) {
                 NamedNodeMap attrs = indexNode.getAttributes();
                 boolean ordered = getBooleanValue(getTextContent(attrs.getNamedItem("ordered")));
+                boolean bitmap = getBooleanValue(getTextContent(attrs.getNamedItem("bitmap")));
                 String attribute = getTextContent(indexNode);
-                mapConfig.addMapIndexConfig(new MapIndexConfig(attribute, ordered));
+                mapConfig.addMapIndexConfig(new MapIndexConfig(attribute, ordered).setBitmap(bitmap));
             }
         }
     }
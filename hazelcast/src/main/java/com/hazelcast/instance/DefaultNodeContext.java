@@ -24,6 +24,7 @@ import com.hazelcast.internal.networking.spinning.SpinningEventLoopGroup;
 import com.hazelcast.logging.LoggingServiceImpl;
 import com.hazelcast.nio.ConnectionManager;
 import com.hazelcast.nio.NodeIOService;
+import com.hazelcast.nio.PacketPayloadPool;
 import com.hazelcast.nio.tcp.MemberChannelInitializer;
 import com.hazelcast.nio.tcp.TcpIpConnectionChannelErrorHandler;
 import com.hazelcast.nio.tcp.TcpIpConnectionManager;
@@ -54,6 +55,11 @@ public class DefaultNodeContext implements NodeContext {
         NodeIOService ioService = new NodeIOService(node, node.nodeEngine);
         EventLoopGroup eventLoopGroup = createEventLoopGroup(node, ioService);
 
+        PacketPayloadPool payloadPool = ioService.getInboundPayloadPool();
+        if (payloadPool != null) {
+            node.nodeEngine.getMetricsRegistry().scanAndRegister(payloadPool, "tcp.inboundPayloadPool");
+        }
+
         return new TcpIpConnectionManager(
                 ioService,
                 serverSocketChannel,
@@ -80,7 +86,7 @@ public class DefaultNodeContext implements NodeContext {
                     initializer,
                     node.hazelcastInstance.getName());
         } else {
-            return new NioEventLoopGroup(
+            NioEventLoopGroup eventLoopGroup = new NioEventLoopGroup(
                     loggingService,
                     node.nodeEngine.getMetricsRegistry(),
                     node.hazelcastInstance.getName(),
@@ -89,6 +95,9 @@ public class DefaultNodeContext implements NodeContext {
                     ioService.getOutputSelectorThreadCount(),
                     ioService.getBalancerIntervalSeconds(),
                     initializer);
+            eventLoopGroup.setWriteMaxFrames(ioService.getWriteMaxFrames());
+            eventLoopGroup.setWriteGatheringBufferCount(ioService.getWriteGatheringBufferCount());
+            return eventLoopGroup;
         }
     }
 
@@ -224,7 +224,7 @@ public class DefaultNodeExtension implements NodeExtension {
     @Override
     public ChannelInboundHandler createInboundHandler(TcpIpConnection connection, IOService ioService) {
         NodeEngineImpl nodeEngine = node.nodeEngine;
-        return new MemberChannelInboundHandler(connection, nodeEngine.getPacketDispatcher());
+        return new MemberChannelInboundHandler(connection, nodeEngine.getPacketDispatcher(), ioService.getInboundPayloadPool());
     }
 
     @Override
@@ -111,6 +111,7 @@ public class NetworkingImbalancePlugin extends DiagnosticsPlugin {
         long totalEvents = 0;
         long totalTaskCount = 0;
         long totalHandleCount = 0;
+        long totalHandleNanos = 0;
 
         for (NioThread thread : threads) {
             totalBytesReceived += thread.bytesTransceived();
@@ -119,6 +120,7 @@ public class NetworkingImbalancePlugin extends DiagnosticsPlugin {
             totalEvents += thread.eventCount();
             totalTaskCount += thread.completedTaskCount();
             totalHandleCount += thread.handleCount();
+            totalHandleNanos += thread.handleNanos();
         }
 
         for (NioThread thread : threads) {
@@ -136,10 +138,27 @@ public class NetworkingImbalancePlugin extends DiagnosticsPlugin {
             writer.writeKeyValueEntry("handle-count", thread.handleCount());
             writer.writeKeyValueEntry("tasks-percentage", toPercentage(thread.completedTaskCount(), totalTaskCount));
             writer.writeKeyValueEntry("tasks", thread.completedTaskCount());
+            if (totalHandleNanos > 0) {
+                // the time spent on handlers is only tracked when the cost based io balancing is enabled
+                writer.writeKeyValueEntry("handle-nanos-percentage", toPercentage(thread.handleNanos(), totalHandleNanos));
+                writer.writeKeyValueEntry("handle-nanos", thread.handleNanos());
+                writer.writeKeyValueEntry("handle-nanos-imbalance-percentage",
+                        toImbalancePercentage(thread.handleNanos(), totalHandleNanos, threads.length));
+            }
             writer.endSection();
         }
     }
 
+    /**
+     * Returns how much the amount deviates from the average of all threads, e.g. 50 % if a thread is 1.5 times as busy
+     * as the average thread.
+     */
+    private String toImbalancePercentage(long amount, long total, int threadCount) {
+        double average = (double) total / threadCount;
+        double percentage = HUNDRED * (amount - average) / average;
+        return String.format("%1$,.2f", percentage) + " %";
+    }
+
     private String toPercentage(long amount, long total) {
         double percentage = (HUNDRED * amount) / total;
         return String.format("%1$,.2f", percentage) + " %";
@@ -130,6 +130,16 @@ public interface Channel extends Closeable {
      */
     int write(ByteBuffer src) throws IOException;
 
+    /**
+     * Writes a sequence of bytes from the given buffers with a single call. Implementations that override
+     * {@link #write(ByteBuffer)}, e.g. to encrypt the data, need to override this method as well.
+     *
+     * This method will be removed from the Channel in the near future.
+     *
+     * @see java.nio.channels.SocketChannel#write(ByteBuffer[], int, int)
+     */
+    long write(ByteBuffer[] srcs, int offset, int length) throws IOException;
+
     /**
      * Closes inbound.
      *
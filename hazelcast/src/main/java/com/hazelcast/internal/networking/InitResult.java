@@ -21,10 +21,20 @@ import java.nio.ByteBuffer;
 public class InitResult<H> {
     private final ByteBuffer byteBuffer;
     private final H handler;
+    private final long writeCoalescingDelayNanos;
 
     public InitResult(ByteBuffer byteBuffer, H handler) {
+        this(byteBuffer, handler, 0);
+    }
+
+    /**
+     * @param writeCoalescingDelayNanos only used for outbound initialization: the time to wait for more frames
+     *                                  before writing a partially filled buffer, 0 to write without delay
+     */
+    public InitResult(ByteBuffer byteBuffer, H handler, long writeCoalescingDelayNanos) {
         this.byteBuffer = byteBuffer;
         this.handler = handler;
+        this.writeCoalescingDelayNanos = writeCoalescingDelayNanos;
     }
 
     public ByteBuffer getByteBuffer() {
@@ -34,4 +44,8 @@ public class InitResult<H> {
     public H getHandler() {
         return handler;
     }
+
+    public long getWriteCoalescingDelayNanos() {
+        return writeCoalescingDelayNanos;
+    }
 }
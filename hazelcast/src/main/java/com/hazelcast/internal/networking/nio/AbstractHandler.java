@@ -43,6 +43,9 @@ public abstract class AbstractHandler
     protected final SwCounter handleCount = newSwCounter();
     @Probe
     protected final SwCounter completedMigrations = newSwCounter();
+    // the time spent by the io threads on this handler, only tracked for the cost based io balancing
+    @Probe(level = DEBUG)
+    private final SwCounter handleNanos = newSwCounter();
     protected final ILogger logger;
     protected final Channel channel;
     protected NioThread ioThread;
@@ -94,6 +97,16 @@ public abstract class AbstractHandler
         return ioThread;
     }
 
+    @Override
+    public long getHandleNanos() {
+        return handleNanos.get();
+    }
+
+    // is only called by the owning io thread
+    final void addHandleNanos(long nanos) {
+        handleNanos.inc(nanos);
+    }
+
     public void start() {
         ioThread.addTaskAndWakeup(new Runnable() {
             @Override
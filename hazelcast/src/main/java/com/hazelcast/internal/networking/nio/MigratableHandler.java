@@ -51,4 +51,13 @@ public interface MigratableHandler {
      * @return total load recorded by this handler
      */
     long getLoad();
+
+    /**
+     * Get the time the owning {@link NioThread}s spent handling this handler. The time is only tracked
+     * when the cost based {@link com.hazelcast.internal.networking.nio.iobalancer.IOBalancer IOBalancer}
+     * strategy is enabled.
+     *
+     * @return total time in nanoseconds spent on this handler, 0 if not tracked
+     */
+    long getHandleNanos();
 }
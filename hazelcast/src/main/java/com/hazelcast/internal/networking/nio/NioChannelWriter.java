@@ -35,11 +35,24 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.DEBUG;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.nio.IOUtil.newByteBuffer;
 import static java.lang.Math.max;
 import static java.lang.System.currentTimeMillis;
 import static java.nio.channels.SelectionKey.OP_WRITE;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+/**
+ * Writes the {@link OutboundFrame}s of a {@link NioChannel} to its socket.
+ * <p/>
+ * Pending frames are written to the output buffer until the buffer is full, the number of frames reaches the
+ * configured maximum or there are no more frames, then the buffer is written to the socket. Optionally:
+ * <ul>
+ * <li>more than one output buffer is filled and all of them are written with a single gathering write, so that a
+ * connection with a lot of pending data needs fewer write calls</li>
+ * <li>a partially filled output buffer is kept for a short delay, so that more frames can be coalesced into the same
+ * write (see {@link InitResult#getWriteCoalescingDelayNanos()})</li>
+ * </ul>
+ */
 public final class NioChannelWriter extends AbstractHandler implements Runnable {
 
     private static final long TIMEOUT = 3;
@@ -51,8 +64,17 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
     @Probe(name = "priorityWriteQueueSize")
     public final Queue<OutboundFrame> urgentWriteQueue = new ConcurrentLinkedQueue<OutboundFrame>();
     private final ChannelInitializer initializer;
+    private final int maxFrames;
 
+    // the buffers written to the socket in a single write; the first one is created by the ChannelInitializer,
+    // the others are created on demand if gathering writes are enabled
+    private final ByteBuffer[] outputBuffers;
+    // the index of the buffer currently being filled, the buffers before it are full
+    private int outputBufferIndex;
     private ByteBuffer outputBuffer;
+    private long writeCoalescingDelayNanos;
+    private boolean writeDelayed;
+    private long writeDelayDeadlineNanos;
 
     private final AtomicBoolean scheduled = new AtomicBoolean(false);
     @Probe(name = "bytesWritten")
@@ -61,6 +83,8 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
     private final SwCounter normalFramesWritten = newSwCounter();
     @Probe(name = "priorityFramesWritten")
     private final SwCounter priorityFramesWritten = newSwCounter();
+    @Probe(name = "writeCount")
+    private final SwCounter writeCount = newSwCounter();
     private ChannelOutboundHandler outboundHandler;
 
     private OutboundFrame currentFrame;
@@ -81,8 +105,24 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
                             ILogger logger,
                             IOBalancer balancer,
                             ChannelInitializer initializer) {
+        this(channel, ioThread, logger, balancer, initializer, -1, 1);
+    }
+
+    /**
+     * @param maxFrames   the maximum number of frames written to the socket at once, -1 if unbounded
+     * @param bufferCount the number of output buffers written with a single gathering write, 1 disables gathering
+     */
+    public NioChannelWriter(NioChannel channel,
+                            NioThread ioThread,
+                            ILogger logger,
+                            IOBalancer balancer,
+                            ChannelInitializer initializer,
+                            int maxFrames,
+                            int bufferCount) {
         super(channel, ioThread, OP_WRITE, logger, balancer);
         this.initializer = initializer;
+        this.maxFrames = maxFrames;
+        this.outputBuffers = new ByteBuffer[max(bufferCount, 1)];
     }
 
     @Override
@@ -127,6 +167,24 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
         return bytesPending;
     }
 
+    /**
+     * The average number of frames written to the socket per write call.
+     */
+    @Probe(level = DEBUG)
+    private long framesPerWrite() {
+        long writes = writeCount.get();
+        return writes == 0 ? 0 : (normalFramesWritten.get() + priorityFramesWritten.get()) / writes;
+    }
+
+    /**
+     * The average number of bytes written to the socket per write call.
+     */
+    @Probe(level = DEBUG)
+    private long bytesPerWrite() {
+        long writes = writeCount.get();
+        return writes == 0 ? 0 : bytesWritten.get() / writes;
+    }
+
     @Probe
     private long idleTimeMs() {
         return max(currentTimeMillis() - lastWriteTime, 0);
@@ -266,6 +324,11 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
 
         fillOutputBuffer();
 
+        if (delayWrite()) {
+            // we stay scheduled, the io thread handles this writer again once the delay has elapsed
+            return;
+        }
+
         if (dirtyOutputBuffer()) {
             writeOutputBufferToSocket();
         }
@@ -292,7 +355,9 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
         }
 
         this.outputBuffer = init.getByteBuffer();
+        this.outputBuffers[0] = outputBuffer;
         this.outboundHandler = init.getHandler();
+        this.writeCoalescingDelayNanos = init.getWriteCoalescingDelayNanos();
         registerOp(OP_WRITE);
         return true;
     }
@@ -309,13 +374,58 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
      * @return true if dirty, false otherwise.
      */
     private boolean dirtyOutputBuffer() {
-        return outputBuffer != null && outputBuffer.position() > 0;
+        // the buffers are filled in order, so if the first one is empty, all are empty
+        return outputBuffer != null && outputBuffers[0].position() > 0;
+    }
+
+    /**
+     * Checks if writing the outputBuffer should be delayed to coalesce more frames into the same write. It is only
+     * delayed if the buffers have space left and there are no pending frames.
+     * <p/>
+     * When a delay starts, the writer is registered as a delayed task of the io thread, so the thread keeps serving
+     * the other channels and handles this writer again at the deadline. Until then the writer isn't interested in
+     * write events, otherwise the selector would keep returning its key while the socket is writable.
+     *
+     * @return true if the write should be delayed, false otherwise.
+     */
+    private boolean delayWrite() throws IOException {
+        if (writeCoalescingDelayNanos <= 0 || newOwner != null || !dirtyOutputBuffer() || hasPendingFrames()) {
+            writeDelayed = false;
+            return false;
+        }
+
+        long now = System.nanoTime();
+        if (!writeDelayed) {
+            writeDelayed = true;
+            writeDelayDeadlineNanos = now + writeCoalescingDelayNanos;
+            unregisterOp(OP_WRITE);
+            ioThread.addDelayedTask(this, writeCoalescingDelayNanos);
+            return true;
+        }
+
+        if (now - writeDelayDeadlineNanos < 0) {
+            // handled before the deadline, e.g. by a flush, the delayed task is still pending
+            return true;
+        }
+
+        writeDelayed = false;
+        return false;
+    }
+
+    private boolean hasPendingFrames() {
+        return currentFrame != null || !writeQueue.isEmpty() || !urgentWriteQueue.isEmpty();
     }
 
     /**
      * Writes to content of the outputBuffer to the socket.
      */
     private void writeOutputBufferToSocket() throws IOException {
+        writeCount.inc();
+        if (outputBufferIndex > 0) {
+            writeOutputBuffersToSocket();
+            return;
+        }
+
         // So there is data for writing, so lets prepare the buffer for writing and then write it to the channel.
         outputBuffer.flip();
         int written = channel.write(outputBuffer);
@@ -333,8 +443,44 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
     }
 
     /**
-     * Fills the outBuffer with frames. This is done till there are no more frames or till there is no more space in the
-     * outputBuffer.
+     * Writes the content of all filled output buffers to the socket using a single gathering write.
+     */
+    private void writeOutputBuffersToSocket() throws IOException {
+        int bufferCount = outputBufferIndex + 1;
+        for (int i = 0; i < bufferCount; i++) {
+            outputBuffers[i].flip();
+        }
+        long written = channel.write(outputBuffers, 0, bufferCount);
+
+        bytesWritten.inc(written);
+
+        // the buffers are written in order, so the completely written ones are at the start
+        int writtenBufferCount = 0;
+        while (writtenBufferCount < bufferCount && !outputBuffers[writtenBufferCount].hasRemaining()) {
+            outputBuffers[writtenBufferCount].clear();
+            writtenBufferCount++;
+        }
+        for (int i = writtenBufferCount; i < bufferCount; i++) {
+            outputBuffers[i].compact();
+        }
+
+        if (writtenBufferCount == bufferCount) {
+            // everything has been written, continue filling the first buffer
+            outputBufferIndex = 0;
+        } else if (writtenBufferCount > 0) {
+            // move the written buffers behind the ones still containing data, so that the order of the data is kept
+            ByteBuffer[] writtenBuffers = new ByteBuffer[writtenBufferCount];
+            System.arraycopy(outputBuffers, 0, writtenBuffers, 0, writtenBufferCount);
+            System.arraycopy(outputBuffers, writtenBufferCount, outputBuffers, 0, bufferCount - writtenBufferCount);
+            System.arraycopy(writtenBuffers, 0, outputBuffers, bufferCount - writtenBufferCount, writtenBufferCount);
+            outputBufferIndex -= writtenBufferCount;
+        }
+        outputBuffer = outputBuffers[outputBufferIndex];
+    }
+
+    /**
+     * Fills the outBuffer with frames. This is done till there are no more frames, till the maximum number of frames
+     * has been written or till there is no more space in the output buffers.
      */
     private void fillOutputBuffer() throws Exception {
         if (currentFrame == null) {
@@ -342,10 +488,21 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
             currentFrame = poll();
         }
 
+        int frameCount = 0;
         while (currentFrame != null) {
             // Lets write the currentFrame to the outputBuffer.
             if (!outboundHandler.onWrite(currentFrame, outputBuffer)) {
-                // We are done for this round because not all data of the currentFrame fits in the outputBuffer
+                if (nextOutputBuffer()) {
+                    // the rest of the currentFrame is written to the next buffer
+                    continue;
+                }
+                // We are done for this round because not all data of the currentFrame fits in the outputBuffers
+                return;
+            }
+
+            if (++frameCount == maxFrames) {
+                // the remaining frames are written in the next round, giving the other channels a chance
+                currentFrame = null;
                 return;
             }
 
@@ -354,6 +511,26 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
         }
     }
 
+    /**
+     * Switches to the next output buffer when gathering writes are enabled.
+     *
+     * @return true if there is a next output buffer, false otherwise.
+     */
+    private boolean nextOutputBuffer() {
+        if (outputBufferIndex == outputBuffers.length - 1) {
+            return false;
+        }
+
+        outputBufferIndex++;
+        ByteBuffer next = outputBuffers[outputBufferIndex];
+        if (next == null) {
+            next = newByteBuffer(outputBuffers[0].capacity(), outputBuffers[0].isDirect());
+            outputBuffers[outputBufferIndex] = next;
+        }
+        outputBuffer = next;
+        return true;
+    }
+
     @Override
     public void run() {
         try {
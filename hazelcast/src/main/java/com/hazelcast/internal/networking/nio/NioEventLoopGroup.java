@@ -29,6 +29,8 @@ import com.hazelcast.util.concurrent.BackoffIdleStrategy;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -36,12 +38,14 @@ import java.util.concurrent.atomic.AtomicInteger;
 import static com.hazelcast.internal.metrics.ProbeLevel.DEBUG;
 import static com.hazelcast.internal.networking.nio.SelectorMode.SELECT;
 import static com.hazelcast.internal.networking.nio.SelectorMode.SELECT_NOW_STRING;
+import static com.hazelcast.internal.networking.nio.SelectorMode.SPIN_SELECT_STRING;
 import static com.hazelcast.util.ExceptionUtil.rethrow;
 import static com.hazelcast.util.HashUtil.hashToIndex;
 import static com.hazelcast.util.Preconditions.checkInstanceOf;
 import static com.hazelcast.util.ThreadUtil.createThreadPoolName;
 import static com.hazelcast.util.concurrent.BackoffIdleStrategy.createBackoffIdleStrategy;
 import static java.util.Collections.newSetFromMap;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.INFO;
@@ -65,6 +69,12 @@ import static java.util.logging.Level.INFO;
  * By default the {@link NioThread} blocks on the Selector, but it can be put in a 'selectNow' mode that makes it
  * spinning on the selector. This is an experimental feature and will cause the io threads to run hot. For this reason, when
  * this feature is enabled, the number of io threads should be reduced (preferably 1).
+ *
+ * The 'spinselect' mode is a hybrid of both: a NioThread spins on the selector only for a short time after the last event
+ * and then blocks, so a busy thread doesn't pay for the wakeups while an idle thread doesn't burn a core.
+ *
+ * The 'hazelcast.io.thread.affinity' system property can provide a CPU list like '0,2,4-7'; the input threads followed by
+ * the output threads are assigned to these CPUs round robin as an affinity hint.
  */
 public class NioEventLoopGroup
         implements EventLoopGroup {
@@ -95,6 +105,12 @@ public class NioEventLoopGroup
     // In Hazelcast 3.8, selector mode must be set via HazelcastProperties
     private SelectorMode selectorMode;
     private BackoffIdleStrategy idleStrategy;
+    private long selectSpinNanos = NioThread.DEFAULT_SELECT_SPIN_NANOS;
+    private final int[] cpuAffinity = parseCpuList(System.getProperty("hazelcast.io.thread.affinity", ""));
+    // the cost based io balancing needs the time spent on each handler
+    private final boolean handleTimeTracked = Boolean.getBoolean(IOBalancer.PROP_COST_BALANCER);
+    private int writeMaxFrames = -1;
+    private int writeGatheringBufferCount = 1;
     private volatile IOBalancer ioBalancer;
     private boolean selectorWorkaroundTest = Boolean.getBoolean("hazelcast.io.selector.workaround.test");
 
@@ -125,6 +141,9 @@ public class NioEventLoopGroup
             String selectorModeString = SelectorMode.getConfiguredString();
             if (selectorModeString.startsWith(SELECT_NOW_STRING + ",")) {
                 idleStrategy = createBackoffIdleStrategy(selectorModeString);
+            } else if (selectorModeString.startsWith(SPIN_SELECT_STRING + ",")) {
+                String spinMicros = selectorModeString.substring(SPIN_SELECT_STRING.length() + 1).trim();
+                selectSpinNanos = MICROSECONDS.toNanos(Long.parseLong(spinMicros));
             }
         }
         return selectorMode;
@@ -134,6 +153,33 @@ public class NioEventLoopGroup
         this.selectorMode = mode;
     }
 
+    /**
+     * Sets the time a {@link NioThread} spins on the selector before blocking in the {@link SelectorMode#SPIN_SELECT} mode.
+     *
+     * @param selectSpinNanos the spin time in nanoseconds
+     */
+    public void setSelectSpinNanos(long selectSpinNanos) {
+        this.selectSpinNanos = selectSpinNanos;
+    }
+
+    /**
+     * Sets the maximum number of frames a {@link NioChannelWriter} writes to the socket at once.
+     *
+     * @param writeMaxFrames the maximum number of frames, -1 if unbounded
+     */
+    public void setWriteMaxFrames(int writeMaxFrames) {
+        this.writeMaxFrames = writeMaxFrames;
+    }
+
+    /**
+     * Sets the number of output buffers a {@link NioChannelWriter} writes to the socket with a single gathering write.
+     *
+     * @param writeGatheringBufferCount the number of buffers, 1 disables gathering writes
+     */
+    public void setWriteGatheringBufferCount(int writeGatheringBufferCount) {
+        this.writeGatheringBufferCount = writeGatheringBufferCount;
+    }
+
     /**
      * Set to {@code true} for Selector CPU-consuming bug workaround tests
      *
@@ -178,7 +224,10 @@ public class NioEventLoopGroup
                     idleStrategy);
             thread.id = i;
             thread.setSelectorWorkaroundTest(selectorWorkaroundTest);
+            thread.setSelectSpinNanos(selectSpinNanos);
+            thread.setHandleTimeTracked(handleTimeTracked);
             inputThreads[i] = thread;
+            setCpuAffinityHint(thread, i);
             metricsRegistry.scanAndRegister(thread, "tcp.inputThread[" + thread.getName() + "]");
             thread.start();
         }
@@ -193,7 +242,10 @@ public class NioEventLoopGroup
                     idleStrategy);
             thread.id = i;
             thread.setSelectorWorkaroundTest(selectorWorkaroundTest);
+            thread.setSelectSpinNanos(selectSpinNanos);
+            thread.setHandleTimeTracked(handleTimeTracked);
             outputThreads[i] = thread;
+            setCpuAffinityHint(thread, inputThreadCount + i);
             metricsRegistry.scanAndRegister(thread, "tcp.outputThread[" + thread.getName() + "]");
             thread.start();
         }
@@ -204,6 +256,51 @@ public class NioEventLoopGroup
         }
     }
 
+    private void setCpuAffinityHint(NioThread thread, int threadIndex) {
+        if (cpuAffinity.length == 0) {
+            return;
+        }
+        int cpu = cpuAffinity[threadIndex % cpuAffinity.length];
+        thread.setCpuAffinityHint(cpu);
+        logger.info(thread.getName() + " has affinity hint for CPU " + cpu);
+    }
+
+    /**
+     * Parses a CPU list like '0,2,4-7' into the CPUs it contains.
+     *
+     * @param cpuList the CPU list, an empty string for no CPUs
+     * @return the CPUs in the order of the list
+     * @throws IllegalArgumentException if the list is malformed
+     */
+    static int[] parseCpuList(String cpuList) {
+        List<Integer> cpus = new ArrayList<Integer>();
+        for (String item : cpuList.split(",")) {
+            item = item.trim();
+            if (item.isEmpty()) {
+                continue;
+            }
+            try {
+                int dash = item.indexOf('-');
+                int first = Integer.parseInt((dash < 0 ? item : item.substring(0, dash)).trim());
+                int last = dash < 0 ? first : Integer.parseInt(item.substring(dash + 1).trim());
+                if (first < 0 || last < first) {
+                    throw new IllegalArgumentException("Invalid CPU range [" + item + "] in CPU list [" + cpuList + "]");
+                }
+                for (int cpu = first; cpu <= last; cpu++) {
+                    cpus.add(cpu);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid CPU list [" + cpuList + "]", e);
+            }
+        }
+
+        int[] result = new int[cpus.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = cpus.get(i);
+        }
+        return result;
+    }
+
     private class PublishAllTask implements Runnable {
         @Override
         public void run() {
@@ -304,7 +401,9 @@ public class NioEventLoopGroup
                 threads[index],
                 loggingService.getLogger(NioChannelWriter.class),
                 ioBalancer,
-                channelInitializer);
+                channelInitializer,
+                writeMaxFrames,
+                writeGatheringBufferCount);
     }
 
     private NioChannelReader newChannelReader(NioChannel channel) {
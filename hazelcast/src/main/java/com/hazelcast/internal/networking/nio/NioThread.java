@@ -33,19 +33,30 @@ import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.util.Iterator;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Random;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.DEBUG;
 import static com.hazelcast.internal.networking.nio.SelectorMode.SELECT_NOW;
+import static com.hazelcast.internal.networking.nio.SelectorMode.SPIN_SELECT;
 import static com.hazelcast.internal.networking.nio.SelectorOptimizer.optimize;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static java.lang.Math.max;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public class NioThread extends Thread implements OperationHostileThread {
 
+    /**
+     * The default time a thread in the {@link SelectorMode#SPIN_SELECT} mode spins on the selector
+     * before it blocks.
+     */
+    public static final long DEFAULT_SELECT_SPIN_NANOS = MICROSECONDS.toNanos(100);
+
     // WARNING: This value has significant effect on idle CPU usage!
     private static final int SELECT_WAIT_TIME_MILLIS = 5000;
     private static final int SELECT_FAILURE_PAUSE_MILLIS = 1000;
@@ -75,6 +86,8 @@ public class NioThread extends Thread implements OperationHostileThread {
 
     @Probe(name = "taskQueueSize")
     private final Queue<Runnable> taskQueue = new ConcurrentLinkedQueue<Runnable>();
+    // only accessed by this thread
+    private final Queue<DelayedTask> delayedTaskQueue = new PriorityQueue<DelayedTask>();
     @Probe
     private final SwCounter eventCount = newSwCounter();
     @Probe
@@ -84,6 +97,18 @@ public class NioThread extends Thread implements OperationHostileThread {
     // count number of times the selector was rebuilt (if selectWorkaround is enabled)
     @Probe
     private final SwCounter selectorRebuildCount = newSwCounter();
+    // count number of times work showed up while spinning (if the spin select mode is enabled)
+    @Probe
+    private final SwCounter spinHitCount = newSwCounter();
+    // count number of times the spin time elapsed without work and the thread blocked (if the spin select mode is enabled)
+    @Probe
+    private final SwCounter blockingSelectCount = newSwCounter();
+    // the time spent on handlers (if handle time tracking is enabled)
+    @Probe(level = DEBUG)
+    private final SwCounter handleNanos = newSwCounter();
+    // the CPU this thread should be bound to, -1 if there is no affinity configured
+    @Probe(level = ProbeLevel.INFO)
+    private volatile int cpuAffinityHint = -1;
 
     private final ILogger logger;
 
@@ -95,6 +120,13 @@ public class NioThread extends Thread implements OperationHostileThread {
 
     private final IdleStrategy idleStrategy;
 
+    private long selectSpinNanos = DEFAULT_SELECT_SPIN_NANOS;
+
+    private boolean handleTimeTracked;
+
+    // set while blocked on the selector in the spin select mode, so that only then the selector needs a wakeup
+    private volatile boolean selectBlocking;
+
     // last time select unblocked with some keys selected
     private volatile long lastSelectTimeMs;
 
@@ -169,6 +201,38 @@ public class NioThread extends Thread implements OperationHostileThread {
         return completedTaskCount.get();
     }
 
+    public long spinHitCount() {
+        return spinHitCount.get();
+    }
+
+    public long blockingSelectCount() {
+        return blockingSelectCount.get();
+    }
+
+    /**
+     * Returns the time this thread spent on its handlers, 0 if handle time tracking is disabled.
+     *
+     * @return the time in nanoseconds
+     */
+    public long handleNanos() {
+        return handleNanos.get();
+    }
+
+    public int getCpuAffinityHint() {
+        return cpuAffinityHint;
+    }
+
+    /**
+     * Sets the CPU this thread should be bound to. The JVM has no means to bind a thread to a CPU, so the hint is
+     * only exposed as a metric and logged; it can be applied by the OS tooling, e.g. {@code taskset} for the native
+     * thread id shown by a thread dump.
+     *
+     * @param cpuAffinityHint the CPU, -1 if there is no affinity
+     */
+    public void setCpuAffinityHint(int cpuAffinityHint) {
+        this.cpuAffinityHint = cpuAffinityHint;
+    }
+
     /**
      * Gets the Selector
      *
@@ -211,6 +275,19 @@ public class NioThread extends Thread implements OperationHostileThread {
         taskQueue.add(task);
     }
 
+    /**
+     * Adds a task to be executed by this NioThread once the given delay has elapsed. The thread keeps selecting
+     * while the task is pending, its select timeout is shortened to the deadline of the task.
+     * <p/>
+     * Can only be called by this NioThread, e.g. by a handler which wants to be handled again later.
+     *
+     * @param task       the task to add
+     * @param delayNanos the delay in nanoseconds
+     */
+    void addDelayedTask(Runnable task, long delayNanos) {
+        delayedTaskQueue.add(new DelayedTask(task, nanoTime() + delayNanos));
+    }
+
     /**
      * Adds a task to be executed by the NioThread and wakes up the selector so that it will
      * eventually pick up the task.
@@ -220,7 +297,8 @@ public class NioThread extends Thread implements OperationHostileThread {
      */
     public void addTaskAndWakeup(Runnable task) {
         taskQueue.add(task);
-        if (selectMode != SELECT_NOW) {
+        boolean wakeup = selectMode == SPIN_SELECT ? selectBlocking : selectMode != SELECT_NOW;
+        if (wakeup) {
             selector.wakeup();
         }
     }
@@ -244,13 +322,16 @@ public class NioThread extends Thread implements OperationHostileThread {
                         case SELECT_NOW:
                             selectNowLoop();
                             break;
+                        case SPIN_SELECT:
+                            spinSelectLoop();
+                            break;
                         case SELECT:
                             selectLoop();
                             break;
                         default:
                             throw new IllegalArgumentException("Selector.select mode not set, use -Dhazelcast.io.selectorMode="
-                                    + "{select|selectnow|selectwithfix} to explicitly specify select mode or leave empty for "
-                                    + "default select mode.");
+                                    + "{select|selectnow|selectwithfix|spinselect} to explicitly specify select mode or "
+                                    + "leave empty for default select mode.");
                     }
                     // break the for loop; we are done
                     break;
@@ -288,10 +369,11 @@ public class NioThread extends Thread implements OperationHostileThread {
         while (!stop) {
             processTaskQueue();
 
-            int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            int selectedKeys = select(selectTimeoutMillis());
             if (selectedKeys > 0) {
                 handleSelectionKeys();
             }
+            processDelayedTasks();
         }
     }
 
@@ -300,17 +382,19 @@ public class NioThread extends Thread implements OperationHostileThread {
         while (!stop) {
             processTaskQueue();
 
+            long timeoutMillis = selectTimeoutMillis();
             long before = currentTimeMillis();
-            int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            int selectedKeys = select(timeoutMillis);
+            boolean delayedTasksProcessed = processDelayedTasks();
             if (selectedKeys > 0) {
                 idleCount = 0;
                 handleSelectionKeys();
-            } else if (!taskQueue.isEmpty()) {
+            } else if (!taskQueue.isEmpty() || delayedTasksProcessed) {
                 idleCount = 0;
             } else {
                 // no keys were selected, not interrupted by wakeup therefore we hit an issue with JDK/network stack
                 long selectTimeTaken = currentTimeMillis() - before;
-                idleCount = selectTimeTaken < SELECT_WAIT_TIME_MILLIS ? idleCount + 1 : 0;
+                idleCount = selectTimeTaken < timeoutMillis ? idleCount + 1 : 0;
 
                 if (selectorBugDetected(idleCount)) {
                     rebuildSelector();
@@ -334,8 +418,10 @@ public class NioThread extends Thread implements OperationHostileThread {
 
             if (selectedKeys > 0) {
                 handleSelectionKeys();
-                idleRound = 0;
-            } else if (tasksProcessed) {
+            }
+            tasksProcessed |= processDelayedTasks();
+
+            if (selectedKeys > 0 || tasksProcessed) {
                 idleRound = 0;
             } else if (idleStrategy != null) {
                 idleRound++;
@@ -344,6 +430,85 @@ public class NioThread extends Thread implements OperationHostileThread {
         }
     }
 
+    private void spinSelectLoop() throws IOException {
+        // the time the current spin started, -1 if the thread isn't spinning
+        long spinStartNanos = -1;
+        while (!stop) {
+            boolean tasksProcessed = processTaskQueue();
+
+            int selectedKeys = selector.selectNow();
+            if (selectedKeys > 0) {
+                handleSelectionKeys();
+            }
+            tasksProcessed |= processDelayedTasks();
+
+            if (selectedKeys > 0 || tasksProcessed) {
+                if (spinStartNanos >= 0) {
+                    spinHitCount.inc();
+                    spinStartNanos = -1;
+                }
+            } else if (spinStartNanos < 0) {
+                spinStartNanos = nanoTime();
+            } else if (nanoTime() - spinStartNanos >= selectSpinNanos) {
+                blockingSelect();
+                spinStartNanos = -1;
+            }
+        }
+    }
+
+    private void blockingSelect() throws IOException {
+        blockingSelectCount.inc();
+        int selectedKeys;
+        selectBlocking = true;
+        try {
+            // a task added before the flag was set didn't wake up the selector, so it would not be noticed
+            long timeoutMillis = selectTimeoutMillis();
+            if (!taskQueue.isEmpty() || timeoutMillis == 0) {
+                return;
+            }
+            selectedKeys = selector.select(timeoutMillis);
+        } finally {
+            selectBlocking = false;
+        }
+
+        if (selectedKeys > 0) {
+            handleSelectionKeys();
+        }
+    }
+
+    /**
+     * @return the time to block on the selector until the earliest delayed task is due, 0 if it is due in less
+     * than a millisecond, so the selector should not block at all
+     */
+    private long selectTimeoutMillis() {
+        DelayedTask delayedTask = delayedTaskQueue.peek();
+        if (delayedTask == null) {
+            return SELECT_WAIT_TIME_MILLIS;
+        }
+        long remainingNanos = delayedTask.deadlineNanos - nanoTime();
+        return remainingNanos <= 0 ? 0 : Math.min(NANOSECONDS.toMillis(remainingNanos), SELECT_WAIT_TIME_MILLIS);
+    }
+
+    private int select(long timeoutMillis) throws IOException {
+        // Selector.select(0) blocks indefinitely
+        return timeoutMillis == 0 ? selector.selectNow() : selector.select(timeoutMillis);
+    }
+
+    private boolean processDelayedTasks() {
+        boolean tasksProcessed = false;
+        long now = nanoTime();
+        while (!stop) {
+            DelayedTask delayedTask = delayedTaskQueue.peek();
+            if (delayedTask == null || delayedTask.deadlineNanos - now > 0) {
+                break;
+            }
+            delayedTaskQueue.poll();
+            executeTask(delayedTask.task);
+            tasksProcessed = true;
+        }
+        return tasksProcessed;
+    }
+
     private boolean processTaskQueue() {
         boolean tasksProcessed = false;
         while (!stop) {
@@ -361,10 +526,36 @@ public class NioThread extends Thread implements OperationHostileThread {
         completedTaskCount.inc();
 
         NioThread target = getTargetIOThread(task);
-        if (target == this) {
+        if (target != this) {
+            target.addTaskAndWakeup(task);
+        } else if (handleTimeTracked && task instanceof AbstractHandler) {
+            long startNanos = nanoTime();
+            try {
+                task.run();
+            } finally {
+                recordHandleNanos((AbstractHandler) task, startNanos);
+            }
+        } else {
             task.run();
+        }
+    }
+
+    private void recordHandleNanos(AbstractHandler handler, long startNanos) {
+        long nanos = nanoTime() - startNanos;
+        handler.addHandleNanos(nanos);
+        handleNanos.inc(nanos);
+    }
+
+    private void handle(SelectionHandler handler) throws Exception {
+        if (handleTimeTracked && handler instanceof AbstractHandler) {
+            long startNanos = nanoTime();
+            try {
+                handler.handle();
+            } finally {
+                recordHandleNanos((AbstractHandler) handler, startNanos);
+            }
         } else {
-            target.addTaskAndWakeup(task);
+            handler.handle();
         }
     }
 
@@ -398,7 +589,7 @@ public class NioThread extends Thread implements OperationHostileThread {
             // we don't need to check for sk.isReadable/sk.isWritable since the handler has only registered
             // for events it can handle.
             eventCount.inc();
-            handler.handle();
+            handle(handler);
         } catch (Throwable t) {
             handler.onFailure(t);
         }
@@ -458,7 +649,57 @@ public class NioThread extends Thread implements OperationHostileThread {
         return getName();
     }
 
+    /**
+     * Sets the time the thread spins on the selector in the {@link SelectorMode#SPIN_SELECT} mode before it blocks.
+     * Needs to be called before the thread is started.
+     */
+    void setSelectSpinNanos(long selectSpinNanos) {
+        this.selectSpinNanos = selectSpinNanos;
+    }
+
+    /**
+     * Enables tracking of the time spent on each {@link AbstractHandler}, used by the cost based io balancing.
+     * Needs to be called before the thread is started.
+     */
+    void setHandleTimeTracked(boolean handleTimeTracked) {
+        this.handleTimeTracked = handleTimeTracked;
+    }
+
+    /**
+     * @return {@code true} if the time spent on each {@link AbstractHandler} is tracked
+     */
+    public boolean isHandleTimeTracked() {
+        return handleTimeTracked;
+    }
+
     void setSelectorWorkaroundTest(boolean selectorWorkaroundTest) {
         this.selectorWorkaroundTest = selectorWorkaroundTest;
     }
+
+    private static final class DelayedTask implements Comparable<DelayedTask> {
+
+        private final Runnable task;
+        private final long deadlineNanos;
+
+        DelayedTask(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public int compareTo(DelayedTask other) {
+            long difference = deadlineNanos - other.deadlineNanos;
+            return difference < 0 ? -1 : (difference == 0 ? 0 : 1);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
 }
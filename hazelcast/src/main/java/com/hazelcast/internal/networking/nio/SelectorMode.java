@@ -24,11 +24,18 @@ import static java.lang.String.format;
 public enum SelectorMode {
     SELECT,
     SELECT_NOW,
-    SELECT_WITH_FIX;
+    SELECT_WITH_FIX,
+    /**
+     * Spins on {@link java.nio.channels.Selector#selectNow()} for a limited time after the last event before
+     * blocking on {@link java.nio.channels.Selector#select(long)}. The spin time in microseconds can be configured
+     * with {@code spinselect,<micros>}.
+     */
+    SPIN_SELECT;
 
     public static final String SELECT_STRING = "select";
     public static final String SELECT_WITH_FIX_STRING = "selectwithfix";
     public static final String SELECT_NOW_STRING = "selectnow";
+    public static final String SPIN_SELECT_STRING = "spinselect";
 
     public static SelectorMode getConfiguredValue() {
         return fromString(getConfiguredString());
@@ -45,6 +52,8 @@ public enum SelectorMode {
             return SELECT_WITH_FIX;
         } else if (value.equals(SELECT_NOW_STRING) || value.startsWith(SELECT_NOW_STRING + ",")) {
             return SELECT_NOW;
+        } else if (value.equals(SPIN_SELECT_STRING) || value.startsWith(SPIN_SELECT_STRING + ",")) {
+            return SPIN_SELECT;
         } else {
             throw new IllegalArgumentException(format("Unrecognized selectorMode [%s]", value));
         }
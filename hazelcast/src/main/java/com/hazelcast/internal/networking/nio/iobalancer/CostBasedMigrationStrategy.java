@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio.iobalancer;
+
+import com.hazelcast.internal.networking.nio.MigratableHandler;
+
+import java.util.Set;
+
+/**
+ * {@link MigrationStrategy} balancing the estimated CPU cost of the {@link MigratableHandler} instances,
+ * which is the time the io threads spend on them (see {@link LoadTracker}). Unlike event counts, the cost
+ * reflects connections sending few but huge packets.
+ *
+ * To prevent handlers from ping-ponging between threads, a migration is only triggered once an imbalance has
+ * been seen in {@link #IMBALANCED_ROUNDS_THRESHOLD} consecutive checks, and only a handler costing at most half of
+ * the difference between the source and the destination thread is migrated, so that the destination never ends
+ * up busier than the source.
+ */
+class CostBasedMigrationStrategy implements MigrationStrategy {
+
+    /**
+     * The number of consecutive checks an imbalance has to be detected before a migration is attempted.
+     */
+    static final int IMBALANCED_ROUNDS_THRESHOLD = 2;
+
+    /**
+     * An imbalance is detected if the least busy NioThread has a lower cost
+     * than (MIN_MAX_RATIO_MIGRATION_THRESHOLD * cost of the busiest NioThread).
+     */
+    private static final double MIN_MAX_RATIO_MIGRATION_THRESHOLD = 0.7;
+
+    @Override
+    public boolean imbalanceDetected(LoadImbalance imbalance) {
+        long min = imbalance.minimumEvents;
+        long max = imbalance.maximumEvents;
+
+        if (min == Long.MIN_VALUE || max == Long.MAX_VALUE
+                || imbalance.sourceSelector == imbalance.destinationSelector
+                || min >= (long) (MIN_MAX_RATIO_MIGRATION_THRESHOLD * max)) {
+            imbalance.imbalancedRounds = 0;
+            return false;
+        }
+
+        if (++imbalance.imbalancedRounds < IMBALANCED_ROUNDS_THRESHOLD) {
+            return false;
+        }
+        // the imbalance needs to persist again before the next migration
+        imbalance.imbalancedRounds = 0;
+        return true;
+    }
+
+    @Override
+    public MigratableHandler findHandlerToMigrate(LoadImbalance imbalance) {
+        Set<? extends MigratableHandler> candidates = imbalance.getHandlersOwnerBy(imbalance.sourceSelector);
+        long maximumCost = (imbalance.maximumEvents - imbalance.minimumEvents) / 2;
+        MigratableHandler candidate = null;
+        long candidateCost = 0;
+        for (MigratableHandler handler : candidates) {
+            long cost = imbalance.getLoad(handler);
+            if (cost > candidateCost && cost <= maximumCost) {
+                candidateCost = cost;
+                candidate = handler;
+            }
+        }
+        return candidate;
+    }
+}
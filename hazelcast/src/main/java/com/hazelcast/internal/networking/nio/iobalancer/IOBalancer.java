@@ -43,7 +43,8 @@ import static com.hazelcast.spi.properties.GroupProperty.IO_THREAD_COUNT;
  *
  * It measures number of events serviced by each handler in a given interval and if imbalance is detected then it
  * schedules handler migration to fix the situation. The exact migration strategy can be customized via
- * {@link com.hazelcast.internal.networking.nio.iobalancer.MigrationStrategy}.
+ * {@link com.hazelcast.internal.networking.nio.iobalancer.MigrationStrategy}. When {@link #PROP_COST_BALANCER} is set,
+ * the time spent on each handler is measured instead and the {@link CostBasedMigrationStrategy} is used.
  *
  * Measuring interval can be customized via {@link GroupProperty#IO_BALANCER_INTERVAL_SECONDS}
  *
@@ -53,6 +54,12 @@ import static com.hazelcast.spi.properties.GroupProperty.IO_THREAD_COUNT;
  * after a successful (Hazelcast) binding process.
  */
 public class IOBalancer {
+    /**
+     * Enables the {@link CostBasedMigrationStrategy}, which balances the time the io threads spend on the handlers
+     * instead of the number of events.
+     */
+    public static final String PROP_COST_BALANCER = "hazelcast.io.balancer.cost";
+
     private static final String PROP_MONKEY_BALANCER = "hazelcast.io.balancer.monkey";
     private final ILogger logger;
 
@@ -83,8 +90,9 @@ public class IOBalancer {
         this.strategy = createMigrationStrategy();
         this.hzName = hzName;
 
-        this.inLoadTracker = new LoadTracker(inputThreads, logger);
-        this.outLoadTracker = new LoadTracker(outputThreads, logger);
+        boolean costBased = strategy instanceof CostBasedMigrationStrategy;
+        this.inLoadTracker = new LoadTracker(inputThreads, logger, costBased);
+        this.outLoadTracker = new LoadTracker(outputThreads, logger, costBased);
 
         this.enabled = isEnabled(inputThreads, outputThreads);
     }
@@ -154,6 +162,9 @@ public class IOBalancer {
             logger.warning("Using Monkey IO Balancer Strategy. This is for stress tests only. Do not user in production! "
                     + "Disable by not setting the property '" + PROP_MONKEY_BALANCER + "' to true.");
             return new MonkeyMigrationStrategy();
+        } else if (Boolean.getBoolean(PROP_COST_BALANCER)) {
+            logger.finest("Using cost based IO Balancer Strategy.");
+            return new CostBasedMigrationStrategy();
         } else {
             logger.finest("Using normal IO Balancer Strategy.");
             return new EventCountBasicMigrationStrategy();
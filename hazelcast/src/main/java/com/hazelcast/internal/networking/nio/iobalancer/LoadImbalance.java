@@ -31,14 +31,16 @@ import java.util.Set;
  * {@link SelectionHandler} should be migrated.
  */
 class LoadImbalance {
-    //number of events recorded by the busiest NioThread
+    //number of events (or the estimated cost for the cost based balancing) recorded by the busiest NioThread
     long maximumEvents;
-    //number of events recorded by the least busy NioThread
+    //number of events (or the estimated cost for the cost based balancing) recorded by the least busy NioThread
     long minimumEvents;
     //busiest NioThread
     NioThread sourceSelector;
     //least busy NioThread
     NioThread destinationSelector;
+    //number of consecutive checks an imbalance has been seen, used by strategies applying hysteresis
+    int imbalancedRounds;
 
     private final Map<NioThread, Set<MigratableHandler>> selectorToHandlers;
     private final ItemCounter<MigratableHandler> handlerLoadCounter;
@@ -47,6 +47,8 @@ class LoadTracker {
 
     //no. of events per handler since an instance started
     private final ItemCounter<MigratableHandler> lastEventCounter = new ItemCounter<MigratableHandler>();
+    //handle time per handler since an instance started, only used when the load is the cost
+    private final ItemCounter<MigratableHandler> lastHandleNanosCounter = new ItemCounter<MigratableHandler>();
 
     //no. of events per NioThread since last calculation
     private final ItemCounter<NioThread> selectorEvents = new ItemCounter<NioThread>();
@@ -58,10 +60,18 @@ class LoadTracker {
 
     private final LoadImbalance imbalance;
 
+    //if true the load is the time spent on the handlers instead of their events, as long as the time is tracked
+    private final boolean costBased;
+
     private final Queue<Runnable> tasks = new LinkedBlockingQueue<Runnable>();
 
     LoadTracker(NioThread[] ioThreads, ILogger logger) {
+        this(ioThreads, logger, false);
+    }
+
+    LoadTracker(NioThread[] ioThreads, ILogger logger, boolean costBased) {
         this.logger = logger;
+        this.costBased = costBased;
 
         this.ioThreads = new NioThread[ioThreads.length];
         System.arraycopy(ioThreads, 0, this.ioThreads, 0, ioThreads.length);
@@ -148,13 +158,25 @@ class LoadTracker {
 
 
     private void updateNewWorkingImbalance() {
+        // all the loads need to be in the same unit, so the time is only used if every thread tracks it
+        boolean handleTimeUsed = costBased && isHandleTimeTracked();
         for (MigratableHandler handler : handlers) {
-            updateHandlerState(handler);
+            updateHandlerState(handler, handleTimeUsed);
         }
     }
 
-    private void updateHandlerState(MigratableHandler handler) {
-        long handlerEventCount = getEventCountSinceLastCheck(handler);
+    private boolean isHandleTimeTracked() {
+        for (NioThread ioThread : ioThreads) {
+            if (!ioThread.isHandleTimeTracked()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void updateHandlerState(MigratableHandler handler, boolean handleTimeUsed) {
+        long handlerEventCount = handleTimeUsed
+                ? getHandleNanosSinceLastCheck(handler) : getEventCountSinceLastCheck(handler);
         handlerEventsCounter.set(handler, handlerEventCount);
         NioThread owner = handler.getOwner();
         selectorEvents.add(owner, handlerEventCount);
@@ -168,6 +190,15 @@ class LoadTracker {
         return eventCount - lastEventCount;
     }
 
+    /**
+     * Returns the CPU cost of a handler since the last check: the time its owners spent on it.
+     */
+    private long getHandleNanosSinceLastCheck(MigratableHandler handler) {
+        long handleNanos = handler.getHandleNanos();
+        Long lastHandleNanos = lastHandleNanosCounter.getAndSet(handler, handleNanos);
+        return handleNanos - lastHandleNanos;
+    }
+
     private void clearWorkingImbalance() {
         handlerEventsCounter.reset();
         selectorEvents.reset();
@@ -184,6 +215,7 @@ class LoadTracker {
         handlers.remove(handler);
         handlerEventsCounter.remove(handler);
         lastEventCounter.remove(handler);
+        lastHandleNanosCounter.remove(handler);
     }
 
     private void printDebugTable() {
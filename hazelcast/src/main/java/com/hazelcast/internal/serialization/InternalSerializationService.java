@@ -16,12 +16,14 @@
 
 package com.hazelcast.internal.serialization;
 
+import com.hazelcast.config.CompressionConfig;
 import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.Disposable;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.CompactReader;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.DataType;
 import com.hazelcast.nio.serialization.PortableReader;
@@ -82,6 +84,34 @@ public interface InternalSerializationService extends SerializationService, Disp
 
     PortableContext getPortableContext();
 
+    /**
+     * Creates a reader for the given compact data, which reads fields without de-serializing the object.
+     *
+     * @param data the compact data
+     * @return the reader
+     * @throws IOException              if the data can not be read
+     * @throws IllegalArgumentException if the data is not compact
+     */
+    CompactReader createCompactReader(Data data) throws IOException;
+
+    /**
+     * Compresses the given data as configured. Compressed data is decompressed transparently by
+     * {@link #toObject(Object)}, so it can be stored and sent instead of the original data.
+     *
+     * @param data   the data to compress, can be {@code null}
+     * @param config the compression config, can be {@code null}
+     * @return the compressed data, or the given data if compression is disabled or not worth it
+     */
+    Data compress(Data data, CompressionConfig config);
+
+    /**
+     * Returns the original form of the given compressed data, or the given data if it is not compressed.
+     *
+     * @param data the data to decompress, can be {@code null}
+     * @return the decompressed data
+     */
+    Data decompress(Data data);
+
     ClassLoader getClassLoader();
 
     ByteOrder getByteOrder();
@@ -21,6 +21,7 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.ManagedContext;
 import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.CompactFactory;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.PortableFactory;
 import com.hazelcast.spi.serialization.SerializationService;
@@ -42,6 +43,8 @@ public interface SerializationServiceBuilder {
 
     SerializationServiceBuilder addPortableFactory(int id, PortableFactory factory);
 
+    SerializationServiceBuilder addCompactFactory(int id, CompactFactory factory);
+
     SerializationServiceBuilder addClassDefinition(ClassDefinition cd);
 
     SerializationServiceBuilder setCheckClassDefErrors(boolean checkClassDefErrors);
@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.serialization.impl;
 
+import com.hazelcast.config.CompressionConfig;
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.core.ManagedContext;
 import com.hazelcast.core.PartitioningStrategy;
@@ -24,6 +25,8 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPool;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactory;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolThreadLocal;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
+import com.hazelcast.internal.serialization.impl.compression.DataCompressor;
 import com.hazelcast.internal.usercodedeployment.impl.ClassLocator;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
@@ -31,6 +34,8 @@ import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Compact;
+import com.hazelcast.nio.serialization.CompressionCodec;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.nio.serialization.HazelcastSerializationException;
@@ -46,6 +51,7 @@ import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_SERIALIZERS_LENGTH;
@@ -68,6 +74,7 @@ public abstract class AbstractSerializationService implements InternalSerializat
 
     protected SerializerAdapter dataSerializerAdapter;
     protected SerializerAdapter portableSerializerAdapter;
+    protected SerializerAdapter compactSerializerAdapter;
     protected final SerializerAdapter nullSerializerAdapter;
     protected SerializerAdapter javaSerializerAdapter;
     protected SerializerAdapter javaExternalizableAdapter;
@@ -87,6 +94,8 @@ public abstract class AbstractSerializationService implements InternalSerializat
     private volatile boolean active = true;
     private final byte version;
     private final ILogger logger = Logger.getLogger(InternalSerializationService.class);
+    private final DataCompressor dataCompressor = new DataCompressor();
+    private final AtomicBoolean byteArrayPoolRegistered = new AtomicBoolean(true);
 
     AbstractSerializationService(InputOutputFactory inputOutputFactory, byte version, ClassLoader classLoader,
                                  ManagedContext managedContext, PartitioningStrategy globalPartitionStrategy,
@@ -102,6 +111,7 @@ public abstract class AbstractSerializationService implements InternalSerializat
         this.bufferPoolThreadLocal = new BufferPoolThreadLocal(this, bufferPoolFactory,
                 notActiveExceptionSupplier);
         this.nullSerializerAdapter = createSerializerAdapter(new ConstantSerializers.NullSerializer(), this);
+        ByteArrayPool.getInstance().register();
     }
 
     //region Serialization Service
@@ -164,7 +174,7 @@ public abstract class AbstractSerializationService implements InternalSerializat
             return (T) object;
         }
 
-        Data data = (Data) object;
+        Data data = dataCompressor.decompress((Data) object);
         if (isNullData(data)) {
             return null;
         }
@@ -201,7 +211,7 @@ public abstract class AbstractSerializationService implements InternalSerializat
             return (T) object;
         }
 
-        Data data = (Data) object;
+        Data data = dataCompressor.decompress((Data) object);
         if (isNullData(data)) {
             return null;
         }
@@ -232,6 +242,16 @@ public abstract class AbstractSerializationService implements InternalSerializat
         }
     }
 
+    @Override
+    public final Data compress(Data data, CompressionConfig config) {
+        return dataCompressor.compress(data, config);
+    }
+
+    @Override
+    public final Data decompress(Data data) {
+        return dataCompressor.decompress(data);
+    }
+
     private static HazelcastSerializationException newHazelcastSerializationException(int typeId) {
         return new HazelcastSerializationException("There is no suitable de-serializer for type " + typeId + ". "
                 + "This exception is likely to be caused by differences in the serialization configuration between members "
@@ -350,6 +370,9 @@ public abstract class AbstractSerializationService implements InternalSerializat
         global.set(null);
         constantTypesMap.clear();
         bufferPoolThreadLocal.clear();
+        if (byteArrayPoolRegistered.compareAndSet(true, false)) {
+            ByteArrayPool.getInstance().deregister();
+        }
     }
     //endregion Serialization Service
 
@@ -364,6 +387,14 @@ public abstract class AbstractSerializationService implements InternalSerializat
         safeRegister(type, createSerializerAdapter(serializer, this));
     }
 
+    public final void registerCompressionCodec(CompressionCodec codec) {
+        dataCompressor.register(codec);
+    }
+
+    public final void registerCompressionDictionary(int dictionaryId, byte[] dictionary) {
+        dataCompressor.registerDictionary(dictionaryId, dictionary);
+    }
+
     public final void registerGlobal(final Serializer serializer) {
         registerGlobal(serializer, false);
     }
@@ -496,6 +527,9 @@ public abstract class AbstractSerializationService implements InternalSerializat
         if (Portable.class.isAssignableFrom(type)) {
             return portableSerializerAdapter;
         }
+        if (Compact.class.isAssignableFrom(type)) {
+            return compactSerializerAdapter;
+        }
         return constantTypesMap.get(type);
     }
 
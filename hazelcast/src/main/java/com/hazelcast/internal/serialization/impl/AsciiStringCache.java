@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.nio.Bits;
+
+/**
+ * A small direct-mapped cache of the short ASCII strings read by a {@link ByteArrayObjectDataInput}, so that
+ * repeatedly read strings (keys, Portable field values, enum names...) share a single instance instead of being
+ * allocated again on every read.
+ * <p>
+ * A slot only keeps the last string mapped to it, so the cache never grows and a hit is decided by comparing the
+ * bytes with the cached string. The cache is not thread-safe, each input has its own one.
+ */
+final class AsciiStringCache {
+
+    static final int MAX_CACHED_LENGTH = 32;
+
+    private static final int CAPACITY = 256;
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int HASH_SPREAD_SHIFT = 16;
+
+    private final String[] strings = new String[CAPACITY];
+
+    /**
+     * Returns a string made of the given range of ASCII bytes, taken from the cache if possible.
+     */
+    String get(byte[] buffer, int pos, int len) {
+        if (len > MAX_CACHED_LENGTH) {
+            return Bits.newAsciiString(buffer, pos, len);
+        }
+        // same as String.hashCode() for ASCII strings
+        int hash = 0;
+        for (int i = 0; i < len; i++) {
+            hash = HASH_MULTIPLIER * hash + buffer[pos + i];
+        }
+        int index = (hash ^ (hash >>> HASH_SPREAD_SHIFT)) & (CAPACITY - 1);
+        String cached = strings[index];
+        if (cached != null && cached.hashCode() == hash && matches(cached, buffer, pos, len)) {
+            return cached;
+        }
+        String str = Bits.newAsciiString(buffer, pos, len);
+        strings[index] = str;
+        return str;
+    }
+
+    private static boolean matches(String str, byte[] buffer, int pos, int len) {
+        if (str.length() != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (str.charAt(i) != buffer[pos + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
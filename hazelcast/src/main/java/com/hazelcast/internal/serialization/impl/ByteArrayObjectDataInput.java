@@ -33,6 +33,12 @@ import static com.hazelcast.nio.Bits.SHORT_SIZE_IN_BYTES;
 
 class ByteArrayObjectDataInput extends VersionedObjectDataInput implements BufferObjectDataInput {
 
+    /**
+     * When set, the short ASCII strings read by an input are deduplicated with an {@link AsciiStringCache}.
+     */
+    static final String DEDUPLICATE_STRINGS_PROPERTY = "hazelcast.serialization.string.deduplication.enabled";
+
+    private static final boolean DEDUPLICATE_STRINGS = Boolean.getBoolean(DEDUPLICATE_STRINGS_PROPERTY);
     private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
 
     byte[] data;
@@ -49,6 +55,8 @@ class ByteArrayObjectDataInput extends VersionedObjectDataInput implements Buffe
 
     private final boolean bigEndian;
 
+    private AsciiStringCache stringCache;
+
     ByteArrayObjectDataInput(byte[] data, InternalSerializationService service, ByteOrder byteOrder) {
         this(data, 0, service, byteOrder);
     }
@@ -581,11 +589,22 @@ class ByteArrayObjectDataInput extends VersionedObjectDataInput implements Buffe
         if (charCount == NULL_ARRAY_LENGTH) {
             return null;
         }
-        if (charBuffer == null || charCount > charBuffer.length) {
-            charBuffer = new char[charCount];
+        int i = 0;
+        if (charCount <= size - pos) {
+            // every char takes at least one byte, so the string is ASCII if its first charCount bytes are
+            int asciiCount = Bits.asciiPrefixLength(data, pos, charCount);
+            if (asciiCount == charCount) {
+                return readAsciiString(charCount);
+            }
+            ensureCharBuffer(charCount);
+            for (; i < asciiCount; i++) {
+                charBuffer[i] = (char) data[pos++];
+            }
+        } else {
+            ensureCharBuffer(charCount);
         }
         byte b;
-        for (int i = 0; i < charCount; i++) {
+        for (; i < charCount; i++) {
             b = readByte();
             if (b < 0) {
                 charBuffer[i] = Bits.readUtf8Char(this, b);
@@ -596,6 +615,26 @@ class ByteArrayObjectDataInput extends VersionedObjectDataInput implements Buffe
         return new String(charBuffer, 0, charCount);
     }
 
+    private String readAsciiString(int length) {
+        String str;
+        if (DEDUPLICATE_STRINGS) {
+            if (stringCache == null) {
+                stringCache = new AsciiStringCache();
+            }
+            str = stringCache.get(data, pos, length);
+        } else {
+            str = Bits.newAsciiString(data, pos, length);
+        }
+        pos += length;
+        return str;
+    }
+
+    private void ensureCharBuffer(int charCount) {
+        if (charBuffer == null || charCount > charBuffer.length) {
+            charBuffer = new char[charCount];
+        }
+    }
+
     @Override
     public final Object readObject() throws EOFException {
         return service.readObject(this);
@@ -17,6 +17,7 @@
 package com.hazelcast.internal.serialization.impl;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.nio.Bits;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.serialization.Data;
@@ -32,6 +33,8 @@ import static com.hazelcast.nio.Bits.SHORT_SIZE_IN_BYTES;
 
 class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements BufferObjectDataOutput {
 
+    private static final ByteArrayPool BYTE_ARRAY_POOL = ByteArrayPool.getInstance();
+
     final int initialSize;
 
     byte[] buffer;
@@ -44,7 +47,7 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
 
     ByteArrayObjectDataOutput(int size, InternalSerializationService service, ByteOrder byteOrder) {
         this.initialSize = size;
-        this.buffer = new byte[size];
+        this.buffer = BYTE_ARRAY_POOL.take(size);
         this.service = service;
         isBigEndian = byteOrder == ByteOrder.BIG_ENDIAN;
     }
@@ -249,7 +252,9 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
         writeInt(len);
         if (len > 0) {
             ensureAvailable(len * 3);
-            for (int i = 0; i < len; i++) {
+            int asciiLen = Bits.writeAsciiPrefix(buffer, pos, str);
+            pos += asciiLen;
+            for (int i = asciiLen; i < len; i++) {
                 pos += Bits.writeUtf8Char(buffer, pos, str.charAt(i));
             }
         }
@@ -356,11 +361,12 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
         if (available() < len) {
             if (buffer != null) {
                 int newCap = Math.max(buffer.length << 1, buffer.length + len);
-                byte[] newBuffer = new byte[newCap];
+                byte[] newBuffer = BYTE_ARRAY_POOL.take(newCap);
                 System.arraycopy(buffer, 0, newBuffer, 0, pos);
+                BYTE_ARRAY_POOL.release(buffer);
                 buffer = newBuffer;
             } else {
-                buffer = new byte[len > initialSize / 2 ? len * 2 : initialSize];
+                buffer = BYTE_ARRAY_POOL.take(len > initialSize / 2 ? len * 2 : initialSize);
             }
         }
     }
@@ -422,13 +428,15 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
     public void clear() {
         pos = 0;
         if (buffer != null && buffer.length > initialSize * 8) {
-            buffer = new byte[initialSize * 8];
+            BYTE_ARRAY_POOL.release(buffer);
+            buffer = BYTE_ARRAY_POOL.take(initialSize * 8);
         }
     }
 
     @Override
     public void close() {
         pos = 0;
+        BYTE_ARRAY_POOL.release(buffer);
         buffer = null;
     }
 
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.nio.serialization.FieldType;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.SHORT_SIZE_IN_BYTES;
+
+/**
+ * Schema of a {@link com.hazelcast.nio.serialization.Compact} class: the names and types of the fields it writes,
+ * in the order they were first written.
+ * <p>
+ * Fields with a definite size (the primitives) are stored in a fixed section at the beginning of a serialized
+ * object, so their offset is part of the schema. The other fields are appended after the fixed section and found
+ * through a per-object offset table, indexed by their position among the variable size fields. The width of the
+ * table entries depends on the size of the object, so small objects only pay a byte per variable size field.
+ * <p>
+ * The schema ID is a 64-bit fingerprint of the factory ID, the class ID and the fields; it is written with every
+ * object instead of the field names and types.
+ */
+final class CompactSchema {
+
+    /**
+     * Offset of a variable size field which was not written or is {@code null}.
+     */
+    static final int NULL_OFFSET = -1;
+
+    static final int MAX_BYTE_OFFSET = 0xFF;
+    static final int MAX_SHORT_OFFSET = 0xFFFF;
+
+    private static final long FINGERPRINT_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FINGERPRINT_PRIME = 0x100000001b3L;
+
+    private final int factoryId;
+    private final int classId;
+    private final long schemaId;
+    private final Map<String, Field> fields;
+    private final int fixedSize;
+    private final int variableFieldCount;
+
+    CompactSchema(int factoryId, int classId, List<String> fieldNames, List<FieldType> fieldTypes) {
+        this.factoryId = factoryId;
+        this.classId = classId;
+        this.fields = new LinkedHashMap<String, Field>(fieldNames.size());
+
+        long fingerprint = mix(mix(FINGERPRINT_OFFSET_BASIS, factoryId), classId);
+        int fixedOffset = 0;
+        int variableIndex = 0;
+        for (int i = 0; i < fieldNames.size(); i++) {
+            String name = fieldNames.get(i);
+            FieldType type = fieldTypes.get(i);
+            Field field;
+            if (type.hasDefiniteSize()) {
+                field = new Field(name, type, fixedOffset);
+                fixedOffset += type.getTypeSize();
+            } else {
+                field = new Field(name, type, variableIndex++);
+            }
+            fields.put(name, field);
+
+            for (int c = 0; c < name.length(); c++) {
+                fingerprint = mix(fingerprint, name.charAt(c));
+            }
+            fingerprint = mix(fingerprint, type.getId());
+        }
+        this.fixedSize = fixedOffset;
+        this.variableFieldCount = variableIndex;
+        this.schemaId = fingerprint;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * FINGERPRINT_PRIME;
+    }
+
+    int getFactoryId() {
+        return factoryId;
+    }
+
+    int getClassId() {
+        return classId;
+    }
+
+    long getSchemaId() {
+        return schemaId;
+    }
+
+    /**
+     * @return the size of the section holding the fields with a definite size
+     */
+    int getFixedSize() {
+        return fixedSize;
+    }
+
+    int getVariableFieldCount() {
+        return variableFieldCount;
+    }
+
+    Set<String> getFieldNames() {
+        return Collections.unmodifiableSet(fields.keySet());
+    }
+
+    /**
+     * @return the field with the given name or {@code null} if the schema has no such field
+     */
+    Field getField(String name) {
+        return fields.get(name);
+    }
+
+    /**
+     * @return the field with the given name and type
+     * @throws HazelcastSerializationException if there is no such field or the field has another type
+     */
+    Field getField(String name, FieldType type) {
+        Field field = fields.get(name);
+        if (field == null) {
+            throw new HazelcastSerializationException("Invalid field name: '" + name + "' for " + this);
+        }
+        if (field.type != type) {
+            throw new HazelcastSerializationException("Wrong field type for '" + name + "': expected " + type
+                    + " but the field is " + field.type + " in " + this);
+        }
+        return field;
+    }
+
+    /**
+     * Returns the width of the offset table entries of an object with fixed and variable sections of the
+     * given length. The largest value of each width is reserved for {@link #NULL_OFFSET}.
+     */
+    static int offsetWidth(int dataLength) {
+        if (dataLength < MAX_BYTE_OFFSET) {
+            return BYTE_SIZE_IN_BYTES;
+        }
+        if (dataLength < MAX_SHORT_OFFSET) {
+            return SHORT_SIZE_IN_BYTES;
+        }
+        return INT_SIZE_IN_BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactSchema{factoryId: " + factoryId + ", classId: " + classId
+                + ", schemaId: " + Long.toHexString(schemaId) + ", fields: " + fields.keySet() + '}';
+    }
+
+    /**
+     * A field of a compact schema.
+     */
+    static final class Field {
+
+        final String name;
+        final FieldType type;
+        /**
+         * Offset in the fixed section for fields with a definite size, index in the offset table otherwise.
+         */
+        final int index;
+
+        Field(String name, FieldType type, int index) {
+            this.name = name;
+            this.type = type;
+            this.index = index;
+        }
+    }
+}
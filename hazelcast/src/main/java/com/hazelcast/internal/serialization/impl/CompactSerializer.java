@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.core.ManagedContext;
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Compact;
+import com.hazelcast.nio.serialization.CompactFactory;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.COMPACT_SERIALIZATION_TYPE;
+
+/**
+ * Serializer of {@link Compact} objects.
+ * <p>
+ * A compact object is written as its factory ID, class ID and schema ID followed by the length of its fixed and
+ * variable sections, the fixed section, the variable section and the offset table of the variable size fields.
+ * See {@link CompactSchema} for the layout of the sections.
+ * <p>
+ * The schemas are derived from the objects themselves: when an object is written, or when an object without a
+ * known schema is read, an instance of its class is written once with a {@link CompactSchemaWriter}.
+ */
+final class CompactSerializer implements StreamSerializer<Compact> {
+
+    private static final int CLASS_ID_BITS = 32;
+    private static final long CLASS_ID_MASK = 0xFFFFFFFFL;
+
+    private final Map<Integer, CompactFactory> factories = new HashMap<Integer, CompactFactory>();
+    private final ConcurrentMap<Long, CompactSchema> schemas = new ConcurrentHashMap<Long, CompactSchema>();
+    private final ManagedContext managedContext;
+
+    CompactSerializer(Map<Integer, ? extends CompactFactory> compactFactories, ManagedContext managedContext) {
+        this.managedContext = managedContext;
+        factories.putAll(compactFactories);
+    }
+
+    @Override
+    public int getTypeId() {
+        return COMPACT_SERIALIZATION_TYPE;
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, Compact compact) throws IOException {
+        if (!(out instanceof BufferObjectDataOutput)) {
+            throw new IllegalArgumentException("ObjectDataOutput must be instance of BufferObjectDataOutput!");
+        }
+        writeInternal((BufferObjectDataOutput) out, compact);
+    }
+
+    void writeInternal(BufferObjectDataOutput out, Compact compact) throws IOException {
+        CompactSchema schema = lookupOrRegisterSchema(compact);
+        out.writeInt(schema.getFactoryId());
+        out.writeInt(schema.getClassId());
+        out.writeLong(schema.getSchemaId());
+
+        DefaultCompactWriter writer = new DefaultCompactWriter(this, out, schema);
+        compact.writeCompact(writer);
+        writer.end();
+    }
+
+    @Override
+    public Compact read(ObjectDataInput in) throws IOException {
+        if (!(in instanceof BufferObjectDataInput)) {
+            throw new IllegalArgumentException("ObjectDataInput must be instance of BufferObjectDataInput!");
+        }
+        return readInternal((BufferObjectDataInput) in);
+    }
+
+    private Compact readInternal(BufferObjectDataInput in) throws IOException {
+        DefaultCompactReader reader = createReader(in);
+        CompactSchema schema = reader.getSchema();
+        Compact compact = createNewCompactInstance(schema.getFactoryId(), schema.getClassId());
+        compact.readCompact(reader);
+        reader.end();
+        return compact;
+    }
+
+    /**
+     * Reads a nested compact object, which is not initialized by the serialization service.
+     */
+    Compact readAndInitialize(BufferObjectDataInput in) throws IOException {
+        Compact compact = readInternal(in);
+        return managedContext != null ? (Compact) managedContext.initialize(compact) : compact;
+    }
+
+    /**
+     * Creates a reader for the compact object at the current position of the input, without de-serializing it.
+     */
+    DefaultCompactReader createReader(BufferObjectDataInput in) throws IOException {
+        int factoryId = in.readInt();
+        int classId = in.readInt();
+        long schemaId = in.readLong();
+        return new DefaultCompactReader(this, in, lookupSchema(factoryId, classId, schemaId));
+    }
+
+    private CompactSchema lookupSchema(int factoryId, int classId, long schemaId) throws IOException {
+        CompactSchema schema = schemas.get(schemaKey(factoryId, classId));
+        if (schema == null) {
+            schema = lookupOrRegisterSchema(createNewCompactInstance(factoryId, classId));
+        }
+        if (schema.getSchemaId() != schemaId) {
+            throw new HazelcastSerializationException("Could not read compact object with schema ID "
+                    + Long.toHexString(schemaId) + ", it was written with other fields than the ones of the local "
+                    + schema);
+        }
+        return schema;
+    }
+
+    CompactSchema lookupOrRegisterSchema(Compact compact) throws IOException {
+        Long key = schemaKey(compact.getFactoryId(), compact.getClassId());
+        CompactSchema schema = schemas.get(key);
+        if (schema == null) {
+            CompactSchemaWriter writer = new CompactSchemaWriter(compact.getFactoryId(), compact.getClassId());
+            compact.writeCompact(writer);
+            schema = writer.build();
+            CompactSchema current = schemas.putIfAbsent(key, schema);
+            if (current != null) {
+                schema = current;
+            }
+        }
+        return schema;
+    }
+
+    private static Long schemaKey(int factoryId, int classId) {
+        return ((long) factoryId << CLASS_ID_BITS) | (classId & CLASS_ID_MASK);
+    }
+
+    private Compact createNewCompactInstance(int factoryId, int classId) {
+        CompactFactory compactFactory = factories.get(factoryId);
+        if (compactFactory == null) {
+            throw new HazelcastSerializationException("Could not find CompactFactory for factory-id: " + factoryId);
+        }
+        Compact compact = compactFactory.create(classId);
+        if (compact == null) {
+            throw new HazelcastSerializationException("Could not create Compact for class-id: " + classId);
+        }
+        return compact;
+    }
+
+    @Override
+    public void destroy() {
+        factories.clear();
+        schemas.clear();
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.serialization.Compact;
+import com.hazelcast.nio.serialization.CompactReader;
+import com.hazelcast.nio.serialization.FieldType;
+
+import java.io.IOException;
+import java.util.Set;
+
+import static com.hazelcast.internal.serialization.impl.CompactSchema.MAX_BYTE_OFFSET;
+import static com.hazelcast.internal.serialization.impl.CompactSchema.MAX_SHORT_OFFSET;
+import static com.hazelcast.internal.serialization.impl.CompactSchema.NULL_OFFSET;
+import static com.hazelcast.internal.serialization.impl.CompactSchema.offsetWidth;
+import static com.hazelcast.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.SHORT_SIZE_IN_BYTES;
+
+/**
+ * Reads the fields of a compact object. Every field is located in constant time: fields with a definite size
+ * from their offset in the schema, the other fields from the offset table at the end of the object.
+ * <p>
+ * Besides de-serialization, the reader is used to read single values and paths like {@code address.city} or
+ * {@code orders[2].amount} straight from the binary form, see {@link #read(String)}.
+ */
+public final class DefaultCompactReader implements CompactReader {
+
+    private final CompactSerializer serializer;
+    private final BufferObjectDataInput in;
+    private final CompactSchema schema;
+    private final int dataStart;
+    private final int offsetTableStart;
+    private final int offsetWidth;
+    private final int end;
+
+    DefaultCompactReader(CompactSerializer serializer, BufferObjectDataInput in, CompactSchema schema)
+            throws IOException {
+        this.serializer = serializer;
+        this.in = in;
+        this.schema = schema;
+        int dataLength = in.readInt();
+        this.dataStart = in.position();
+        this.offsetTableStart = dataStart + dataLength;
+        this.offsetWidth = offsetWidth(dataLength);
+        this.end = offsetTableStart + schema.getVariableFieldCount() * offsetWidth;
+    }
+
+    CompactSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public boolean hasField(String fieldName) {
+        return schema.getField(fieldName) != null;
+    }
+
+    @Override
+    public Set<String> getFieldNames() {
+        return schema.getFieldNames();
+    }
+
+    @Override
+    public FieldType getFieldType(String fieldName) {
+        CompactSchema.Field field = schema.getField(fieldName);
+        return field == null ? null : field.type;
+    }
+
+    @Override
+    public int readInt(String fieldName) throws IOException {
+        return in.readInt(fixedPosition(schema.getField(fieldName, FieldType.INT)));
+    }
+
+    @Override
+    public long readLong(String fieldName) throws IOException {
+        return in.readLong(fixedPosition(schema.getField(fieldName, FieldType.LONG)));
+    }
+
+    @Override
+    public boolean readBoolean(String fieldName) throws IOException {
+        return in.readBoolean(fixedPosition(schema.getField(fieldName, FieldType.BOOLEAN)));
+    }
+
+    @Override
+    public byte readByte(String fieldName) throws IOException {
+        return in.readByte(fixedPosition(schema.getField(fieldName, FieldType.BYTE)));
+    }
+
+    @Override
+    public char readChar(String fieldName) throws IOException {
+        return in.readChar(fixedPosition(schema.getField(fieldName, FieldType.CHAR)));
+    }
+
+    @Override
+    public double readDouble(String fieldName) throws IOException {
+        return in.readDouble(fixedPosition(schema.getField(fieldName, FieldType.DOUBLE)));
+    }
+
+    @Override
+    public float readFloat(String fieldName) throws IOException {
+        return in.readFloat(fixedPosition(schema.getField(fieldName, FieldType.FLOAT)));
+    }
+
+    @Override
+    public short readShort(String fieldName) throws IOException {
+        return in.readShort(fixedPosition(schema.getField(fieldName, FieldType.SHORT)));
+    }
+
+    @Override
+    public String readUTF(String fieldName) throws IOException {
+        return positionAt(schema.getField(fieldName, FieldType.UTF)) ? in.readUTF() : null;
+    }
+
+    @Override
+    public byte[] readByteArray(String fieldName) throws IOException {
+        return positionAt(schema.getField(fieldName, FieldType.BYTE_ARRAY)) ? in.readByteArray() : null;
+    }
+
+    @Override
+    public boolean[] readBooleanArray(String fieldName) throws IOException {
+        return positionAt(schema.getField(fieldName, FieldType.BOOLEAN_ARRAY)) ? in.readBooleanArray() : null;
+    }
+
+    @Override
+    public char[] readCharArray(String fieldName) throws IOException {
+        return positionAt(schema.getField(fieldName, FieldType.CHAR_ARRAY)) ? in.readCharArray() : null;
+    }
+
+    @Override
+    public int[] readIntArray(String fieldName) throws IOException {
+        return positionAt(schema.getField(fieldName, FieldType.INT_ARRAY)) ? in.readIntArray() : null;
+    }
+
+    @Override
+    public long[] readLongArray(String fieldName) throws IOException {
+        return positionAt(schema.getField(fieldName, FieldType.LONG_ARRAY)) ? in.readLongArray() : null;
+    }
+
+    @Override
+    public double[] readDoubleArray(String fieldName) throws IOException {
+        return positionAt(schema.getField(fieldName, FieldType.DOUBLE_ARRAY)) ? in.readDoubleArray() : null;
+    }
+
+    @Override
+    public float[] readFloatArray(String fieldName) throws IOException {
+        return positionAt(schema.getField(fieldName, FieldType.FLOAT_ARRAY)) ? in.readFloatArray() : null;
+    }
+
+    @Override
+    public short[] readShortArray(String fieldName) throws IOException {
+        return positionAt(schema.getField(fieldName, FieldType.SHORT_ARRAY)) ? in.readShortArray() : null;
+    }
+
+    @Override
+    public String[] readUTFArray(String fieldName) throws IOException {
+        return positionAt(schema.getField(fieldName, FieldType.UTF_ARRAY)) ? in.readUTFArray() : null;
+    }
+
+    @Override
+    public Compact readCompact(String fieldName) throws IOException {
+        return positionAt(schema.getField(fieldName, FieldType.PORTABLE)) ? serializer.readAndInitialize(in) : null;
+    }
+
+    @Override
+    public Compact[] readCompactArray(String fieldName) throws IOException {
+        if (!positionAt(schema.getField(fieldName, FieldType.PORTABLE_ARRAY))) {
+            return null;
+        }
+        Compact[] values = new Compact[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = serializer.readAndInitialize(in);
+        }
+        return values;
+    }
+
+    /**
+     * Reads the value at the given path. A path is made of field names separated by dots, each of them optionally
+     * followed by an array index, for example {@code address.city}, {@code scores[0]} or {@code orders[2].amount}.
+     * Nested compact objects on the path are not de-serialized; a compact object at the end of the path is.
+     *
+     * @param path the path to read
+     * @return the value at the path, or {@code null} if a field on the path does not exist or is {@code null},
+     * or an array index is out of bounds
+     * @throws IOException              if the value can not be read
+     * @throws IllegalArgumentException if the path navigates into a field which is not a compact object or uses an
+     *                                  index which is not a number
+     */
+    public Object read(String path) throws IOException {
+        DefaultCompactReader reader = this;
+        int start = 0;
+        while (true) {
+            int dot = path.indexOf('.', start);
+            String token = dot < 0 ? path.substring(start) : path.substring(start, dot);
+            int bracket = token.indexOf('[');
+            String fieldName = bracket < 0 ? token : token.substring(0, bracket);
+            int index = bracket < 0 ? -1 : parseIndex(path, token, bracket);
+
+            CompactSchema.Field field = reader.schema.getField(fieldName);
+            if (field == null) {
+                return null;
+            }
+            if (dot < 0) {
+                return index < 0 ? reader.readValue(field) : reader.readArrayElement(field, index);
+            }
+            reader = reader.nestedReader(field, index, path);
+            if (reader == null) {
+                return null;
+            }
+            start = dot + 1;
+        }
+    }
+
+    private static int parseIndex(String path, String token, int bracket) {
+        if (token.charAt(token.length() - 1) != ']') {
+            throw new IllegalArgumentException("Malformed path: " + path);
+        }
+        try {
+            return Integer.parseInt(token.substring(bracket + 1, token.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Only numeric array indexes are supported in compact paths: " + path);
+        }
+    }
+
+    private DefaultCompactReader nestedReader(CompactSchema.Field field, int index, String path) throws IOException {
+        if (field.type == FieldType.PORTABLE && index < 0) {
+            return positionAt(field) ? serializer.createReader(in) : null;
+        }
+        if (field.type == FieldType.PORTABLE_ARRAY && index >= 0) {
+            return positionAtCompactArrayElement(field, index) ? serializer.createReader(in) : null;
+        }
+        throw new IllegalArgumentException("Field '" + field.name + "' of path '" + path + "' is not a compact object");
+    }
+
+    private Object readValue(CompactSchema.Field field) throws IOException {
+        if (field.type.hasDefiniteSize()) {
+            return readFixed(field.type, fixedPosition(field));
+        }
+        switch (field.type) {
+            case UTF:
+                return readUTF(field.name);
+            case PORTABLE:
+                return readCompact(field.name);
+            case PORTABLE_ARRAY:
+                return readCompactArray(field.name);
+            default:
+                return readArray(field);
+        }
+    }
+
+    private Object readArray(CompactSchema.Field field) throws IOException {
+        if (!positionAt(field)) {
+            return null;
+        }
+        switch (field.type) {
+            case BYTE_ARRAY:
+                return in.readByteArray();
+            case BOOLEAN_ARRAY:
+                return in.readBooleanArray();
+            case CHAR_ARRAY:
+                return in.readCharArray();
+            case SHORT_ARRAY:
+                return in.readShortArray();
+            case INT_ARRAY:
+                return in.readIntArray();
+            case LONG_ARRAY:
+                return in.readLongArray();
+            case FLOAT_ARRAY:
+                return in.readFloatArray();
+            case DOUBLE_ARRAY:
+                return in.readDoubleArray();
+            case UTF_ARRAY:
+                return in.readUTFArray();
+            default:
+                throw new IllegalArgumentException("Unsupported field type: " + field.type);
+        }
+    }
+
+    private Object readArrayElement(CompactSchema.Field field, int index) throws IOException {
+        FieldType type = field.type;
+        if (!type.isArrayType()) {
+            throw new IllegalArgumentException("Field '" + field.name + "' is not an array");
+        }
+        if (type == FieldType.PORTABLE_ARRAY) {
+            return positionAtCompactArrayElement(field, index) ? serializer.readAndInitialize(in) : null;
+        }
+        if (!positionAt(field)) {
+            return null;
+        }
+        int length = in.readInt();
+        if (index >= length) {
+            return null;
+        }
+        if (type == FieldType.UTF_ARRAY) {
+            for (int i = 0; i < index; i++) {
+                in.readUTF();
+            }
+            return in.readUTF();
+        }
+        FieldType elementType = type.getSingleType();
+        return readFixed(elementType, in.position() + index * elementType.getTypeSize());
+    }
+
+    private Object readFixed(FieldType type, int position) throws IOException {
+        switch (type) {
+            case BYTE:
+                return in.readByte(position);
+            case BOOLEAN:
+                return in.readBoolean(position);
+            case CHAR:
+                return in.readChar(position);
+            case SHORT:
+                return in.readShort(position);
+            case INT:
+                return in.readInt(position);
+            case LONG:
+                return in.readLong(position);
+            case FLOAT:
+                return in.readFloat(position);
+            case DOUBLE:
+                return in.readDouble(position);
+            default:
+                throw new IllegalArgumentException("Unsupported field type: " + type);
+        }
+    }
+
+    private int fixedPosition(CompactSchema.Field field) {
+        return dataStart + field.index;
+    }
+
+    /**
+     * Moves the input to the given variable size field.
+     *
+     * @return {@code false} if the field is {@code null}
+     */
+    private boolean positionAt(CompactSchema.Field field) throws IOException {
+        int offset = readOffset(field.index);
+        if (offset == NULL_OFFSET) {
+            return false;
+        }
+        in.position(dataStart + offset);
+        return true;
+    }
+
+    private boolean positionAtCompactArrayElement(CompactSchema.Field field, int index) throws IOException {
+        if (!positionAt(field)) {
+            return false;
+        }
+        int length = in.readInt();
+        if (index >= length) {
+            return false;
+        }
+        for (int i = 0; i < index; i++) {
+            // skips the element without de-serializing it
+            serializer.createReader(in).end();
+        }
+        return true;
+    }
+
+    private int readOffset(int index) throws IOException {
+        int position = offsetTableStart + index * offsetWidth;
+        int offset;
+        switch (offsetWidth) {
+            case BYTE_SIZE_IN_BYTES:
+                offset = in.readByte(position) & MAX_BYTE_OFFSET;
+                return offset == MAX_BYTE_OFFSET ? NULL_OFFSET : offset;
+            case SHORT_SIZE_IN_BYTES:
+                offset = in.readShort(position) & MAX_SHORT_OFFSET;
+                return offset == MAX_SHORT_OFFSET ? NULL_OFFSET : offset;
+            default:
+                return in.readInt(position);
+        }
+    }
+
+    /**
+     * Moves the input to the end of the compact object.
+     */
+    void end() {
+        in.position(end);
+    }
+}
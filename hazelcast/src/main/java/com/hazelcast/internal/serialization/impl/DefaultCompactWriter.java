@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.serialization.Compact;
+import com.hazelcast.nio.serialization.CompactWriter;
+import com.hazelcast.nio.serialization.FieldType;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static com.hazelcast.internal.serialization.impl.CompactSchema.NULL_OFFSET;
+import static com.hazelcast.internal.serialization.impl.CompactSchema.offsetWidth;
+import static com.hazelcast.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.SHORT_SIZE_IN_BYTES;
+
+/**
+ * Writes the fields of a compact object. Fields with a definite size are written at their offset in the fixed
+ * section, which is reserved up front; the other fields are appended in the order they are written and their
+ * offsets are collected into the offset table written by {@link #end()}. Variable size fields which are
+ * {@code null} take no space besides their offset table entry.
+ */
+final class DefaultCompactWriter implements CompactWriter {
+
+    private final CompactSerializer serializer;
+    private final BufferObjectDataOutput out;
+    private final CompactSchema schema;
+    private final int lengthPosition;
+    private final int dataStart;
+    private final int[] variableOffsets;
+
+    DefaultCompactWriter(CompactSerializer serializer, BufferObjectDataOutput out, CompactSchema schema)
+            throws IOException {
+        this.serializer = serializer;
+        this.out = out;
+        this.schema = schema;
+        this.lengthPosition = out.position();
+        // room for the length of the fixed and variable sections
+        out.writeZeroBytes(INT_SIZE_IN_BYTES);
+        this.dataStart = out.position();
+        out.writeZeroBytes(schema.getFixedSize());
+        this.variableOffsets = new int[schema.getVariableFieldCount()];
+        Arrays.fill(variableOffsets, NULL_OFFSET);
+    }
+
+    @Override
+    public void writeInt(String fieldName, int value) throws IOException {
+        out.writeInt(fixedPosition(fieldName, FieldType.INT), value);
+    }
+
+    @Override
+    public void writeLong(String fieldName, long value) throws IOException {
+        out.writeLong(fixedPosition(fieldName, FieldType.LONG), value);
+    }
+
+    @Override
+    public void writeBoolean(String fieldName, boolean value) throws IOException {
+        out.writeBoolean(fixedPosition(fieldName, FieldType.BOOLEAN), value);
+    }
+
+    @Override
+    public void writeByte(String fieldName, byte value) throws IOException {
+        out.writeByte(fixedPosition(fieldName, FieldType.BYTE), value);
+    }
+
+    @Override
+    public void writeChar(String fieldName, char value) throws IOException {
+        out.writeChar(fixedPosition(fieldName, FieldType.CHAR), value);
+    }
+
+    @Override
+    public void writeDouble(String fieldName, double value) throws IOException {
+        out.writeDouble(fixedPosition(fieldName, FieldType.DOUBLE), value);
+    }
+
+    @Override
+    public void writeFloat(String fieldName, float value) throws IOException {
+        out.writeFloat(fixedPosition(fieldName, FieldType.FLOAT), value);
+    }
+
+    @Override
+    public void writeShort(String fieldName, short value) throws IOException {
+        out.writeShort(fixedPosition(fieldName, FieldType.SHORT), value);
+    }
+
+    @Override
+    public void writeUTF(String fieldName, String value) throws IOException {
+        if (setVariablePosition(fieldName, FieldType.UTF, value)) {
+            out.writeUTF(value);
+        }
+    }
+
+    @Override
+    public void writeByteArray(String fieldName, byte[] value) throws IOException {
+        if (setVariablePosition(fieldName, FieldType.BYTE_ARRAY, value)) {
+            out.writeByteArray(value);
+        }
+    }
+
+    @Override
+    public void writeBooleanArray(String fieldName, boolean[] value) throws IOException {
+        if (setVariablePosition(fieldName, FieldType.BOOLEAN_ARRAY, value)) {
+            out.writeBooleanArray(value);
+        }
+    }
+
+    @Override
+    public void writeCharArray(String fieldName, char[] value) throws IOException {
+        if (setVariablePosition(fieldName, FieldType.CHAR_ARRAY, value)) {
+            out.writeCharArray(value);
+        }
+    }
+
+    @Override
+    public void writeIntArray(String fieldName, int[] value) throws IOException {
+        if (setVariablePosition(fieldName, FieldType.INT_ARRAY, value)) {
+            out.writeIntArray(value);
+        }
+    }
+
+    @Override
+    public void writeLongArray(String fieldName, long[] value) throws IOException {
+        if (setVariablePosition(fieldName, FieldType.LONG_ARRAY, value)) {
+            out.writeLongArray(value);
+        }
+    }
+
+    @Override
+    public void writeDoubleArray(String fieldName, double[] value) throws IOException {
+        if (setVariablePosition(fieldName, FieldType.DOUBLE_ARRAY, value)) {
+            out.writeDoubleArray(value);
+        }
+    }
+
+    @Override
+    public void writeFloatArray(String fieldName, float[] value) throws IOException {
+        if (setVariablePosition(fieldName, FieldType.FLOAT_ARRAY, value)) {
+            out.writeFloatArray(value);
+        }
+    }
+
+    @Override
+    public void writeShortArray(String fieldName, short[] value) throws IOException {
+        if (setVariablePosition(fieldName, FieldType.SHORT_ARRAY, value)) {
+            out.writeShortArray(value);
+        }
+    }
+
+    @Override
+    public void writeUTFArray(String fieldName, String[] value) throws IOException {
+        if (setVariablePosition(fieldName, FieldType.UTF_ARRAY, value)) {
+            out.writeUTFArray(value);
+        }
+    }
+
+    @Override
+    public void writeCompact(String fieldName, Compact value) throws IOException {
+        if (setVariablePosition(fieldName, FieldType.PORTABLE, value)) {
+            serializer.writeInternal(out, value);
+        }
+    }
+
+    @Override
+    public void writeCompactArray(String fieldName, Compact[] values) throws IOException {
+        if (setVariablePosition(fieldName, FieldType.PORTABLE_ARRAY, values)) {
+            out.writeInt(values.length);
+            for (Compact value : values) {
+                if (value == null) {
+                    throw new HazelcastSerializationException("Compact array field '" + fieldName
+                            + "' can not contain null elements!");
+                }
+                serializer.writeInternal(out, value);
+            }
+        }
+    }
+
+    private int fixedPosition(String fieldName, FieldType type) {
+        return dataStart + schema.getField(fieldName, type).index;
+    }
+
+    /**
+     * Records the current position as the offset of the given variable size field.
+     *
+     * @return {@code true} if the value should be written, {@code false} if it is {@code null}
+     */
+    private boolean setVariablePosition(String fieldName, FieldType type, Object value) {
+        CompactSchema.Field field = schema.getField(fieldName, type);
+        if (value == null) {
+            variableOffsets[field.index] = NULL_OFFSET;
+            return false;
+        }
+        variableOffsets[field.index] = out.position() - dataStart;
+        return true;
+    }
+
+    void end() throws IOException {
+        int dataLength = out.position() - dataStart;
+        int width = offsetWidth(dataLength);
+        for (int offset : variableOffsets) {
+            switch (width) {
+                case BYTE_SIZE_IN_BYTES:
+                    out.writeByte(offset);
+                    break;
+                case SHORT_SIZE_IN_BYTES:
+                    out.writeShort(offset);
+                    break;
+                default:
+                    out.writeInt(offset);
+            }
+        }
+        out.writeInt(lengthPosition, dataLength);
+    }
+}
@@ -30,6 +30,8 @@ import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactoryImpl;
 import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.CompactFactory;
+import com.hazelcast.nio.serialization.CompressionCodec;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.HazelcastSerializationException;
 import com.hazelcast.nio.serialization.PortableFactory;
@@ -56,6 +58,8 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
 
     protected final Map<Integer, PortableFactory> portableFactories = new HashMap<Integer, PortableFactory>();
 
+    protected final Map<Integer, CompactFactory> compactFactories = new HashMap<Integer, CompactFactory>();
+
     protected final Set<ClassDefinition> classDefinitions = new HashSet<ClassDefinition>();
 
     protected ClassLoader classLoader;
@@ -136,6 +140,12 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
         return this;
     }
 
+    @Override
+    public SerializationServiceBuilder addCompactFactory(int id, CompactFactory factory) {
+        compactFactories.put(id, factory);
+        return this;
+    }
+
     @Override
     public SerializationServiceBuilder addClassDefinition(ClassDefinition cd) {
         classDefinitions.add(cd);
@@ -217,6 +227,7 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
         if (config != null) {
             addConfigDataSerializableFactories(dataSerializableFactories, config, classLoader);
             addConfigPortableFactories(portableFactories, config, classLoader);
+            addConfigCompactFactories(compactFactories, config);
             classDefinitions.addAll(config.getClassDefinitions());
         }
 
@@ -244,10 +255,20 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
                 ((AbstractSerializationService) ss)
                         .registerGlobal(serializer, globalSerializerConfig.isOverrideJavaSerialization());
             }
+            registerCompression((AbstractSerializationService) ss, config);
         }
         return ss;
     }
 
+    private static void registerCompression(AbstractSerializationService ss, SerializationConfig config) {
+        for (CompressionCodec codec : config.getCompressionCodecs()) {
+            ss.registerCompressionCodec(codec);
+        }
+        for (Map.Entry<Integer, byte[]> entry : config.getCompressionDictionaries().entrySet()) {
+            ss.registerCompressionDictionary(entry.getKey(), entry.getValue());
+        }
+    }
+
     private void initVersions() {
         if (version < 0) {
             String defaultVal = GroupProperty.SERIALIZATION_VERSION.getDefaultValue();
@@ -269,9 +290,9 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
         switch (version) {
             case 1:
                 SerializationServiceV1 serializationServiceV1 = new SerializationServiceV1(inputOutputFactory, version,
-                        portableVersion, classLoader, dataSerializableFactories, portableFactories, managedContext,
-                        partitioningStrategy, initialOutputBufferSize, new BufferPoolFactoryImpl(), enableCompression,
-                        enableSharedObject, notActiveExceptionSupplier);
+                        portableVersion, classLoader, dataSerializableFactories, portableFactories, compactFactories,
+                        managedContext, partitioningStrategy, initialOutputBufferSize, new BufferPoolFactoryImpl(),
+                        enableCompression, enableSharedObject, notActiveExceptionSupplier);
                 serializationServiceV1.registerClassDefinitions(classDefinitions, checkClassDefErrors);
                 return serializationServiceV1;
 
@@ -376,6 +397,26 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
         }
     }
 
+    private void addConfigCompactFactories(Map<Integer, CompactFactory> compactFactories, SerializationConfig config) {
+        for (Map.Entry<Integer, CompactFactory> entry : config.getCompactFactories().entrySet()) {
+            int factoryId = entry.getKey();
+            CompactFactory factory = entry.getValue();
+            if (factoryId <= 0) {
+                throw new IllegalArgumentException("CompactFactory factoryId must be positive! -> " + factory);
+            }
+            if (compactFactories.containsKey(factoryId)) {
+                throw new IllegalArgumentException("CompactFactory with factoryId '" + factoryId + "' is already registered!");
+            }
+            compactFactories.put(factoryId, factory);
+        }
+
+        for (CompactFactory f : compactFactories.values()) {
+            if (f instanceof HazelcastInstanceAware) {
+                ((HazelcastInstanceAware) f).setHazelcastInstance(hazelcastInstance);
+            }
+        }
+    }
+
     private void registerPortableFactories(Map<Integer, PortableFactory> portableFactories, SerializationConfig config) {
         for (Map.Entry<Integer, PortableFactory> entry : config.getPortableFactories().entrySet()) {
             int factoryId = entry.getKey();
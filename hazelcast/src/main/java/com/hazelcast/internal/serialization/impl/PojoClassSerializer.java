@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
+import static com.hazelcast.util.StringUtil.upperCaseInternal;
+
+/**
+ * Reads and writes the fields of a plain Java class one by one, without Java serialization.
+ * <p>
+ * The serialized fields and a specialized accessor for each of them are resolved once when the class is registered:
+ * primitive fields are read and written with their typed methods of {@link ObjectDataOutput} and
+ * {@link ObjectDataInput} straight from the field offsets when {@code Unsafe} is available, strings and arrays
+ * with their dedicated methods and every other field as a nested object. All non-static, non-transient fields
+ * of the class and its superclasses are serialized, ordered by the class hierarchy and by field name, so the
+ * serialized form does not depend on the order reported by reflection. The class needs a no-arg constructor.
+ */
+public final class PojoClassSerializer {
+
+    private final int classId;
+    private final Class<?> type;
+    private final Constructor<?> constructor;
+    private final PojoField[] fields;
+
+    public PojoClassSerializer(int classId, Class<?> type) {
+        this.classId = classId;
+        this.type = type;
+        this.constructor = noArgConstructor(type);
+        this.fields = resolveFields(type);
+    }
+
+    public int getClassId() {
+        return classId;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public void write(ObjectDataOutput out, Object object) throws IOException {
+        for (PojoField field : fields) {
+            field.write(out, object);
+        }
+    }
+
+    public Object read(ObjectDataInput in) throws IOException {
+        Object object;
+        try {
+            object = constructor.newInstance();
+        } catch (Exception e) {
+            throw new HazelcastSerializationException("Could not create an instance of " + type.getName(), e);
+        }
+        for (PojoField field : fields) {
+            field.read(in, object);
+        }
+        return object;
+    }
+
+    private static Constructor<?> noArgConstructor(Class<?> type) {
+        if (type.isInterface() || type.isArray() || type.isEnum() || Modifier.isAbstract(type.getModifiers())) {
+            throw new HazelcastSerializationException("Only concrete classes can be serialized field by field: " + type);
+        }
+        if (type.getEnclosingClass() != null && !Modifier.isStatic(type.getModifiers())) {
+            throw new HazelcastSerializationException("Inner classes can not be serialized field by field: " + type);
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new HazelcastSerializationException("A no-arg constructor is required to serialize " + type, e);
+        }
+    }
+
+    private static PojoField[] resolveFields(Class<?> type) {
+        List<PojoField> fields = new ArrayList<PojoField>();
+        if (type.getSuperclass() != null && type.getSuperclass() != Object.class) {
+            Collections.addAll(fields, resolveFields(type.getSuperclass()));
+        }
+        List<Field> declaredFields = new ArrayList<Field>();
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                declaredFields.add(field);
+            }
+        }
+        Collections.sort(declaredFields, new Comparator<Field>() {
+            @Override
+            public int compare(Field f1, Field f2) {
+                return f1.getName().compareTo(f2.getName());
+            }
+        });
+        for (Field field : declaredFields) {
+            field.setAccessible(true);
+            fields.add(new PojoField(field, FieldKind.of(field.getType())));
+        }
+        return fields.toArray(new PojoField[0]);
+    }
+
+    /**
+     * A serialized field and the accessor resolved for its type.
+     */
+    private static final class PojoField {
+
+        final Field field;
+        final long offset;
+        final FieldKind kind;
+
+        PojoField(Field field, FieldKind kind) {
+            this.field = field;
+            this.offset = MEM_AVAILABLE ? MEM.objectFieldOffset(field) : -1;
+            this.kind = kind;
+        }
+
+        void write(ObjectDataOutput out, Object object) throws IOException {
+            try {
+                kind.write(out, object, this);
+            } catch (IllegalAccessException e) {
+                throw new HazelcastSerializationException("Could not read field " + field, e);
+            }
+        }
+
+        void read(ObjectDataInput in, Object object) throws IOException {
+            try {
+                kind.read(in, object, this);
+            } catch (IllegalAccessException e) {
+                throw new HazelcastSerializationException("Could not set field " + field, e);
+            }
+        }
+
+        Object get(Object object) throws IllegalAccessException {
+            return MEM_AVAILABLE ? MEM.getObject(object, offset) : field.get(object);
+        }
+
+        void set(Object object, Object value) throws IllegalAccessException {
+            if (MEM_AVAILABLE) {
+                MEM.putObject(object, offset, value);
+            } else {
+                field.set(object, value);
+            }
+        }
+    }
+
+    /**
+     * Accessors for each kind of field. Primitive fields are accessed by their offset when {@code Unsafe} is available
+     * and by reflection otherwise; the reference kinds share {@link PojoField#get(Object)} and
+     * {@link PojoField#set(Object, Object)}.
+     */
+    private enum FieldKind {
+        BOOLEAN {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeBoolean(MEM_AVAILABLE ? MEM.getBoolean(o, f.offset) : f.field.getBoolean(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                boolean value = in.readBoolean();
+                if (MEM_AVAILABLE) {
+                    MEM.putBoolean(o, f.offset, value);
+                } else {
+                    f.field.setBoolean(o, value);
+                }
+            }
+        },
+        BYTE {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeByte(MEM_AVAILABLE ? MEM.getByte(o, f.offset) : f.field.getByte(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                byte value = in.readByte();
+                if (MEM_AVAILABLE) {
+                    MEM.putByte(o, f.offset, value);
+                } else {
+                    f.field.setByte(o, value);
+                }
+            }
+        },
+        CHAR {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeChar(MEM_AVAILABLE ? MEM.getChar(o, f.offset) : f.field.getChar(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                char value = in.readChar();
+                if (MEM_AVAILABLE) {
+                    MEM.putChar(o, f.offset, value);
+                } else {
+                    f.field.setChar(o, value);
+                }
+            }
+        },
+        SHORT {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeShort(MEM_AVAILABLE ? MEM.getShort(o, f.offset) : f.field.getShort(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                short value = in.readShort();
+                if (MEM_AVAILABLE) {
+                    MEM.putShort(o, f.offset, value);
+                } else {
+                    f.field.setShort(o, value);
+                }
+            }
+        },
+        INT {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeInt(MEM_AVAILABLE ? MEM.getInt(o, f.offset) : f.field.getInt(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                int value = in.readInt();
+                if (MEM_AVAILABLE) {
+                    MEM.putInt(o, f.offset, value);
+                } else {
+                    f.field.setInt(o, value);
+                }
+            }
+        },
+        LONG {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeLong(MEM_AVAILABLE ? MEM.getLong(o, f.offset) : f.field.getLong(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                long value = in.readLong();
+                if (MEM_AVAILABLE) {
+                    MEM.putLong(o, f.offset, value);
+                } else {
+                    f.field.setLong(o, value);
+                }
+            }
+        },
+        FLOAT {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeFloat(MEM_AVAILABLE ? MEM.getFloat(o, f.offset) : f.field.getFloat(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                float value = in.readFloat();
+                if (MEM_AVAILABLE) {
+                    MEM.putFloat(o, f.offset, value);
+                } else {
+                    f.field.setFloat(o, value);
+                }
+            }
+        },
+        DOUBLE {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeDouble(MEM_AVAILABLE ? MEM.getDouble(o, f.offset) : f.field.getDouble(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                double value = in.readDouble();
+                if (MEM_AVAILABLE) {
+                    MEM.putDouble(o, f.offset, value);
+                } else {
+                    f.field.setDouble(o, value);
+                }
+            }
+        },
+        UTF {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeUTF((String) f.get(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                f.set(o, in.readUTF());
+            }
+        },
+        BYTE_ARRAY {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeByteArray((byte[]) f.get(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                f.set(o, in.readByteArray());
+            }
+        },
+        INT_ARRAY {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeIntArray((int[]) f.get(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                f.set(o, in.readIntArray());
+            }
+        },
+        LONG_ARRAY {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeLongArray((long[]) f.get(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                f.set(o, in.readLongArray());
+            }
+        },
+        DOUBLE_ARRAY {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeDoubleArray((double[]) f.get(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                f.set(o, in.readDoubleArray());
+            }
+        },
+        UTF_ARRAY {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeUTFArray((String[]) f.get(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                f.set(o, in.readUTFArray());
+            }
+        },
+        OBJECT {
+            @Override
+            void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException {
+                out.writeObject(f.get(o));
+            }
+
+            @Override
+            void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException {
+                f.set(o, in.readObject());
+            }
+        };
+
+        abstract void write(ObjectDataOutput out, Object o, PojoField f) throws IOException, IllegalAccessException;
+
+        abstract void read(ObjectDataInput in, Object o, PojoField f) throws IOException, IllegalAccessException;
+
+        static FieldKind of(Class<?> type) {
+            if (type.isPrimitive()) {
+                return valueOf(upperCaseInternal(type.getName()));
+            }
+            if (type == String.class) {
+                return UTF;
+            }
+            if (type == byte[].class) {
+                return BYTE_ARRAY;
+            }
+            if (type == int[].class) {
+                return INT_ARRAY;
+            }
+            if (type == long[].class) {
+                return LONG_ARRAY;
+            }
+            if (type == double[].class) {
+                return DOUBLE_ARRAY;
+            }
+            return type == String[].class ? UTF_ARRAY : OBJECT;
+        }
+    }
+}
@@ -89,6 +89,21 @@ public final class SerializationConstants {
     public static final int JAVA_DEFAULT_TYPE_SERIALIZABLE = -100;
     public static final int JAVA_DEFAULT_TYPE_EXTERNALIZABLE = -101;
 
+    // ------------------------------------------------------------
+    // COMPACT SERIALIZATION
+
+    public static final int COMPACT_SERIALIZATION_TYPE = -55;
+
+    // ------------------------------------------------------------
+    // FIELD BY FIELD SERIALIZATION OF PLAIN JAVA CLASSES
+
+    public static final int POJO_SERIALIZATION_TYPE = -56;
+
+    // ------------------------------------------------------------
+    // COMPRESSED VALUES OF MAPS AND CACHES (not a serializer, unwrapped by the serialization service)
+
+    public static final int COMPRESSED_DATA_TYPE = -57;
+
     // ------------------------------------------------------------
     // LANGUAGE SPECIFIC SERIALIZERS
     // USED BY CLIENTS (Not deserialized by server)
@@ -27,6 +27,9 @@ import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactory;
 import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.Compact;
+import com.hazelcast.nio.serialization.CompactFactory;
+import com.hazelcast.nio.serialization.CompactReader;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
@@ -85,10 +88,12 @@ public class SerializationServiceV1 extends AbstractSerializationService {
 
     private final PortableContextImpl portableContext;
     private final PortableSerializer portableSerializer;
+    private final CompactSerializer compactSerializer;
 
      SerializationServiceV1(InputOutputFactory inputOutputFactory, byte version, int portableVersion, ClassLoader classLoader,
             Map<Integer, ? extends DataSerializableFactory> dataSerializableFactories,
-            Map<Integer, ? extends PortableFactory> portableFactories, ManagedContext managedContext,
+            Map<Integer, ? extends PortableFactory> portableFactories,
+            Map<Integer, ? extends CompactFactory> compactFactories, ManagedContext managedContext,
             PartitioningStrategy globalPartitionStrategy, int initialOutputBufferSize, BufferPoolFactory bufferPoolFactory,
             boolean enableCompression, boolean enableSharedObject, Supplier<RuntimeException> notActiveExceptionSupplier) {
         super(inputOutputFactory, version, classLoader, managedContext, globalPartitionStrategy, initialOutputBufferSize,
@@ -104,6 +109,8 @@ public class SerializationServiceV1 extends AbstractSerializationService {
                 new DataSerializableSerializer(dataSerializableFactories, classLoader), this);
         portableSerializer = new PortableSerializer(portableContext, loader.getFactories());
         portableSerializerAdapter = createSerializerAdapter(portableSerializer, this);
+        compactSerializer = new CompactSerializer(compactFactories, managedContext);
+        compactSerializerAdapter = createSerializerAdapter(compactSerializer, this);
 
         javaSerializerAdapter = createSerializerAdapter(new JavaSerializer(enableSharedObject, enableCompression), this);
         javaExternalizableAdapter = createSerializerAdapter(
@@ -144,6 +151,15 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         return portableSerializer.createReader(in);
     }
 
+    @Override
+    public CompactReader createCompactReader(Data data) throws IOException {
+        if (!SerializationUtil.isCompact(data)) {
+            throw new IllegalArgumentException("Given data is not Compact! -> " + data.getType());
+        }
+        BufferObjectDataInput in = createObjectDataInput(data);
+        return compactSerializer.createReader(in);
+    }
+
     public PortableContext getPortableContext() {
         return portableContext;
     }
@@ -152,6 +168,8 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         registerConstant(null, nullSerializerAdapter);
         registerConstant(DataSerializable.class, dataSerializerAdapter);
         registerConstant(Portable.class, portableSerializerAdapter);
+        // compact objects are not a constant type, their serializer is looked up by type ID like a custom one
+        safeRegister(Compact.class, compactSerializerAdapter);
         //primitives and String
         registerConstant(Byte.class, new ByteSerializer());
         registerConstant(Boolean.class, new BooleanSerializer());
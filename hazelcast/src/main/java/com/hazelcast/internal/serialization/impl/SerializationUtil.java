@@ -49,6 +49,22 @@ public final class SerializationUtil {
         return data.dataSize() == 0 && data.getType() == SerializationConstants.CONSTANT_TYPE_NULL;
     }
 
+    /**
+     * Returns {@code true} if the given data holds a {@link com.hazelcast.nio.serialization.Compact} object.
+     */
+    public static boolean isCompact(Data data) {
+        return data != null && data.getType() == SerializationConstants.COMPACT_SERIALIZATION_TYPE;
+    }
+
+    /**
+     * Returns {@code true} if the given data holds the compressed form of another data.
+     *
+     * @see InternalSerializationService#decompress(Data)
+     */
+    public static boolean isCompressed(Data data) {
+        return data != null && data.getType() == SerializationConstants.COMPRESSED_DATA_TYPE;
+    }
+
     static RuntimeException handleException(Throwable e) {
         if (e instanceof OutOfMemoryError) {
             OutOfMemoryErrorDispatcher.onOutOfMemory((OutOfMemoryError) e);
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+import com.hazelcast.internal.metrics.MetricsProvider;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static java.lang.Integer.getInteger;
+
+/**
+ * A pool of the byte arrays backing the {@link com.hazelcast.nio.BufferObjectDataOutput}s, organized in power of two
+ * size classes from 4 KB to 64 MB.
+ * <p>
+ * When an output grows or shrinks, it takes its new array from the pool and gives its old one back, so a thread which
+ * regularly serializes large values keeps reusing the same arrays instead of allocating a chain of growing arrays for
+ * every value. Arrays smaller than the smallest size class are not pooled.
+ * <p>
+ * Released arrays are kept in two tiers:
+ * <ol>
+ * <li>a thread-local tier holding a few arrays per size class, bounded by a per-thread byte budget, which is accessed
+ * without any synchronization</li>
+ * <li>a tier shared by all threads, bounded by a total byte budget, which takes the arrays not fitting the budget
+ * of the releasing thread and is used when the thread-local tier has no array of the requested size class</li>
+ * </ol>
+ * Arrays fitting neither budget are left to the garbage collector. The budgets default to 256 KB per thread and
+ * 8 MB shared, and can be set with the {@value #THREAD_BUDGET_PROPERTY} and {@value #SHARED_BUDGET_PROPERTY} system
+ * properties (in bytes).
+ * <p>
+ * The pool is shared by all serialization services of the JVM, since it only holds plain byte arrays, but it doesn't
+ * outlive them: each serialization service {@link #register() registers} itself when created and
+ * {@link #deregister() deregisters} itself when disposed, and the pool drops the arrays it retains once the last one
+ * is gone. The shared tier is emptied right away; the thread-local tiers are detached from the pool and released with
+ * their thread or when the thread next cleans up its stale thread-locals.
+ * <p>
+ * The bytes retained by the shared tier are exported as a probe; the ones retained by the thread-local tiers are not,
+ * since they are released with their thread and can't be accounted for without a per-thread cleanup hook.
+ */
+public final class ByteArrayPool implements MetricsProvider {
+
+    static final String THREAD_BUDGET_PROPERTY = "hazelcast.serialization.bufferpool.thread.bytes";
+    static final String SHARED_BUDGET_PROPERTY = "hazelcast.serialization.bufferpool.shared.bytes";
+
+    static final int MIN_CLASS_SHIFT = 12;
+    static final int MAX_CLASS_SHIFT = 26;
+    static final int SIZE_CLASS_COUNT = MAX_CLASS_SHIFT - MIN_CLASS_SHIFT + 1;
+    static final int ARRAYS_PER_THREAD_SIZE_CLASS = 2;
+
+    private static final int DEFAULT_THREAD_BUDGET = 256 << 10;
+    private static final int DEFAULT_SHARED_BUDGET = 8 << 20;
+    private static final int PERCENTAGE = 100;
+
+    private static final ByteArrayPool INSTANCE = new ByteArrayPool(
+            getInteger(THREAD_BUDGET_PROPERTY, DEFAULT_THREAD_BUDGET),
+            getInteger(SHARED_BUDGET_PROPERTY, DEFAULT_SHARED_BUDGET));
+
+    @Probe(name = "threadLocalHits")
+    final MwCounter threadLocalHits = newMwCounter();
+    @Probe(name = "sharedHits")
+    final MwCounter sharedHits = newMwCounter();
+    @Probe(name = "misses")
+    final MwCounter misses = newMwCounter();
+    @Probe(name = "discarded")
+    final MwCounter discarded = newMwCounter();
+    @Probe(name = "sharedBytesRetained")
+    final AtomicLong sharedBytes = new AtomicLong();
+
+    private final int threadBudget;
+    private final int sharedBudget;
+    private final Queue<byte[]>[] shared;
+    private final AtomicInteger registrations = new AtomicInteger();
+    private volatile ThreadLocal<ThreadTier> threadTiers = newThreadTiers();
+
+    @SuppressWarnings("unchecked")
+    ByteArrayPool(int threadBudget, int sharedBudget) {
+        this.threadBudget = threadBudget;
+        this.sharedBudget = sharedBudget;
+        this.shared = new Queue[SIZE_CLASS_COUNT];
+        for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+            shared[i] = new ConcurrentLinkedQueue<byte[]>();
+        }
+    }
+
+    public static ByteArrayPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers a user of the pool, typically a serialization service. Must be paired with {@link #deregister()}.
+     */
+    public void register() {
+        registrations.incrementAndGet();
+    }
+
+    /**
+     * Deregisters a user of the pool. When the last registered user is gone, the pool drops all retained arrays.
+     */
+    public void deregister() {
+        if (registrations.decrementAndGet() == 0) {
+            clear();
+        }
+    }
+
+    /**
+     * Drops all retained arrays. Arrays released afterwards are pooled again.
+     */
+    void clear() {
+        threadTiers = newThreadTiers();
+        for (Queue<byte[]> queue : shared) {
+            byte[] array;
+            while ((array = queue.poll()) != null) {
+                sharedBytes.addAndGet(-array.length);
+            }
+        }
+    }
+
+    /**
+     * Takes an array of at least the given length. The content of the array is undefined.
+     *
+     * @param minLength the minimum length of the array
+     * @return a pooled array with the length of the size class of {@code minLength}, or a new array
+     * of exactly {@code minLength} if the length is not pooled
+     */
+    public byte[] take(int minLength) {
+        int sizeClass = sizeClassOf(minLength);
+        if (sizeClass < 0) {
+            return new byte[minLength];
+        }
+        byte[] array = threadTiers.get().poll(sizeClass);
+        if (array != null) {
+            threadLocalHits.inc();
+            return array;
+        }
+        array = shared[sizeClass].poll();
+        if (array != null) {
+            sharedBytes.addAndGet(-array.length);
+            sharedHits.inc();
+            return array;
+        }
+        misses.inc();
+        return new byte[1 << (sizeClass + MIN_CLASS_SHIFT)];
+    }
+
+    /**
+     * Gives an array back to the pool. The caller must not use the array afterwards.
+     * Arrays whose length is not the length of a size class are ignored.
+     *
+     * @param array the released array, can be {@code null}
+     */
+    public void release(byte[] array) {
+        if (array == null) {
+            return;
+        }
+        int sizeClass = sizeClassOf(array.length);
+        if (sizeClass < 0 || 1 << (sizeClass + MIN_CLASS_SHIFT) != array.length) {
+            return;
+        }
+        if (threadTiers.get().offer(sizeClass, array, threadBudget)) {
+            return;
+        }
+        if (sharedBytes.addAndGet(array.length) <= sharedBudget) {
+            shared[sizeClass].offer(array);
+            return;
+        }
+        sharedBytes.addAndGet(-array.length);
+        discarded.inc();
+    }
+
+    /**
+     * Returns the percentage of the requests for a pooled size which were served by an array from the pool.
+     */
+    @Probe(name = "hitPercentage")
+    public double hitPercentage() {
+        long hits = threadLocalHits.get() + sharedHits.get();
+        long requests = hits + misses.get();
+        return requests == 0 ? 0 : (PERCENTAGE * (double) hits) / requests;
+    }
+
+    @Override
+    public void provideMetrics(MetricsRegistry registry) {
+        registry.scanAndRegister(this, "serialization.bufferPool");
+    }
+
+    private static ThreadLocal<ThreadTier> newThreadTiers() {
+        return new ThreadLocal<ThreadTier>() {
+            @Override
+            protected ThreadTier initialValue() {
+                return new ThreadTier();
+            }
+        };
+    }
+
+    static int sizeClassOf(int length) {
+        if (length <= 1 << (MIN_CLASS_SHIFT - 1) || length > 1 << MAX_CLASS_SHIFT) {
+            return -1;
+        }
+        int shift = Integer.SIZE - Integer.numberOfLeadingZeros(length - 1);
+        return Math.max(shift, MIN_CLASS_SHIFT) - MIN_CLASS_SHIFT;
+    }
+
+    /**
+     * The arrays retained by a single thread.
+     */
+    private static final class ThreadTier {
+
+        private final byte[][][] arrays = new byte[SIZE_CLASS_COUNT][ARRAYS_PER_THREAD_SIZE_CLASS][];
+        private final int[] counts = new int[SIZE_CLASS_COUNT];
+        private long bytes;
+
+        byte[] poll(int sizeClass) {
+            int count = counts[sizeClass];
+            if (count == 0) {
+                return null;
+            }
+            count--;
+            byte[] array = arrays[sizeClass][count];
+            arrays[sizeClass][count] = null;
+            counts[sizeClass] = count;
+            bytes -= array.length;
+            return array;
+        }
+
+        boolean offer(int sizeClass, byte[] array, int budget) {
+            int count = counts[sizeClass];
+            if (count == ARRAYS_PER_THREAD_SIZE_CLASS || bytes + array.length > budget) {
+                return false;
+            }
+            arrays[sizeClass][count] = array;
+            counts[sizeClass] = count + 1;
+            bytes += array.length;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compression;
+
+import com.hazelcast.config.CompressionConfig;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
+import com.hazelcast.nio.serialization.CompressionCodec;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.COMPRESSED_DATA_TYPE;
+import static com.hazelcast.internal.serialization.impl.SerializationUtil.isCompressed;
+import static com.hazelcast.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.readIntB;
+import static com.hazelcast.nio.Bits.writeIntB;
+import static com.hazelcast.util.Preconditions.checkNotNull;
+
+/**
+ * Compresses {@link Data} values with the registered {@link CompressionCodec}s and dictionaries.
+ * <p>
+ * A compressed value is a {@link HeapData} of type {@code COMPRESSED_DATA_TYPE} with the following payload
+ * after the type:
+ * <pre>
+ * | codec id (byte) | dictionary id (int) | length of the original data (int) | compressed original data ... |
+ * </pre>
+ * The compressed original data includes its partition hash and type, so decompressing gives the original data back
+ * byte by byte.
+ */
+public final class DataCompressor {
+
+    static final int CODEC_ID_OFFSET = HeapData.DATA_OFFSET;
+    static final int DICTIONARY_ID_OFFSET = CODEC_ID_OFFSET + BYTE_SIZE_IN_BYTES;
+    static final int DECOMPRESSED_LENGTH_OFFSET = DICTIONARY_ID_OFFSET + INT_SIZE_IN_BYTES;
+    static final int HEADER_LENGTH = DECOMPRESSED_LENGTH_OFFSET + INT_SIZE_IN_BYTES;
+
+    private static final ByteArrayPool BYTE_ARRAY_POOL = ByteArrayPool.getInstance();
+
+    private final ConcurrentMap<Integer, CompressionCodec> codecsById = new ConcurrentHashMap<Integer, CompressionCodec>();
+    private final ConcurrentMap<String, CompressionCodec> codecsByName = new ConcurrentHashMap<String, CompressionCodec>();
+    private final ConcurrentMap<Integer, Dictionary> dictionaries = new ConcurrentHashMap<Integer, Dictionary>();
+
+    public DataCompressor() {
+        putCodec(new Lz4Codec());
+        putCodec(new DeflateCodec());
+    }
+
+    /**
+     * Registers a custom codec.
+     *
+     * @throws IllegalArgumentException if the id of the codec is reserved or out of range,
+     *                                  or a codec with the same id or name is already registered
+     */
+    public void register(CompressionCodec codec) {
+        checkNotNull(codec, "codec can't be null");
+        int id = codec.getId();
+        if (id <= CompressionCodec.MAX_RESERVED_ID || id > CompressionCodec.MAX_ID) {
+            throw new IllegalArgumentException("Compression codec id must be between " + (CompressionCodec.MAX_RESERVED_ID + 1)
+                    + " and " + CompressionCodec.MAX_ID + " -> " + codec);
+        }
+        if (codecsById.containsKey(id) || codecsByName.containsKey(codec.getName())) {
+            throw new IllegalArgumentException("Compression codec with id '" + id + "' or name '" + codec.getName()
+                    + "' is already registered!");
+        }
+        putCodec(codec);
+    }
+
+    /**
+     * Registers a dictionary. The hash table the {@link Lz4Codec} looks the dictionary up in is built here once,
+     * not on every compression.
+     *
+     * @throws IllegalArgumentException if the id is not positive or a dictionary with the same id is already registered
+     */
+    public void registerDictionary(int dictionaryId, byte[] dictionary) {
+        checkNotNull(dictionary, "dictionary can't be null");
+        if (dictionaryId <= CompressionConfig.NO_DICTIONARY) {
+            throw new IllegalArgumentException("Compression dictionary id must be positive! -> " + dictionaryId);
+        }
+        if (dictionaries.putIfAbsent(dictionaryId, new Dictionary(dictionary)) != null) {
+            throw new IllegalArgumentException("Compression dictionary with id '" + dictionaryId + "' is already registered!");
+        }
+    }
+
+    /**
+     * Compresses the given data as configured.
+     *
+     * @return the compressed data, or the given data if compression is disabled, the data is too small or compressing
+     * it does not save space
+     * @throws HazelcastSerializationException if the configured codec or dictionary is not registered
+     */
+    public Data compress(Data data, CompressionConfig config) {
+        if (data == null || config == null || !config.isEnabled() || isCompressed(data)
+                || data.totalSize() < config.getMinSize()) {
+            return data;
+        }
+        CompressionCodec codec = codecsByName.get(config.getCodec());
+        if (codec == null) {
+            throw new HazelcastSerializationException("There is no compression codec named '" + config.getCodec() + "'");
+        }
+        int dictionaryId = config.getDictionaryId();
+        Dictionary dictionary = dictionary(dictionaryId);
+
+        byte[] bytes = data.toByteArray();
+        int maxLength = HEADER_LENGTH + codec.maxCompressedLength(bytes.length);
+        byte[] buffer = BYTE_ARRAY_POOL.take(maxLength);
+        try {
+            int compressedLength = compress(codec, bytes, buffer, dictionary);
+            int totalLength = HEADER_LENGTH + compressedLength;
+            if (totalLength >= bytes.length) {
+                return data;
+            }
+            byte[] payload = new byte[totalLength];
+            writeIntB(payload, HeapData.TYPE_OFFSET, COMPRESSED_DATA_TYPE);
+            payload[CODEC_ID_OFFSET] = (byte) codec.getId();
+            writeIntB(payload, DICTIONARY_ID_OFFSET, dictionaryId);
+            writeIntB(payload, DECOMPRESSED_LENGTH_OFFSET, bytes.length);
+            System.arraycopy(buffer, HEADER_LENGTH, payload, HEADER_LENGTH, compressedLength);
+            return new HeapData(payload);
+        } finally {
+            BYTE_ARRAY_POOL.release(buffer);
+        }
+    }
+
+    /**
+     * Returns the original form of the given compressed data, or the given data if it is not compressed.
+     *
+     * @throws HazelcastSerializationException if the codec or dictionary the data was compressed with is not registered,
+     *                                         or the compressed data is malformed
+     */
+    public Data decompress(Data data) {
+        if (!isCompressed(data)) {
+            return data;
+        }
+        byte[] payload = data.toByteArray();
+        int codecId = payload[CODEC_ID_OFFSET];
+        CompressionCodec codec = codecsById.get(codecId);
+        if (codec == null) {
+            throw new HazelcastSerializationException("There is no compression codec with id " + codecId + ". This exception "
+                    + "is likely to be caused by differences in the serialization configuration between members "
+                    + "or between clients and members.");
+        }
+        Dictionary dictionary = dictionary(readIntB(payload, DICTIONARY_ID_OFFSET));
+        int decompressedLength = readIntB(payload, DECOMPRESSED_LENGTH_OFFSET);
+        if (decompressedLength < HeapData.HEAP_DATA_OVERHEAD) {
+            throw new HazelcastSerializationException("Malformed compressed data, decompressed length: " + decompressedLength);
+        }
+        byte[] bytes = new byte[decompressedLength];
+        codec.decompress(payload, HEADER_LENGTH, payload.length - HEADER_LENGTH, bytes, 0, decompressedLength,
+                dictionary == null ? null : dictionary.bytes);
+        return new HeapData(bytes);
+    }
+
+    private static int compress(CompressionCodec codec, byte[] bytes, byte[] buffer, Dictionary dictionary) {
+        if (dictionary == null) {
+            return codec.compress(bytes, 0, bytes.length, buffer, HEADER_LENGTH, null);
+        }
+        if (codec instanceof Lz4Codec) {
+            return ((Lz4Codec) codec).compress(bytes, 0, bytes.length, buffer, HEADER_LENGTH, dictionary.bytes,
+                    dictionary.lz4HashTable);
+        }
+        return codec.compress(bytes, 0, bytes.length, buffer, HEADER_LENGTH, dictionary.bytes);
+    }
+
+    private Dictionary dictionary(int dictionaryId) {
+        if (dictionaryId == CompressionConfig.NO_DICTIONARY) {
+            return null;
+        }
+        Dictionary dictionary = dictionaries.get(dictionaryId);
+        if (dictionary == null) {
+            throw new HazelcastSerializationException("There is no compression dictionary with id " + dictionaryId);
+        }
+        return dictionary;
+    }
+
+    private void putCodec(CompressionCodec codec) {
+        codecsById.put(codec.getId(), codec);
+        codecsByName.put(codec.getName(), codec);
+    }
+
+    /**
+     * A registered dictionary with the state the built-in codecs derive from it.
+     */
+    private static final class Dictionary {
+
+        final byte[] bytes;
+        final int[] lz4HashTable;
+
+        Dictionary(byte[] bytes) {
+            this.bytes = bytes;
+            this.lz4HashTable = Lz4Codec.hashDictionary(bytes);
+        }
+    }
+}
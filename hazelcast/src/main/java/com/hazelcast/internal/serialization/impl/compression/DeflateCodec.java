@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compression;
+
+import com.hazelcast.nio.serialization.CompressionCodec;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link CompressionCodec} using the {@link Deflater}/{@link Inflater} of the JDK, with a preset dictionary
+ * if one is given.
+ */
+public final class DeflateCodec implements CompressionCodec {
+
+    /**
+     * Id of the codec.
+     */
+    public static final int ID = 2;
+
+    // the bound of zlib's compressBound(), plus the 4 bytes of the preset dictionary id
+    private static final int BOUND_SHIFT_1 = 12;
+    private static final int BOUND_SHIFT_2 = 14;
+    private static final int BOUND_SHIFT_3 = 25;
+    private static final int BOUND_OVERHEAD = 17;
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return DEFLATE;
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+        return length + (length >>> BOUND_SHIFT_1) + (length >>> BOUND_SHIFT_2) + (length >>> BOUND_SHIFT_3)
+                + BOUND_OVERHEAD;
+    }
+
+    @Override
+    public int compress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, byte[] dictionary) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(src, srcOffset, length);
+            deflater.finish();
+            int count = deflater.deflate(dst, dstOffset, dst.length - dstOffset);
+            if (!deflater.finished()) {
+                throw new IllegalStateException("Deflated data exceeds " + (dst.length - dstOffset) + " bytes");
+            }
+            return count;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public void decompress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, int decompressedLength,
+                           byte[] dictionary) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(src, srcOffset, length);
+            int count = 0;
+            while (count < decompressedLength) {
+                int inflated = inflater.inflate(dst, dstOffset + count, decompressedLength - count);
+                if (inflated == 0) {
+                    if (!inflater.needsDictionary() || dictionary == null) {
+                        break;
+                    }
+                    inflater.setDictionary(dictionary);
+                }
+                count += inflated;
+            }
+            if (count != decompressedLength) {
+                throw new HazelcastSerializationException("Malformed deflated data: inflated " + count
+                        + " bytes instead of " + decompressedLength);
+            }
+        } catch (DataFormatException e) {
+            throw new HazelcastSerializationException("Malformed deflated data", e);
+        } catch (IllegalArgumentException e) {
+            // thrown when the data was deflated with another dictionary
+            throw new HazelcastSerializationException("Malformed deflated data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
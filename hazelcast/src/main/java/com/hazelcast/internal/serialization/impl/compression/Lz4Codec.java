@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compression;
+
+import com.hazelcast.nio.serialization.CompressionCodec;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * A pure Java implementation of the LZ4 block format.
+ * <p>
+ * The compressor looks up 4 byte sequences in a hash table of their last positions and emits
+ * (literals, match) sequences; it favors speed over ratio and does not search for the longest match.
+ * A dictionary is supported as a prefix the matches of the first 64 KB of the input can refer to. The input is
+ * matched against the dictionary in place, by looking up the sequences missing from the hash table of the input
+ * in a separate, read-only hash table of the dictionary.
+ */
+public final class Lz4Codec implements CompressionCodec {
+
+    /**
+     * Id of the codec.
+     */
+    public static final int ID = 1;
+
+    private static final int MIN_MATCH = 4;
+    private static final int MIN_HASH_LOG = 6;
+    private static final int MAX_HASH_LOG = 12;
+    private static final int MAX_DICTIONARY_HASH_LOG = 16;
+    private static final int HASH_MULTIPLIER = -1640531535;
+    private static final int MAX_OFFSET = 0xFFFF;
+    // the last match must start at least 12 bytes before the end of the block and the last 5 bytes are always literals
+    private static final int MF_LIMIT = 12;
+    private static final int LAST_LITERALS = 5;
+    private static final int RUN_MASK = 0x0F;
+    private static final int TOKEN_SHIFT = 4;
+    private static final int LENGTH_BYTE_MAX = 0xFF;
+    private static final int SKIP_SHIFT = 6;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int BITS_IN_BYTE = 8;
+    private static final int MAX_OVERHEAD = 16;
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return LZ4;
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+        return length + length / LENGTH_BYTE_MAX + MAX_OVERHEAD;
+    }
+
+    @Override
+    public int compress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, byte[] dictionary) {
+        int[] dictionaryTable = dictionary == null ? null : hashDictionary(dictionary);
+        return compress(src, srcOffset, length, dst, dstOffset, dictionary, dictionaryTable);
+    }
+
+    /**
+     * Compresses with a dictionary whose hash table was built in advance by {@link #hashDictionary(byte[])}.
+     * The table is only read, so it can be shared by concurrent calls.
+     */
+    int compress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, byte[] dictionary, int[] dictionaryTable) {
+        return new Encoder(src, srcOffset, length, dst, dstOffset, dictionary, dictionaryTable).encode();
+    }
+
+    /**
+     * Builds the hash table of the 4 byte sequences of the given dictionary, only its last 64 KB are reachable
+     * by the matches. The size of the table is a power of two growing with the dictionary.
+     */
+    static int[] hashDictionary(byte[] dictionary) {
+        int prefixLength = min(dictionary.length, MAX_OFFSET);
+        int hashLog = hashLog(prefixLength, MAX_DICTIONARY_HASH_LOG);
+        int[] table = new int[1 << hashLog];
+        for (int p = dictionary.length - prefixLength; p + MIN_MATCH <= dictionary.length; p++) {
+            table[hash(readInt(dictionary, p), hashLog)] = p + 1;
+        }
+        return table;
+    }
+
+    private static int hashLog(int length, int maxHashLog) {
+        return max(MIN_HASH_LOG, min(maxHashLog, Integer.SIZE - Integer.numberOfLeadingZeros(length)));
+    }
+
+    @Override
+    public void decompress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, int decompressedLength,
+                           byte[] dictionary) {
+        try {
+            new Decoder(src, srcOffset, length, dst, dstOffset, decompressedLength, dictionary).decode();
+        } catch (IndexOutOfBoundsException e) {
+            throw new HazelcastSerializationException("Malformed LZ4 block", e);
+        }
+    }
+
+    private static int writeSequence(byte[] in, int literalStart, int literalLength, int offset, int matchLength,
+                                     byte[] dst, int op) {
+        int tokenPos = op++;
+        int token = min(literalLength, RUN_MASK) << TOKEN_SHIFT;
+        if (literalLength >= RUN_MASK) {
+            op = writeLength(literalLength - RUN_MASK, dst, op);
+        }
+        System.arraycopy(in, literalStart, dst, op, literalLength);
+        op += literalLength;
+        dst[op++] = (byte) offset;
+        dst[op++] = (byte) (offset >>> BITS_IN_BYTE);
+        int extraMatchLength = matchLength - MIN_MATCH;
+        token |= min(extraMatchLength, RUN_MASK);
+        if (extraMatchLength >= RUN_MASK) {
+            op = writeLength(extraMatchLength - RUN_MASK, dst, op);
+        }
+        dst[tokenPos] = (byte) token;
+        return op;
+    }
+
+    private static int writeLastLiterals(byte[] in, int literalStart, int literalLength, byte[] dst, int op) {
+        dst[op++] = (byte) (min(literalLength, RUN_MASK) << TOKEN_SHIFT);
+        if (literalLength >= RUN_MASK) {
+            op = writeLength(literalLength - RUN_MASK, dst, op);
+        }
+        System.arraycopy(in, literalStart, dst, op, literalLength);
+        return op + literalLength;
+    }
+
+    private static int writeLength(int length, byte[] dst, int op) {
+        while (length >= LENGTH_BYTE_MAX) {
+            dst[op++] = (byte) LENGTH_BYTE_MAX;
+            length -= LENGTH_BYTE_MAX;
+        }
+        dst[op++] = (byte) length;
+        return op;
+    }
+
+    private static int readInt(byte[] bytes, int pos) {
+        return (bytes[pos] & BYTE_MASK)
+                | (bytes[pos + 1] & BYTE_MASK) << BITS_IN_BYTE
+                | (bytes[pos + 2] & BYTE_MASK) << (2 * BITS_IN_BYTE)
+                | (bytes[pos + 3] & BYTE_MASK) << (3 * BITS_IN_BYTE);
+    }
+
+    private static int hash(int sequence, int hashLog) {
+        return (sequence * HASH_MULTIPLIER) >>> (Integer.SIZE - hashLog);
+    }
+
+    /**
+     * Encodes a single block. Positions in the hash table of the input are {@code src} indexes, positions in the
+     * hash table of the dictionary are dictionary indexes; both are stored + 1, so 0 means empty.
+     */
+    private static final class Encoder {
+
+        private final byte[] src;
+        private final int srcOffset;
+        private final int end;
+        private final byte[] dst;
+        private final int dstOffset;
+        private final int[] table;
+        private final int hashLog;
+        private final byte[] dictionary;
+        private final int[] dictionaryTable;
+        private final int dictionaryHashLog;
+        // the match found by the last successful findMatch call
+        private int matchStart;
+        private int matchOffset;
+        private int matchLength;
+
+        Encoder(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, byte[] dictionary, int[] dictionaryTable) {
+            this.src = src;
+            this.srcOffset = srcOffset;
+            this.end = srcOffset + length;
+            this.dst = dst;
+            this.dstOffset = dstOffset;
+            // small values get a small table, clearing a large one would take longer than compressing them
+            this.hashLog = hashLog(length, MAX_HASH_LOG);
+            this.table = new int[1 << hashLog];
+            this.dictionary = dictionary;
+            this.dictionaryTable = dictionary == null ? null : dictionaryTable;
+            this.dictionaryHashLog = dictionary == null ? 0 : Integer.numberOfTrailingZeros(dictionaryTable.length);
+        }
+
+        int encode() {
+            int matchLimit = end - MF_LIMIT;
+            int anchor = srcOffset;
+            int p = srcOffset;
+            int op = dstOffset;
+            while (p < matchLimit) {
+                if (!findMatch(p, anchor)) {
+                    // skip faster over incompressible input
+                    p += 1 + ((p - anchor) >>> SKIP_SHIFT);
+                    continue;
+                }
+                op = writeSequence(src, anchor, matchStart - anchor, matchOffset, matchLength, dst, op);
+                p = matchStart + matchLength;
+                anchor = p;
+            }
+            op = writeLastLiterals(src, anchor, end - anchor, dst, op);
+            return op - dstOffset;
+        }
+
+        private boolean findMatch(int p, int anchor) {
+            int sequence = readInt(src, p);
+            int h = hash(sequence, hashLog);
+            int ref = table[h] - 1;
+            table[h] = p + 1;
+            if (ref >= 0 && p - ref <= MAX_OFFSET && readInt(src, ref) == sequence) {
+                while (p > anchor && ref > srcOffset && src[p - 1] == src[ref - 1]) {
+                    p--;
+                    ref--;
+                }
+                int length = MIN_MATCH;
+                while (p + length < end - LAST_LITERALS && src[p + length] == src[ref + length]) {
+                    length++;
+                }
+                setMatch(p, p - ref, length);
+                return true;
+            }
+            return dictionary != null && findDictionaryMatch(p, anchor, sequence);
+        }
+
+        /**
+         * Looks the sequence up in the dictionary, which precedes the input: a dictionary index {@code ref}
+         * is at the offset {@code (p - srcOffset) + (dictionary.length - ref)} from the input position {@code p}.
+         */
+        private boolean findDictionaryMatch(int p, int anchor, int sequence) {
+            int ref = dictionaryTable[hash(sequence, dictionaryHashLog)] - 1;
+            if (ref < 0) {
+                return false;
+            }
+            int offset = p - srcOffset + dictionary.length - ref;
+            if (offset > MAX_OFFSET || readInt(dictionary, ref) != sequence) {
+                return false;
+            }
+            while (p > anchor && ref > 0 && src[p - 1] == dictionary[ref - 1]) {
+                p--;
+                ref--;
+            }
+            int length = MIN_MATCH;
+            while (p + length < end - LAST_LITERALS && src[p + length] == dictionaryOrInputByte(ref + length)) {
+                length++;
+            }
+            setMatch(p, offset, length);
+            return true;
+        }
+
+        /**
+         * A match starting in the dictionary may continue at the start of the input.
+         */
+        private byte dictionaryOrInputByte(int index) {
+            return index < dictionary.length ? dictionary[index] : src[srcOffset + index - dictionary.length];
+        }
+
+        private void setMatch(int start, int offset, int length) {
+            matchStart = start;
+            matchOffset = offset;
+            matchLength = length;
+        }
+    }
+
+    /**
+     * Decodes a single block, checking every read and write against the given ranges, since the arrays
+     * may be longer than the block.
+     */
+    private static final class Decoder {
+
+        private final byte[] src;
+        private final int srcEnd;
+        private final byte[] dst;
+        private final int dstOffset;
+        private final int dstEnd;
+        private final byte[] dictionary;
+        private int ip;
+        private int op;
+
+        Decoder(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, int decompressedLength, byte[] dictionary) {
+            this.src = src;
+            this.srcEnd = srcOffset + length;
+            this.dst = dst;
+            this.dstOffset = dstOffset;
+            this.dstEnd = dstOffset + decompressedLength;
+            this.dictionary = dictionary;
+            this.ip = srcOffset;
+            this.op = dstOffset;
+        }
+
+        void decode() {
+            while (true) {
+                int token = readByte();
+                int literalLength = readLength(token >>> TOKEN_SHIFT);
+                checkBounds(ip + literalLength, op + literalLength);
+                System.arraycopy(src, ip, dst, op, literalLength);
+                ip += literalLength;
+                op += literalLength;
+                if (ip == srcEnd) {
+                    break;
+                }
+
+                int offset = readByte() | (readByte() << BITS_IN_BYTE);
+                int matchLength = readLength(token & RUN_MASK) + MIN_MATCH;
+                checkBounds(ip, op + matchLength);
+                copyMatch(offset, matchLength);
+            }
+            if (op != dstEnd) {
+                throw new HazelcastSerializationException("Malformed LZ4 block: decompressed " + (op - dstOffset)
+                        + " bytes instead of " + (dstEnd - dstOffset));
+            }
+        }
+
+        private void copyMatch(int offset, int matchLength) {
+            if (offset == 0) {
+                throw new HazelcastSerializationException("Malformed LZ4 block: zero offset");
+            }
+            int ref = op - offset;
+            if (ref < dstOffset) {
+                // the match starts in the dictionary
+                int dictionaryStart = dictionary == null ? -1 : dictionary.length - (dstOffset - ref);
+                if (dictionaryStart < 0) {
+                    throw new HazelcastSerializationException("Malformed LZ4 block: offset out of range");
+                }
+                int fromDictionary = min(dstOffset - ref, matchLength);
+                System.arraycopy(dictionary, dictionaryStart, dst, op, fromDictionary);
+                op += fromDictionary;
+                matchLength -= fromDictionary;
+                ref = dstOffset;
+            }
+            if (op - ref >= matchLength) {
+                System.arraycopy(dst, ref, dst, op, matchLength);
+                op += matchLength;
+            } else {
+                // overlapping match, repeats the last (op - ref) bytes
+                for (int i = 0; i < matchLength; i++) {
+                    dst[op++] = dst[ref++];
+                }
+            }
+        }
+
+        private int readLength(int length) {
+            if (length != RUN_MASK) {
+                return length;
+            }
+            int b;
+            do {
+                b = readByte();
+                length += b;
+            } while (b == LENGTH_BYTE_MAX);
+            return length;
+        }
+
+        private int readByte() {
+            if (ip >= srcEnd) {
+                throw new HazelcastSerializationException("Malformed LZ4 block: unexpected end of input");
+            }
+            return src[ip++] & BYTE_MASK;
+        }
+
+        private void checkBounds(int srcPosition, int dstPosition) {
+            if (srcPosition > srcEnd || dstPosition > dstEnd) {
+                throw new HazelcastSerializationException("Malformed LZ4 block: sequence out of range");
+            }
+        }
+    }
+}
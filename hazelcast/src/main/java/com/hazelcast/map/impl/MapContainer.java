@@ -18,6 +18,7 @@ package com.hazelcast.map.impl;
 
 import com.hazelcast.config.Config;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MapIndexConfig;
 import com.hazelcast.config.WanReplicationRef;
 import com.hazelcast.core.IFunction;
 import com.hazelcast.core.PartitioningStrategy;
@@ -29,6 +30,7 @@ import com.hazelcast.map.impl.eviction.EvictorImpl;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.nearcache.invalidation.InvalidationListener;
 import com.hazelcast.map.impl.query.QueryEntryFactory;
+import com.hazelcast.map.impl.record.CompactDataRecordFactory;
 import com.hazelcast.map.impl.record.DataRecordFactory;
 import com.hazelcast.map.impl.record.ObjectRecordFactory;
 import com.hazelcast.map.impl.record.RecordFactory;
@@ -53,7 +55,9 @@ import com.hazelcast.wan.WanReplicationPublisher;
 import com.hazelcast.wan.WanReplicationService;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
@@ -117,7 +121,7 @@ public class MapContainer {
         this.extractors = new Extractors(mapConfig.getMapAttributeConfigs(), config.getClassLoader());
         if (shouldUseGlobalIndex(mapConfig)) {
             this.globalIndexes = new Indexes((InternalSerializationService) serializationService,
-                    mapServiceContext.getIndexProvider(mapConfig), extractors, true);
+                    mapServiceContext.getIndexProvider(mapConfig), extractors, true, getBitmapIndexAttributes(mapConfig));
         } else {
             this.globalIndexes = null;
         }
@@ -144,6 +148,19 @@ public class MapContainer {
         return !mapConfig.getInMemoryFormat().equals(NATIVE);
     }
 
+    /**
+     * Bitmap indexes are kept on-heap, so they are supported by the global indexes only.
+     */
+    private static Set<String> getBitmapIndexAttributes(MapConfig mapConfig) {
+        Set<String> attributes = new HashSet<String>();
+        for (MapIndexConfig indexConfig : mapConfig.getMapIndexConfigs()) {
+            if (indexConfig.isBitmap()) {
+                attributes.add(indexConfig.getAttribute());
+            }
+        }
+        return attributes;
+    }
+
     protected static MemoryInfoAccessor getMemoryInfoAccessor() {
         MemoryInfoAccessor pluggedMemoryInfoAccessor = getPluggedMemoryInfoAccessor();
         return pluggedMemoryInfoAccessor != null ? pluggedMemoryInfoAccessor : new RuntimeMemoryInfoAccessor();
@@ -170,6 +187,9 @@ public class MapContainer {
             public RecordFactory createNew(Void notUsedArg) {
                 switch (mapConfig.getInMemoryFormat()) {
                     case BINARY:
+                        if (mapConfig.isCompactRecordsEnabled()) {
+                            return new CompactDataRecordFactory(mapConfig, serializationService, partitioningStrategy);
+                        }
                         return new DataRecordFactory(mapConfig, serializationService, partitioningStrategy);
                     case OBJECT:
                         return new ObjectRecordFactory(mapConfig, serializationService);
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.iterator;
+
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+/**
+ * Base class for streaming the result of a query over all partitions of a map.
+ * <p>
+ * Instead of materializing the whole result on the caller, the partitions are visited one after the other
+ * and each of them is iterated in chunks of {@code fetchSize} entries by a per-partition iterator. The next
+ * chunk is fetched only when the previous one has been consumed, so the memory held on both the caller and
+ * the partition owner is bounded by the fetch size and the caller can process the first results before the
+ * remaining partitions are scanned.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @param <R> the return type of the projection
+ * @see AbstractMapQueryPartitionIterator
+ */
+public abstract class AbstractMapQueryIterator<K, V, R> implements Iterator<R> {
+    protected final int fetchSize;
+    protected final Predicate<K, V> predicate;
+    protected final Projection<Entry<K, V>, R> projection;
+
+    private final int partitionCount;
+    private int nextPartitionId;
+    private Iterator<R> partitionIterator;
+
+    public AbstractMapQueryIterator(int fetchSize, int partitionCount,
+                                    Predicate<K, V> predicate, Projection<Entry<K, V>, R> projection) {
+        this.fetchSize = fetchSize;
+        this.partitionCount = partitionCount;
+        this.predicate = predicate;
+        this.projection = projection;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (partitionIterator == null || !partitionIterator.hasNext()) {
+            if (nextPartitionId >= partitionCount) {
+                partitionIterator = null;
+                return false;
+            }
+            partitionIterator = newPartitionIterator(nextPartitionId++);
+        }
+        return true;
+    }
+
+    @Override
+    public R next() {
+        if (hasNext()) {
+            return partitionIterator.next();
+        }
+        throw new NoSuchElementException();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removing when iterating map with query is not supported");
+    }
+
+    /**
+     * Creates the iterator fetching the results of the {@code partitionId} in chunks of {@link #fetchSize} entries.
+     */
+    protected abstract Iterator<R> newPartitionIterator(int partitionId);
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.iterator;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+/**
+ * Iterator streaming the result of a query over all partitions of a map. Each partition is iterated
+ * by a {@link MapQueryPartitionIterator}, so the values are fetched in batches and on demand.
+ * The {@link Iterator#remove()} method is not supported and will throw an {@link UnsupportedOperationException}.
+ * <b>NOTE</b>
+ * Iterating the map should be done only when the {@link IMap} is not being
+ * mutated and the cluster is stable (there are no migrations or membership changes).
+ * In other cases, the iterator may not return some entries or may return an entry twice.
+ */
+public class MapQueryIterator<K, V, R> extends AbstractMapQueryIterator<K, V, R> {
+
+    private final MapProxyImpl<K, V> mapProxy;
+
+    public MapQueryIterator(MapProxyImpl<K, V> mapProxy, int fetchSize, Predicate<K, V> predicate,
+                            Projection<Entry<K, V>, R> projection) {
+        super(fetchSize, mapProxy.getNodeEngine().getPartitionService().getPartitionCount(), predicate, projection);
+        this.mapProxy = mapProxy;
+    }
+
+    @Override
+    protected Iterator<R> newPartitionIterator(int partitionId) {
+        return new MapQueryPartitionIterator<K, V, R>(mapProxy, fetchSize, partitionId, predicate, projection);
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.query;
 
 import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.CountAggregator;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.serialization.SerializationService;
 
@@ -38,12 +39,28 @@ public class AggregationResultProcessor implements ResultProcessor<AggregationRe
     @Override
     public AggregationResult populateResult(Query query, long resultLimit, Collection<QueryableEntry> entries,
                                             Collection<Integer> partitionIds) {
-        return accumulationExecutor.execute(query.getAggregator(), entries, partitionIds);
+        Aggregator aggregator = query.getAggregator();
+        if (aggregator instanceof CountAggregator && ((CountAggregator) aggregator).getAttributePath() == null) {
+            // the entries are counted at once, so their values are not deserialized
+            CountAggregator resultAggregator = (CountAggregator) copyOf(aggregator);
+            try {
+                resultAggregator.accumulateEntries(entries.size());
+            } finally {
+                resultAggregator.onAccumulationFinished();
+            }
+            AggregationResult result = new AggregationResult(resultAggregator);
+            result.setPartitionIds(partitionIds);
+            return result;
+        }
+        return accumulationExecutor.execute(aggregator, entries, partitionIds);
     }
 
     @Override
     public AggregationResult populateResult(Query query, long resultLimit) {
-        Aggregator resultAggregator = serializationService.toObject(serializationService.toData(query.getAggregator()));
-        return new AggregationResult(resultAggregator);
+        return new AggregationResult(copyOf(query.getAggregator()));
+    }
+
+    private Aggregator copyOf(Aggregator aggregator) {
+        return serializationService.toObject(serializationService.toData(aggregator));
     }
 }
@@ -16,6 +16,8 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
 import com.hazelcast.query.impl.QueryableEntry;
@@ -24,6 +26,9 @@ import com.hazelcast.spi.exception.RetryableHazelcastException;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import static com.hazelcast.query.PagingPredicateAccessor.getNearestAnchorEntry;
+import static com.hazelcast.util.SortingUtil.mergeSortedSubLists;
+
 /**
  * Implementation of the {@link PartitionScanExecutor} which executes the partition scan in a sequential-fashion
  * in the calling thread.
@@ -39,10 +44,10 @@ public class CallerRunsPartitionScanExecutor implements PartitionScanExecutor {
     @Override
     public Collection<QueryableEntry> execute(String mapName, Predicate predicate, Collection<Integer> partitions) {
         RetryableHazelcastException storedException = null;
-        Collection<QueryableEntry> result = new ArrayList<QueryableEntry>();
+        Collection<Collection<QueryableEntry>> partitionResults = new ArrayList<Collection<QueryableEntry>>(partitions.size());
         for (Integer partitionId : partitions) {
             try {
-                result.addAll(partitionScanRunner.run(mapName, predicate, partitionId));
+                partitionResults.add(partitionScanRunner.run(mapName, predicate, partitionId));
             } catch (RetryableHazelcastException e) {
                 // RetryableHazelcastException are stored and re-thrown later. this is to ensure all partitions
                 // are touched as when the parallel execution was used.
@@ -55,6 +60,15 @@ public class CallerRunsPartitionScanExecutor implements PartitionScanExecutor {
         if (storedException != null) {
             throw storedException;
         }
+        if (predicate instanceof PagingPredicate) {
+            // every partition returns its entries sorted and limited to the requested pages, so they are merged
+            PagingPredicate pagingPredicate = (PagingPredicate) predicate;
+            return mergeSortedSubLists(partitionResults, pagingPredicate, getNearestAnchorEntry(pagingPredicate));
+        }
+        Collection<QueryableEntry> result = new ArrayList<QueryableEntry>();
+        for (Collection<QueryableEntry> partitionResult : partitionResults) {
+            result.addAll(partitionResult);
+        }
         return result;
     }
 
@@ -62,4 +76,28 @@ public class CallerRunsPartitionScanExecutor implements PartitionScanExecutor {
     public QueryableEntriesSegment execute(String mapName, Predicate predicate, int partitionId, int tableIndex, int fetchSize) {
         return partitionScanRunner.run(mapName, predicate, partitionId, tableIndex, fetchSize);
     }
+
+    @Override
+    public Aggregator aggregate(String mapName, Predicate predicate, Collection<Integer> partitions, Aggregator aggregator) {
+        RetryableHazelcastException storedException = null;
+        Aggregator resultAggregator = partitionScanRunner.copyOf(aggregator);
+        try {
+            for (Integer partitionId : partitions) {
+                try {
+                    partitionScanRunner.accumulate(mapName, predicate, partitionId, resultAggregator);
+                } catch (RetryableHazelcastException e) {
+                    // see execute(String, Predicate, Collection)
+                    if (storedException == null) {
+                        storedException = e;
+                    }
+                }
+            }
+        } finally {
+            resultAggregator.onAccumulationFinished();
+        }
+        if (storedException != null) {
+            throw storedException;
+        }
+        return resultAggregator;
+    }
 }
@@ -17,13 +17,36 @@
 package com.hazelcast.map.impl.query;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.query.impl.CompositeIndex;
 import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.IndexImpl;
 import com.hazelcast.query.impl.getters.Extractors;
 
 public class DefaultIndexProvider implements IndexProvider {
+
+    private final boolean bPlusTreeEnabled;
+    private final boolean statisticsEnabled;
+
+    public DefaultIndexProvider() {
+        this(false, false);
+    }
+
+    /**
+     * @param bPlusTreeEnabled  {@code true} if ordered indexes should be backed by a
+     *                          {@link com.hazelcast.query.impl.BPlusTreeIndexStore}
+     * @param statisticsEnabled {@code true} if the indexes should collect {@link com.hazelcast.query.impl.IndexStatistics},
+     *                          only the cost-based query optimizer uses them
+     */
+    public DefaultIndexProvider(boolean bPlusTreeEnabled, boolean statisticsEnabled) {
+        this.bPlusTreeEnabled = bPlusTreeEnabled;
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
     @Override
     public Index createIndex(String attributeName, boolean ordered, Extractors extractors, InternalSerializationService ss) {
-        return new IndexImpl(attributeName, ordered, ss, extractors);
+        if (CompositeIndex.isComposite(attributeName)) {
+            return new CompositeIndex(attributeName, ordered, ss, extractors, bPlusTreeEnabled);
+        }
+        return new IndexImpl(attributeName, ordered, ss, extractors, bPlusTreeEnabled, statisticsEnabled);
     }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.AbstractAggregator;
+import com.hazelcast.aggregation.impl.MaxAggregator;
+import com.hazelcast.aggregation.impl.MinAggregator;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexImpl;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.Iterator;
+
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+
+/**
+ * Answers aggregations from the metadata of the ordered indexes, without accumulating all of the aggregated entries.
+ * <p>
+ * A {@link MinAggregator} or a {@link MaxAggregator} over all of the entries accumulates only an entry having the
+ * smallest or the greatest value stored in the naturally ordered index of the aggregated attribute, since the
+ * aggregator ignores {@code null} values the same way as the index order does.
+ */
+final class IndexAggregation {
+
+    private IndexAggregation() {
+    }
+
+    /**
+     * Aggregates the entries matching the predicate using the given indexes.
+     *
+     * @param aggregator           the aggregator to copy, it is not modified
+     * @param predicate            the predicate which the entries must match
+     * @param indexes              the indexes of all of the aggregated entries
+     * @param serializationService the service to copy the aggregator by
+     * @return the copy of the aggregator which accumulated the entries or {@code null} if the aggregation
+     * can not be answered by the indexes
+     */
+    @SuppressWarnings("unchecked")
+    static Aggregator aggregate(Aggregator aggregator, Predicate predicate, Indexes indexes,
+                                SerializationService serializationService) {
+        IndexImpl index = getSortedIndex(aggregator, predicate, indexes);
+        if (index == null) {
+            return null;
+        }
+        Comparable value = aggregator instanceof MinAggregator ? index.getMinValue() : index.getMaxValue();
+        Aggregator resultAggregator = serializationService.toObject(serializationService.toData(aggregator));
+        try {
+            if (value != null) {
+                Iterator<QueryableEntry> records = index.getRecords(value).iterator();
+                if (!records.hasNext()) {
+                    // removed in the meantime, the aggregation falls back to the other ways of querying
+                    return null;
+                }
+                resultAggregator.accumulate(records.next());
+            }
+        } finally {
+            resultAggregator.onAccumulationFinished();
+        }
+        return resultAggregator;
+    }
+
+    private static IndexImpl getSortedIndex(Aggregator aggregator, Predicate predicate, Indexes indexes) {
+        if (indexes == null || !(predicate instanceof TruePredicate)) {
+            return null;
+        }
+        if (!(aggregator instanceof MinAggregator || aggregator instanceof MaxAggregator)) {
+            return null;
+        }
+        String attributePath = ((AbstractAggregator) aggregator).getAttributePath();
+        Index index = indexes.getIndex(attributePath == null ? THIS_ATTRIBUTE_NAME.value() : attributePath);
+        if (index instanceof IndexImpl && ((IndexImpl) index).isNaturallyOrdered()) {
+            return (IndexImpl) index;
+        }
+        return null;
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
@@ -32,7 +33,7 @@ import java.util.concurrent.Future;
 import static com.hazelcast.query.PagingPredicateAccessor.getNearestAnchorEntry;
 import static com.hazelcast.util.FutureUtil.RETHROW_EVERYTHING;
 import static com.hazelcast.util.FutureUtil.returnWithDeadline;
-import static com.hazelcast.util.SortingUtil.getSortedSubList;
+import static com.hazelcast.util.SortingUtil.mergeSortedSubLists;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
@@ -54,12 +55,13 @@ public class ParallelPartitionScanExecutor implements PartitionScanExecutor {
 
     @Override
     public List<QueryableEntry> execute(String mapName, Predicate predicate, Collection<Integer> partitions) {
-        List<QueryableEntry> result = runUsingPartitionScanWithoutPaging(mapName, predicate, partitions);
         if (predicate instanceof PagingPredicate) {
+            // every partition returns its entries sorted and limited to the requested pages, so they are merged
+            Collection<Collection<QueryableEntry>> partitionResults = runPartitionScans(mapName, predicate, partitions);
             Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry((PagingPredicate) predicate);
-            result = getSortedSubList(result, (PagingPredicate) predicate, nearestAnchorEntry);
+            return mergeSortedSubLists(partitionResults, (PagingPredicate) predicate, nearestAnchorEntry);
         }
-        return result;
+        return runUsingPartitionScanWithoutPaging(mapName, predicate, partitions);
     }
 
     /**
@@ -71,9 +73,46 @@ public class ParallelPartitionScanExecutor implements PartitionScanExecutor {
         return partitionScanRunner.run(mapName, predicate, partitionId, tableIndex, fetchSize);
     }
 
+    /**
+     * {@inheritDoc}
+     * Every partition is accumulated by its own copy of the aggregator, the copies are combined at the end.
+     */
+    @Override
+    public Aggregator aggregate(String mapName, Predicate predicate, Collection<Integer> partitions, Aggregator aggregator) {
+        List<Future<Aggregator>> futures = new ArrayList<Future<Aggregator>>(partitions.size());
+        for (Integer partitionId : partitions) {
+            AggregatePartitionCallable task = new AggregatePartitionCallable(mapName, predicate, partitionId,
+                    partitionScanRunner.copyOf(aggregator));
+            futures.add(executor.submit(task));
+        }
+        Collection<Aggregator> partitionAggregators = returnWithDeadline(futures, timeoutInMillis, MILLISECONDS,
+                RETHROW_EVERYTHING);
+
+        Aggregator resultAggregator = partitionScanRunner.copyOf(aggregator);
+        try {
+            for (Aggregator partitionAggregator : partitionAggregators) {
+                resultAggregator.combine(partitionAggregator);
+            }
+        } finally {
+            resultAggregator.onCombinationFinished();
+        }
+        return resultAggregator;
+    }
+
     protected List<QueryableEntry> runUsingPartitionScanWithoutPaging(
             String name, Predicate predicate, Collection<Integer> partitions) {
 
+        Collection<Collection<QueryableEntry>> returnedResults = runPartitionScans(name, predicate, partitions);
+        List<QueryableEntry> result = new ArrayList<QueryableEntry>();
+        for (Collection<QueryableEntry> returnedResult : returnedResults) {
+            result.addAll(returnedResult);
+        }
+        return result;
+    }
+
+    private Collection<Collection<QueryableEntry>> runPartitionScans(
+            String name, Predicate predicate, Collection<Integer> partitions) {
+
         List<Future<Collection<QueryableEntry>>> futures = new ArrayList<Future<Collection<QueryableEntry>>>(partitions.size());
 
         for (Integer partitionId : partitions) {
@@ -81,12 +120,7 @@ public class ParallelPartitionScanExecutor implements PartitionScanExecutor {
             futures.add(future);
         }
 
-        Collection<Collection<QueryableEntry>> returnedResults = waitForResult(futures, timeoutInMillis);
-        List<QueryableEntry> result = new ArrayList<QueryableEntry>();
-        for (Collection<QueryableEntry> returnedResult : returnedResults) {
-            result.addAll(returnedResult);
-        }
-        return result;
+        return waitForResult(futures, timeoutInMillis);
     }
 
     protected Future<Collection<QueryableEntry>> runPartitionScanForPartition(String name, Predicate predicate, int partitionId) {
@@ -114,4 +148,28 @@ public class ParallelPartitionScanExecutor implements PartitionScanExecutor {
             return partitionScanRunner.run(name, predicate, partition);
         }
     }
+
+    private final class AggregatePartitionCallable implements Callable<Aggregator> {
+        private final String name;
+        private final Predicate predicate;
+        private final int partition;
+        private final Aggregator aggregator;
+
+        private AggregatePartitionCallable(String name, Predicate predicate, int partitionId, Aggregator aggregator) {
+            this.name = name;
+            this.predicate = predicate;
+            this.partition = partitionId;
+            this.aggregator = aggregator;
+        }
+
+        @Override
+        public Aggregator call() throws Exception {
+            try {
+                partitionScanRunner.accumulate(name, predicate, partition, aggregator);
+            } finally {
+                aggregator.onAccumulationFinished();
+            }
+            return aggregator;
+        }
+    }
 }
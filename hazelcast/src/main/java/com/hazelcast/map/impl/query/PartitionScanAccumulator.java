@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.AbstractAggregator;
+import com.hazelcast.aggregation.impl.CountAggregator;
+import com.hazelcast.aggregation.impl.DoubleValueAccumulator;
+import com.hazelcast.aggregation.impl.LongValueAccumulator;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.Bits;
+import com.hazelcast.query.Predicate;
+
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_DOUBLE;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_LONG;
+
+/**
+ * Accumulates the matching entries of the {@link PartitionScanBatch}es of a partition scan by an {@link Aggregator}.
+ * <p>
+ * Aggregators known to the accumulator skip parts of the work done for every entry:
+ * <ul>
+ * <li>An {@link AbstractAggregator} accumulates only the values extracted from the entries, so the entries of the
+ * batch are accumulated in place and reused for the following records instead of being detached from the batch.</li>
+ * <li>A {@link CountAggregator} without an attribute path counts the matching entries at once, the values
+ * are not deserialized.</li>
+ * <li>A {@link LongValueAccumulator} or a {@link DoubleValueAccumulator} without an attribute path reads a serialized
+ * {@code long} or {@code double} value straight from its bytes, the value is neither deserialized nor boxed.</li>
+ * </ul>
+ * Not thread-safe, an accumulator is used by a single scan at a time.
+ */
+final class PartitionScanAccumulator {
+
+    private final Aggregator aggregator;
+    private final boolean bigEndian;
+    private final boolean reuseEntries;
+    private final boolean countEntries;
+    private final boolean primitiveValues;
+
+    PartitionScanAccumulator(Aggregator aggregator, boolean bigEndian) {
+        this.aggregator = aggregator;
+        this.bigEndian = bigEndian;
+        this.reuseEntries = aggregator instanceof AbstractAggregator;
+        boolean accumulatesValues = reuseEntries && ((AbstractAggregator) aggregator).getAttributePath() == null;
+        this.countEntries = accumulatesValues && aggregator instanceof CountAggregator;
+        this.primitiveValues = accumulatesValues
+                && (aggregator instanceof LongValueAccumulator || aggregator instanceof DoubleValueAccumulator);
+    }
+
+    /**
+     * Accumulates the records of the batch matching the predicate and clears the batch.
+     */
+    @SuppressWarnings("unchecked")
+    void accumulate(PartitionScanBatch batch, Predicate predicate) {
+        int selectedCount = batch.filter(predicate);
+        if (countEntries) {
+            ((CountAggregator) aggregator).accumulateEntries(selectedCount);
+        } else {
+            for (int i = 0; i < selectedCount; i++) {
+                if (primitiveValues && accumulatePrimitive(batch.getSelectedValue(i))) {
+                    continue;
+                }
+                aggregator.accumulate(reuseEntries ? batch.getSelected(i) : batch.detachSelected(i));
+            }
+        }
+        batch.clear();
+    }
+
+    /**
+     * Accumulates a serialized {@code long} or {@code double} value without deserializing it.
+     *
+     * @return {@code true} if the value was accumulated, {@code false} if it has to be accumulated as an entry
+     */
+    private boolean accumulatePrimitive(Object value) {
+        if (!(value instanceof HeapData)) {
+            return false;
+        }
+        HeapData data = (HeapData) value;
+        int type = data.getType();
+        if (type == CONSTANT_TYPE_LONG && aggregator instanceof LongValueAccumulator) {
+            ((LongValueAccumulator) aggregator).accumulateLong(readLong(data));
+            return true;
+        }
+        if (type == CONSTANT_TYPE_DOUBLE && aggregator instanceof DoubleValueAccumulator) {
+            ((DoubleValueAccumulator) aggregator).accumulateDouble(Double.longBitsToDouble(readLong(data)));
+            return true;
+        }
+        return false;
+    }
+
+    private long readLong(HeapData data) {
+        return Bits.readLong(data.toByteArray(), HeapData.DATA_OFFSET, bigEndian);
+    }
+}
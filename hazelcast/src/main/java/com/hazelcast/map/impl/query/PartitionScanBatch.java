@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.impl.LazyMapEntry;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.AndPredicate;
+
+/**
+ * A batch of records evaluated together by the {@link PartitionScanRunner}.
+ * <p>
+ * The entries of the batch are reused for the following batches, so scanning a partition allocates a new entry
+ * only for each matching record, which is handed over to the query result by {@link #detachSelected(int)}.
+ * The members of a conjunction are evaluated one after another over the whole batch, each of them only over the
+ * records selected by the previous ones, which keeps the code of a single predicate hot while it is evaluated.
+ * Values are deserialized at most once per record, since they are cached by the entries across the predicates.
+ * <p>
+ * Not thread-safe, a batch is used by a single scan at a time.
+ */
+final class PartitionScanBatch {
+
+    static final int BATCH_SIZE = 64;
+
+    private final InternalSerializationService serializationService;
+    private final Extractors extractors;
+    private final LazyMapEntry[] entries = new LazyMapEntry[BATCH_SIZE];
+    private final Object[] values = new Object[BATCH_SIZE];
+    private final int[] selection = new int[BATCH_SIZE];
+
+    private int size;
+    private int selectedCount;
+
+    PartitionScanBatch(InternalSerializationService serializationService, Extractors extractors) {
+        this.serializationService = serializationService;
+        this.extractors = extractors;
+    }
+
+    boolean isFull() {
+        return size == BATCH_SIZE;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(Data key, Object value) {
+        LazyMapEntry entry = entries[size];
+        if (entry == null) {
+            entry = new LazyMapEntry();
+            entries[size] = entry;
+        }
+        entry.init(serializationService, key, value, extractors);
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Evaluates the predicate over the records of the batch, the matching ones are available by
+     * {@link #getSelected(int)} afterwards.
+     *
+     * @return the number of matching records
+     */
+    int filter(Predicate predicate) {
+        for (int i = 0; i < size; i++) {
+            selection[i] = i;
+        }
+        selectedCount = size;
+        if (predicate instanceof AndPredicate) {
+            for (Predicate member : ((AndPredicate) predicate).getPredicates()) {
+                filterSelected(member);
+                if (selectedCount == 0) {
+                    break;
+                }
+            }
+        } else {
+            filterSelected(predicate);
+        }
+        return selectedCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void filterSelected(Predicate predicate) {
+        int kept = 0;
+        for (int i = 0; i < selectedCount; i++) {
+            int index = selection[i];
+            if (predicate.apply(entries[index])) {
+                selection[kept++] = index;
+            }
+        }
+        selectedCount = kept;
+    }
+
+    /**
+     * @return the matching entry at the given position, it is reused by the following batches
+     */
+    QueryableEntry getSelected(int position) {
+        return entries[selection[position]];
+    }
+
+    /**
+     * @return the value of the matching entry at the given position as it was added to the batch,
+     * it is still serialized unless a deserialized value was added
+     */
+    Object getSelectedValue(int position) {
+        return values[selection[position]];
+    }
+
+    /**
+     * Returns the matching entry at the given position, the entry is not reused by the batch anymore.
+     */
+    QueryableEntry detachSelected(int position) {
+        int index = selection[position];
+        QueryableEntry entry = entries[index];
+        entries[index] = null;
+        return entry;
+    }
+
+    /**
+     * Makes the batch ready for the next records. The reused entries keep referencing the records of the
+     * batch until they are overwritten, so a batch should not outlive the scan it was created for.
+     */
+    void clear() {
+        size = 0;
+        selectedCount = 0;
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.core.IMap;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
@@ -51,4 +52,16 @@ public interface PartitionScanExecutor {
      * @return entries matching the predicate and a table index from which new entries can be fetched
      */
     QueryableEntriesSegment execute(String mapName, Predicate predicate, int partitionId, int tableIndex, int fetchSize);
+
+    /**
+     * Accumulates the entries of the given partitions which match the predicate into a copy of the aggregator,
+     * without collecting the matching entries first.
+     *
+     * @param mapName    the map name
+     * @param predicate  the predicate which the entries must match
+     * @param partitions the partitions which are queried
+     * @param aggregator the aggregator to copy, it is not modified
+     * @return the copy of the aggregator which accumulated all of the matching entries
+     */
+    Aggregator aggregate(String mapName, Predicate predicate, Collection<Integer> partitions, Aggregator aggregator);
 }
@@ -16,12 +16,12 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.config.CacheDeserializedValues;
 import com.hazelcast.core.IMap;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.logging.ILogger;
-import com.hazelcast.map.impl.LazyMapEntry;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.PartitionContainer;
@@ -39,7 +39,9 @@ import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.OperationService;
 import com.hazelcast.spi.partition.IPartitionService;
 import com.hazelcast.util.Clock;
+import com.hazelcast.util.collection.TopNCollector;
 
+import java.nio.ByteOrder;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -47,9 +49,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import static com.hazelcast.internal.serialization.impl.SerializationUtil.isCompact;
 import static com.hazelcast.query.PagingPredicateAccessor.getNearestAnchorEntry;
 import static com.hazelcast.util.SortingUtil.compareAnchor;
-import static com.hazelcast.util.SortingUtil.getSortedSubList;
+import static com.hazelcast.util.SortingUtil.newPagingCollector;
 
 /**
  * Responsible for running a full-partition scna for a single partition in the calling thread.
@@ -64,6 +67,8 @@ public class PartitionScanRunner {
     protected final OperationService operationService;
     protected final ClusterService clusterService;
 
+    private final boolean bigEndian;
+
     public PartitionScanRunner(MapServiceContext mapServiceContext) {
         this.mapServiceContext = mapServiceContext;
         this.nodeEngine = mapServiceContext.getNodeEngine();
@@ -72,35 +77,91 @@ public class PartitionScanRunner {
         this.logger = nodeEngine.getLogger(getClass());
         this.operationService = nodeEngine.getOperationService();
         this.clusterService = nodeEngine.getClusterService();
+        this.bigEndian = serializationService.getByteOrder() == ByteOrder.BIG_ENDIAN;
     }
 
+    /**
+     * Executes the predicate on a whole partition. For a {@link PagingPredicate} only the entries of the pages
+     * up to the requested one are kept while scanning and they are returned sorted.
+     *
+     * @param mapName     the map name
+     * @param predicate   the predicate which the entries must match
+     * @param partitionId the partition which is queried
+     * @return entries matching the predicate
+     */
     @SuppressWarnings("unchecked")
     public Collection<QueryableEntry> run(String mapName, Predicate predicate, int partitionId) {
         PagingPredicate pagingPredicate = predicate instanceof PagingPredicate ? (PagingPredicate) predicate : null;
+        Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry(pagingPredicate);
+        TopNCollector<QueryableEntry> pagingCollector =
+                pagingPredicate == null ? null : newPagingCollector(pagingPredicate, nearestAnchorEntry);
         List<QueryableEntry> resultList = new LinkedList<QueryableEntry>();
 
         PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
         MapContainer mapContainer = mapServiceContext.getMapContainer(mapName);
         Iterator<Record> iterator = partitionContainer.getRecordStore(mapName).loadAwareIterator(getNow(), false);
-        Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry(pagingPredicate);
         boolean useCachedValues = isUseCachedDeserializedValuesEnabled(mapContainer, partitionId);
         Extractors extractors = mapServiceContext.getExtractors(mapName);
+        PartitionScanBatch batch = new PartitionScanBatch(serializationService, extractors);
         while (iterator.hasNext()) {
             Record record = iterator.next();
             Data key = (Data) toData(record.getKey());
-            Object value = toData(
-                    useCachedValues ? Records.getValueOrCachedValue(record, serializationService) : record.getValue());
+            Object value = toData(getValue(record, useCachedValues));
             if (value == null) {
                 continue;
             }
-            //we want to always use CachedQueryEntry as these are short-living objects anyway
-            QueryableEntry queryEntry = new LazyMapEntry(key, value, serializationService, extractors);
+            batch.add(key, value);
+            if (batch.isFull()) {
+                evaluate(batch, predicate, pagingPredicate, nearestAnchorEntry, pagingCollector, resultList);
+            }
+        }
+        if (!batch.isEmpty()) {
+            evaluate(batch, predicate, pagingPredicate, nearestAnchorEntry, pagingCollector, resultList);
+        }
+        return pagingCollector == null ? resultList : pagingCollector.drainSorted();
+    }
 
-            if (predicate.apply(queryEntry) && compareAnchor(pagingPredicate, queryEntry, nearestAnchorEntry)) {
-                resultList.add(queryEntry);
+    /**
+     * Accumulates the entries of a whole partition which match the predicate, without collecting them first.
+     * <p>
+     * The matching entries of every scanned batch are handed over to the aggregator right away,
+     * see {@link PartitionScanAccumulator} for the ways the accumulation is shortened.
+     *
+     * @param mapName     the map name
+     * @param predicate   the predicate which the entries must match
+     * @param partitionId the partition which is queried
+     * @param aggregator  the aggregator the matching entries are accumulated by
+     */
+    public void accumulate(String mapName, Predicate predicate, int partitionId, Aggregator aggregator) {
+        PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
+        MapContainer mapContainer = mapServiceContext.getMapContainer(mapName);
+        Iterator<Record> iterator = partitionContainer.getRecordStore(mapName).loadAwareIterator(getNow(), false);
+        boolean useCachedValues = isUseCachedDeserializedValuesEnabled(mapContainer, partitionId);
+        Extractors extractors = mapServiceContext.getExtractors(mapName);
+        PartitionScanBatch batch = new PartitionScanBatch(serializationService, extractors);
+        PartitionScanAccumulator accumulator = new PartitionScanAccumulator(aggregator, bigEndian);
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            Data key = (Data) toData(record.getKey());
+            Object value = toData(getValue(record, useCachedValues));
+            if (value == null) {
+                continue;
+            }
+            batch.add(key, value);
+            if (batch.isFull()) {
+                accumulator.accumulate(batch, predicate);
             }
         }
-        return getSortedSubList(resultList, pagingPredicate, nearestAnchorEntry);
+        if (!batch.isEmpty()) {
+            accumulator.accumulate(batch, predicate);
+        }
+    }
+
+    /**
+     * Creates a copy of the aggregator to accumulate the entries of a partition scan by.
+     */
+    Aggregator copyOf(Aggregator aggregator) {
+        return serializationService.toObject(serializationService.toData(aggregator));
     }
 
     /**
@@ -126,6 +187,7 @@ public class PartitionScanRunner {
         final PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
         final RecordStore recordStore = partitionContainer.getRecordStore(mapName);
         final Extractors extractors = mapServiceContext.getExtractors(mapName);
+        final PartitionScanBatch batch = new PartitionScanBatch(serializationService, extractors);
 
         while (resultList.size() < fetchSize && lastIndex >= 0) {
             final MapEntriesWithCursor cursor = recordStore.fetchEntries(lastIndex, fetchSize - resultList.size());
@@ -135,15 +197,47 @@ public class PartitionScanRunner {
                 break;
             }
             for (Entry<Data, Data> entry : entries) {
-                QueryableEntry queryEntry = new LazyMapEntry(entry.getKey(), entry.getValue(), serializationService, extractors);
-                if (predicate.apply(queryEntry)) {
-                    resultList.add(queryEntry);
+                batch.add(entry.getKey(), entry.getValue());
+                if (batch.isFull()) {
+                    evaluate(batch, predicate, null, null, null, resultList);
                 }
             }
+            if (!batch.isEmpty()) {
+                evaluate(batch, predicate, null, null, null, resultList);
+            }
         }
         return new QueryableEntriesSegment(resultList, lastIndex);
     }
 
+    private Object getValue(Record record, boolean useCachedValues) {
+        Object value = record.getValue();
+        // attributes of portable and compact values are read straight from their serialized form,
+        // a cached deserialized value would have to be serialized again
+        if (useCachedValues && !(value instanceof Data && (((Data) value).isPortable() || isCompact((Data) value)))) {
+            return Records.getValueOrCachedValue(record, serializationService);
+        }
+        return value;
+    }
+
+    private static void evaluate(PartitionScanBatch batch, Predicate predicate, PagingPredicate pagingPredicate,
+                                 Map.Entry<Integer, Map.Entry> nearestAnchorEntry,
+                                 TopNCollector<QueryableEntry> pagingCollector, List<QueryableEntry> resultList) {
+        int selectedCount = batch.filter(predicate);
+        for (int i = 0; i < selectedCount; i++) {
+            QueryableEntry entry = batch.getSelected(i);
+            if (!compareAnchor(pagingPredicate, entry, nearestAnchorEntry)) {
+                continue;
+            }
+            if (pagingCollector == null) {
+                resultList.add(batch.detachSelected(i));
+            } else if (pagingCollector.accepts(entry)) {
+                // entries behind the requested pages are dropped without being copied out of the batch
+                pagingCollector.offer(batch.detachSelected(i));
+            }
+        }
+        batch.clear();
+    }
+
     protected boolean isUseCachedDeserializedValuesEnabled(MapContainer mapContainer, int partitionId) {
         CacheDeserializedValues cacheDeserializedValues = mapContainer.getMapConfig().getCacheDeserializedValues();
         switch (cacheDeserializedValues) {
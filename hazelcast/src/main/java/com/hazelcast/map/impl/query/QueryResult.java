@@ -47,6 +47,8 @@ public class QueryResult implements Result<QueryResult>, IdentifiedDataSerializa
 
     private transient long resultLimit;
     private transient long resultSize;
+    // offsets of the rows of each combined result, every result keeps the order its rows were produced in
+    private transient List<Integer> combinedResultOffsets;
     private IterationType iterationType;
 
     public QueryResult() {
@@ -133,9 +135,38 @@ public class QueryResult implements Result<QueryResult>, IdentifiedDataSerializa
             partitionIds = new ArrayList<Integer>(otherPartitionIds.size());
         }
         partitionIds.addAll(otherPartitionIds);
+        addCombinedResultOffsets(result);
         rows.addAll(result.getRows());
     }
 
+    private void addCombinedResultOffsets(QueryResult result) {
+        if (combinedResultOffsets == null) {
+            combinedResultOffsets = new ArrayList<Integer>();
+            if (!rows.isEmpty()) {
+                combinedResultOffsets.add(0);
+            }
+        }
+        int offset = rows.size();
+        if (result.combinedResultOffsets == null) {
+            combinedResultOffsets.add(offset);
+        } else {
+            for (Integer resultOffset : result.combinedResultOffsets) {
+                combinedResultOffsets.add(offset + resultOffset);
+            }
+        }
+    }
+
+    /**
+     * Returns the offsets of the rows of the results combined into this result. The rows of a single
+     * query result keep the order they were produced in, e.g. the rows of a paging query are sorted
+     * by each member, so the combined rows can be merged instead of sorted again.
+     *
+     * @return the ascending offsets of the combined results or {@code null} if this result is not combined
+     */
+    public List<Integer> getCombinedResultOffsets() {
+        return combinedResultOffsets;
+    }
+
     @Override
     public void onCombineFinished() {
     }
@@ -22,6 +22,7 @@ import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.IterationType;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import static com.hazelcast.util.SortingUtil.getSortedQueryResultSet;
@@ -35,7 +36,10 @@ public final class QueryResultUtils {
             SerializationService ss, QueryResult queryResult, Predicate predicate, IterationType iterationType, boolean unique) {
         if (predicate instanceof PagingPredicate) {
             Set result = new QueryResultCollection(ss, IterationType.ENTRY, false, unique, queryResult);
-            return getSortedQueryResultSet(new ArrayList(result), (PagingPredicate) predicate, iterationType);
+            // the rows of each member are already sorted, unless they are deduplicated in a hash set
+            List<Integer> sortedRunOffsets = unique ? null : queryResult.getCombinedResultOffsets();
+            return getSortedQueryResultSet(new ArrayList(result), (PagingPredicate) predicate, iterationType,
+                    sortedRunOffsets);
         } else {
             return new QueryResultCollection(ss, iterationType, false, unique, queryResult);
         }
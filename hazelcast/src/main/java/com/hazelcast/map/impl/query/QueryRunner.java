@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.logging.ILogger;
@@ -112,14 +113,37 @@ public class QueryRunner {
         // first we optimize the query
         Predicate predicate = queryOptimizer.optimize(query.getPredicate(), indexes);
 
-        // then we try to run using an index, but if that doesn't work, we'll try a full table scan
-        Collection<QueryableEntry> entries = runUsingGlobalIndexSafely(predicate, mapContainer, migrationStamp);
-        if (entries == null) {
-            entries = runUsingPartitionScanSafely(query.getMapName(), predicate, initialPartitions, migrationStamp);
+        Result result;
+        if (query.isAggregationQuery()) {
+            result = runAggregationOnOwnedPartitions(query, predicate, mapContainer, initialPartitions, migrationStamp);
+        } else {
+            // then we try to run using an index, but if that doesn't work, we'll try a full table scan
+            Collection<QueryableEntry> entries = runUsingGlobalIndexSafely(predicate, mapContainer, migrationStamp);
+            if (entries == null) {
+                entries = runUsingPartitionScanSafely(query.getMapName(), predicate, initialPartitions, migrationStamp);
+            }
+            result = populateResult(query, initialPartitions, entries);
         }
 
         updateStatistics(mapContainer);
-        return populateResult(query, initialPartitions, entries);
+        return result;
+    }
+
+    // an aggregation is answered by the index metadata if possible, then by the entries of an index query
+    // and only then accumulated by a full table scan, without collecting the scanned entries first
+    private Result runAggregationOnOwnedPartitions(Query query, Predicate predicate, MapContainer mapContainer,
+                                                   Collection<Integer> partitions, int migrationStamp) {
+        Aggregator aggregator = aggregateUsingGlobalIndexSafely(query.getAggregator(), predicate, mapContainer,
+                migrationStamp);
+        if (aggregator == null) {
+            Collection<QueryableEntry> entries = runUsingGlobalIndexSafely(predicate, mapContainer, migrationStamp);
+            if (entries != null) {
+                return populateNonEmptyResult(query, entries, partitions);
+            }
+            aggregator = aggregateUsingPartitionScanSafely(query.getMapName(), predicate, partitions,
+                    query.getAggregator(), migrationStamp);
+        }
+        return populateAggregationResult(query, partitions, aggregator);
     }
 
     // MIGRATION UNSAFE QUERYING - MIGRATION STAMPTS ARE NOT VALIDATED, so assumes a run on partition-thread
@@ -131,17 +155,38 @@ public class QueryRunner {
         // first we optimize the query
         Predicate predicate = queryOptimizer.optimize(query.getPredicate(), mapContainer.getIndexes(partitionId));
 
-        Collection<QueryableEntry> entries = null;
         Indexes indexes = mapContainer.getIndexes(partitionId);
-        if (indexes != null && !indexes.isGlobal()) {
-            entries = indexes.query(predicate);
+        if (indexes != null && indexes.isGlobal()) {
+            // a global index contains the entries of all of the owned partitions, it can't be used for a single one
+            indexes = null;
         }
-        if (entries == null) {
-            entries = partitionScanExecutor.execute(query.getMapName(), predicate, partitions);
+
+        Result result;
+        if (query.isAggregationQuery()) {
+            result = runAggregationOnGivenOwnedPartition(query, predicate, indexes, partitions);
+        } else {
+            Collection<QueryableEntry> entries = indexes == null ? null : indexes.query(predicate);
+            if (entries == null) {
+                entries = partitionScanExecutor.execute(query.getMapName(), predicate, partitions);
+            }
+            result = populateResult(query, partitions, entries);
         }
 
         updateStatistics(mapContainer);
-        return populateResult(query, partitions, entries);
+        return result;
+    }
+
+    private Result runAggregationOnGivenOwnedPartition(Query query, Predicate predicate, Indexes indexes,
+                                                       List<Integer> partitions) {
+        Aggregator aggregator = IndexAggregation.aggregate(query.getAggregator(), predicate, indexes, serializationService);
+        if (aggregator == null) {
+            Collection<QueryableEntry> entries = indexes == null ? null : indexes.query(predicate);
+            if (entries != null) {
+                return populateNonEmptyResult(query, entries, partitions);
+            }
+            aggregator = partitionScanExecutor.aggregate(query.getMapName(), predicate, partitions, query.getAggregator());
+        }
+        return populateAggregationResult(query, partitions, aggregator);
     }
 
     private Result populateResult(Query query, Collection<Integer> partitions, Collection<QueryableEntry> entries) {
@@ -159,11 +204,26 @@ public class QueryRunner {
     Result runPartitionScanQueryOnGivenOwnedPartition(Query query, int partitionId) {
         MapContainer mapContainer = mapServiceContext.getMapContainer(query.getMapName());
         Predicate predicate = queryOptimizer.optimize(query.getPredicate(), mapContainer.getIndexes(partitionId));
+        if (query.isAggregationQuery()) {
+            Aggregator aggregator = partitionScanExecutor.aggregate(query.getMapName(), predicate,
+                    Collections.singletonList(partitionId), query.getAggregator());
+            return populateAggregationResult(query, Collections.singletonList(partitionId), aggregator);
+        }
         Collection<QueryableEntry> entries = partitionScanExecutor.execute(query.getMapName(), predicate,
                 Collections.singletonList(partitionId));
         return populateNonEmptyResult(query, entries, Collections.singletonList(partitionId));
     }
 
+    protected Result populateAggregationResult(Query query, Collection<Integer> partitions, Aggregator aggregator) {
+        if (aggregator == null) {
+            // the aggregation failed due to migrations, see populateResult
+            return populateEmptyResult(query, partitions);
+        }
+        AggregationResult result = new AggregationResult(aggregator);
+        result.setPartitionIds(partitions);
+        return result;
+    }
+
     protected Result populateEmptyResult(Query query, Collection<Integer> initialPartitions) {
         return resultProcessorRegistry.get(query.getResultType()).populateResult(query,
                 queryResultSizeLimiter.getNodeResultLimit(initialPartitions.size()));
@@ -234,6 +294,36 @@ public class QueryRunner {
         return null;
     }
 
+    protected Aggregator aggregateUsingGlobalIndexSafely(Aggregator aggregator, Predicate predicate,
+                                                         MapContainer mapContainer, int migrationStamp) {
+        // see runUsingGlobalIndexSafely for the validation of the migration stamp
+        if (!validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+        Indexes indexes = mapContainer.getIndexes();
+        if (indexes == null || !indexes.isGlobal()) {
+            return null;
+        }
+        Aggregator resultAggregator = IndexAggregation.aggregate(aggregator, predicate, indexes, serializationService);
+        if (resultAggregator != null && validateMigrationStamp(migrationStamp)) {
+            return resultAggregator;
+        }
+        return null;
+    }
+
+    protected Aggregator aggregateUsingPartitionScanSafely(String name, Predicate predicate, Collection<Integer> partitions,
+                                                           Aggregator aggregator, int migrationStamp) {
+        // see runUsingPartitionScanSafely for the validation of the migration stamp
+        if (!validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+        Aggregator resultAggregator = partitionScanExecutor.aggregate(name, predicate, partitions, aggregator);
+        if (validateMigrationStamp(migrationStamp)) {
+            return resultAggregator;
+        }
+        return null;
+    }
+
     private int getMigrationStamp() {
         return mapServiceContext.getService().getMigrationStamp();
     }
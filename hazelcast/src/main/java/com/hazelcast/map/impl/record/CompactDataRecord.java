@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.nio.serialization.Data;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+
+/**
+ * Slim {@link Record} variant for {@link com.hazelcast.config.InMemoryFormat#BINARY} maps.
+ * <p>
+ * All timestamps are kept as {@code int} seconds relative to {@link #EPOCH_TIME} and the TTL is kept
+ * as {@code int} seconds, so timestamps exposed by this record have second granularity. Timestamps and
+ * the TTL are both rounded up, so the record may live up to two seconds longer than configured
+ * but never expires early.
+ * The statistics-only fields (last stored time and expiration time) are not kept at all
+ * and the deserialized value is never cached.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+class CompactDataRecord implements Record<Data> {
+
+    /**
+     * Base of all stored timestamps: 2017-01-01T00:00:00Z. Seconds relative to it fit
+     * into an {@code int} until 2085.
+     */
+    static final long EPOCH_TIME = 1483228800000L;
+
+    private static final int NUMBER_OF_INTS = 5;
+    private static final int NUMBER_OF_REFERENCES = 2;
+    private static final long MILLIS_IN_SECOND = 1000L;
+
+    private Data key;
+    private volatile Data value;
+    private long version;
+    private int ttl;
+    private int creationTime;
+
+    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
+            justification = "Record can be accessed by only its own partition thread.")
+    private volatile int hits;
+    private volatile int lastAccessTime;
+    private volatile int lastUpdateTime;
+
+    CompactDataRecord(Data value) {
+        this.value = value;
+    }
+
+    @Override
+    public Data getKey() {
+        return key;
+    }
+
+    @Override
+    public void setKey(Data key) {
+        this.key = key;
+    }
+
+    @Override
+    public Data getValue() {
+        return value;
+    }
+
+    @Override
+    public void setValue(Data value) {
+        this.value = value;
+    }
+
+    @Override
+    public void onAccess(long now) {
+        if (hits < Integer.MAX_VALUE) {
+            hits++;
+        }
+        lastAccessTime = toRelativeSeconds(now);
+    }
+
+    @Override
+    public void onUpdate(long now) {
+        onAccess(now);
+
+        version++;
+        lastUpdateTime = toRelativeSeconds(now);
+    }
+
+    @Override
+    public void onStore() {
+    }
+
+    @Override
+    public long getCost() {
+        return NUMBER_OF_REFERENCES * REFERENCE_COST_IN_BYTES + LONG_SIZE_IN_BYTES + NUMBER_OF_INTS * INT_SIZE_IN_BYTES
+                + (value == null ? 0L : value.getHeapCost());
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Object getCachedValueUnsafe() {
+        return Record.NOT_CACHED;
+    }
+
+    @Override
+    public boolean casCachedValue(Object expectedValue, Object newValue) {
+        return true;
+    }
+
+    @Override
+    public long getTtl() {
+        return ttl == Integer.MAX_VALUE ? Long.MAX_VALUE : ttl * MILLIS_IN_SECOND;
+    }
+
+    @Override
+    public void setTtl(long ttl) {
+        this.ttl = toTtlSeconds(ttl);
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return toMillis(lastAccessTime);
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        this.lastAccessTime = toRelativeSeconds(lastAccessTime);
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return toMillis(lastUpdateTime);
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        this.lastUpdateTime = toRelativeSeconds(lastUpdateTime);
+    }
+
+    @Override
+    public long getCreationTime() {
+        return toMillis(creationTime);
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        this.creationTime = toRelativeSeconds(creationTime);
+    }
+
+    @Override
+    public long getHits() {
+        return hits;
+    }
+
+    @Override
+    public void setHits(long hits) {
+        this.hits = (int) Math.min(hits, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return NOT_AVAILABLE;
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        return NOT_AVAILABLE;
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+    }
+
+    @Override
+    public long getSequence() {
+        return NOT_AVAILABLE;
+    }
+
+    @Override
+    public void setSequence(long sequence) {
+    }
+
+    /**
+     * Converts an absolute time in millis to seconds since {@link #EPOCH_TIME}, rounding up.
+     * <p>
+     * Expiration checks measure the elapsed time from these timestamps, so rounding them down
+     * would let a record expire up to a second before its TTL or max-idle time elapses.
+     * A zero time is kept as zero, so that not yet set timestamps survive the round trip.
+     */
+    static int toRelativeSeconds(long time) {
+        if (time <= 0) {
+            return 0;
+        }
+        long millis = time - EPOCH_TIME;
+        long seconds = millis / MILLIS_IN_SECOND + (millis % MILLIS_IN_SECOND > 0 ? 1 : 0);
+        if (seconds <= 0) {
+            // clamp times before the epoch to its first second, zero is reserved for "not set"
+            return 1;
+        }
+        return (int) Math.min(seconds, Integer.MAX_VALUE);
+    }
+
+    static long toMillis(int relativeSeconds) {
+        return relativeSeconds == 0 ? 0L : EPOCH_TIME + relativeSeconds * MILLIS_IN_SECOND;
+    }
+
+    /**
+     * Rounds the TTL up to whole seconds. Together with the rounded up start times of
+     * {@link #toRelativeSeconds(long)} this guarantees that a record never expires before its TTL elapses.
+     */
+    static int toTtlSeconds(long ttlMillis) {
+        if (ttlMillis <= 0) {
+            return 0;
+        }
+        long seconds = ttlMillis / MILLIS_IN_SECOND + (ttlMillis % MILLIS_IN_SECOND == 0 ? 0 : 1);
+        return (int) Math.min(seconds, Integer.MAX_VALUE);
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:npathcomplexity")
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        CompactDataRecord that = (CompactDataRecord) o;
+        if (version != that.version) {
+            return false;
+        }
+        if (ttl != that.ttl) {
+            return false;
+        }
+        if (creationTime != that.creationTime) {
+            return false;
+        }
+        if (hits != that.hits) {
+            return false;
+        }
+        if (lastAccessTime != that.lastAccessTime) {
+            return false;
+        }
+        if (lastUpdateTime != that.lastUpdateTime) {
+            return false;
+        }
+        if (key != null ? !key.equals(that.key) : that.key != null) {
+            return false;
+        }
+        return value != null ? value.equals(that.value) : that.value == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = key != null ? key.hashCode() : 0;
+        result = 31 * result + (value != null ? value.hashCode() : 0);
+        result = 31 * result + (int) (version ^ (version >>> 32));
+        result = 31 * result + ttl;
+        result = 31 * result + creationTime;
+        result = 31 * result + hits;
+        result = 31 * result + lastAccessTime;
+        result = 31 * result + lastUpdateTime;
+        return result;
+    }
+}
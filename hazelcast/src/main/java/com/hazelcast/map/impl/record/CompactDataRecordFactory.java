@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+/**
+ * {@link RecordFactory} creating {@link CompactDataRecord}s, used when
+ * {@link MapConfig#isCompactRecordsEnabled()} is set for a map with binary in-memory format.
+ */
+public class CompactDataRecordFactory extends DataRecordFactory {
+
+    public CompactDataRecordFactory(MapConfig config, SerializationService serializationService,
+                                    PartitioningStrategy partitionStrategy) {
+        super(config, serializationService, partitionStrategy);
+    }
+
+    @Override
+    public Record<Data> newRecord(Object value) {
+        assert value != null : "value can not be null";
+
+        Data data = toStoredData(value);
+        return new CompactDataRecord(data);
+    }
+}
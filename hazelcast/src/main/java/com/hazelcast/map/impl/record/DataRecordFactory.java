@@ -17,8 +17,11 @@
 package com.hazelcast.map.impl.record;
 
 import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.CompressionConfig;
+import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.serialization.SerializationService;
 
@@ -28,6 +31,7 @@ public class DataRecordFactory implements RecordFactory<Data> {
     private final PartitioningStrategy partitionStrategy;
     private final CacheDeserializedValues cacheDeserializedValues;
     private final boolean statisticsEnabled;
+    private final CompressionConfig compressionConfig;
 
     public DataRecordFactory(MapConfig config, SerializationService serializationService,
                              PartitioningStrategy partitionStrategy) {
@@ -35,13 +39,33 @@ public class DataRecordFactory implements RecordFactory<Data> {
         this.partitionStrategy = partitionStrategy;
         this.statisticsEnabled = config.isStatisticsEnabled();
         this.cacheDeserializedValues = config.getCacheDeserializedValues();
+        this.compressionConfig = compressionConfigOf(config, serializationService);
+    }
+
+    private static CompressionConfig compressionConfigOf(MapConfig config, SerializationService serializationService) {
+        CompressionConfig compressionConfig = config.getCompressionConfig();
+        boolean compressed = compressionConfig != null && compressionConfig.isEnabled()
+                && config.getInMemoryFormat() == InMemoryFormat.BINARY
+                && serializationService instanceof InternalSerializationService;
+        return compressed ? new CompressionConfig(compressionConfig) : null;
+    }
+
+    /**
+     * Serializes the given value and compresses it if value compression is enabled.
+     */
+    protected Data toStoredData(Object value) {
+        Data data = serializationService.toData(value, partitionStrategy);
+        if (compressionConfig == null) {
+            return data;
+        }
+        return ((InternalSerializationService) serializationService).compress(data, compressionConfig);
     }
 
     @Override
     public Record<Data> newRecord(Object value) {
         assert value != null : "value can not be null";
 
-        final Data data = serializationService.toData(value, partitionStrategy);
+        final Data data = toStoredData(value);
         switch (cacheDeserializedValues) {
             case NEVER:
                 return statisticsEnabled ? new DataRecordWithStats(data) : new DataRecord(data);
@@ -54,13 +78,7 @@ public class DataRecordFactory implements RecordFactory<Data> {
     public void setValue(Record<Data> record, Object value) {
         assert value != null : "value can not be null";
 
-        final Data v;
-        if (value instanceof Data) {
-            v = (Data) value;
-        } else {
-            v = serializationService.toData(value, partitionStrategy);
-        }
-        record.setValue(v);
+        record.setValue(toStoredData(value));
     }
 
     @Override
@@ -75,6 +93,14 @@ public class DataRecordFactory implements RecordFactory<Data> {
             return false;
         }
 
-        return serializationService.toData(value1).equals(serializationService.toData(value2));
+        return toComparableData(value1).equals(toComparableData(value2));
+    }
+
+    private Data toComparableData(Object value) {
+        Data data = serializationService.toData(value);
+        if (compressionConfig == null) {
+            return data;
+        }
+        return ((InternalSerializationService) serializationService).decompress(data);
     }
 }
@@ -36,6 +36,8 @@ import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.DistributedObjectNamespace;
 import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.Clock;
 
@@ -109,6 +111,10 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
 
     @Override
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        HazelcastProperties properties = mapServiceContext.getNodeEngine().getProperties();
+        if (properties.getBoolean(GroupProperty.MAP_SINGLE_WRITER_STORAGE_ENABLED)) {
+            return new SingleWriterStorageImpl(recordFactory, memoryFormat, serializationService);
+        }
         return new StorageImpl(recordFactory, memoryFormat, serializationService);
     }
 
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.util.QuickMath;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.util.Preconditions.checkNotNegative;
+import static java.util.Collections.emptyList;
+
+/**
+ * Open-addressing hash table of {@link Record}s keyed by their {@link Data} key.
+ * <p>
+ * Records are kept in a flat array with linear probing and the hash of each key is kept inline in
+ * a parallel {@code int} array, so a lookup compares keys only on a hash match and no per-entry node
+ * is allocated. Removed slots are marked with a tombstone instead of shifting the following entries,
+ * so an entry never moves inside a table; tombstones are purged when the table is rehashed.
+ * <p>
+ * The table must be mutated by a single thread only (the partition thread owning the record store).
+ * Other threads may read it concurrently: reads and iterations are weakly consistent in the same way
+ * as the ones of {@link java.util.concurrent.ConcurrentHashMap}.
+ *
+ * @param <R> type of the stored records
+ */
+public class SingleWriterRecordTable<R extends Record> {
+
+    static final int DEFAULT_INITIAL_CAPACITY = 256;
+    static final float LOAD_FACTOR = 0.6f;
+
+    private static final Object TOMBSTONE = new Object();
+    private static final int HASH_SPREAD_SHIFT = 16;
+
+    private volatile Slots slots;
+    private volatile int size;
+    private int tombstones;
+
+    public SingleWriterRecordTable() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public SingleWriterRecordTable(int initialCapacity) {
+        checkNotNegative(initialCapacity, "initialCapacity can't be negative");
+        this.slots = new Slots(QuickMath.nextPowerOfTwo(Math.max(initialCapacity, 2)));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the current capacity of the table, only used for cursor based iteration and testing.
+     */
+    public int capacity() {
+        return slots.records.length();
+    }
+
+    public R get(Data key) {
+        Slots current = slots;
+        int index = current.indexOf(key, hash(key));
+        return index < 0 ? null : current.recordAt(index);
+    }
+
+    public boolean containsKey(Data key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps the key of the given record to the record.
+     *
+     * @return the previous record mapped to the same key or {@code null} if there was none
+     */
+    public R put(Data key, R record) {
+        int hash = hash(key);
+        Slots current = slots;
+        int index = current.indexOf(key, hash);
+        if (index >= 0) {
+            R previous = current.recordAt(index);
+            current.records.lazySet(index, record);
+            return previous;
+        }
+
+        if (size + tombstones + 1 > current.threshold) {
+            rehash(size + 1 > current.threshold / 2 ? current.records.length() << 1 : current.records.length());
+            current = slots;
+        }
+
+        int insertIndex = current.insertionIndexOf(hash);
+        if (current.records.get(insertIndex) == TOMBSTONE) {
+            tombstones--;
+        }
+        current.hashes[insertIndex] = hash;
+        current.records.lazySet(insertIndex, record);
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the mapping of the given key.
+     *
+     * @return the removed record or {@code null} if there was none
+     */
+    public R remove(Data key) {
+        Slots current = slots;
+        int index = current.indexOf(key, hash(key));
+        if (index < 0) {
+            return null;
+        }
+        R previous = current.recordAt(index);
+        current.records.set(index, TOMBSTONE);
+        tombstones++;
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        slots = new Slots(DEFAULT_INITIAL_CAPACITY);
+        tombstones = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns a weakly consistent view of the records. Removing via the view's iterator
+     * must be done by the writer thread only.
+     */
+    public Collection<R> values() {
+        return new Values();
+    }
+
+    /**
+     * Returns up to {@code sampleCount} records, starting from a random slot of the table.
+     *
+     * @param sampleCount maximum number of returned samples
+     * @return sampled records
+     */
+    public List<R> getRandomSamples(int sampleCount) {
+        checkNotNegative(sampleCount, "Sample count cannot be a negative value.");
+        if (sampleCount == 0 || size == 0) {
+            return emptyList();
+        }
+        Slots current = slots;
+        int capacity = current.records.length();
+        int mask = capacity - 1;
+        int start = ThreadLocalRandomProvider.get().nextInt(capacity);
+        List<R> samples = new ArrayList<R>(sampleCount);
+        for (int i = 0; i < capacity && samples.size() < sampleCount; i++) {
+            R record = current.recordAt((start + i) & mask);
+            if (record != null) {
+                samples.add(record);
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Fetches at least {@code size} keys starting from {@code tableIndex} towards the start of the table.
+     *
+     * @param tableIndex index (checkpoint) to start from, a negative or out of range index starts from the end of the table
+     * @param size       count of keys to fetch
+     * @param keys       list the fetched keys are added to
+     * @return the next index (checkpoint) for later fetches, negative if the whole table was fetched
+     */
+    public int fetchKeys(int tableIndex, int size, List<Data> keys) {
+        Slots current = slots;
+        int nextTableIndex = startIndex(current, tableIndex);
+        int counter = 0;
+        while (nextTableIndex >= 0 && counter < size) {
+            R record = current.recordAt(nextTableIndex--);
+            if (record != null) {
+                keys.add(record.getKey());
+                counter++;
+            }
+        }
+        return nextTableIndex;
+    }
+
+    /**
+     * Fetches at least {@code size} entries starting from {@code tableIndex} towards the start of the table.
+     *
+     * @see #fetchKeys(int, int, List)
+     */
+    public int fetchEntries(int tableIndex, int size, List<Map.Entry<Data, R>> entries) {
+        Slots current = slots;
+        int nextTableIndex = startIndex(current, tableIndex);
+        int counter = 0;
+        while (nextTableIndex >= 0 && counter < size) {
+            R record = current.recordAt(nextTableIndex--);
+            if (record != null) {
+                entries.add(new AbstractMap.SimpleEntry<Data, R>(record.getKey(), record));
+                counter++;
+            }
+        }
+        return nextTableIndex;
+    }
+
+    private int startIndex(Slots current, int tableIndex) {
+        int capacity = current.records.length();
+        return tableIndex >= 0 && tableIndex < capacity ? tableIndex : capacity - 1;
+    }
+
+    private void rehash(int newCapacity) {
+        Slots current = slots;
+        Slots rehashed = new Slots(newCapacity);
+        for (int i = 0; i < current.records.length(); i++) {
+            R record = current.recordAt(i);
+            if (record != null) {
+                int hash = current.hashes[i];
+                int index = rehashed.insertionIndexOf(hash);
+                rehashed.hashes[index] = hash;
+                rehashed.records.lazySet(index, record);
+            }
+        }
+        tombstones = 0;
+        slots = rehashed;
+    }
+
+    private static int hash(Data key) {
+        int hash = key.hashCode();
+        // spread the higher bits, since the index is derived from the lower ones
+        return hash ^ (hash >>> HASH_SPREAD_SHIFT);
+    }
+
+    /**
+     * Records and their key hashes, replaced as a whole on rehash so that concurrent
+     * readers always see a consistent pair of arrays.
+     */
+    private final class Slots {
+
+        final int[] hashes;
+        final AtomicReferenceArray<Object> records;
+        final int mask;
+        final int threshold;
+
+        Slots(int capacity) {
+            this.hashes = new int[capacity];
+            this.records = new AtomicReferenceArray<Object>(capacity);
+            this.mask = capacity - 1;
+            this.threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        @SuppressWarnings("unchecked")
+        R recordAt(int index) {
+            Object record = records.get(index);
+            return record == TOMBSTONE ? null : (R) record;
+        }
+
+        int indexOf(Data key, int hash) {
+            for (int index = hash & mask; ; index = (index + 1) & mask) {
+                Object record = records.get(index);
+                if (record == null) {
+                    return -1;
+                }
+                if (record != TOMBSTONE && hashes[index] == hash && key.equals(((Record) record).getKey())) {
+                    return index;
+                }
+            }
+        }
+
+        /**
+         * Returns the first free or removed slot for a key which is known to be absent.
+         */
+        int insertionIndexOf(int hash) {
+            for (int index = hash & mask; ; index = (index + 1) & mask) {
+                Object record = records.get(index);
+                if (record == null || record == TOMBSTONE) {
+                    return index;
+                }
+            }
+        }
+    }
+
+    private final class Values extends AbstractCollection<R> {
+
+        @Override
+        public Iterator<R> iterator() {
+            return new ValueIterator(slots);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private final class ValueIterator implements Iterator<R> {
+
+        private final Slots iteratedSlots;
+        private int nextIndex;
+        private R next;
+        private R lastReturned;
+
+        ValueIterator(Slots iteratedSlots) {
+            this.iteratedSlots = iteratedSlots;
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            int capacity = iteratedSlots.records.length();
+            while (nextIndex < capacity && next == null) {
+                next = iteratedSlots.recordAt(nextIndex++);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public R next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            advance();
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            Data key = lastReturned.getKey();
+            if (get(key) == lastReturned) {
+                SingleWriterRecordTable.this.remove(key);
+            }
+            lastReturned = null;
+        }
+    }
+}
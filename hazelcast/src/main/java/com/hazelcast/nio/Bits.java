@@ -204,6 +204,46 @@ public final class Bits {
         return EndiannessUtil.readUtf8Char(in, firstByte);
     }
 
+    /**
+     * Writes the leading ASCII characters of the given string to the buffer, one byte per character,
+     * and stops at the first non-ASCII character.
+     *
+     * @return the number of written characters (and bytes)
+     */
+    public static int writeAsciiPrefix(byte[] buffer, int pos, String str) {
+        int len = str.length();
+        int i = 0;
+        while (i < len) {
+            char c = str.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            buffer[pos + i] = (byte) c;
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the number of leading bytes of the given range which are ASCII characters.
+     */
+    public static int asciiPrefixLength(byte[] buffer, int pos, int len) {
+        int i = 0;
+        while (i < len && buffer[pos + i] >= 0) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Creates a string from a range of ASCII bytes, copying the bytes as they are instead of going
+     * through a charset decoder.
+     */
+    @SuppressWarnings("deprecation")
+    public static String newAsciiString(byte[] buffer, int pos, int len) {
+        return new String(buffer, 0, pos, len);
+    }
+
     /**
      * Sets n-th bit of the byte value
      *
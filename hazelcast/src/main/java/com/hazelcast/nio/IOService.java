@@ -95,6 +95,20 @@ public interface IOService {
      */
     int getSocketClientSendBufferSize();
 
+    /**
+     * Time to wait for more frames before writing a partially filled output buffer of a connection opened by a member
+     *
+     * @return the delay in nanoseconds, 0 if frames are written without delay
+     */
+    long getSocketWriteCoalescingDelayNanos();
+
+    /**
+     * Time to wait for more frames before writing a partially filled output buffer of a connection opened by a client
+     *
+     * @return the delay in nanoseconds, 0 if frames are written without delay
+     */
+    long getSocketClientWriteCoalescingDelayNanos();
+
     void configureSocket(Socket socket) throws SocketException;
 
     void interceptSocket(Socket socket, boolean onAccept) throws IOException;
@@ -107,6 +121,21 @@ public interface IOService {
 
     int getOutputSelectorThreadCount();
 
+    /**
+     * @return the maximum number of frames written to the socket at once, -1 if unbounded.
+     */
+    int getWriteMaxFrames();
+
+    /**
+     * @return the number of output buffers written to the socket with a single gathering write.
+     */
+    int getWriteGatheringBufferCount();
+
+    /**
+     * @return the pool the payloads of inbound member packets are taken from, {@code null} if they are not pooled.
+     */
+    PacketPayloadPool getInboundPayloadPool();
+
     long getConnectionMonitorInterval();
 
     int getConnectionMonitorMaxFaults();
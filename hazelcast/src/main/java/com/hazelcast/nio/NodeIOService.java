@@ -54,10 +54,13 @@ public class NodeIOService implements IOService {
 
     private final Node node;
     private final NodeEngineImpl nodeEngine;
+    private final PacketPayloadPool inboundPayloadPool;
 
     public NodeIOService(Node node, NodeEngineImpl nodeEngine) {
         this.node = node;
         this.nodeEngine = nodeEngine;
+        int payloadPoolMaxSize = node.getProperties().getInteger(GroupProperty.IO_INBOUND_PAYLOAD_POOL_MAX_SIZE);
+        this.inboundPayloadPool = payloadPoolMaxSize > 0 ? new PacketPayloadPool(payloadPoolMaxSize) : null;
     }
 
     @Override
@@ -216,6 +219,19 @@ public class NodeIOService implements IOService {
         return clientReceiveBuffer != -1 ? clientReceiveBuffer : getSocketReceiveBufferSize();
     }
 
+    @Override
+    public long getSocketWriteCoalescingDelayNanos() {
+        return node.getProperties().getNanos(GroupProperty.SOCKET_WRITE_COALESCING_DELAY_MICROS);
+    }
+
+    @Override
+    public long getSocketClientWriteCoalescingDelayNanos() {
+        int clientDelay = node.getProperties().getInteger(GroupProperty.SOCKET_CLIENT_WRITE_COALESCING_DELAY_MICROS);
+        return clientDelay != -1
+                ? node.getProperties().getNanos(GroupProperty.SOCKET_CLIENT_WRITE_COALESCING_DELAY_MICROS)
+                : getSocketWriteCoalescingDelayNanos();
+    }
+
     @Override
     public void configureSocket(Socket socket) throws SocketException {
         if (getSocketLingerSeconds() > 0) {
@@ -288,6 +304,21 @@ public class NodeIOService implements IOService {
         return node.getProperties().getInteger(GroupProperty.CONNECTION_MONITOR_MAX_FAULTS);
     }
 
+    @Override
+    public int getWriteMaxFrames() {
+        return node.getProperties().getInteger(GroupProperty.IO_WRITE_MAX_FRAMES);
+    }
+
+    @Override
+    public int getWriteGatheringBufferCount() {
+        return node.getProperties().getInteger(GroupProperty.IO_WRITE_GATHERING_BUFFER_COUNT);
+    }
+
+    @Override
+    public PacketPayloadPool getInboundPayloadPool() {
+        return inboundPayloadPool;
+    }
+
     @Override
     public int getBalancerIntervalSeconds() {
         return node.getProperties().getSeconds(GroupProperty.IO_BALANCER_INTERVAL_SECONDS);
@@ -113,6 +113,7 @@ public final class Packet extends HeapData implements OutboundFrame {
 
     private int partitionId;
     private transient Connection conn;
+    private transient PacketPayloadPool payloadPool;
 
     // These 3 fields are only used during read/write. Otherwise they have no meaning.
     private int valueOffset;
@@ -122,6 +123,15 @@ public final class Packet extends HeapData implements OutboundFrame {
     public Packet() {
     }
 
+    /**
+     * Creates a packet to be read from the network, taking its payload from the given pool.
+     *
+     * @see #releasePayload()
+     */
+    public Packet(PacketPayloadPool payloadPool) {
+        this.payloadPool = payloadPool;
+    }
+
     public Packet(byte[] payload) {
         this(payload, -1);
     }
@@ -294,7 +304,7 @@ public final class Packet extends HeapData implements OutboundFrame {
 
     private boolean readValue(ByteBuffer src) {
         if (payload == null) {
-            payload = new byte[size];
+            payload = payloadPool == null ? new byte[size] : payloadPool.take(size);
         }
 
         if (size > 0) {
@@ -355,6 +365,22 @@ public final class Packet extends HeapData implements OutboundFrame {
         return true;
     }
 
+    /**
+     * Returns the payload to the pool it was taken from. Must only be called by the single owner of
+     * the packet once the content has been consumed; the packet must not be used afterwards.
+     * Does nothing if the packet was not read with a payload pool.
+     */
+    public void releasePayload() {
+        PacketPayloadPool pool = payloadPool;
+        if (pool == null || payload == null) {
+            return;
+        }
+        payloadPool = null;
+        byte[] released = payload;
+        payload = null;
+        pool.release(released);
+    }
+
     /**
      * Returns an estimation of the packet, including its payload, in bytes.
      *
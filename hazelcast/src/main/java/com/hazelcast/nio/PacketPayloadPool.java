@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * A pool of the byte arrays holding the payload of inbound {@link Packet}s.
+ * <p>
+ * A {@link Packet} is a {@link com.hazelcast.internal.serialization.impl.HeapData}, so its payload must be an array
+ * of exactly the size of the packet's data; the serialization inputs read the content directly from that array.
+ * For this reason the arrays are pooled per exact size, which works well for the many small packets with recurring
+ * sizes that make up most of the traffic of a busy member. Packets bigger than the maximum pooled size get a
+ * regular array.
+ * <p>
+ * The pool is shared by the io threads taking arrays and the operation threads releasing them, so every size has
+ * a small lock-free set of slots. If the slots of a size are empty a new array is allocated, and if they are full
+ * a released array is left to the garbage collector.
+ */
+public final class PacketPayloadPool {
+
+    static final int SLOTS_PER_SIZE = 16;
+
+    @Probe
+    private final MwCounter hits = newMwCounter();
+    @Probe
+    private final MwCounter misses = newMwCounter();
+
+    private final int maxPayloadSize;
+    // the slots of each size are created on the first release of an array of that size
+    private final AtomicReferenceArray<AtomicReferenceArray<byte[]>> slotsBySize;
+
+    public PacketPayloadPool(int maxPayloadSize) {
+        this.maxPayloadSize = checkPositive(maxPayloadSize, "maxPayloadSize should be positive");
+        this.slotsBySize = new AtomicReferenceArray<AtomicReferenceArray<byte[]>>(maxPayloadSize + 1);
+    }
+
+    /**
+     * Takes an array of the given size from the pool or allocates a new one if there is none available.
+     */
+    public byte[] take(int size) {
+        AtomicReferenceArray<byte[]> slots = size <= maxPayloadSize ? slotsBySize.get(size) : null;
+        if (slots != null) {
+            for (int i = 0; i < SLOTS_PER_SIZE; i++) {
+                byte[] payload = slots.get(i);
+                if (payload != null && slots.compareAndSet(i, payload, null)) {
+                    hits.inc();
+                    return payload;
+                }
+            }
+        }
+        misses.inc();
+        return new byte[size];
+    }
+
+    /**
+     * Returns an array to the pool. The caller must not use the array afterwards.
+     */
+    public void release(byte[] payload) {
+        int size = payload.length;
+        if (size > maxPayloadSize) {
+            return;
+        }
+
+        AtomicReferenceArray<byte[]> slots = slotsBySize.get(size);
+        if (slots == null) {
+            slotsBySize.compareAndSet(size, null, new AtomicReferenceArray<byte[]>(SLOTS_PER_SIZE));
+            slots = slotsBySize.get(size);
+        }
+
+        for (int i = 0; i < SLOTS_PER_SIZE; i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, payload)) {
+                return;
+            }
+        }
+    }
+
+    public int getMaxPayloadSize() {
+        return maxPayloadSize;
+    }
+}
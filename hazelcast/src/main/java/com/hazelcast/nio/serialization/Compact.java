@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import java.io.IOException;
+
+/**
+ * Compact provides a schema based serialization method. Like {@link Portable}, each Compact is created by a
+ * registered {@link CompactFactory} and writes named fields, but the field names and types are not written
+ * with every object. Instead, the schema of a class is derived once from the fields it writes and the
+ * serialized form only carries a fingerprint of that schema, the primitive fields at fixed offsets and a small
+ * offset table for the variable size fields.
+ * <p>
+ * Compact serialization has the following advantages:
+ * <ul>
+ * <li>A serialized form about as small as the one of {@link IdentifiedDataSerializable}.</li>
+ * <li>Constant time access to any field without de-serialization, so querying and indexing
+ * can read fields and nested paths straight from the binary form.</li>
+ * </ul>
+ * Since the schema is derived locally, every member reading the objects needs the {@link CompactFactory}
+ * registered, and {@link #writeCompact(CompactWriter)} must always write the same fields, also for an
+ * instance freshly created by the factory. Versioning of the schema is not supported: objects written
+ * with a different set of fields are rejected when read.
+ *
+ * @see CompactFactory
+ * @see CompactWriter
+ * @see CompactReader
+ * @see com.hazelcast.config.SerializationConfig#addCompactFactory(int, CompactFactory)
+ */
+public interface Compact {
+
+    /**
+     * Returns CompactFactory ID for this compact class
+     *
+     * @return factory ID
+     */
+    int getFactoryId();
+
+    /**
+     * Returns class identifier for this compact class. Class ID should be unique per CompactFactory.
+     *
+     * @return class ID
+     */
+    int getClassId();
+
+    /**
+     * Serialize this compact object using CompactWriter
+     *
+     * @param writer CompactWriter
+     * @throws IOException
+     */
+    void writeCompact(CompactWriter writer) throws IOException;
+
+    /**
+     * Read compact fields using CompactReader
+     *
+     * @param reader CompactReader
+     * @throws IOException
+     */
+    void readCompact(CompactReader reader) throws IOException;
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+/**
+ * CompactFactory is used to create Compact instances during de-serialization and to derive the
+ * schema of a compact class.
+ *
+ * @see com.hazelcast.nio.serialization.Compact
+ */
+public interface CompactFactory {
+
+    /**
+     * Creates a Compact instance using given class ID
+     *
+     * @param classId compact class ID
+     * @return compact instance or null if class ID is not known by this factory
+     */
+    Compact create(int classId);
+}
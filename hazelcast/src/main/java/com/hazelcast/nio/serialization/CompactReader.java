@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Provides a mean of reading compact fields from a binary in form of java primitives, arrays of java primitives,
+ * nested compact fields and arrays of compact fields.
+ * <p/>
+ * Every field is read from its position in the binary, so the fields can be read in any order. Primitive fields
+ * which were not written read as zero, other fields as {@code null}.
+ */
+public interface CompactReader {
+
+    /**
+     * @param fieldName name of the field (does not support nested paths)
+     * @return true if field exist in the schema of this class.
+     */
+    boolean hasField(String fieldName);
+
+    /**
+     * @return set of field names in the schema of this class
+     */
+    Set<String> getFieldNames();
+
+    /**
+     * @param fieldName name of the field
+     * @return field type of given fieldName, nested compact objects have the {@link FieldType#PORTABLE} type
+     * and arrays of them the {@link FieldType#PORTABLE_ARRAY} type
+     */
+    FieldType getFieldType(String fieldName);
+
+    /**
+     * @param fieldName name of the field
+     * @return the int value read
+     * @throws IOException
+     */
+    int readInt(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the long value read
+     * @throws IOException
+     */
+    long readLong(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the utf string value read
+     * @throws IOException
+     */
+    String readUTF(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the boolean value read
+     * @throws IOException
+     */
+    boolean readBoolean(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the byte value read
+     * @throws IOException
+     */
+    byte readByte(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the char value read
+     * @throws IOException
+     */
+    char readChar(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the double value read
+     * @throws IOException
+     */
+    double readDouble(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the float value read
+     * @throws IOException
+     */
+    float readFloat(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the short value read
+     * @throws IOException
+     */
+    short readShort(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the compact object value read
+     * @throws IOException
+     */
+    Compact readCompact(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the byte array value read
+     * @throws IOException
+     */
+    byte[] readByteArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the boolean array value read
+     * @throws IOException
+     */
+    boolean[] readBooleanArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the char array value read
+     * @throws IOException
+     */
+    char[] readCharArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the int array value read
+     * @throws IOException
+     */
+    int[] readIntArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the long array value read
+     * @throws IOException
+     */
+    long[] readLongArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the double array value read
+     * @throws IOException
+     */
+    double[] readDoubleArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the float array value read
+     * @throws IOException
+     */
+    float[] readFloatArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the short array value read
+     * @throws IOException
+     */
+    short[] readShortArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the utf string array value read
+     * @throws IOException
+     */
+    String[] readUTFArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the compact array value read
+     * @throws IOException
+     */
+    Compact[] readCompactArray(String fieldName) throws IOException;
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import java.io.IOException;
+
+/**
+ * Provides a mean of writing compact fields to a binary in form of java primitives, arrays of java primitives,
+ * nested compact fields and arrays of compact fields.
+ * <p/>
+ * A field can be written only once and the written fields must match the schema of the class, which is
+ * derived from the fields written by the first serialized instance.
+ */
+public interface CompactWriter {
+
+    /**
+     * Writes an int.
+     *
+     * @param fieldName name of the field
+     * @param value     int value to be written
+     * @throws IOException
+     */
+    void writeInt(String fieldName, int value) throws IOException;
+
+    /**
+     * Writes a long.
+     *
+     * @param fieldName name of the field
+     * @param value     long value to be written
+     * @throws IOException
+     */
+    void writeLong(String fieldName, long value) throws IOException;
+
+    /**
+     * Writes a utf string.
+     *
+     * @param fieldName name of the field
+     * @param value     utf string value to be written
+     * @throws IOException
+     */
+    void writeUTF(String fieldName, String value) throws IOException;
+
+    /**
+     * Writes a boolean.
+     *
+     * @param fieldName name of the field
+     * @param value     boolean value to be written
+     * @throws IOException
+     */
+    void writeBoolean(String fieldName, boolean value) throws IOException;
+
+    /**
+     * Writes a byte.
+     *
+     * @param fieldName name of the field
+     * @param value     byte value to be written
+     * @throws IOException
+     */
+    void writeByte(String fieldName, byte value) throws IOException;
+
+    /**
+     * Writes a char.
+     *
+     * @param fieldName name of the field
+     * @param value     char value to be written
+     * @throws IOException
+     */
+    void writeChar(String fieldName, char value) throws IOException;
+
+    /**
+     * Writes a double.
+     *
+     * @param fieldName name of the field
+     * @param value     double value to be written
+     * @throws IOException
+     */
+    void writeDouble(String fieldName, double value) throws IOException;
+
+    /**
+     * Writes a float.
+     *
+     * @param fieldName name of the field
+     * @param value     float value to be written
+     * @throws IOException
+     */
+    void writeFloat(String fieldName, float value) throws IOException;
+
+    /**
+     * Writes a short.
+     *
+     * @param fieldName name of the field
+     * @param value     short value to be written
+     * @throws IOException
+     */
+    void writeShort(String fieldName, short value) throws IOException;
+
+    /**
+     * Writes a compact object.
+     *
+     * @param fieldName name of the field
+     * @param value     compact object value to be written
+     * @throws IOException
+     */
+    void writeCompact(String fieldName, Compact value) throws IOException;
+
+    /**
+     * Writes a byte array.
+     *
+     * @param fieldName name of the field
+     * @param value     byte array value to be written
+     * @throws IOException
+     */
+    void writeByteArray(String fieldName, byte[] value) throws IOException;
+
+    /**
+     * Writes a boolean array.
+     *
+     * @param fieldName name of the field
+     * @param value     boolean array value to be written
+     * @throws IOException
+     */
+    void writeBooleanArray(String fieldName, boolean[] value) throws IOException;
+
+    /**
+     * Writes a char array.
+     *
+     * @param fieldName name of the field
+     * @param value     char array value to be written
+     * @throws IOException
+     */
+    void writeCharArray(String fieldName, char[] value) throws IOException;
+
+    /**
+     * Writes an int array.
+     *
+     * @param fieldName name of the field
+     * @param value     int array value to be written
+     * @throws IOException
+     */
+    void writeIntArray(String fieldName, int[] value) throws IOException;
+
+    /**
+     * Writes a long array.
+     *
+     * @param fieldName name of the field
+     * @param value     long array value to be written
+     * @throws IOException
+     */
+    void writeLongArray(String fieldName, long[] value) throws IOException;
+
+    /**
+     * Writes a double array.
+     *
+     * @param fieldName name of the field
+     * @param value     double array value to be written
+     * @throws IOException
+     */
+    void writeDoubleArray(String fieldName, double[] value) throws IOException;
+
+    /**
+     * Writes a float array.
+     *
+     * @param fieldName name of the field
+     * @param value     float array value to be written
+     * @throws IOException
+     */
+    void writeFloatArray(String fieldName, float[] value) throws IOException;
+
+    /**
+     * Writes a short array.
+     *
+     * @param fieldName name of the field
+     * @param value     short array value to be written
+     * @throws IOException
+     */
+    void writeShortArray(String fieldName, short[] value) throws IOException;
+
+    /**
+     * Writes a utf string array.
+     *
+     * @param fieldName name of the field
+     * @param value     utf string array value to be written
+     * @throws IOException
+     */
+    void writeUTFArray(String fieldName, String[] value) throws IOException;
+
+    /**
+     * Writes a compact array.
+     *
+     * @param fieldName name of the field
+     * @param value     compact array value to be written
+     * @throws IOException
+     */
+    void writeCompactArray(String fieldName, Compact[] value) throws IOException;
+}
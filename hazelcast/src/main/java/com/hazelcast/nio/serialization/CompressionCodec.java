@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+/**
+ * A block compression algorithm used to store the serialized values of a map or cache compressed,
+ * see {@link com.hazelcast.config.CompressionConfig}.
+ * <p>
+ * The id of the codec is written in every compressed value, so a codec must be registered with the same id
+ * (see {@link com.hazelcast.config.SerializationConfig#addCompressionCodec(CompressionCodec)}) on every member
+ * and client which can read the values. The ids up to {@value #MAX_RESERVED_ID} are reserved for the built-in
+ * {@value #LZ4} and {@value #DEFLATE} codecs.
+ * <p>
+ * Implementations must be thread-safe.
+ */
+public interface CompressionCodec {
+
+    /**
+     * Name of the built-in LZ4 block format codec, which favors speed over compression ratio.
+     */
+    String LZ4 = "lz4";
+
+    /**
+     * Name of the built-in Deflate codec, which favors compression ratio over speed.
+     */
+    String DEFLATE = "deflate";
+
+    /**
+     * The highest codec id reserved for the built-in codecs.
+     */
+    int MAX_RESERVED_ID = 15;
+
+    /**
+     * The highest allowed codec id.
+     */
+    int MAX_ID = Byte.MAX_VALUE;
+
+    /**
+     * Returns the id of this codec, between {@value #MAX_RESERVED_ID} (exclusive) and {@value #MAX_ID} for custom codecs.
+     */
+    int getId();
+
+    /**
+     * Returns the name the codec is referenced by in {@link com.hazelcast.config.CompressionConfig#setCodec(String)}.
+     */
+    String getName();
+
+    /**
+     * Returns the maximum length of the compressed form of {@code length} bytes.
+     */
+    int maxCompressedLength(int length);
+
+    /**
+     * Compresses the given bytes.
+     *
+     * @param src        the bytes to compress
+     * @param srcOffset  the offset of the first byte to compress
+     * @param length     the number of bytes to compress
+     * @param dst        the destination array, with at least {@link #maxCompressedLength(int)} bytes after {@code dstOffset}
+     * @param dstOffset  the offset the compressed bytes are written to
+     * @param dictionary the bytes the input is expected to share content with, or {@code null}
+     * @return the number of compressed bytes written to {@code dst}
+     */
+    int compress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, byte[] dictionary);
+
+    /**
+     * Decompresses the given bytes.
+     *
+     * @param src        the compressed bytes
+     * @param srcOffset  the offset of the first compressed byte
+     * @param length     the number of compressed bytes
+     * @param dst        the destination array, with exactly {@code decompressedLength} bytes after {@code dstOffset}
+     * @param dstOffset  the offset the decompressed bytes are written to
+     * @param decompressedLength the length of the decompressed bytes
+     * @param dictionary the dictionary the bytes were compressed with, or {@code null}
+     * @throws HazelcastSerializationException if the compressed bytes are malformed
+     */
+    void decompress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, int decompressedLength,
+                    byte[] dictionary);
+}
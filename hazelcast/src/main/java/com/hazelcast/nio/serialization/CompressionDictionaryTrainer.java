@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.nio.Bits.ISO_8859_1;
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * Builds a compression dictionary from sample values, to be registered with
+ * {@link com.hazelcast.config.SerializationConfig#addCompressionDictionary(int, byte[])}.
+ * <p>
+ * The dictionary is made of the byte sequences occurring in most samples, like the field names and common values
+ * of JSON documents. The sequences are ordered from the least to the most common one, since the codecs reach the
+ * end of the dictionary with the shortest back references. The UTF-8 bytes of string values, or the serialized
+ * form of other values, can be used as samples.
+ */
+public final class CompressionDictionaryTrainer {
+
+    /**
+     * Length of the byte sequences the samples are split into.
+     */
+    static final int SEGMENT_LENGTH = 8;
+
+    private CompressionDictionaryTrainer() {
+    }
+
+    /**
+     * Builds a dictionary of at most {@code dictionarySize} bytes from the given samples.
+     *
+     * @param samples        the sample values
+     * @param dictionarySize the maximum size of the dictionary
+     * @return the dictionary, empty if the samples have nothing in common
+     */
+    public static byte[] train(Collection<byte[]> samples, int dictionarySize) {
+        checkNotNull(samples, "samples can't be null");
+        checkPositive(dictionarySize, "dictionarySize must be positive");
+
+        List<Map.Entry<String, int[]>> segments = commonSegments(samples);
+        Assembly assembly = new Assembly();
+        for (Map.Entry<String, int[]> segment : segments) {
+            if (assembly.length >= dictionarySize) {
+                break;
+            }
+            assembly.add(segment.getKey());
+        }
+
+        StringBuilder dictionary = new StringBuilder(assembly.length);
+        for (int i = assembly.chunks.size() - 1; i >= 0; i--) {
+            dictionary.append(assembly.chunks.get(i));
+        }
+        int start = Math.max(0, dictionary.length() - dictionarySize);
+        return dictionary.substring(start).getBytes(ISO_8859_1);
+    }
+
+    /**
+     * Returns the segments found in more than one sample, the most common first.
+     */
+    private static List<Map.Entry<String, int[]>> commonSegments(Collection<byte[]> samples) {
+        Map<String, int[]> counts = new HashMap<String, int[]>();
+        Set<String> seen = new HashSet<String>();
+        for (byte[] sample : samples) {
+            seen.clear();
+            for (int i = 0; i + SEGMENT_LENGTH <= sample.length; i++) {
+                // ISO-8859-1 maps every byte to a single char, so the strings are just hashable byte sequences
+                String segment = new String(sample, i, SEGMENT_LENGTH, ISO_8859_1);
+                if (seen.add(segment)) {
+                    int[] count = counts.get(segment);
+                    if (count == null) {
+                        counts.put(segment, new int[]{1});
+                    } else {
+                        count[0]++;
+                    }
+                }
+            }
+        }
+
+        List<Map.Entry<String, int[]>> common = new ArrayList<Map.Entry<String, int[]>>();
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            if (entry.getValue()[0] > 1) {
+                common.add(entry);
+            }
+        }
+        Collections.sort(common, new Comparator<Map.Entry<String, int[]>>() {
+            @Override
+            public int compare(Map.Entry<String, int[]> o1, Map.Entry<String, int[]> o2) {
+                int c1 = o1.getValue()[0];
+                int c2 = o2.getValue()[0];
+                return c1 > c2 ? -1 : (c1 == c2 ? o1.getKey().compareTo(o2.getKey()) : 1);
+            }
+        });
+        return common;
+    }
+
+    /**
+     * Joins overlapping segments into chunks, so the shifted copies of a common sequence don't
+     * take dictionary space of their own.
+     */
+    private static final class Assembly {
+
+        final List<StringBuilder> chunks = new ArrayList<StringBuilder>();
+        final Set<String> contained = new HashSet<String>();
+        final Map<String, StringBuilder> byHead = new HashMap<String, StringBuilder>();
+        final Map<String, StringBuilder> byTail = new HashMap<String, StringBuilder>();
+        int length;
+
+        void add(String segment) {
+            if (!contained.add(segment)) {
+                return;
+            }
+            String head = segment.substring(0, SEGMENT_LENGTH - 1);
+            String tail = segment.substring(1);
+            StringBuilder before = byTail.get(head);
+            StringBuilder after = byHead.get(tail);
+            if (before != null && after != null && before != after) {
+                join(before, after, head, tail);
+            } else if (before != null) {
+                byTail.remove(head);
+                before.append(segment.charAt(SEGMENT_LENGTH - 1));
+                byTail.put(tail, before);
+                length++;
+            } else if (after != null) {
+                byHead.remove(tail);
+                after.insert(0, segment.charAt(0));
+                byHead.put(head, after);
+                length++;
+            } else {
+                StringBuilder chunk = new StringBuilder(segment);
+                chunks.add(chunk);
+                byHead.put(head, chunk);
+                byTail.put(tail, chunk);
+                length += SEGMENT_LENGTH;
+            }
+        }
+
+        /**
+         * Joins the chunk ending with the head of a segment and the one starting with its tail, keeping the
+         * position of the chunk added first.
+         */
+        private void join(StringBuilder before, StringBuilder after, String head, String tail) {
+            byTail.remove(head);
+            byHead.remove(tail);
+            byTail.put(after.substring(after.length() - (SEGMENT_LENGTH - 1)), before);
+            // the head and the tail of the segment overlap in all but their first and last bytes
+            before.append(after, SEGMENT_LENGTH - 2, after.length());
+            length -= SEGMENT_LENGTH - 2;
+
+            int beforeIndex = indexOf(before);
+            int afterIndex = indexOf(after);
+            chunks.set(Math.min(beforeIndex, afterIndex), before);
+            chunks.remove(Math.max(beforeIndex, afterIndex));
+        }
+
+        private int indexOf(StringBuilder chunk) {
+            for (int i = 0; i < chunks.size(); i++) {
+                if (chunks.get(i) == chunk) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("Unknown chunk");
+        }
+    }
+}
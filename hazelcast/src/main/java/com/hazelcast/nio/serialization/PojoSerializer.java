@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.internal.serialization.impl.PojoClassSerializer;
+import com.hazelcast.nio.ClassLoaderUtil;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.POJO_SERIALIZATION_TYPE;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * A global serializer which serializes plain Java classes field by field, without Java serialization and without
+ * hand-written {@link DataSerializable#writeData(ObjectDataOutput)} and {@link DataSerializable#readData(ObjectDataInput)}
+ * methods.
+ * <p>
+ * The fields to serialize and a specialized accessor for each of them are resolved once per class, so serializing an
+ * object only walks its fields and writes them with the typed methods of {@link ObjectDataOutput}. Classes registered
+ * with {@link #register(int, Class)} are written with their class ID only, which gives a serialized form about as
+ * small as the one of an {@link IdentifiedDataSerializable}; the fields of other classes are resolved when the class
+ * is first serialized and the class name is written with every object.
+ * <p>
+ * All non-static, non-transient fields of a class and its superclasses are serialized; fields which are not
+ * primitives, strings or primitive arrays are serialized as nested objects by the serialization service, so they may
+ * be handled by this serializer as well. Each class needs a no-arg constructor. Classes implementing
+ * {@link Serializable} or {@link Externalizable} are only handled when they are registered, since their fields alone
+ * may not describe their state.
+ * <p>
+ * To use it, configure an instance as the global serializer:
+ * <pre>
+ * PojoSerializer serializer = new PojoSerializer()
+ *         .register(1, Employee.class)
+ *         .register(2, Department.class);
+ * serializationConfig.setGlobalSerializerConfig(new GlobalSerializerConfig().setImplementation(serializer));
+ * </pre>
+ * Registered classes implementing {@link Serializable} are only passed to the global serializer when
+ * {@link com.hazelcast.config.GlobalSerializerConfig#setOverrideJavaSerialization(boolean)} is enabled. The same classes
+ * have to be registered with the same class IDs on every member and client.
+ */
+public final class PojoSerializer implements StreamSerializer<Object> {
+
+    private static final int UNREGISTERED_CLASS_ID = 0;
+
+    private final ConcurrentMap<Class, PojoClassSerializer> classSerializers =
+            new ConcurrentHashMap<Class, PojoClassSerializer>();
+    private final ConcurrentMap<Integer, PojoClassSerializer> registeredSerializers =
+            new ConcurrentHashMap<Integer, PojoClassSerializer>();
+
+    /**
+     * Registers the given class to be serialized with the given class ID.
+     *
+     * @param classId positive ID of the class, unique within this serializer
+     * @param type    the class to register
+     * @return this serializer for chaining
+     * @throws HazelcastSerializationException if the class can not be serialized field by field
+     * @throws IllegalArgumentException        if the class ID is not positive or is already registered
+     */
+    public PojoSerializer register(int classId, Class<?> type) {
+        checkPositive(classId, "classId must be positive!");
+        PojoClassSerializer serializer = new PojoClassSerializer(classId, type);
+        PojoClassSerializer current = registeredSerializers.putIfAbsent(classId, serializer);
+        if (current != null) {
+            throw new IllegalArgumentException("Class ID " + classId + " is already registered for " + current.getType());
+        }
+        classSerializers.put(type, serializer);
+        return this;
+    }
+
+    @Override
+    public int getTypeId() {
+        return POJO_SERIALIZATION_TYPE;
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, Object object) throws IOException {
+        PojoClassSerializer serializer = classSerializers.get(object.getClass());
+        if (serializer == null) {
+            serializer = unregisteredClassSerializer(object.getClass());
+        }
+        int classId = serializer.getClassId();
+        out.writeInt(classId);
+        if (classId == UNREGISTERED_CLASS_ID) {
+            out.writeUTF(object.getClass().getName());
+        }
+        serializer.write(out, object);
+    }
+
+    @Override
+    public Object read(ObjectDataInput in) throws IOException {
+        int classId = in.readInt();
+        PojoClassSerializer serializer;
+        if (classId == UNREGISTERED_CLASS_ID) {
+            String className = in.readUTF();
+            try {
+                serializer = unregisteredClassSerializer(ClassLoaderUtil.loadClass(in.getClassLoader(), className));
+            } catch (ClassNotFoundException e) {
+                throw new HazelcastSerializationException(e);
+            }
+        } else {
+            serializer = registeredSerializers.get(classId);
+            if (serializer == null) {
+                throw new HazelcastSerializationException("No class is registered for class ID " + classId);
+            }
+        }
+        return serializer.read(in);
+    }
+
+    private PojoClassSerializer unregisteredClassSerializer(Class<?> type) {
+        PojoClassSerializer serializer = classSerializers.get(type);
+        if (serializer != null) {
+            return serializer;
+        }
+        if (Serializable.class.isAssignableFrom(type) || Externalizable.class.isAssignableFrom(type)) {
+            throw new HazelcastSerializationException(type + " implements Java serialization and has to be registered"
+                    + " to be serialized field by field");
+        }
+        serializer = new PojoClassSerializer(UNREGISTERED_CLASS_ID, type);
+        PojoClassSerializer current = classSerializers.putIfAbsent(type, serializer);
+        return current == null ? serializer : current;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -19,6 +19,7 @@ package com.hazelcast.nio.tcp;
 import com.hazelcast.internal.networking.ChannelInboundHandler;
 import com.hazelcast.internal.networking.nio.ChannelInboundHandlerWithCounters;
 import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketPayloadPool;
 import com.hazelcast.spi.impl.PacketHandler;
 
 import java.nio.ByteBuffer;
@@ -37,17 +38,26 @@ public class MemberChannelInboundHandler extends ChannelInboundHandlerWithCounte
     protected Packet packet;
 
     private final PacketHandler handler;
+    private final PacketPayloadPool payloadPool;
 
     public MemberChannelInboundHandler(TcpIpConnection connection, PacketHandler handler) {
+        this(connection, handler, null);
+    }
+
+    /**
+     * @param payloadPool the pool to take the payloads of the read packets from, or {@code null} to allocate them
+     */
+    public MemberChannelInboundHandler(TcpIpConnection connection, PacketHandler handler, PacketPayloadPool payloadPool) {
         this.connection = connection;
         this.handler = handler;
+        this.payloadPool = payloadPool;
     }
 
     @Override
     public void onRead(ByteBuffer src) throws Exception {
         while (src.hasRemaining()) {
             if (packet == null) {
-                packet = new Packet();
+                packet = payloadPool == null ? new Packet() : new Packet(payloadPool);
             }
             boolean complete = packet.readFrom(src);
             if (complete) {
@@ -219,7 +219,8 @@ public class MemberChannelInitializer implements ChannelInitializer {
         // we always send the cluster protocol to a fellow member.
         outputBuffer.put(stringToBytes(CLUSTER));
 
-        return new InitResult<ChannelOutboundHandler>(outputBuffer, outboundHandler);
+        return new InitResult<ChannelOutboundHandler>(outputBuffer, outboundHandler,
+                ioService.getSocketWriteCoalescingDelayNanos());
     }
 
     private InitResult<ChannelOutboundHandler> initOutboundClientProtocol(Channel channel) {
@@ -227,7 +228,8 @@ public class MemberChannelInitializer implements ChannelInitializer {
 
         ByteBuffer outputBuffer = newOutputBuffer(channel, ioService.getSocketClientSendBufferSize());
 
-        return new InitResult<ChannelOutboundHandler>(outputBuffer, outboundHandler);
+        return new InitResult<ChannelOutboundHandler>(outputBuffer, outboundHandler,
+                ioService.getSocketClientWriteCoalescingDelayNanos());
     }
 
     private InitResult<ChannelOutboundHandler> initOutboundTextProtocol(Channel channel) {
@@ -235,7 +237,8 @@ public class MemberChannelInitializer implements ChannelInitializer {
 
         ByteBuffer outputBuffer = newOutputBuffer(channel, ioService.getSocketClientSendBufferSize());
 
-        return new InitResult<ChannelOutboundHandler>(outputBuffer, outboundHandler);
+        return new InitResult<ChannelOutboundHandler>(outputBuffer, outboundHandler,
+                ioService.getSocketClientWriteCoalescingDelayNanos());
     }
 
     private ByteBuffer newOutputBuffer(Channel channel, int sizeKb) {
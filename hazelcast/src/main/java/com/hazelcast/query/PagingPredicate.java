@@ -20,15 +20,20 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.nio.serialization.BinaryInterface;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexImpl;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.SortedIndexVisitor;
 import com.hazelcast.query.impl.predicates.PredicateDataSerializerHook;
 import com.hazelcast.util.IterationType;
 import com.hazelcast.util.SortingUtil;
+import com.hazelcast.util.collection.TopNCollector;
 
 import java.io.IOException;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -169,13 +174,18 @@ public class PagingPredicate<K, V> implements IndexAwarePredicate<K, V>, Identif
     }
 
     /**
-     * Used if inner predicate is instanceof {@link IndexAwarePredicate} for filtering.
+     * Used if inner predicate is instanceof {@link IndexAwarePredicate} for filtering, or if the results
+     * can be read in order from a sorted index.
      *
      * @param queryContext
      * @return
      */
     @Override
     public Set<QueryableEntry<K, V>> filter(QueryContext queryContext) {
+        IndexImpl sortedIndex = getSortedIndex(queryContext);
+        if (sortedIndex != null) {
+            return filterUsingSortedIndex(sortedIndex);
+        }
         if (!(predicate instanceof IndexAwarePredicate)) {
             return null;
         }
@@ -184,32 +194,87 @@ public class PagingPredicate<K, V> implements IndexAwarePredicate<K, V>, Identif
         if (set == null || set.isEmpty()) {
             return null;
         }
-        List<QueryableEntry<K, V>> resultList = new ArrayList<QueryableEntry<K, V>>();
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry();
+        TopNCollector<QueryableEntry> collector = SortingUtil.newPagingCollector(this, nearestAnchorEntry);
         for (QueryableEntry<K, V> queryableEntry : set) {
             if (SortingUtil.compareAnchor(this, queryableEntry, nearestAnchorEntry)) {
-                resultList.add(queryableEntry);
+                collector.offer(queryableEntry);
             }
         }
+        return new LinkedHashSet<QueryableEntry<K, V>>((List) collector.drainSorted());
+    }
 
-        List<QueryableEntry<K, V>> sortedSubList =
-                (List) SortingUtil.getSortedSubList((List) resultList, this, nearestAnchorEntry);
-        return new LinkedHashSet<QueryableEntry<K, V>>(sortedSubList);
+    /**
+     * Reads the matching entries from the sorted index in ascending order and stops as soon as the entries
+     * of the requested pages are collected, instead of matching and sorting all of the entries.
+     * <p>
+     * An empty page results in an empty set: the index already answered the query, while {@code null} would make
+     * the caller fall back to a full partition scan.
+     */
+    private Set<QueryableEntry<K, V>> filterUsingSortedIndex(IndexImpl sortedIndex) {
+        final Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry();
+        final TopNCollector<QueryableEntry> collector = SortingUtil.newPagingCollector(this, nearestAnchorEntry);
+        Map.Entry anchor = nearestAnchorEntry.getValue();
+        Comparable from = null;
+        if (anchor != null) {
+            from = (Comparable) (iterationType == IterationType.KEY ? anchor.getKey() : anchor.getValue());
+        }
+        sortedIndex.visitSortedRecords(from, new SortedIndexVisitor() {
+            @Override
+            public boolean visit(Comparable value, Collection<QueryableEntry> records) {
+                if (collector.isFull()) {
+                    // the remaining records have greater values than all of the collected ones
+                    return false;
+                }
+                for (QueryableEntry record : records) {
+                    if (apply(record) && SortingUtil.compareAnchor(PagingPredicate.this, record, nearestAnchorEntry)) {
+                        collector.offer(record);
+                    }
+                }
+                return true;
+            }
+        });
+        return new LinkedHashSet<QueryableEntry<K, V>>((List) collector.drainSorted());
     }
 
+    /**
+     * Returns the ordered index of the sorted key or value if the results are naturally ordered by it and the
+     * inner predicate can not be evaluated using an index, otherwise {@code null}.
+     */
+    private IndexImpl getSortedIndex(QueryContext queryContext) {
+        if (comparator != null || iterationType == null) {
+            return null;
+        }
+        if (predicate instanceof IndexAwarePredicate && ((IndexAwarePredicate) predicate).isIndexed(queryContext)) {
+            return null;
+        }
+        Index index;
+        switch (iterationType) {
+            case KEY:
+                index = queryContext.getIndex(QueryConstants.KEY_ATTRIBUTE_NAME.value());
+                break;
+            case VALUE:
+                index = queryContext.getIndex(QueryConstants.THIS_ATTRIBUTE_NAME.value());
+                break;
+            default:
+                return null;
+        }
+        return index instanceof IndexImpl && ((IndexImpl) index).isNaturallyOrdered() ? (IndexImpl) index : null;
+    }
 
     /**
-     * Used if inner predicate is instanceof {@link IndexAwarePredicate} for checking if indexed.
+     * Used if inner predicate is instanceof {@link IndexAwarePredicate} for checking if indexed,
+     * or if the results can be read in order from a sorted index.
      *
      * @param queryContext
      * @return
      */
     @Override
     public boolean isIndexed(QueryContext queryContext) {
-        if (predicate instanceof IndexAwarePredicate) {
-            return ((IndexAwarePredicate) predicate).isIndexed(queryContext);
+        if (predicate instanceof IndexAwarePredicate && ((IndexAwarePredicate) predicate).isIndexed(queryContext)) {
+            return true;
         }
-        return false;
+        return getSortedIndex(queryContext) != null;
     }
 
     /**
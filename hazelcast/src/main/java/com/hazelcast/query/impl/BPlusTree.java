@@ -0,0 +1,547 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * B+tree mapping {@link Comparable} keys in their natural order to values.
+ * <p>
+ * Keys and values are kept in flat arrays inside the nodes and all values live in the leaves,
+ * which are linked to each other, so a range scan is a single descent followed by a sequential
+ * walk over the leaf arrays.
+ * <p>
+ * The tree is not thread-safe: {@link BPlusTreeIndexStore} guards it with its read-write lock.
+ *
+ * @param <V> type of the values
+ */
+@SuppressWarnings({"unchecked", "checkstyle:methodcount"})
+final class BPlusTree<V> {
+
+    /**
+     * Maximum number of keys per node, a node is split once it grows beyond it.
+     */
+    static final int DEFAULT_NODE_CAPACITY = 64;
+
+    private final int nodeCapacity;
+    private final int minNodeSize;
+
+    private Node root;
+    private int size;
+
+    // the value replaced or removed by the last put or remove, only used by the writer
+    private V lastValue;
+
+    BPlusTree() {
+        this(DEFAULT_NODE_CAPACITY);
+    }
+
+    BPlusTree(int nodeCapacity) {
+        if (nodeCapacity < 3) {
+            throw new IllegalArgumentException("nodeCapacity should be at least 3, but was " + nodeCapacity);
+        }
+        this.nodeCapacity = nodeCapacity;
+        this.minNodeSize = nodeCapacity / 2;
+        this.root = new LeafNode(nodeCapacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        root = new LeafNode(nodeCapacity);
+        size = 0;
+    }
+
+    V get(Comparable key) {
+        Node node = root;
+        while (node instanceof InnerNode) {
+            InnerNode inner = (InnerNode) node;
+            node = inner.children[inner.childIndex(key)];
+        }
+        LeafNode leaf = (LeafNode) node;
+        int index = leaf.indexOf(key);
+        return index >= 0 ? (V) leaf.values[index] : null;
+    }
+
+    /**
+     * Maps the key to the value.
+     *
+     * @return the previous value mapped to the key or {@code null} if there was none
+     */
+    V put(Comparable key, V value) {
+        lastValue = null;
+        Node right = insert(root, key, value);
+        if (right != null) {
+            InnerNode newRoot = new InnerNode(nodeCapacity);
+            newRoot.keys[0] = separatorOf(right);
+            newRoot.children[0] = root;
+            newRoot.children[1] = right;
+            newRoot.size = 1;
+            root = newRoot;
+        }
+        return takeLastValue();
+    }
+
+    /**
+     * Removes the mapping of the key.
+     *
+     * @return the removed value or {@code null} if there was none
+     */
+    V remove(Comparable key) {
+        lastValue = null;
+        delete(root, key);
+        if (root instanceof InnerNode && root.size == 0) {
+            root = ((InnerNode) root).children[0];
+        }
+        return takeLastValue();
+    }
+
+    /**
+     * Returns an iterator over the values mapped to keys within the given range, in key order.
+     *
+     * @param from          lower bound or {@code null} for no lower bound
+     * @param fromInclusive {@code true} if a key equal to {@code from} is within the range
+     * @param to            upper bound or {@code null} for no upper bound
+     * @param toInclusive   {@code true} if a key equal to {@code to} is within the range
+     */
+    RangeIterator iterator(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        return new RangeIterator(from, fromInclusive, to, toInclusive);
+    }
+
+    /**
+     * @return the smallest key or {@code null} if the tree is empty
+     */
+    Comparable firstKey() {
+        Node node = root;
+        while (node instanceof InnerNode) {
+            node = ((InnerNode) node).children[0];
+        }
+        return node.size == 0 ? null : node.keys[0];
+    }
+
+    /**
+     * @return the greatest key or {@code null} if the tree is empty
+     */
+    Comparable lastKey() {
+        Node node = root;
+        while (node instanceof InnerNode) {
+            node = ((InnerNode) node).children[node.size];
+        }
+        return node.size == 0 ? null : node.keys[node.size - 1];
+    }
+
+    private V takeLastValue() {
+        V value = lastValue;
+        lastValue = null;
+        return value;
+    }
+
+    /**
+     * Inserts into the subtree of the given node.
+     *
+     * @return the new right sibling if the node was split, {@code null} otherwise
+     */
+    private Node insert(Node node, Comparable key, V value) {
+        if (node instanceof LeafNode) {
+            LeafNode leaf = (LeafNode) node;
+            int index = leaf.indexOf(key);
+            if (index >= 0) {
+                lastValue = (V) leaf.values[index];
+                leaf.values[index] = value;
+                return null;
+            }
+            leaf.insertAt(-index - 1, key, value);
+            size++;
+            return leaf.size > nodeCapacity ? leaf.split() : null;
+        }
+
+        InnerNode inner = (InnerNode) node;
+        int childIndex = inner.childIndex(key);
+        Node right = insert(inner.children[childIndex], key, value);
+        if (right == null) {
+            return null;
+        }
+        inner.insertAt(childIndex, separatorOf(right), right);
+        return inner.size > nodeCapacity ? inner.split() : null;
+    }
+
+    private static Comparable separatorOf(Node splitRight) {
+        return splitRight instanceof LeafNode ? splitRight.firstKey() : ((InnerNode) splitRight).takeSeparator();
+    }
+
+    private void delete(Node node, Comparable key) {
+        if (node instanceof LeafNode) {
+            LeafNode leaf = (LeafNode) node;
+            int index = leaf.indexOf(key);
+            if (index >= 0) {
+                lastValue = (V) leaf.values[index];
+                leaf.removeAt(index);
+                size--;
+            }
+            return;
+        }
+
+        InnerNode inner = (InnerNode) node;
+        int childIndex = inner.childIndex(key);
+        Node child = inner.children[childIndex];
+        delete(child, key);
+        if (child.size < minNodeSize) {
+            rebalance(inner, childIndex);
+        }
+    }
+
+    private void rebalance(InnerNode parent, int childIndex) {
+        Node child = parent.children[childIndex];
+        Node left = childIndex > 0 ? parent.children[childIndex - 1] : null;
+        Node right = childIndex < parent.size ? parent.children[childIndex + 1] : null;
+
+        if (left != null && left.size > minNodeSize) {
+            borrowFromLeft(parent, childIndex, left, child);
+        } else if (right != null && right.size > minNodeSize) {
+            borrowFromRight(parent, childIndex, child, right);
+        } else if (left != null) {
+            merge(parent, childIndex - 1, left, child);
+        } else if (right != null) {
+            merge(parent, childIndex, child, right);
+        }
+    }
+
+    private void borrowFromLeft(InnerNode parent, int childIndex, Node left, Node child) {
+        if (child instanceof LeafNode) {
+            LeafNode leftLeaf = (LeafNode) left;
+            int last = leftLeaf.size - 1;
+            ((LeafNode) child).insertAt(0, leftLeaf.keys[last], leftLeaf.values[last]);
+            leftLeaf.removeAt(last);
+            parent.keys[childIndex - 1] = child.firstKey();
+        } else {
+            InnerNode leftInner = (InnerNode) left;
+            InnerNode childInner = (InnerNode) child;
+            int last = leftInner.size - 1;
+            childInner.prepend(parent.keys[childIndex - 1], leftInner.children[last + 1]);
+            parent.keys[childIndex - 1] = leftInner.keys[last];
+            leftInner.keys[last] = null;
+            leftInner.children[last + 1] = null;
+            leftInner.size--;
+        }
+    }
+
+    private void borrowFromRight(InnerNode parent, int childIndex, Node child, Node right) {
+        if (child instanceof LeafNode) {
+            LeafNode rightLeaf = (LeafNode) right;
+            LeafNode childLeaf = (LeafNode) child;
+            childLeaf.insertAt(childLeaf.size, rightLeaf.keys[0], rightLeaf.values[0]);
+            rightLeaf.removeAt(0);
+            parent.keys[childIndex] = rightLeaf.firstKey();
+        } else {
+            InnerNode rightInner = (InnerNode) right;
+            InnerNode childInner = (InnerNode) child;
+            childInner.keys[childInner.size] = parent.keys[childIndex];
+            childInner.children[childInner.size + 1] = rightInner.children[0];
+            childInner.size++;
+            parent.keys[childIndex] = rightInner.keys[0];
+            rightInner.removeFirst();
+        }
+    }
+
+    /**
+     * Merges the right node into the left one and removes the right one from the parent.
+     */
+    private void merge(InnerNode parent, int leftIndex, Node left, Node right) {
+        if (left instanceof LeafNode) {
+            LeafNode leftLeaf = (LeafNode) left;
+            LeafNode rightLeaf = (LeafNode) right;
+            System.arraycopy(rightLeaf.keys, 0, leftLeaf.keys, leftLeaf.size, rightLeaf.size);
+            System.arraycopy(rightLeaf.values, 0, leftLeaf.values, leftLeaf.size, rightLeaf.size);
+            leftLeaf.size += rightLeaf.size;
+            leftLeaf.next = rightLeaf.next;
+        } else {
+            InnerNode leftInner = (InnerNode) left;
+            InnerNode rightInner = (InnerNode) right;
+            leftInner.keys[leftInner.size] = parent.keys[leftIndex];
+            System.arraycopy(rightInner.keys, 0, leftInner.keys, leftInner.size + 1, rightInner.size);
+            System.arraycopy(rightInner.children, 0, leftInner.children, leftInner.size + 1, rightInner.size + 1);
+            leftInner.size += rightInner.size + 1;
+        }
+        parent.removeAt(leftIndex);
+    }
+
+    private static int compare(Comparable a, Comparable b) {
+        return a.compareTo(b);
+    }
+
+    private abstract static class Node {
+
+        final Comparable[] keys;
+        int size;
+
+        Node(int keyCapacity) {
+            this.keys = new Comparable[keyCapacity];
+        }
+
+        abstract Comparable firstKey();
+    }
+
+    private static final class LeafNode extends Node {
+
+        final Object[] values;
+        LeafNode next;
+
+        LeafNode(int nodeCapacity) {
+            // one extra slot, a node is split after it overflowed
+            super(nodeCapacity + 1);
+            this.values = new Object[nodeCapacity + 1];
+        }
+
+        @Override
+        Comparable firstKey() {
+            return keys[0];
+        }
+
+        /**
+         * Binary search as in {@link java.util.Arrays#binarySearch(Object[], Object)}.
+         */
+        int indexOf(Comparable key) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(keys[mid], key);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void insertAt(int index, Comparable key, Object value) {
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+            keys[index] = key;
+            values[index] = value;
+            size++;
+        }
+
+        void removeAt(int index) {
+            int moved = size - index - 1;
+            System.arraycopy(keys, index + 1, keys, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+            size--;
+            keys[size] = null;
+            values[size] = null;
+        }
+
+        LeafNode split() {
+            int nodeCapacity = keys.length - 1;
+            LeafNode right = new LeafNode(nodeCapacity);
+            int leftSize = size / 2;
+            int rightSize = size - leftSize;
+            System.arraycopy(keys, leftSize, right.keys, 0, rightSize);
+            System.arraycopy(values, leftSize, right.values, 0, rightSize);
+            for (int i = leftSize; i < size; i++) {
+                keys[i] = null;
+                values[i] = null;
+            }
+            right.size = rightSize;
+            size = leftSize;
+            right.next = next;
+            next = right;
+            return right;
+        }
+    }
+
+    private static final class InnerNode extends Node {
+
+        final Node[] children;
+
+        // separator pushed up by the last split, read once by the parent
+        Comparable separator;
+
+        InnerNode(int nodeCapacity) {
+            super(nodeCapacity + 1);
+            this.children = new Node[nodeCapacity + 2];
+        }
+
+        @Override
+        Comparable firstKey() {
+            return children[0].firstKey();
+        }
+
+        /**
+         * Returns the index of the child whose subtree may contain the key: child {@code i}
+         * holds the keys lower than {@code keys[i]} and not lower than {@code keys[i - 1]}.
+         */
+        int childIndex(Comparable key) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (compare(keys[mid], key) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+
+        void insertAt(int childIndex, Comparable separatorKey, Node rightChild) {
+            System.arraycopy(keys, childIndex, keys, childIndex + 1, size - childIndex);
+            System.arraycopy(children, childIndex + 1, children, childIndex + 2, size - childIndex);
+            keys[childIndex] = separatorKey;
+            children[childIndex + 1] = rightChild;
+            size++;
+        }
+
+        void prepend(Comparable key, Node child) {
+            System.arraycopy(keys, 0, keys, 1, size);
+            System.arraycopy(children, 0, children, 1, size + 1);
+            keys[0] = key;
+            children[0] = child;
+            size++;
+        }
+
+        void removeFirst() {
+            System.arraycopy(keys, 1, keys, 0, size - 1);
+            System.arraycopy(children, 1, children, 0, size);
+            size--;
+            keys[size] = null;
+            children[size + 1] = null;
+        }
+
+        /**
+         * Removes the separator at the given index together with the child on its right.
+         */
+        void removeAt(int index) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(children, index + 2, children, index + 1, size - index - 1);
+            size--;
+            keys[size] = null;
+            children[size + 1] = null;
+        }
+
+        InnerNode split() {
+            int nodeCapacity = keys.length - 1;
+            InnerNode right = new InnerNode(nodeCapacity);
+            int middle = size / 2;
+            int rightSize = size - middle - 1;
+            System.arraycopy(keys, middle + 1, right.keys, 0, rightSize);
+            System.arraycopy(children, middle + 1, right.children, 0, rightSize + 1);
+            right.size = rightSize;
+            right.separator = keys[middle];
+            for (int i = middle; i < size; i++) {
+                keys[i] = null;
+                children[i + 1] = null;
+            }
+            size = middle;
+            return right;
+        }
+
+        Comparable takeSeparator() {
+            Comparable key = separator;
+            separator = null;
+            return key;
+        }
+    }
+
+    /**
+     * Iterates over the values of a key range, see {@link #iterator(Comparable, boolean, Comparable, boolean)}.
+     */
+    final class RangeIterator implements Iterator<V> {
+
+        private final Comparable to;
+        private final boolean toInclusive;
+
+        private LeafNode leaf;
+        private int index;
+        private Comparable key;
+
+        RangeIterator(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+            this.to = to;
+            this.toInclusive = toInclusive;
+            seek(from, fromInclusive);
+        }
+
+        private void seek(Comparable from, boolean fromInclusive) {
+            Node node = root;
+            while (node instanceof InnerNode) {
+                InnerNode inner = (InnerNode) node;
+                node = inner.children[from == null ? 0 : inner.childIndex(from)];
+            }
+            leaf = (LeafNode) node;
+            if (from == null) {
+                index = 0;
+            } else {
+                int found = leaf.indexOf(from);
+                index = found >= 0 ? (fromInclusive ? found : found + 1) : -found - 1;
+            }
+            skipExhaustedLeaves();
+        }
+
+        private void skipExhaustedLeaves() {
+            while (leaf != null && index >= leaf.size) {
+                leaf = leaf.next;
+                index = 0;
+            }
+            if (leaf != null && to != null) {
+                int cmp = compare(leaf.keys[index], to);
+                if (cmp > 0 || (cmp == 0 && !toInclusive)) {
+                    leaf = null;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        @Override
+        public V next() {
+            if (leaf == null) {
+                throw new NoSuchElementException();
+            }
+            key = leaf.keys[index];
+            V value = (V) leaf.values[index];
+            index++;
+            skipExhaustedLeaves();
+            return value;
+        }
+
+        /**
+         * Returns the key of the value returned by the last {@link #next()} call.
+         */
+        Comparable key() {
+            return key;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Store indexes rankly in a {@link BPlusTree}.
+ * <p>
+ * Unlike {@link SortedIndexStore}, an attribute value mapped to a single entry keeps the entry
+ * itself instead of a per-value map, and all the structures are plain (non-concurrent) ones,
+ * since every access is guarded by the read-write lock of {@link BaseIndexStore}.
+ */
+public class BPlusTreeIndexStore extends BaseIndexStore {
+
+    private final Map<Data, QueryableEntry> recordsWithNullValue = new HashMap<Data, QueryableEntry>();
+
+    // values are either a single QueryableEntry or a Map<Data, QueryableEntry> of 2+ entries
+    private final BPlusTree<Object> recordTree = new BPlusTree<Object>();
+
+    @Override
+    void newIndexInternal(Comparable newValue, QueryableEntry record) {
+        if (newValue instanceof IndexImpl.NullObject) {
+            recordsWithNullValue.put(record.getKeyData(), record);
+        } else {
+            mapAttributeToEntry(newValue, record);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mapAttributeToEntry(Comparable attribute, QueryableEntry entry) {
+        Object records = recordTree.get(attribute);
+        if (records == null) {
+            recordTree.put(attribute, entry);
+        } else if (records instanceof QueryableEntry) {
+            QueryableEntry existing = (QueryableEntry) records;
+            if (existing.getKeyData().equals(entry.getKeyData())) {
+                recordTree.put(attribute, entry);
+            } else {
+                Map<Data, QueryableEntry> map = new HashMap<Data, QueryableEntry>();
+                map.put(existing.getKeyData(), existing);
+                map.put(entry.getKeyData(), entry);
+                recordTree.put(attribute, map);
+            }
+        } else {
+            ((Map<Data, QueryableEntry>) records).put(entry.getKeyData(), entry);
+        }
+    }
+
+    @Override
+    void removeIndexInternal(Comparable oldValue, Data indexKey) {
+        if (oldValue instanceof IndexImpl.NullObject) {
+            recordsWithNullValue.remove(indexKey);
+        } else {
+            removeMappingForAttribute(oldValue, indexKey);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void removeMappingForAttribute(Comparable attribute, Data indexKey) {
+        Object records = recordTree.get(attribute);
+        if (records instanceof QueryableEntry) {
+            if (((QueryableEntry) records).getKeyData().equals(indexKey)) {
+                recordTree.remove(attribute);
+            }
+        } else if (records != null) {
+            Map<Data, QueryableEntry> map = (Map<Data, QueryableEntry>) records;
+            map.remove(indexKey);
+            if (map.size() == 1) {
+                recordTree.put(attribute, map.values().iterator().next());
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            recordsWithNullValue.clear();
+            recordTree.clear();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
+        takeReadLock();
+        try {
+            return collect(recordTree.iterator(from, true, to, true), null);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
+        takeReadLock();
+        try {
+            BPlusTree<Object>.RangeIterator iterator;
+            switch (comparisonType) {
+                case LESSER:
+                    iterator = recordTree.iterator(null, true, searchedValue, false);
+                    break;
+                case LESSER_EQUAL:
+                    iterator = recordTree.iterator(null, true, searchedValue, true);
+                    break;
+                case GREATER:
+                    iterator = recordTree.iterator(searchedValue, false, null, true);
+                    break;
+                case GREATER_EQUAL:
+                    iterator = recordTree.iterator(searchedValue, true, null, true);
+                    break;
+                case NOT_EQUAL:
+                    return collect(recordTree.iterator(null, true, null, true), searchedValue);
+                default:
+                    throw new IllegalArgumentException("Unrecognized comparisonType: " + comparisonType);
+            }
+            return collect(iterator, null);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void visitSortedRecords(Comparable from, SortedIndexVisitor visitor) {
+        takeReadLock();
+        try {
+            BPlusTree<Object>.RangeIterator iterator = recordTree.iterator(from, true, null, true);
+            while (iterator.hasNext()) {
+                Object records = iterator.next();
+                Collection<QueryableEntry> entries = records instanceof QueryableEntry
+                        ? Collections.singletonList((QueryableEntry) records)
+                        : ((Map<Data, QueryableEntry>) records).values();
+                if (!visitor.visit(iterator.key(), entries)) {
+                    return;
+                }
+            }
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public void visitRecords(SortedIndexVisitor visitor) {
+        takeReadLock();
+        try {
+            if (!recordsWithNullValue.isEmpty() && !visitor.visit(IndexImpl.NULL, recordsWithNullValue.values())) {
+                return;
+            }
+        } finally {
+            releaseReadLock();
+        }
+        visitSortedRecords(null, visitor);
+    }
+
+    @Override
+    public Comparable getMinValue() {
+        takeReadLock();
+        try {
+            return recordTree.firstKey();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Comparable getMaxValue() {
+        takeReadLock();
+        try {
+            return recordTree.lastKey();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * Copies the entries of the iterated values into a result set. Entries of values mapped
+     * to a single entry are gathered into a shared map, so a range of unique values results
+     * in a single copy instead of one map per value.
+     */
+    @SuppressWarnings("unchecked")
+    private MultiResultSet collect(BPlusTree<Object>.RangeIterator iterator, Comparable excludedValue) {
+        MultiResultSet results = createMultiResultSet();
+        Map<Data, QueryableEntry> singleEntries = null;
+        while (iterator.hasNext()) {
+            Object records = iterator.next();
+            if (excludedValue != null && excludedValue.equals(iterator.key())) {
+                continue;
+            }
+            if (records instanceof QueryableEntry) {
+                if (singleEntries == null) {
+                    singleEntries = new HashMap<Data, QueryableEntry>();
+                }
+                QueryableEntry entry = (QueryableEntry) records;
+                singleEntries.put(entry.getKeyData(), entry);
+            } else {
+                copyToMultiResultSet(results, (Map<Data, QueryableEntry>) records);
+            }
+        }
+        if (singleEntries != null) {
+            results.addResultSet(singleEntries);
+        }
+        return results;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            if (value instanceof IndexImpl.NullObject) {
+                return toSingleResultSet(recordsWithNullValue);
+            }
+            Object records = recordTree.get(value);
+            if (records instanceof QueryableEntry) {
+                return new SingleResultSet(singletonMap((QueryableEntry) records));
+            }
+            return toSingleResultSet((Map<Data, QueryableEntry>) records);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            MultiResultSet results = createMultiResultSet();
+            for (Comparable value : values) {
+                Object records = value instanceof IndexImpl.NullObject ? recordsWithNullValue : recordTree.get(value);
+                if (records instanceof QueryableEntry) {
+                    results.addResultSet(singletonMap((QueryableEntry) records));
+                } else if (records != null) {
+                    copyToMultiResultSet(results, (Map<Data, QueryableEntry>) records);
+                }
+            }
+            return results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    private static Map<Data, QueryableEntry> singletonMap(QueryableEntry entry) {
+        Map<Data, QueryableEntry> map = new HashMap<Data, QueryableEntry>(1);
+        map.put(entry.getKeyData(), entry);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "BPlusTreeIndexStore{"
+                + "recordTree=" + recordTree.size()
+                + '}';
+    }
+}
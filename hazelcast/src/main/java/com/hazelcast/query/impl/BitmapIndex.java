@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.QueryException;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.getters.MultiResult;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.hazelcast.query.impl.TypeConverters.NULL_CONVERTER;
+
+/**
+ * Index keeping a {@link SparseBitmap} of entry ordinals per distinct attribute value, meant for attributes
+ * with a low number of distinct values, e.g. a status or an enum.
+ * <p>
+ * All the bitmap indexes of an {@link Indexes} instance share the same {@link EntryOrdinals}, so equality
+ * predicates on several of them combined with AND, OR and NOT are evaluated by bitmap operations, see
+ * {@link com.hazelcast.query.impl.predicates.BitmapIndexVisitor}. Range queries are answered by combining the
+ * bitmaps of all the matching distinct values, so they are supported regardless of {@link #isOrdered()}.
+ */
+public class BitmapIndex implements Index {
+
+    private final String attributeName;
+    private final boolean ordered;
+    private final InternalSerializationService ss;
+    private final Extractors extractors;
+    private final EntryOrdinals entryOrdinals;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Comparable, SparseBitmap> bitmaps = new HashMap<Comparable, SparseBitmap>();
+
+    private volatile TypeConverter converter;
+
+    public BitmapIndex(String attributeName, boolean ordered, InternalSerializationService ss, Extractors extractors,
+                       EntryOrdinals entryOrdinals) {
+        this.attributeName = attributeName;
+        this.ordered = ordered;
+        this.ss = ss;
+        this.extractors = extractors;
+        this.entryOrdinals = entryOrdinals;
+    }
+
+    public EntryOrdinals getEntryOrdinals() {
+        return entryOrdinals;
+    }
+
+    @Override
+    public void saveEntryIndex(QueryableEntry entry, Object oldRecordValue) throws QueryException {
+        // see IndexImpl#saveEntryIndex, the converter has to be set before the entry is indexed
+        if (converter == null || converter == NULL_CONVERTER) {
+            converter = entry.getConverter(attributeName);
+        }
+
+        Data key = entry.getKeyData();
+        Object newValue = extractAttributeValue(key, entry.getTargetObject(false));
+        Object oldValue = oldRecordValue == null ? null : extractAttributeValue(key, oldRecordValue);
+        int ordinal = entryOrdinals.acquire(entry);
+        lock.writeLock().lock();
+        try {
+            if (oldRecordValue != null) {
+                unwrapAndRemove(oldValue, ordinal);
+            }
+            unwrapAndAdd(newValue, ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeEntryIndex(Data key, Object value) {
+        int ordinal = entryOrdinals.getOrdinal(key);
+        if (ordinal < 0) {
+            return;
+        }
+        Object oldValue = extractAttributeValue(key, value);
+        lock.writeLock().lock();
+        try {
+            unwrapAndRemove(oldValue, ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Object extractAttributeValue(Data key, Object value) {
+        return QueryableEntry.extractAttributeValue(extractors, ss, attributeName, key, value);
+    }
+
+    private void unwrapAndAdd(Object value, int ordinal) {
+        if (value instanceof MultiResult) {
+            for (Object result : ((MultiResult) value).getResults()) {
+                add(sanitize(result), ordinal);
+            }
+        } else {
+            add(sanitize(value), ordinal);
+        }
+    }
+
+    private void add(Comparable value, int ordinal) {
+        SparseBitmap bitmap = bitmaps.get(value);
+        if (bitmap == null) {
+            bitmap = new SparseBitmap();
+            bitmaps.put(value, bitmap);
+        }
+        bitmap.add(ordinal);
+    }
+
+    private void unwrapAndRemove(Object value, int ordinal) {
+        if (value instanceof MultiResult) {
+            for (Object result : ((MultiResult) value).getResults()) {
+                remove(sanitize(result), ordinal);
+            }
+        } else {
+            remove(sanitize(value), ordinal);
+        }
+    }
+
+    private void remove(Comparable value, int ordinal) {
+        SparseBitmap bitmap = bitmaps.get(value);
+        if (bitmap != null) {
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(value);
+            }
+        }
+    }
+
+    private static Comparable sanitize(Object value) {
+        if (value == null) {
+            return IndexImpl.NULL;
+        }
+        if (!(value instanceof Comparable)) {
+            throw new IllegalArgumentException("It is not allowed to used a type that is not Comparable: " + value.getClass());
+        }
+        if (value.getClass().isEnum()) {
+            return TypeConverters.ENUM_CONVERTER.convert((Comparable) value);
+        }
+        return (Comparable) value;
+    }
+
+    /**
+     * @return a copy of the bitmap of the entries with the given attribute value
+     */
+    public SparseBitmap getBitmap(Comparable value) {
+        return getBitmap(new Comparable[]{value});
+    }
+
+    /**
+     * @return a bitmap of the entries with any of the given attribute values
+     */
+    public SparseBitmap getBitmap(Comparable[] values) {
+        TypeConverter currentConverter = converter;
+        SparseBitmap result = new SparseBitmap();
+        if (currentConverter == null) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            for (Comparable value : values) {
+                SparseBitmap bitmap = bitmaps.get(convert(currentConverter, value));
+                if (bitmap != null) {
+                    result = result.or(bitmap);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private static Comparable convert(TypeConverter converter, Comparable value) {
+        return value == null ? IndexImpl.NULL : converter.convert(value);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable[] values) {
+        return entryOrdinals.getEntries(getBitmap(values));
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        return entryOrdinals.getEntries(getBitmap(value));
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
+        TypeConverter currentConverter = converter;
+        if (currentConverter == null) {
+            return new SingleResultSet(null);
+        }
+        Comparable convertedFrom = convert(currentConverter, from);
+        Comparable convertedTo = convert(currentConverter, to);
+        SparseBitmap result = new SparseBitmap();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Comparable, SparseBitmap> entry : bitmaps.entrySet()) {
+                Comparable value = entry.getKey();
+                if (!(value instanceof IndexImpl.NullObject) && compare(value, convertedFrom) >= 0
+                        && compare(value, convertedTo) <= 0) {
+                    result = result.or(entry.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return entryOrdinals.getEntries(result);
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
+        TypeConverter currentConverter = converter;
+        if (currentConverter == null) {
+            return new SingleResultSet(null);
+        }
+        Comparable convertedValue = convert(currentConverter, searchedValue);
+        SparseBitmap result = new SparseBitmap();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Comparable, SparseBitmap> entry : bitmaps.entrySet()) {
+                Comparable value = entry.getKey();
+                if (!(value instanceof IndexImpl.NullObject) && matches(comparisonType, compare(value, convertedValue))) {
+                    result = result.or(entry.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return entryOrdinals.getEntries(result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Comparable value, Comparable searchedValue) {
+        return value.compareTo(searchedValue);
+    }
+
+    private static boolean matches(ComparisonType comparisonType, int result) {
+        switch (comparisonType) {
+            case LESSER:
+                return result < 0;
+            case LESSER_EQUAL:
+                return result <= 0;
+            case GREATER:
+                return result > 0;
+            case GREATER_EQUAL:
+                return result >= 0;
+            case NOT_EQUAL:
+                return result != 0;
+            default:
+                throw new IllegalStateException("Unrecognized comparisonType: " + comparisonType);
+        }
+    }
+
+    /**
+     * @return the number of distinct indexed attribute values
+     */
+    public int getDistinctValueCount() {
+        lock.readLock().lock();
+        try {
+            return bitmaps.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return an estimation of the heap occupied by the bitmaps of this index in bytes
+     */
+    public long getHeapCost() {
+        lock.readLock().lock();
+        try {
+            long cost = 0;
+            for (SparseBitmap bitmap : bitmaps.values()) {
+                cost += bitmap.getHeapCost();
+            }
+            return cost;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public TypeConverter getConverter() {
+        return converter;
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            bitmaps.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        converter = null;
+    }
+
+    @Override
+    public void destroy() {
+        // NOOP
+    }
+
+    @Override
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    @Override
+    public boolean isOrdered() {
+        return ordered;
+    }
+}
@@ -17,10 +17,13 @@
 package com.hazelcast.query.impl;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.Compact;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.query.impl.getters.Extractors;
 
+import static com.hazelcast.internal.serialization.impl.SerializationUtil.isCompact;
+
 /**
  * Entry of the Query.
  *
@@ -95,20 +98,20 @@ public class CachedQueryEntry<K, V> extends QueryableEntry<K, V> {
         Object targetObject;
         if (key) {
             // keyData is never null
-            if (keyData.isPortable()) {
+            if (keyData.isPortable() || isCompact(keyData)) {
                 targetObject = keyData;
             } else {
                 targetObject = getKey();
             }
         } else {
             if (valueObject == null) {
-                if (valueData.isPortable()) {
+                if (valueData.isPortable() || isCompact(valueData)) {
                     targetObject = valueData;
                 } else {
                     targetObject = getValue();
                 }
             } else {
-                if (valueObject instanceof Portable) {
+                if (valueObject instanceof Portable || valueObject instanceof Compact) {
                     targetObject = getValueData();
                 } else {
                     targetObject = getValue();
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.QueryException;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.getters.MultiResult;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.TypeConverters.NULL_CONVERTER;
+
+/**
+ * Index over several attributes of an entry, e.g. {@code "country, age"}.
+ * <p>
+ * Entries are indexed by a {@link CompositeValue} of all the component attribute values, so an ordered
+ * composite index can answer a conjunction of equality predicates on a prefix of its components and a
+ * range predicate on the next component with a single range lookup.
+ * The values passed to the query methods must be {@link CompositeValue}s with the components in the
+ * order of the index components.
+ */
+public class CompositeIndex implements Index {
+
+    /**
+     * Separator of the component attributes in the attribute name of a composite index.
+     */
+    public static final String COMPONENT_SEPARATOR = ",";
+
+    private final String attributeName;
+    private final String[] components;
+    private final boolean ordered;
+    private final InternalSerializationService ss;
+    private final Extractors extractors;
+    private final IndexStore indexStore;
+
+    private volatile CompositeConverter converter;
+
+    public CompositeIndex(String attributeName, boolean ordered, InternalSerializationService ss, Extractors extractors,
+                          boolean bPlusTreeEnabled) {
+        this.components = getComponents(attributeName);
+        for (String component : components) {
+            if (component.contains("[any]")) {
+                throw new IllegalArgumentException("Composite index component '" + component
+                        + "' can not be a multi-value attribute");
+            }
+        }
+        this.attributeName = canonicalize(attributeName);
+        this.ordered = ordered;
+        this.ss = ss;
+        this.extractors = extractors;
+        if (ordered) {
+            this.indexStore = bPlusTreeEnabled ? new BPlusTreeIndexStore() : new SortedIndexStore();
+        } else {
+            this.indexStore = new UnsortedIndexStore();
+        }
+    }
+
+    /**
+     * @return {@code true} if the given index attribute name denotes a composite index
+     */
+    public static boolean isComposite(String attributeName) {
+        return attributeName.contains(COMPONENT_SEPARATOR);
+    }
+
+    /**
+     * Returns the component attributes of the given composite index attribute name.
+     *
+     * @throws IllegalArgumentException if any of the components is empty
+     */
+    public static String[] getComponents(String attributeName) {
+        String[] components = attributeName.split(COMPONENT_SEPARATOR);
+        for (int i = 0; i < components.length; i++) {
+            components[i] = components[i].trim();
+            if (components[i].length() == 0) {
+                throw new IllegalArgumentException("Empty component in composite index attribute '" + attributeName + "'");
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Returns the name a composite index is registered with, independent of the whitespace
+     * around the components, e.g. {@code "country,age"} for {@code "country, age"}.
+     */
+    public static String canonicalize(String attributeName) {
+        StringBuilder sb = new StringBuilder();
+        for (String component : getComponents(attributeName)) {
+            if (sb.length() > 0) {
+                sb.append(COMPONENT_SEPARATOR);
+            }
+            sb.append(component);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the component attributes of this index, in index order
+     */
+    public String[] getComponents() {
+        return components.clone();
+    }
+
+    @Override
+    public void saveEntryIndex(QueryableEntry entry, Object oldRecordValue) throws QueryException {
+        // see IndexImpl#saveEntryIndex, the converter has to be set before the entry is indexed
+        CompositeConverter currentConverter = converter;
+        if (currentConverter == null || currentConverter.isTransient()) {
+            converter = createConverter(entry);
+        }
+
+        Object newValue = extractValue(entry.getKeyData(), entry.getTargetObject(false));
+        if (oldRecordValue == null) {
+            indexStore.newIndex(newValue, entry);
+        } else {
+            indexStore.updateIndex(extractValue(entry.getKeyData(), oldRecordValue), newValue, entry);
+        }
+    }
+
+    private CompositeConverter createConverter(QueryableEntry entry) {
+        TypeConverter[] converters = new TypeConverter[components.length];
+        for (int i = 0; i < components.length; i++) {
+            converters[i] = entry.getConverter(components[i]);
+        }
+        return new CompositeConverter(converters);
+    }
+
+    @Override
+    public void removeEntryIndex(Data key, Object value) {
+        indexStore.removeIndex(extractValue(key, value), key);
+    }
+
+    private CompositeValue extractValue(Data key, Object value) {
+        Comparable[] values = new Comparable[components.length];
+        for (int i = 0; i < components.length; i++) {
+            Object attributeValue = QueryableEntry.extractAttributeValue(extractors, ss, components[i], key, value);
+            if (attributeValue instanceof MultiResult) {
+                throw new QueryException("Composite index component '" + components[i] + "' can not be a multi-value attribute");
+            }
+            values[i] = sanitizeComponent(attributeValue);
+        }
+        return new CompositeValue(values);
+    }
+
+    private static Comparable sanitizeComponent(Object value) {
+        if (value == null) {
+            return IndexImpl.NULL;
+        }
+        if (!(value instanceof Comparable)) {
+            throw new IllegalArgumentException("It is not allowed to used a type that is not Comparable: " + value.getClass());
+        }
+        if (value.getClass().isEnum()) {
+            return TypeConverters.ENUM_CONVERTER.convert((Comparable) value);
+        }
+        return (Comparable) value;
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable[] values) {
+        if (values.length == 1) {
+            return getRecords(values[0]);
+        }
+        CompositeConverter currentConverter = converter;
+        if (currentConverter == null) {
+            return Collections.emptySet();
+        }
+        Set<Comparable> convertedValues = new HashSet<Comparable>(values.length);
+        for (Comparable value : values) {
+            convertedValues.add(currentConverter.convert(value));
+        }
+        return indexStore.getRecords(convertedValues);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        CompositeConverter currentConverter = converter;
+        if (currentConverter == null) {
+            return new SingleResultSet(null);
+        }
+        return indexStore.getRecords(currentConverter.convert(value));
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
+        CompositeConverter currentConverter = converter;
+        if (currentConverter == null) {
+            return Collections.emptySet();
+        }
+        return indexStore.getSubRecords(comparisonType, currentConverter.convert(searchedValue));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
+        CompositeConverter currentConverter = converter;
+        if (currentConverter == null) {
+            return Collections.emptySet();
+        }
+        Comparable convertedFrom = currentConverter.convert(from);
+        Comparable convertedTo = currentConverter.convert(to);
+        if (convertedFrom.compareTo(convertedTo) > 0) {
+            // e.g. (age > 50 and age < 40), sorted index stores reject inverted ranges
+            return Collections.emptySet();
+        }
+        return indexStore.getSubRecordsBetween(convertedFrom, convertedTo);
+    }
+
+    @Override
+    public TypeConverter getConverter() {
+        return converter;
+    }
+
+    @Override
+    public void clear() {
+        indexStore.clear();
+        converter = null;
+    }
+
+    @Override
+    public void destroy() {
+        // NOOP
+    }
+
+    @Override
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    @Override
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * Converts each component of a {@link CompositeValue} with the converter of the matching
+     * index component, leaving the infinity and null components intact.
+     */
+    private static final class CompositeConverter implements TypeConverter {
+
+        private final TypeConverter[] converters;
+
+        CompositeConverter(TypeConverter[] converters) {
+            this.converters = converters;
+        }
+
+        /**
+         * @return {@code true} if some component was null in the entry the converter was created
+         * from, so its actual type is not known yet
+         */
+        boolean isTransient() {
+            for (TypeConverter converter : converters) {
+                if (converter == NULL_CONVERTER) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Comparable convert(Comparable value) {
+            if (!(value instanceof CompositeValue)) {
+                throw new IllegalArgumentException("Composite index can only be queried with a CompositeValue: " + value);
+            }
+            Comparable[] components = ((CompositeValue) value).getComponents();
+            if (components.length > converters.length + 1) {
+                throw new IllegalArgumentException("Too many components in " + value);
+            }
+            Comparable[] converted = new Comparable[components.length];
+            for (int i = 0; i < components.length; i++) {
+                Comparable component = components[i];
+                if (component == CompositeValue.NEGATIVE_INFINITY || component == CompositeValue.POSITIVE_INFINITY
+                        || component instanceof IndexImpl.NullObject) {
+                    converted[i] = component;
+                } else if (i == converters.length) {
+                    throw new IllegalArgumentException("Only an infinity can follow the last component in " + value);
+                } else {
+                    converted[i] = converters[i].convert(component);
+                }
+            }
+            return new CompositeValue(converted);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+
+/**
+ * Value of a {@link CompositeIndex}: the values of all the index components of an entry, compared
+ * component by component.
+ * <p>
+ * Components may be {@link #NEGATIVE_INFINITY} or {@link #POSITIVE_INFINITY}, which compare lower and
+ * higher than any other value. They are used to express range bounds: a value shorter than another one
+ * with equal leading components is lower, unless the first extra component of the longer one is an
+ * infinity, which then decides the order. For example {@code (a, 5, +inf)} is greater than any stored
+ * {@code (a, 5, x)}, so it is the exclusive lower bound {@code (a, > 5)}.
+ */
+public final class CompositeValue implements Comparable<CompositeValue> {
+
+    /**
+     * Component lower than any other component value.
+     */
+    public static final Comparable NEGATIVE_INFINITY = new Infinity(-1);
+
+    /**
+     * Component greater than any other component value.
+     */
+    public static final Comparable POSITIVE_INFINITY = new Infinity(1);
+
+    private final Comparable[] components;
+
+    public CompositeValue(Comparable[] components) {
+        this.components = components;
+    }
+
+    Comparable[] getComponents() {
+        return components;
+    }
+
+    @Override
+    public int compareTo(CompositeValue that) {
+        Comparable[] thatComponents = that.components;
+        int length = Math.min(components.length, thatComponents.length);
+        for (int i = 0; i < length; i++) {
+            int result = compareComponents(components[i], thatComponents[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        if (components.length > length) {
+            return signOfExtraComponent(components[length]);
+        }
+        if (thatComponents.length > length) {
+            return -signOfExtraComponent(thatComponents[length]);
+        }
+        return 0;
+    }
+
+    private static int signOfExtraComponent(Comparable component) {
+        return component instanceof Infinity ? ((Infinity) component).sign : 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareComponents(Comparable left, Comparable right) {
+        if (left instanceof Infinity) {
+            int leftSign = ((Infinity) left).sign;
+            return right instanceof Infinity ? leftSign - ((Infinity) right).sign : leftSign;
+        }
+        if (right instanceof Infinity) {
+            return -((Infinity) right).sign;
+        }
+        // nulls are lower than any non-null value, see IndexImpl.NullObject
+        if (left instanceof IndexImpl.NullObject) {
+            return right instanceof IndexImpl.NullObject ? 0 : -1;
+        }
+        if (right instanceof IndexImpl.NullObject) {
+            return 1;
+        }
+        return left.compareTo(right);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(components, ((CompositeValue) o).components);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(components);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(components);
+    }
+
+    private static final class Infinity implements Comparable {
+
+        private final int sign;
+
+        Infinity(int sign) {
+            this.sign = sign;
+        }
+
+        @Override
+        public int compareTo(Object o) {
+            return compareComponents(this, (Comparable) o);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Infinity && ((Infinity) o).sign == sign;
+        }
+
+        @Override
+        public int hashCode() {
+            return sign;
+        }
+
+        @Override
+        public String toString() {
+            return sign < 0 ? "-inf" : "+inf";
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns {@code int} ordinals to the entries indexed by the {@link BitmapIndex}es of an {@link Indexes}
+ * instance, so the bitmaps of all these indexes share the same ordinal space and can be combined with
+ * each other.
+ * <p>
+ * Ordinals of removed entries are not reused until the ordinal space wraps around, so a query mapping
+ * the ordinals of a bitmap back to entries concurrently with updates may miss a removed entry, but it
+ * never returns an unrelated entry which took over the ordinal in the meantime.
+ * <p>
+ * The class is lock-free: entries of different keys are indexed concurrently by different partition threads
+ * and a new ordinal is claimed by a {@code putIfAbsent} into the ordinal to entry map. Updates of the same key
+ * are serialized by its partition thread, so acquiring and releasing the ordinal of a key never race.
+ */
+public final class EntryOrdinals {
+
+    private final ConcurrentMap<Data, Integer> ordinals = new ConcurrentHashMap<Data, Integer>();
+    private final ConcurrentMap<Integer, QueryableEntry> entries = new ConcurrentHashMap<Integer, QueryableEntry>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+    /**
+     * Returns the ordinal of the entry, assigning a new one if the entry has none yet.
+     * The entry replaces the previously registered entry with the same key.
+     */
+    int acquire(QueryableEntry entry) {
+        Data key = entry.getKeyData();
+        Integer ordinal = ordinals.get(key);
+        if (ordinal == null) {
+            ordinal = claimFreeOrdinal(entry);
+            ordinals.put(key, ordinal);
+        } else {
+            entries.put(ordinal, entry);
+        }
+        return ordinal;
+    }
+
+    private int claimFreeOrdinal(QueryableEntry entry) {
+        while (true) {
+            // wraps around to zero after Integer.MAX_VALUE, ordinals still in use are skipped
+            int ordinal = nextOrdinal.getAndIncrement() & Integer.MAX_VALUE;
+            if (entries.putIfAbsent(ordinal, entry) == null) {
+                return ordinal;
+            }
+        }
+    }
+
+    /**
+     * @return the ordinal of the entry with the given key or {@code -1} if there is no such entry
+     */
+    int getOrdinal(Data key) {
+        Integer ordinal = ordinals.get(key);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Releases the ordinal of the entry with the given key, called once the entry is removed from all the indexes.
+     */
+    void release(Data key) {
+        Integer ordinal = ordinals.remove(key);
+        if (ordinal != null) {
+            entries.remove(ordinal);
+        }
+    }
+
+    /**
+     * @return a bitmap of the ordinals of all the registered entries
+     */
+    public SparseBitmap getAllOrdinals() {
+        int[] allOrdinals = new int[entries.size()];
+        int count = 0;
+        for (Integer ordinal : entries.keySet()) {
+            if (count == allOrdinals.length) {
+                // entries added since the size was taken
+                allOrdinals = Arrays.copyOf(allOrdinals, count * 2 + 1);
+            }
+            allOrdinals[count++] = ordinal;
+        }
+        // sorted ordinals are appended to the bitmap containers instead of being inserted in the middle
+        Arrays.sort(allOrdinals, 0, count);
+        SparseBitmap bitmap = new SparseBitmap();
+        for (int i = 0; i < count; i++) {
+            bitmap.add(allOrdinals[i]);
+        }
+        return bitmap;
+    }
+
+    /**
+     * @return the entries with the ordinals set in the given bitmap
+     */
+    public Set<QueryableEntry> getEntries(SparseBitmap bitmap) {
+        int[] entryOrdinals = bitmap.toArray();
+        Map<Data, QueryableEntry> result = new HashMap<Data, QueryableEntry>(entryOrdinals.length);
+        for (int ordinal : entryOrdinals) {
+            QueryableEntry entry = entries.get(ordinal);
+            if (entry != null) {
+                result.put(entry.getKeyData(), entry);
+            }
+        }
+        return new SingleResultSet(result);
+    }
+
+    public int size() {
+        return ordinals.size();
+    }
+
+    void clear() {
+        ordinals.clear();
+        entries.clear();
+        nextOrdinal.set(0);
+    }
+}
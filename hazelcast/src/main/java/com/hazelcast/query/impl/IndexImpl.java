@@ -45,17 +45,38 @@ public class IndexImpl implements Index {
     private final String attributeName;
     private final boolean ordered;
     private final Extractors extractors;
+    private final boolean bPlusTreeEnabled;
+    private final IndexStatistics statistics;
 
     public IndexImpl(String attributeName, boolean ordered, InternalSerializationService ss, Extractors extractors) {
+        this(attributeName, ordered, ss, extractors, false);
+    }
+
+    public IndexImpl(String attributeName, boolean ordered, InternalSerializationService ss, Extractors extractors,
+                     boolean bPlusTreeEnabled) {
+        this(attributeName, ordered, ss, extractors, bPlusTreeEnabled, false);
+    }
+
+    /**
+     * @param statisticsEnabled {@code true} if the index should collect {@link IndexStatistics}, needed by the
+     *                          cost-based query optimizer only
+     */
+    public IndexImpl(String attributeName, boolean ordered, InternalSerializationService ss, Extractors extractors,
+                     boolean bPlusTreeEnabled, boolean statisticsEnabled) {
+        this.statistics = statisticsEnabled ? new IndexStatistics() : null;
         this.attributeName = attributeName;
         this.ordered = ordered;
         this.ss = ss;
+        this.bPlusTreeEnabled = bPlusTreeEnabled;
         this.indexStore = createIndexStore(ordered);
         this.extractors = extractors;
     }
 
     public IndexStore createIndexStore(boolean ordered) {
-        return ordered ? new SortedIndexStore() : new UnsortedIndexStore();
+        if (!ordered) {
+            return new UnsortedIndexStore();
+        }
+        return bPlusTreeEnabled ? new BPlusTreeIndexStore() : new SortedIndexStore();
     }
 
     @Override
@@ -74,9 +95,15 @@ public class IndexImpl implements Index {
         Object newAttributeValue = extractAttributeValue(entry.getKeyData(), entry.getTargetObject(false));
         if (oldRecordValue == null) {
             indexStore.newIndex(newAttributeValue, entry);
+            if (statistics != null) {
+                statistics.onEntryAdded(newAttributeValue);
+            }
         } else {
             Object oldAttributeValue = extractAttributeValue(entry.getKeyData(), oldRecordValue);
             indexStore.updateIndex(oldAttributeValue, newAttributeValue, entry);
+            if (statistics != null) {
+                statistics.onEntryUpdated(oldAttributeValue, newAttributeValue);
+            }
         }
     }
 
@@ -84,6 +111,9 @@ public class IndexImpl implements Index {
     public void removeEntryIndex(Data key, Object value) {
         Object attributeValue = extractAttributeValue(key, value);
         indexStore.removeIndex(attributeValue, key);
+        if (statistics != null) {
+            statistics.onEntryRemoved(attributeValue);
+        }
     }
 
     private Object extractAttributeValue(Data key, Object value) {
@@ -130,6 +160,54 @@ public class IndexImpl implements Index {
         return indexStore.getSubRecordsBetween(convert(fromAttributeValue), convert(toAttributeValue));
     }
 
+    /**
+     * Visits the records of this ordered index in ascending order of their attribute values, starting from
+     * {@code fromAttributeValue} (inclusive). The records with a {@code null} attribute value are not visited.
+     *
+     * @param fromAttributeValue the smallest visited value or {@code null} to start from the smallest value
+     * @param visitor            the visitor
+     * @throws UnsupportedOperationException if the index is not ordered
+     */
+    public void visitSortedRecords(Comparable fromAttributeValue, SortedIndexVisitor visitor) {
+        if (converter == null) {
+            return;
+        }
+        indexStore.visitSortedRecords(fromAttributeValue == null ? null : convert(fromAttributeValue), visitor);
+    }
+
+    /**
+     * Returns the smallest non-null attribute value stored in this ordered index.
+     *
+     * @return the smallest value or {@code null} if there is none
+     * @throws UnsupportedOperationException if the index is not ordered
+     */
+    public Comparable getMinValue() {
+        return converter == null ? null : indexStore.getMinValue();
+    }
+
+    /**
+     * Returns the greatest non-null attribute value stored in this ordered index.
+     *
+     * @return the greatest value or {@code null} if there is none
+     * @throws UnsupportedOperationException if the index is not ordered
+     */
+    public Comparable getMaxValue() {
+        return converter == null ? null : indexStore.getMaxValue();
+    }
+
+    /**
+     * Checks if the order of this index is the natural order of the indexed attribute values, which is not the case
+     * for unordered indexes and for the attributes indexed by a representation of their values.
+     *
+     * @return {@code true} if the index is ordered by the natural order of the attribute values
+     */
+    public boolean isNaturallyOrdered() {
+        // enums are indexed by their names, so the index order differs from their natural order
+        TypeConverter typeConverter = converter;
+        return ordered && typeConverter != null
+                && typeConverter != TypeConverters.ENUM_CONVERTER && typeConverter != TypeConverters.PORTABLE_CONVERTER;
+    }
+
     /**
      * Note: the fact that the given attributeValue is of type Comparable doesn't mean that this value is of the same
      * type as the one that's stored in the index, thus the conversion is needed.
@@ -149,9 +227,25 @@ public class IndexImpl implements Index {
         return converter;
     }
 
+    /**
+     * Returns the statistics of the values stored in this index. If many values left the index by updates
+     * and removals since the statistics were built, they are rebuilt from the index first.
+     *
+     * @return the statistics or {@code null} if the index does not collect statistics
+     */
+    public IndexStatistics getStatistics() {
+        if (statistics != null) {
+            statistics.rebuildIfNeeded(indexStore);
+        }
+        return statistics;
+    }
+
     @Override
     public void clear() {
         indexStore.clear();
+        if (statistics != null) {
+            statistics.clear();
+        }
         converter = null;
     }
 
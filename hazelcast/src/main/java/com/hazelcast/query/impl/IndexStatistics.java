@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.query.impl.getters.MultiResult;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.util.HashUtil.MurmurHash3_fmix;
+
+/**
+ * Statistics of the values stored in an {@link IndexImpl}, used by the
+ * {@link com.hazelcast.query.impl.predicates.CostBasedQueryOptimizer} to estimate the number of entries
+ * returned by an index lookup. Indexes collect them only when the cost-based optimizer is configured.
+ * <p>
+ * The number of distinct values is estimated by a HyperLogLog sketch and the distribution of the values
+ * by a fixed size uniform sample of them. Neither of them can forget a value, so the statistics count the
+ * values which left the index by an update or a removal of an entry. Once these outnumber the indexed
+ * entries, the sketch and the sample are rebuilt from the values in the index, see
+ * {@link #rebuildIfNeeded(IndexStore)}. The number of indexed entries is always exact.
+ * <p>
+ * Updates are lock-free, as they are on the write path of every indexed entry: the sketch registers are
+ * raised by CAS and the sample slots are overwritten racily, which keeps the sample uniform enough for
+ * the estimations.
+ */
+public final class IndexStatistics {
+
+    static final int SAMPLE_SIZE = 256;
+
+    /**
+     * The minimum number of removed values triggering a rebuild, so that small indexes aren't rebuilt
+     * on every few updates.
+     */
+    static final long MIN_REBUILD_REMOVED_VALUE_COUNT = 1024;
+
+    private final AtomicLong entryCount = new AtomicLong();
+    // the number of values in the sketch which are no longer in the index
+    private final AtomicLong removedValueCount = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile ValueSketch sketch = new ValueSketch();
+    // the sketch being rebuilt, it gets the values added during the rebuild as well
+    private volatile ValueSketch rebuiltSketch;
+
+    /**
+     * Called when an entry with the given attribute value is added to the index.
+     */
+    void onEntryAdded(Object value) {
+        entryCount.incrementAndGet();
+        add(value);
+    }
+
+    /**
+     * Called when the attribute value of an already indexed entry is updated.
+     */
+    void onEntryUpdated(Object oldValue, Object newValue) {
+        removedValueCount.addAndGet(valueCount(oldValue));
+        add(newValue);
+    }
+
+    /**
+     * Called when an entry with the given attribute value is removed from the index.
+     */
+    void onEntryRemoved(Object value) {
+        entryCount.decrementAndGet();
+        removedValueCount.addAndGet(valueCount(value));
+    }
+
+    void clear() {
+        entryCount.set(0);
+        removedValueCount.set(0);
+        sketch = new ValueSketch();
+    }
+
+    /**
+     * Rebuilds the sketch and the sample from the values in the given index store if more values left the index
+     * since the previous build than there are entries in it. Concurrent rebuilds are skipped; the current
+     * statistics are used until the rebuild completes, while the values added meanwhile go to both sketches.
+     *
+     * @param indexStore the store of the index these statistics belong to
+     */
+    void rebuildIfNeeded(IndexStore indexStore) {
+        if (removedValueCount.get() <= Math.max(MIN_REBUILD_REMOVED_VALUE_COUNT, getEntryCount())
+                || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            final ValueSketch rebuilt = new ValueSketch();
+            // values removed from now on may still be visited, so they count towards the next rebuild
+            removedValueCount.set(0);
+            rebuiltSketch = rebuilt;
+            indexStore.visitRecords(new SortedIndexVisitor() {
+                @Override
+                public boolean visit(Comparable value, Collection<QueryableEntry> records) {
+                    rebuilt.add(value, records.size());
+                    return true;
+                }
+            });
+            sketch = rebuilt;
+        } finally {
+            rebuiltSketch = null;
+            rebuilding.set(false);
+        }
+    }
+
+    private void add(Object value) {
+        ValueSketch currentSketch = sketch;
+        ValueSketch currentRebuiltSketch = rebuiltSketch;
+        if (value instanceof MultiResult) {
+            for (Object result : ((MultiResult) value).getResults()) {
+                add(currentSketch, currentRebuiltSketch, sanitize(result));
+            }
+        } else {
+            add(currentSketch, currentRebuiltSketch, sanitize(value));
+        }
+    }
+
+    private static void add(ValueSketch sketch, ValueSketch rebuiltSketch, Comparable value) {
+        sketch.add(value, 1);
+        if (rebuiltSketch != null) {
+            rebuiltSketch.add(value, 1);
+        }
+    }
+
+    private static int valueCount(Object value) {
+        return value instanceof MultiResult ? ((MultiResult) value).getResults().size() : 1;
+    }
+
+    private static Comparable sanitize(Object value) {
+        if (value == null) {
+            return IndexImpl.NULL;
+        }
+        if (value.getClass().isEnum()) {
+            return TypeConverters.ENUM_CONVERTER.convert((Comparable) value);
+        }
+        return (Comparable) value;
+    }
+
+    /**
+     * @return the number of entries in the index
+     */
+    public long getEntryCount() {
+        return Math.max(entryCount.get(), 0);
+    }
+
+    /**
+     * @return the estimated number of distinct values in the index, never larger than the number of entries
+     */
+    public long getDistinctValueCount() {
+        long entries = getEntryCount();
+        if (entries == 0) {
+            return 0;
+        }
+        return Math.max(1, Math.min(sketch.estimateDistinct(), entries));
+    }
+
+    /**
+     * Estimates the number of entries having the given number of distinct values, assuming all the values are
+     * equally frequent.
+     *
+     * @param valueCount the number of distinct values looked up
+     * @return the estimated number of entries
+     */
+    public long estimateEqualCount(int valueCount) {
+        long distinct = getDistinctValueCount();
+        if (distinct == 0) {
+            return 0;
+        }
+        long entries = getEntryCount();
+        return Math.min(entries, (entries * valueCount + distinct - 1) / distinct);
+    }
+
+    /**
+     * Estimates the number of entries with a value in the given range, based on the sampled values.
+     *
+     * @param from          the lower bound (converted to the type of the indexed values) or {@code null} if unbounded
+     * @param fromInclusive {@code true} if the lower bound is inclusive
+     * @param to            the upper bound (converted to the type of the indexed values) or {@code null} if unbounded
+     * @param toInclusive   {@code true} if the upper bound is inclusive
+     * @return the estimated number of entries
+     */
+    public long estimateRangeCount(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        long entries = getEntryCount();
+        AtomicReferenceArray<Comparable> samples = sketch.samples;
+        int sampleCount = 0;
+        int matchingCount = 0;
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            Comparable sample = samples.get(i);
+            if (sample == null) {
+                // not filled yet, slots are filled concurrently so the sample may have gaps
+                continue;
+            }
+            sampleCount++;
+            if (!(sample instanceof IndexImpl.NullObject) && isInRange(sample, from, fromInclusive, to, toInclusive)) {
+                matchingCount++;
+            }
+        }
+        if (sampleCount == 0) {
+            return 0;
+        }
+        // round up, a range matching no sample is still likely to match a few entries
+        return Math.min(entries, (entries * matchingCount + sampleCount - 1) / sampleCount);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean isInRange(Comparable value, Comparable from, boolean fromInclusive, Comparable to,
+                                     boolean toInclusive) {
+        if (from != null) {
+            int result = value.compareTo(from);
+            if (result < 0 || result == 0 && !fromInclusive) {
+                return false;
+            }
+        }
+        if (to != null) {
+            int result = value.compareTo(to);
+            if (result > 0 || result == 0 && !toInclusive) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexStatistics{entryCount=" + getEntryCount() + ", distinctValueCount=" + getDistinctValueCount() + '}';
+    }
+
+    /**
+     * The distinct value sketch and the value sample, replaced as a whole when the statistics are cleared.
+     * <p>
+     * The sketch is a dense HyperLogLog with 8-bit registers packed into {@code long}s, so a register is
+     * raised by a single CAS of its word.
+     */
+    private static final class ValueSketch {
+
+        private static final int PRECISION = 12;
+        private static final int REGISTER_COUNT = 1 << PRECISION;
+        private static final int REGISTERS_PER_WORD_SHIFT = 3;
+        private static final int REGISTER_INDEX_MASK = (1 << REGISTERS_PER_WORD_SHIFT) - 1;
+        private static final int BITS_PER_REGISTER_SHIFT = 3;
+        private static final long REGISTER_MASK = 0xFF;
+        private static final int MAX_RANK = Long.SIZE - PRECISION + 1;
+        private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+        private static final double LINEAR_COUNTING_THRESHOLD = 2.5 * REGISTER_COUNT;
+
+        private final AtomicLongArray registers = new AtomicLongArray(REGISTER_COUNT >>> REGISTERS_PER_WORD_SHIFT);
+        private final AtomicReferenceArray<Comparable> samples = new AtomicReferenceArray<Comparable>(SAMPLE_SIZE);
+        private final AtomicLong insertedValueCount = new AtomicLong();
+
+        /**
+         * Adds the given value the given number of times.
+         */
+        void add(Comparable value, int times) {
+            addHash(MurmurHash3_fmix((long) value.hashCode()));
+
+            // reservoir sampling, every value inserted so far is sampled with the same probability
+            long last = insertedValueCount.addAndGet(times);
+            for (long count = last - times + 1; count <= last; count++) {
+                if (count <= SAMPLE_SIZE) {
+                    samples.set((int) count - 1, value);
+                } else {
+                    long position = (long) (ThreadLocalRandomProvider.get().nextDouble() * count);
+                    if (position < SAMPLE_SIZE) {
+                        samples.set((int) position, value);
+                    }
+                }
+            }
+        }
+
+        private void addHash(long hash) {
+            int index = (int) (hash >>> (Long.SIZE - PRECISION));
+            long rank = Math.min(Long.numberOfLeadingZeros(hash << PRECISION) + 1, MAX_RANK);
+            int word = index >>> REGISTERS_PER_WORD_SHIFT;
+            int shift = (index & REGISTER_INDEX_MASK) << BITS_PER_REGISTER_SHIFT;
+            while (true) {
+                long current = registers.get(word);
+                if (((current >>> shift) & REGISTER_MASK) >= rank) {
+                    return;
+                }
+                long updated = current & ~(REGISTER_MASK << shift) | rank << shift;
+                if (registers.compareAndSet(word, current, updated)) {
+                    return;
+                }
+            }
+        }
+
+        long estimateDistinct() {
+            double sum = 0;
+            int zeroRegisters = 0;
+            for (int index = 0; index < REGISTER_COUNT; index++) {
+                long word = registers.get(index >>> REGISTERS_PER_WORD_SHIFT);
+                int rank = (int) ((word >>> ((index & REGISTER_INDEX_MASK) << BITS_PER_REGISTER_SHIFT)) & REGISTER_MASK);
+                sum += 1.0 / (1L << rank);
+                if (rank == 0) {
+                    zeroRegisters++;
+                }
+            }
+            double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+            if (estimate <= LINEAR_COUNTING_THRESHOLD && zeroRegisters > 0) {
+                // linear counting is more precise for small cardinalities
+                estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeroRegisters);
+            }
+            return Math.round(estimate);
+        }
+    }
+}
@@ -35,4 +35,34 @@ public interface IndexStore {
     Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue);
     Set<QueryableEntry> getRecords(Comparable value);
     Set<QueryableEntry> getRecords(Set<Comparable> values);
+
+    /**
+     * Visits the records in ascending order of their attribute values, starting from {@code from} (inclusive).
+     * The records with a {@code null} attribute value are not visited.
+     *
+     * @param from    the smallest visited value or {@code null} to start from the smallest stored value
+     * @param visitor the visitor
+     * @throws UnsupportedOperationException if the store does not keep the values ordered
+     */
+    void visitSortedRecords(Comparable from, SortedIndexVisitor visitor);
+
+    /**
+     * Visits the records of every stored attribute value, in no particular order. The records with a {@code null}
+     * attribute value are visited with {@link IndexImpl#NULL}.
+     *
+     * @param visitor the visitor, the visit stops once it returns {@code false}
+     */
+    void visitRecords(SortedIndexVisitor visitor);
+
+    /**
+     * @return the smallest stored non-null attribute value or {@code null} if there is none
+     * @throws UnsupportedOperationException if the store does not keep the values ordered
+     */
+    Comparable getMinValue();
+
+    /**
+     * @return the greatest stored non-null attribute value or {@code null} if there is none
+     * @throws UnsupportedOperationException if the store does not keep the values ordered
+     */
+    Comparable getMaxValue();
 }
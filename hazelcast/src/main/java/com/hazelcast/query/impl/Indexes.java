@@ -24,6 +24,9 @@ import com.hazelcast.query.Predicate;
 import com.hazelcast.query.QueryException;
 import com.hazelcast.query.impl.getters.Extractors;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -34,56 +37,98 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class Indexes {
     private static final Index[] EMPTY_INDEX = {};
+    private static final CompositeIndex[] EMPTY_COMPOSITE_INDEX = {};
     private final ConcurrentMap<String, Index> mapIndexes = new ConcurrentHashMap<String, Index>(3);
     private final AtomicReference<Index[]> indexes = new AtomicReference<Index[]>(EMPTY_INDEX);
+    private volatile CompositeIndex[] compositeIndexes = EMPTY_COMPOSITE_INDEX;
     private volatile boolean hasIndex;
     private final InternalSerializationService serializationService;
     private final IndexProvider indexProvider;
     private final Extractors extractors;
     private final boolean global;
+    private final Set<String> bitmapAttributes;
+    private volatile EntryOrdinals entryOrdinals;
 
 
     public Indexes(InternalSerializationService serializationService, IndexProvider indexProvider,
                    Extractors extractors, boolean global) {
+        this(serializationService, indexProvider, extractors, global, Collections.<String>emptySet());
+    }
+
+    /**
+     * @param bitmapAttributes the attributes indexed by a {@link BitmapIndex} instead of the index
+     *                         created by the {@code indexProvider}
+     */
+    public Indexes(InternalSerializationService serializationService, IndexProvider indexProvider,
+                   Extractors extractors, boolean global, Set<String> bitmapAttributes) {
         this.serializationService = serializationService;
         this.indexProvider = indexProvider;
         this.extractors = extractors;
         this.global = global;
+        this.bitmapAttributes = bitmapAttributes;
     }
 
     public synchronized Index destroyIndex(String attribute) {
-        return mapIndexes.remove(attribute);
+        return mapIndexes.remove(canonicalize(attribute));
     }
 
     public synchronized Index addOrGetIndex(String attribute, boolean ordered) {
+        attribute = canonicalize(attribute);
         Index index = mapIndexes.get(attribute);
         if (index != null) {
             return index;
         }
-        index = indexProvider.createIndex(attribute, ordered, extractors, serializationService);
+        index = createIndex(attribute, ordered);
         mapIndexes.put(attribute, index);
         Object[] indexObjects = mapIndexes.values().toArray();
         Index[] newIndexes = new Index[indexObjects.length];
+        List<CompositeIndex> newCompositeIndexes = new ArrayList<CompositeIndex>();
         for (int i = 0; i < indexObjects.length; i++) {
             newIndexes[i] = (Index) indexObjects[i];
+            if (newIndexes[i] instanceof CompositeIndex) {
+                newCompositeIndexes.add((CompositeIndex) newIndexes[i]);
+            }
         }
         indexes.set(newIndexes);
+        compositeIndexes = newCompositeIndexes.toArray(new CompositeIndex[newCompositeIndexes.size()]);
         hasIndex = true;
         return index;
     }
 
+    private Index createIndex(String attribute, boolean ordered) {
+        if (!bitmapAttributes.contains(attribute) || CompositeIndex.isComposite(attribute)) {
+            return indexProvider.createIndex(attribute, ordered, extractors, serializationService);
+        }
+        if (entryOrdinals == null) {
+            entryOrdinals = new EntryOrdinals();
+        }
+        return new BitmapIndex(attribute, ordered, serializationService, extractors, entryOrdinals);
+    }
+
     public Index[] getIndexes() {
         return indexes.get();
     }
 
+    /**
+     * @return the composite (multi-attribute) indexes, a subset of {@link #getIndexes()}
+     */
+    public CompositeIndex[] getCompositeIndexes() {
+        return compositeIndexes;
+    }
+
     public void clearIndexes() {
         for (Index index : getIndexes()) {
             index.destroy();
         }
 
         indexes.set(EMPTY_INDEX);
+        compositeIndexes = EMPTY_COMPOSITE_INDEX;
         mapIndexes.clear();
         hasIndex = false;
+        EntryOrdinals currentEntryOrdinals = entryOrdinals;
+        if (currentEntryOrdinals != null) {
+            currentEntryOrdinals.clear();
+        }
     }
 
     public void removeEntryIndex(Data key, Object value) throws QueryException {
@@ -91,6 +136,10 @@ public class Indexes {
         for (Index index : indexes) {
             index.removeEntryIndex(key, value);
         }
+        EntryOrdinals currentEntryOrdinals = entryOrdinals;
+        if (currentEntryOrdinals != null) {
+            currentEntryOrdinals.release(key);
+        }
     }
 
     public boolean hasIndex() {
@@ -122,7 +171,11 @@ public class Indexes {
      * @return Index for attribute or null if the index does not exist.
      */
     public Index getIndex(String attribute) {
-        return mapIndexes.get(attribute);
+        return mapIndexes.get(canonicalize(attribute));
+    }
+
+    private static String canonicalize(String attribute) {
+        return CompositeIndex.isComposite(attribute) ? CompositeIndex.canonicalize(attribute) : attribute;
     }
 
     public Set<QueryableEntry> query(Predicate predicate) {
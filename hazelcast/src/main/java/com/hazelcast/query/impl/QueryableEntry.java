@@ -18,6 +18,7 @@ package com.hazelcast.query.impl;
 
 import com.hazelcast.core.TypeConverter;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.Compact;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.query.QueryException;
@@ -186,7 +187,7 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
         if (extractedSingleResult == null) {
             return null;
         }
-        if (extractedSingleResult instanceof Portable) {
+        if (extractedSingleResult instanceof Portable || extractedSingleResult instanceof Compact) {
             return AttributeType.PORTABLE;
         }
         return ReflectionHelper.getAttributeType(extractedSingleResult.getClass());
@@ -178,6 +178,51 @@ public class SortedIndexStore extends BaseIndexStore {
         }
     }
 
+    @Override
+    public void visitSortedRecords(Comparable from, SortedIndexVisitor visitor) {
+        takeReadLock();
+        try {
+            Map<Comparable, ConcurrentMap<Data, QueryableEntry>> visited =
+                    from == null ? recordMap : recordMap.tailMap(from, true);
+            for (Map.Entry<Comparable, ConcurrentMap<Data, QueryableEntry>> entry : visited.entrySet()) {
+                if (!visitor.visit(entry.getKey(), entry.getValue().values())) {
+                    return;
+                }
+            }
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public void visitRecords(SortedIndexVisitor visitor) {
+        takeReadLock();
+        try {
+            if (!recordsWithNullValue.isEmpty() && !visitor.visit(IndexImpl.NULL, recordsWithNullValue.values())) {
+                return;
+            }
+            for (Map.Entry<Comparable, ConcurrentMap<Data, QueryableEntry>> entry : recordMap.entrySet()) {
+                if (!visitor.visit(entry.getKey(), entry.getValue().values())) {
+                    return;
+                }
+            }
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Comparable getMinValue() {
+        Map.Entry<Comparable, ConcurrentMap<Data, QueryableEntry>> entry = recordMap.firstEntry();
+        return entry == null ? null : entry.getKey();
+    }
+
+    @Override
+    public Comparable getMaxValue() {
+        Map.Entry<Comparable, ConcurrentMap<Data, QueryableEntry>> entry = recordMap.lastEntry();
+        return entry == null ? null : entry.getKey();
+    }
+
     @Override
     public String toString() {
         return "SortedIndexStore{"
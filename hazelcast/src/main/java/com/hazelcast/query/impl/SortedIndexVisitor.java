@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import java.util.Collection;
+
+/**
+ * Visits the records of an ordered index value by value, in ascending order of the attribute values. Also used to
+ * visit the records of any index in no particular order, see {@link IndexStore#visitRecords(SortedIndexVisitor)}.
+ *
+ * @see IndexImpl#visitSortedRecords(Comparable, SortedIndexVisitor)
+ */
+public interface SortedIndexVisitor {
+
+    /**
+     * Visits the records having the given attribute value. The visit runs under the read lock of
+     * the index store, so it should not block.
+     *
+     * @param value   the attribute value
+     * @param records the records having the attribute value
+     * @return {@code true} to continue with the next value, {@code false} to stop the visit
+     */
+    boolean visit(Comparable value, Collection<QueryableEntry> records);
+}
@@ -0,0 +1,549 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+
+import static com.hazelcast.nio.Bits.CHAR_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+
+/**
+ * Compressed bitmap of non-negative {@code int}s in the style of roaring bitmaps.
+ * <p>
+ * The values are partitioned by their upper 16 bits into containers of the lower 16 bits. A container with
+ * up to {@value #MAX_ARRAY_CARDINALITY} values is a sorted {@code char} array, a denser container is a plain
+ * 2^16 bit bitmap, so both sparse and dense sets take little memory and the binary operations combine the
+ * dense containers a 64-bit word at a time.
+ * <p>
+ * Binary operations never modify their operands and return a new bitmap. The class is not thread-safe.
+ */
+public final class SparseBitmap {
+
+    static final int MAX_ARRAY_CARDINALITY = 4096;
+
+    private static final int CONTAINER_BITS = 16;
+    private static final int LOW_BITS_MASK = 0xFFFF;
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_COUNT = 1 << (CONTAINER_BITS - WORD_SHIFT);
+    private static final int BITS_PER_WORD = 64;
+    private static final int INITIAL_CONTAINER_COUNT = 4;
+
+    private int[] keys;
+    private Container[] containers;
+    private int size;
+
+    public SparseBitmap() {
+        this(INITIAL_CONTAINER_COUNT);
+    }
+
+    private SparseBitmap(int capacity) {
+        this.keys = new int[capacity];
+        this.containers = new Container[capacity];
+    }
+
+    public void add(int value) {
+        checkValue(value);
+        int key = value >>> CONTAINER_BITS;
+        char low = (char) (value & LOW_BITS_MASK);
+        int index = indexOf(key);
+        if (index >= 0) {
+            containers[index] = containers[index].add(low);
+        } else {
+            ArrayContainer container = new ArrayContainer(1);
+            container.add(low);
+            insert(-index - 1, key, container);
+        }
+    }
+
+    public void remove(int value) {
+        checkValue(value);
+        int index = indexOf(value >>> CONTAINER_BITS);
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove((char) (value & LOW_BITS_MASK));
+        if (container.cardinality() == 0) {
+            removeAt(index);
+        } else {
+            containers[index] = container;
+        }
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = indexOf(value >>> CONTAINER_BITS);
+        return index >= 0 && containers[index].contains((char) (value & LOW_BITS_MASK));
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public SparseBitmap copy() {
+        SparseBitmap copy = new SparseBitmap(Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            copy.append(keys[i], containers[i].copy());
+        }
+        return copy;
+    }
+
+    /**
+     * @return the values which are both in this and the other bitmap
+     */
+    public SparseBitmap and(SparseBitmap other) {
+        SparseBitmap result = new SparseBitmap(Math.max(Math.min(size, other.size), 1));
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendIfNotEmpty(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the values which are in this or the other bitmap
+     */
+    public SparseBitmap or(SparseBitmap other) {
+        SparseBitmap result = new SparseBitmap(Math.max(size + other.size, 1));
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || i < size && keys[i] < other.keys[j]) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the values of this bitmap which are not in the other bitmap
+     */
+    public SparseBitmap andNot(SparseBitmap other) {
+        SparseBitmap result = new SparseBitmap(Math.max(size, 1));
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                result.appendIfNotEmpty(keys[i], containers[i].andNot(other.containers[j]));
+            } else {
+                result.append(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the values of this bitmap in ascending order
+     */
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            position = containers[i].fill(keys[i] << CONTAINER_BITS, values, position);
+        }
+        return values;
+    }
+
+    /**
+     * @return an estimation of the heap occupied by this bitmap in bytes
+     */
+    public long getHeapCost() {
+        long cost = (long) keys.length * (INT_SIZE_IN_BYTES + REFERENCE_COST_IN_BYTES);
+        for (int i = 0; i < size; i++) {
+            cost += containers[i].getHeapCost();
+        }
+        return cost;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Only non-negative values can be stored, got " + value);
+        }
+    }
+
+    private int indexOf(int key) {
+        // containers are appended in ascending key order most of the time
+        if (size > 0 && keys[size - 1] == key) {
+            return size - 1;
+        }
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int index, int key, Container container) {
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    private void append(int key, Container container) {
+        ensureCapacity(size + 1);
+        keys[size] = key;
+        containers[size] = container;
+        size++;
+    }
+
+    private void appendIfNotEmpty(int key, Container container) {
+        if (container.cardinality() > 0) {
+            append(key, container);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newCapacity = Math.max(capacity, keys.length << 1);
+            keys = Arrays.copyOf(keys, newCapacity);
+            containers = Arrays.copyOf(containers, newCapacity);
+        }
+    }
+
+    /**
+     * Set of the lower 16 bits of the values sharing the same upper 16 bits.
+     * Mutators return the container to be used afterwards, which may be a converted one.
+     */
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container copy();
+
+        abstract int fill(int base, int[] values, int position);
+
+        abstract long getHeapCost();
+
+        Container and(Container other) {
+            if (this instanceof BitmapContainer && other instanceof BitmapContainer) {
+                return ((BitmapContainer) this).and((BitmapContainer) other);
+            }
+            // at least one array container: the result is not larger than it, so filter that one
+            ArrayContainer array = (ArrayContainer) (this instanceof ArrayContainer ? this : other);
+            Container filter = array == this ? other : this;
+            ArrayContainer result = new ArrayContainer(array.cardinality);
+            for (int i = 0; i < array.cardinality; i++) {
+                if (filter.contains(array.values[i])) {
+                    result.values[result.cardinality++] = array.values[i];
+                }
+            }
+            return result;
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer && other instanceof ArrayContainer) {
+                return ((ArrayContainer) this).or((ArrayContainer) other);
+            }
+            BitmapContainer bitmap = (BitmapContainer) (this instanceof BitmapContainer ? this : other);
+            Container added = bitmap == this ? other : this;
+            BitmapContainer result = (BitmapContainer) bitmap.copy();
+            if (added instanceof BitmapContainer) {
+                result.orInPlace((BitmapContainer) added);
+            } else {
+                ArrayContainer array = (ArrayContainer) added;
+                for (int i = 0; i < array.cardinality; i++) {
+                    result.add(array.values[i]);
+                }
+            }
+            return result;
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof BitmapContainer && other instanceof BitmapContainer) {
+                return ((BitmapContainer) this).andNot((BitmapContainer) other);
+            }
+            if (this instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) this;
+                ArrayContainer result = new ArrayContainer(array.cardinality);
+                for (int i = 0; i < array.cardinality; i++) {
+                    if (!other.contains(array.values[i])) {
+                        result.values[result.cardinality++] = array.values[i];
+                    }
+                }
+                return result;
+            }
+            Container result = copy();
+            ArrayContainer removed = (ArrayContainer) other;
+            for (int i = 0; i < removed.cardinality; i++) {
+                result = result.remove(removed.values[i]);
+            }
+            return result;
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer(int capacity) {
+            this.values = new char[capacity];
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == MAX_ARRAY_CARDINALITY) {
+                return toBitmapContainer().add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(Math.max(cardinality << 1, 1), MAX_ARRAY_CARDINALITY));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            ArrayContainer copy = new ArrayContainer(Math.max(cardinality, 1));
+            System.arraycopy(values, 0, copy.values, 0, cardinality);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        int fill(int base, int[] target, int position) {
+            for (int i = 0; i < cardinality; i++) {
+                target[position++] = base | values[i];
+            }
+            return position;
+        }
+
+        @Override
+        long getHeapCost() {
+            return REFERENCE_COST_IN_BYTES + INT_SIZE_IN_BYTES + values.length * CHAR_SIZE_IN_BYTES;
+        }
+
+        Container or(ArrayContainer other) {
+            if (cardinality + other.cardinality > MAX_ARRAY_CARDINALITY) {
+                BitmapContainer result = toBitmapContainer();
+                for (int i = 0; i < other.cardinality; i++) {
+                    result.add(other.values[i]);
+                }
+                return result.cardinality <= MAX_ARRAY_CARDINALITY ? result.toArrayContainer() : result;
+            }
+            ArrayContainer result = new ArrayContainer(Math.max(cardinality + other.cardinality, 1));
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < other.cardinality) {
+                char value;
+                if (j == other.cardinality || i < cardinality && values[i] < other.values[j]) {
+                    value = values[i++];
+                } else if (i == cardinality || values[i] > other.values[j]) {
+                    value = other.values[j++];
+                } else {
+                    value = values[i++];
+                    j++;
+                }
+                result.values[result.cardinality++] = value;
+            }
+            return result;
+        }
+
+        private BitmapContainer toBitmapContainer() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words = new long[WORD_COUNT];
+        private int cardinality;
+
+        @Override
+        Container add(char value) {
+            int index = value >>> WORD_SHIFT;
+            long bit = 1L << value;
+            if ((words[index] & bit) == 0) {
+                words[index] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = value >>> WORD_SHIFT;
+            long bit = 1L << value;
+            if ((words[index] & bit) != 0) {
+                words[index] &= ~bit;
+                cardinality--;
+                if (cardinality <= MAX_ARRAY_CARDINALITY) {
+                    return toArrayContainer();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> WORD_SHIFT] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, WORD_COUNT);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        int fill(int base, int[] target, int position) {
+            for (int i = 0; i < WORD_COUNT; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    target[position++] = base | (i * BITS_PER_WORD + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return position;
+        }
+
+        @Override
+        long getHeapCost() {
+            return REFERENCE_COST_IN_BYTES + INT_SIZE_IN_BYTES + WORD_COUNT * LONG_SIZE_IN_BYTES;
+        }
+
+        Container and(BitmapContainer other) {
+            BitmapContainer result = new BitmapContainer();
+            int cardinality = 0;
+            for (int i = 0; i < WORD_COUNT; i++) {
+                long word = words[i] & other.words[i];
+                result.words[i] = word;
+                cardinality += Long.bitCount(word);
+            }
+            result.cardinality = cardinality;
+            return cardinality <= MAX_ARRAY_CARDINALITY ? result.toArrayContainer() : result;
+        }
+
+        Container andNot(BitmapContainer other) {
+            BitmapContainer result = new BitmapContainer();
+            int cardinality = 0;
+            for (int i = 0; i < WORD_COUNT; i++) {
+                long word = words[i] & ~other.words[i];
+                result.words[i] = word;
+                cardinality += Long.bitCount(word);
+            }
+            result.cardinality = cardinality;
+            return cardinality <= MAX_ARRAY_CARDINALITY ? result.toArrayContainer() : result;
+        }
+
+        void orInPlace(BitmapContainer other) {
+            int cardinality = 0;
+            for (int i = 0; i < WORD_COUNT; i++) {
+                words[i] |= other.words[i];
+                cardinality += Long.bitCount(words[i]);
+            }
+            this.cardinality = cardinality;
+        }
+
+        private ArrayContainer toArrayContainer() {
+            ArrayContainer array = new ArrayContainer(Math.max(cardinality, 1));
+            array.cardinality = fillLow(array.values);
+            return array;
+        }
+
+        private int fillLow(char[] target) {
+            int position = 0;
+            for (int i = 0; i < WORD_COUNT; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    target[position++] = (char) (i * BITS_PER_WORD + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return position;
+        }
+    }
+}
@@ -194,6 +194,38 @@ public class UnsortedIndexStore extends BaseIndexStore {
         }
     }
 
+    @Override
+    public void visitSortedRecords(Comparable from, SortedIndexVisitor visitor) {
+        throw new UnsupportedOperationException("Unordered index store can not be visited in order");
+    }
+
+    @Override
+    public void visitRecords(SortedIndexVisitor visitor) {
+        takeReadLock();
+        try {
+            if (!recordsWithNullValue.isEmpty() && !visitor.visit(IndexImpl.NULL, recordsWithNullValue.values())) {
+                return;
+            }
+            for (Map.Entry<Comparable, ConcurrentMap<Data, QueryableEntry>> entry : recordMap.entrySet()) {
+                if (!visitor.visit(entry.getKey(), entry.getValue().values())) {
+                    return;
+                }
+            }
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Comparable getMinValue() {
+        throw new UnsupportedOperationException("Unordered index store does not keep the smallest value");
+    }
+
+    @Override
+    public Comparable getMaxValue() {
+        throw new UnsupportedOperationException("Unordered index store does not keep the greatest value");
+    }
+
     @Override
     public String toString() {
         return "UnsortedIndexStore{"
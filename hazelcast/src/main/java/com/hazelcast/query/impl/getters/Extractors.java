@@ -18,6 +18,7 @@ package com.hazelcast.query.impl.getters;
 
 import com.hazelcast.config.MapAttributeConfig;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.Compact;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.query.QueryException;
@@ -28,6 +29,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import static com.hazelcast.internal.serialization.impl.SerializationUtil.isCompact;
 import static com.hazelcast.query.impl.getters.ExtractorHelper.extractArgumentsFromAttributeName;
 import static com.hazelcast.query.impl.getters.ExtractorHelper.extractAttributeNameNameWithoutArguments;
 
@@ -39,6 +41,7 @@ public final class Extractors {
     private static final float EVICTION_PERCENTAGE = 0.2f;
 
     private volatile PortableGetter genericPortableGetter;
+    private volatile CompactGetter genericCompactGetter;
 
     /**
      * Maps the extractorAttributeName WITHOUT the arguments to a ValueExtractor instance.
@@ -71,24 +74,25 @@ public final class Extractors {
     }
 
     /**
-     * @return Data (in this case it's portable) or Object (in this case it's non-portable)
+     * @return Data (in this case it's portable or compact) or Object (in this case it's neither)
      */
     private static Object getTargetObject(InternalSerializationService serializationService, Object target) {
         Data targetData;
-        if (target instanceof Portable) {
+        if (target instanceof Portable || target instanceof Compact) {
             targetData = serializationService.toData(target);
-            if (targetData.isPortable()) {
+            if (targetData.isPortable() || isCompact(targetData)) {
                 return targetData;
             }
         }
 
         if (target instanceof Data) {
-            targetData = (Data) target;
-            if (targetData.isPortable()) {
+            // compressed values are read as the data they were compressed from
+            targetData = serializationService.decompress((Data) target);
+            if (targetData.isPortable() || isCompact(targetData)) {
                 return targetData;
             } else {
                 // convert non-portable Data to object
-                return serializationService.toObject(target);
+                return serializationService.toObject(targetData);
             }
         }
 
@@ -115,6 +119,13 @@ public final class Extractors {
             return new ExtractorGetter(serializationService, valueExtractor, arguments);
         } else {
             if (targetObject instanceof Data) {
+                if (isCompact((Data) targetObject)) {
+                    if (genericCompactGetter == null) {
+                        // will be initialised a couple of times in the worst case
+                        genericCompactGetter = new CompactGetter(serializationService);
+                    }
+                    return genericCompactGetter;
+                }
                 if (genericPortableGetter == null) {
                     // will be initialised a couple of times in the worst case
                     genericPortableGetter = new PortableGetter(serializationService);
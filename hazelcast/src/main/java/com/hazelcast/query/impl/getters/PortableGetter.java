@@ -37,11 +37,12 @@ final class PortableGetter extends Getter {
     Object getValue(Object target, String fieldPath) throws Exception {
         Data data = (Data) target;
         PortableContext context = serializationService.getPortableContext();
-        PortableReader reader = serializationService.createPortableReader(data);
         ClassDefinition classDefinition = context.lookupClassDefinition(data);
         FieldDefinition fieldDefinition = context.getFieldDefinition(classDefinition, fieldPath);
 
         if (fieldDefinition != null) {
+            // the reader navigates to the field in the serialized form, the portable is never deserialized
+            PortableReader reader = serializationService.createPortableReader(data);
             return ((DefaultPortableReader) reader).read(fieldPath);
         } else {
             return null;
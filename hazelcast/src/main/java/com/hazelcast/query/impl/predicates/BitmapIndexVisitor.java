@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.BitmapIndex;
+import com.hazelcast.query.impl.Indexes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces predicates on attributes indexed by {@link BitmapIndex}es with a {@link BitmapPredicate}, so they are
+ * evaluated by combining bitmaps instead of intersecting and merging sets of entries.
+ *
+ * Imagine bitmap indexes on "status" and "country". Then (status = X or country in (Y, Z)) is evaluated as a
+ * union of three bitmaps and (not status = X and country = Y and age > 30) as a difference of two bitmaps
+ * intersected with the result of the "age" predicate. Equality, not-equality and IN predicates qualify.
+ */
+public class BitmapIndexVisitor extends AbstractVisitor {
+
+    private static final int MINIMUM_NUMBER_OF_PREDICATES_TO_REPLACE = 2;
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        if (indexes == null) {
+            return andPredicate;
+        }
+        Predicate[] originalPredicates = andPredicate.predicates;
+        List<Predicate> evaluable = new ArrayList<Predicate>();
+        List<Predicate> remaining = new ArrayList<Predicate>();
+        for (Predicate predicate : originalPredicates) {
+            if (isEvaluable(predicate, indexes)) {
+                evaluable.add(predicate);
+            } else {
+                remaining.add(predicate);
+            }
+        }
+        if (evaluable.isEmpty() || evaluable.size() < MINIMUM_NUMBER_OF_PREDICATES_TO_REPLACE
+                && isServedByIndex(evaluable.get(0))) {
+            return andPredicate;
+        }
+
+        Predicate bitmapPredicate = evaluable.size() == 1
+                ? wrap(evaluable.get(0))
+                : new BitmapPredicate(new AndPredicate(evaluable.toArray(new Predicate[evaluable.size()])));
+        if (remaining.isEmpty()) {
+            return bitmapPredicate;
+        }
+        remaining.add(0, bitmapPredicate);
+        return new AndPredicate(remaining.toArray(new Predicate[remaining.size()]));
+    }
+
+    @Override
+    public Predicate visit(OrPredicate orPredicate, Indexes indexes) {
+        if (indexes == null) {
+            return orPredicate;
+        }
+        for (Predicate predicate : orPredicate.predicates) {
+            if (!isEvaluable(predicate, indexes)) {
+                return orPredicate;
+            }
+        }
+        return new BitmapPredicate(orPredicate);
+    }
+
+    @Override
+    public Predicate visit(NotPredicate notPredicate, Indexes indexes) {
+        if (indexes == null || !isEvaluable(notPredicate.predicate, indexes)) {
+            return notPredicate;
+        }
+        return new BitmapPredicate(notPredicate);
+    }
+
+    private static Predicate wrap(Predicate predicate) {
+        return predicate instanceof BitmapPredicate ? predicate : new BitmapPredicate(predicate);
+    }
+
+    /**
+     * An equality or IN predicate is served by the bitmap index on its own, there is no point in wrapping it.
+     */
+    private static boolean isServedByIndex(Predicate predicate) {
+        return predicate.getClass() == EqualPredicate.class || predicate.getClass() == InPredicate.class;
+    }
+
+    private static boolean isEvaluable(Predicate predicate, Indexes indexes) {
+        if (predicate instanceof BitmapPredicate) {
+            return true;
+        }
+        // exact class match, NotEqualPredicate extends EqualPredicate and is matched separately
+        Class<? extends Predicate> predicateClass = predicate.getClass();
+        if (predicateClass != EqualPredicate.class && predicateClass != NotEqualPredicate.class
+                && predicateClass != InPredicate.class) {
+            return false;
+        }
+        return indexes.getIndex(((AbstractPredicate) predicate).attributeName) instanceof BitmapIndex;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.BitmapIndex;
+import com.hazelcast.query.impl.EntryOrdinals;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.SparseBitmap;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Predicate evaluated by combining the bitmaps of {@link BitmapIndex}es.
+ * <p>
+ * Wraps a tree of equality, not-equality and IN predicates on bitmap indexed attributes combined with AND, OR
+ * and NOT. Created by the {@link BitmapIndexVisitor} and only used on the member optimizing the query, so it
+ * is never serialized. Entries are filtered by the wrapped predicate when the query is not served by the indexes.
+ */
+@SuppressFBWarnings(value = "SE_BAD_FIELD", justification = "Never serialized, only used on the member running the query.")
+final class BitmapPredicate implements IndexAwarePredicate {
+
+    final Predicate predicate;
+
+    BitmapPredicate(Predicate predicate) {
+        this.predicate = predicate;
+    }
+
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        EntryOrdinals entryOrdinals = findIndex(predicate, queryContext).getEntryOrdinals();
+        return entryOrdinals.getEntries(evaluate(predicate, queryContext, entryOrdinals));
+    }
+
+    @Override
+    public boolean isIndexed(QueryContext queryContext) {
+        return isIndexed(predicate, queryContext);
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        return predicate.apply(mapEntry);
+    }
+
+    private static boolean isIndexed(Predicate predicate, QueryContext queryContext) {
+        if (predicate instanceof BitmapPredicate) {
+            return isIndexed(((BitmapPredicate) predicate).predicate, queryContext);
+        }
+        if (predicate instanceof AndPredicate) {
+            return allIndexed(((AndPredicate) predicate).predicates, queryContext);
+        }
+        if (predicate instanceof OrPredicate) {
+            return allIndexed(((OrPredicate) predicate).predicates, queryContext);
+        }
+        if (predicate instanceof NotPredicate) {
+            return isIndexed(((NotPredicate) predicate).predicate, queryContext);
+        }
+        return getIndex(predicate, queryContext) != null;
+    }
+
+    private static boolean allIndexed(Predicate[] predicates, QueryContext queryContext) {
+        for (Predicate predicate : predicates) {
+            if (!isIndexed(predicate, queryContext)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BitmapIndex findIndex(Predicate predicate, QueryContext queryContext) {
+        if (predicate instanceof BitmapPredicate) {
+            return findIndex(((BitmapPredicate) predicate).predicate, queryContext);
+        }
+        if (predicate instanceof AndPredicate) {
+            return findIndex(((AndPredicate) predicate).predicates[0], queryContext);
+        }
+        if (predicate instanceof OrPredicate) {
+            return findIndex(((OrPredicate) predicate).predicates[0], queryContext);
+        }
+        if (predicate instanceof NotPredicate) {
+            return findIndex(((NotPredicate) predicate).predicate, queryContext);
+        }
+        return getIndex(predicate, queryContext);
+    }
+
+    private static BitmapIndex getIndex(Predicate predicate, QueryContext queryContext) {
+        if (!(predicate instanceof AbstractPredicate)) {
+            return null;
+        }
+        Index index = queryContext.getIndex(((AbstractPredicate) predicate).attributeName);
+        return index instanceof BitmapIndex ? (BitmapIndex) index : null;
+    }
+
+    @SuppressWarnings("checkstyle:npathcomplexity")
+    private static SparseBitmap evaluate(Predicate predicate, QueryContext queryContext, EntryOrdinals entryOrdinals) {
+        if (predicate instanceof BitmapPredicate) {
+            return evaluate(((BitmapPredicate) predicate).predicate, queryContext, entryOrdinals);
+        }
+        if (predicate instanceof AndPredicate) {
+            Predicate[] predicates = ((AndPredicate) predicate).predicates;
+            SparseBitmap result = evaluate(predicates[0], queryContext, entryOrdinals);
+            for (int i = 1; i < predicates.length && !result.isEmpty(); i++) {
+                result = result.and(evaluate(predicates[i], queryContext, entryOrdinals));
+            }
+            return result;
+        }
+        if (predicate instanceof OrPredicate) {
+            Predicate[] predicates = ((OrPredicate) predicate).predicates;
+            SparseBitmap result = evaluate(predicates[0], queryContext, entryOrdinals);
+            for (int i = 1; i < predicates.length; i++) {
+                result = result.or(evaluate(predicates[i], queryContext, entryOrdinals));
+            }
+            return result;
+        }
+        if (predicate instanceof NotPredicate) {
+            SparseBitmap negated = evaluate(((NotPredicate) predicate).predicate, queryContext, entryOrdinals);
+            return entryOrdinals.getAllOrdinals().andNot(negated);
+        }
+        if (predicate instanceof NotEqualPredicate) {
+            NotEqualPredicate notEqualPredicate = (NotEqualPredicate) predicate;
+            SparseBitmap equal = getIndex(predicate, queryContext).getBitmap(notEqualPredicate.value);
+            return entryOrdinals.getAllOrdinals().andNot(equal);
+        }
+        if (predicate instanceof EqualPredicate) {
+            return getIndex(predicate, queryContext).getBitmap(((EqualPredicate) predicate).value);
+        }
+        if (predicate instanceof InPredicate) {
+            return getIndex(predicate, queryContext).getBitmap(((InPredicate) predicate).values);
+        }
+        throw new IllegalArgumentException("Predicate can't be evaluated by bitmap indexes: " + predicate);
+    }
+
+    @Override
+    public String toString() {
+        return "bitmap(" + predicate + ")";
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompositeValue;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Equality predicate on all the components of a {@link com.hazelcast.query.impl.CompositeIndex}.
+ * <p>
+ * Created by the {@link CompositeIndexVisitor} in place of the equality predicates it was matched
+ * from and only used on the member optimizing the query, so it is never serialized. Entries are
+ * filtered by the replaced predicates when the query is not served by the index.
+ */
+@SuppressFBWarnings(value = "SE_BAD_FIELD", justification = "Never serialized, only used on the member running the query.")
+final class CompositeEqualPredicate implements IndexAwarePredicate {
+
+    final String indexName;
+    final CompositeValue value;
+    final Predicate[] predicates;
+
+    CompositeEqualPredicate(String indexName, CompositeValue value, Predicate[] predicates) {
+        this.indexName = indexName;
+        this.value = value;
+        this.predicates = predicates;
+    }
+
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        return queryContext.getIndex(indexName).getRecords(value);
+    }
+
+    @Override
+    public boolean isIndexed(QueryContext queryContext) {
+        return queryContext.getIndex(indexName) != null;
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        return CompositeIndexVisitor.applyAll(predicates, mapEntry);
+    }
+
+    @Override
+    public String toString() {
+        return indexName + "=" + value;
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompositeIndex;
+import com.hazelcast.query.impl.CompositeValue;
+import com.hazelcast.query.impl.IndexImpl;
+import com.hazelcast.query.impl.Indexes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.query.impl.CompositeValue.NEGATIVE_INFINITY;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+
+/**
+ * Replaces predicates of a conjunction with a single lookup into a {@link CompositeIndex}.
+ *
+ * Imagine an ordered composite index on "country, age". Then (country = X and age > 30 and name = Y)
+ * is rewritten into (composite(country, age) between (X, > 30) and (X, +inf) and name = Y), so the
+ * entries are fetched by a single narrow index seek instead of intersecting the results of two
+ * independent index lookups.
+ *
+ * An index matches a conjunction when it contains equality predicates on a prefix of the index components.
+ * Unless the prefix covers all the components, the index has to be ordered and the conjunction may also
+ * contain a lower and an upper bound of the component following the prefix. The index replacing the most
+ * predicates wins and at least two predicates have to be replaced, as a single predicate is served by a
+ * single-attribute index just as well.
+ */
+public class CompositeIndexVisitor extends AbstractVisitor {
+
+    private static final int MINIMUM_NUMBER_OF_PREDICATES_TO_REPLACE = 2;
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        if (indexes == null) {
+            return andPredicate;
+        }
+        CompositeIndex[] compositeIndexes = indexes.getCompositeIndexes();
+        if (compositeIndexes == null || compositeIndexes.length == 0) {
+            return andPredicate;
+        }
+
+        Predicate[] originalPredicates = andPredicate.predicates;
+        Match bestMatch = null;
+        for (CompositeIndex index : compositeIndexes) {
+            Match match = match(index, originalPredicates);
+            if (match != null && (bestMatch == null || match.matched.size() > bestMatch.matched.size())) {
+                bestMatch = match;
+            }
+        }
+        if (bestMatch == null) {
+            return andPredicate;
+        }
+
+        Predicate composite = bestMatch.createPredicate();
+        int newSize = originalPredicates.length - bestMatch.matched.size() + 1;
+        if (newSize == 1) {
+            return composite;
+        }
+        Predicate[] newPredicates = new Predicate[newSize];
+        newPredicates[0] = composite;
+        int position = 1;
+        for (Predicate predicate : originalPredicates) {
+            if (!bestMatch.isMatched(predicate)) {
+                newPredicates[position++] = predicate;
+            }
+        }
+        return new AndPredicate(newPredicates);
+    }
+
+    private static Match match(CompositeIndex index, Predicate[] predicates) {
+        String[] components = index.getComponents();
+        Match match = new Match(index.getAttributeName(), components.length);
+        int prefixLength = 0;
+        while (prefixLength < components.length) {
+            EqualPredicate equalPredicate = findEqualPredicate(predicates, components[prefixLength]);
+            if (equalPredicate == null) {
+                break;
+            }
+            match.addEqual(equalPredicate);
+            prefixLength++;
+        }
+        if (prefixLength == 0 || prefixLength < components.length && !index.isOrdered()) {
+            return null;
+        }
+        if (prefixLength < components.length) {
+            String rangeAttribute = components[prefixLength];
+            for (Predicate predicate : predicates) {
+                match.addRangeBound(predicate, rangeAttribute);
+            }
+        }
+        return match.matched.size() < MINIMUM_NUMBER_OF_PREDICATES_TO_REPLACE ? null : match;
+    }
+
+    private static EqualPredicate findEqualPredicate(Predicate[] predicates, String attributeName) {
+        for (Predicate predicate : predicates) {
+            // exact class match, NotEqualPredicate extends EqualPredicate
+            if (predicate.getClass() == EqualPredicate.class) {
+                EqualPredicate equalPredicate = (EqualPredicate) predicate;
+                if (equalPredicate.value != null && attributeName.equals(equalPredicate.attributeName)) {
+                    return equalPredicate;
+                }
+            }
+        }
+        return null;
+    }
+
+    static boolean applyAll(Predicate[] predicates, Map.Entry mapEntry) {
+        for (Predicate predicate : predicates) {
+            if (!predicate.apply(mapEntry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Predicates of a conjunction matched by a composite index: equality predicates on the prefix of the
+     * index components and optionally the bounds of the component following the prefix.
+     */
+    private static final class Match {
+
+        private final String indexName;
+        private final int componentCount;
+        private final List<Comparable> prefix;
+        private final List<Predicate> matched;
+
+        private Comparable from;
+        private boolean fromInclusive = true;
+        private boolean hasLowerBound;
+        private Comparable to = POSITIVE_INFINITY;
+        private boolean toInclusive = true;
+        private boolean hasUpperBound;
+
+        Match(String indexName, int componentCount) {
+            this.indexName = indexName;
+            this.componentCount = componentCount;
+            this.prefix = new ArrayList<Comparable>(componentCount);
+            this.matched = new ArrayList<Predicate>(componentCount + 1);
+        }
+
+        void addEqual(EqualPredicate predicate) {
+            prefix.add(predicate.value);
+            matched.add(predicate);
+        }
+
+        void addRangeBound(Predicate predicate, String rangeAttribute) {
+            if (predicate instanceof GreaterLessPredicate) {
+                GreaterLessPredicate greaterLessPredicate = (GreaterLessPredicate) predicate;
+                if (!rangeAttribute.equals(greaterLessPredicate.attributeName)) {
+                    return;
+                }
+                if (greaterLessPredicate.less && !hasUpperBound) {
+                    to = greaterLessPredicate.value;
+                    toInclusive = greaterLessPredicate.equal;
+                    hasUpperBound = true;
+                    matched.add(predicate);
+                } else if (!greaterLessPredicate.less && !hasLowerBound) {
+                    from = greaterLessPredicate.value;
+                    fromInclusive = greaterLessPredicate.equal;
+                    hasLowerBound = true;
+                    matched.add(predicate);
+                }
+            } else if (predicate.getClass() == BetweenPredicate.class) {
+                BetweenPredicate betweenPredicate = (BetweenPredicate) predicate;
+                if (!rangeAttribute.equals(betweenPredicate.attributeName) || hasLowerBound || hasUpperBound) {
+                    return;
+                }
+                from = betweenPredicate.from;
+                to = betweenPredicate.to;
+                hasLowerBound = true;
+                hasUpperBound = true;
+                matched.add(predicate);
+            }
+        }
+
+        boolean isMatched(Predicate predicate) {
+            for (Predicate matchedPredicate : matched) {
+                if (matchedPredicate == predicate) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Predicate createPredicate() {
+            Predicate[] replaced = matched.toArray(new Predicate[matched.size()]);
+            if (prefix.size() == componentCount) {
+                return new CompositeEqualPredicate(indexName, toValue(null, null), replaced);
+            }
+            CompositeValue fromValue;
+            if (hasLowerBound) {
+                fromValue = toValue(from, lowerBoundPadding());
+            } else if (hasUpperBound) {
+                // nulls are lower than any value, but a range predicate never matches a null attribute
+                fromValue = toValue(IndexImpl.NULL, POSITIVE_INFINITY);
+            } else {
+                fromValue = toValue(NEGATIVE_INFINITY, null);
+            }
+            CompositeValue toValue = toValue(to, hasUpperBound ? upperBoundPadding() : null);
+            return new CompositeRangePredicate(indexName, fromValue, toValue, replaced);
+        }
+
+        /**
+         * An inclusive lower bound has to be lower than any stored value starting with it,
+         * an exclusive one greater.
+         */
+        private Comparable lowerBoundPadding() {
+            return fromInclusive ? NEGATIVE_INFINITY : POSITIVE_INFINITY;
+        }
+
+        private Comparable upperBoundPadding() {
+            return toInclusive ? POSITIVE_INFINITY : NEGATIVE_INFINITY;
+        }
+
+        private CompositeValue toValue(Comparable bound, Comparable boundPadding) {
+            List<Comparable> components = new ArrayList<Comparable>(prefix);
+            if (bound != null) {
+                components.add(bound);
+            }
+            if (boundPadding != null) {
+                components.add(boundPadding);
+            }
+            return new CompositeValue(components.toArray(new Comparable[components.size()]));
+        }
+    }
+}
@@ -28,6 +28,8 @@ public final class RuleBasedQueryOptimizer implements QueryOptimizer {
     private final Visitor betweenVisitor = new BetweenVisitor();
     private final Visitor flatteningVisitor = new FlatteningVisitor();
     private final Visitor orToInVisitor = new OrToInVisitor();
+    private final Visitor compositeIndexVisitor = new CompositeIndexVisitor();
+    private final Visitor bitmapIndexVisitor = new BitmapIndexVisitor();
 
     public <K, V> Predicate<K, V> optimize(Predicate<K, V> predicate, Indexes indexes) {
         Predicate optimized = predicate;
@@ -40,6 +42,12 @@ public final class RuleBasedQueryOptimizer implements QueryOptimizer {
         if (optimized instanceof VisitablePredicate) {
             optimized = ((VisitablePredicate) optimized).accept(orToInVisitor, indexes);
         }
+        if (optimized instanceof VisitablePredicate) {
+            optimized = ((VisitablePredicate) optimized).accept(compositeIndexVisitor, indexes);
+        }
+        if (optimized instanceof VisitablePredicate) {
+            optimized = ((VisitablePredicate) optimized).accept(bitmapIndexVisitor, indexes);
+        }
         return optimized;
     }
 }
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexImpl;
+import com.hazelcast.query.impl.IndexStatistics;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uses the {@link IndexStatistics} of the indexes to decide which indexes are worth being used.
+ *
+ * A conjunction is served by the index of its most selective predicate only, the other predicates are
+ * evaluated on the entries returned by it, starting with the most selective ones. When even the most
+ * selective index lookup is estimated to return a large part of the map, the conjunction is evaluated by a
+ * partition scan instead. A disjunction is evaluated by a partition scan when its index lookups are estimated
+ * to return a large part of the map altogether.
+ *
+ * Estimations are available for equality, IN, range and between predicates served by an {@link IndexImpl};
+ * conjunctions containing other indexed predicates are left to the rule based evaluation.
+ */
+public class SelectivityVisitor extends AbstractVisitor {
+
+    /**
+     * Fraction of the indexed entries above which an index lookup is considered to be more expensive than
+     * a partition scan. Entries returned by an index are cheaper to evaluate than scanned ones, since they
+     * are readily available, so the threshold is well below 1.
+     */
+    static final double SCAN_THRESHOLD = 0.3;
+
+    static final long UNKNOWN = -1;
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        if (indexes == null) {
+            return andPredicate;
+        }
+        QueryContext queryContext = new QueryContext(indexes);
+        Predicate[] predicates = andPredicate.predicates;
+        List<Estimation> estimations = new ArrayList<Estimation>(predicates.length);
+        List<Predicate> notIndexed = new ArrayList<Predicate>(predicates.length);
+        for (Predicate predicate : predicates) {
+            long count = estimateCount(predicate, indexes);
+            if (count != UNKNOWN) {
+                estimations.add(new Estimation(predicate, count));
+            } else if (predicate instanceof IndexAwarePredicate && ((IndexAwarePredicate) predicate).isIndexed(queryContext)) {
+                return andPredicate;
+            } else {
+                notIndexed.add(predicate);
+            }
+        }
+        if (estimations.isEmpty()) {
+            return andPredicate;
+        }
+
+        Estimation[] sorted = estimations.toArray(new Estimation[estimations.size()]);
+        Arrays.sort(sorted);
+        Estimation best = sorted[0];
+        if (isWorseThanScan(best.count, getEntryCount(best.predicate, indexes))) {
+            return new SkipIndexPredicate(andPredicate);
+        }
+        if (sorted.length == 1 && predicates[0] == best.predicate) {
+            return andPredicate;
+        }
+
+        Predicate[] newPredicates = new Predicate[predicates.length];
+        newPredicates[0] = best.predicate;
+        for (int i = 1; i < sorted.length; i++) {
+            newPredicates[i] = new SkipIndexPredicate(sorted[i].predicate);
+        }
+        int position = sorted.length;
+        for (Predicate predicate : notIndexed) {
+            newPredicates[position++] = predicate;
+        }
+        return new AndPredicate(newPredicates);
+    }
+
+    @Override
+    public Predicate visit(OrPredicate orPredicate, Indexes indexes) {
+        if (indexes == null) {
+            return orPredicate;
+        }
+        long total = 0;
+        long entryCount = 0;
+        for (Predicate predicate : orPredicate.predicates) {
+            long count = estimateCount(predicate, indexes);
+            if (count == UNKNOWN) {
+                return orPredicate;
+            }
+            total += count;
+            entryCount = Math.max(entryCount, getEntryCount(predicate, indexes));
+        }
+        return isWorseThanScan(total, entryCount) ? new SkipIndexPredicate(orPredicate) : orPredicate;
+    }
+
+    /**
+     * Replaces a single predicate by a partition scan when its index lookup is estimated to be worse.
+     */
+    static Predicate visitSingle(Predicate predicate, Indexes indexes) {
+        if (indexes == null) {
+            return predicate;
+        }
+        long count = estimateCount(predicate, indexes);
+        if (count != UNKNOWN && isWorseThanScan(count, getEntryCount(predicate, indexes))) {
+            return new SkipIndexPredicate(predicate);
+        }
+        return predicate;
+    }
+
+    private static boolean isWorseThanScan(long count, long entryCount) {
+        return entryCount > 0 && count > entryCount * SCAN_THRESHOLD;
+    }
+
+    private static long getEntryCount(Predicate predicate, Indexes indexes) {
+        Index index = indexes.getIndex(((AbstractPredicate) predicate).attributeName);
+        return getStatistics(index).getEntryCount();
+    }
+
+    /**
+     * @return the statistics of the index or {@code null} if the index does not collect any
+     */
+    private static IndexStatistics getStatistics(Index index) {
+        return index instanceof IndexImpl ? ((IndexImpl) index).getStatistics() : null;
+    }
+
+    /**
+     * @return the estimated number of entries returned by the index lookup of the predicate or {@link #UNKNOWN}
+     * if the predicate is not served by an index with statistics
+     */
+    static long estimateCount(Predicate predicate, Indexes indexes) {
+        Class<? extends Predicate> predicateClass = predicate.getClass();
+        // exact class match, NotEqualPredicate extends EqualPredicate and is never served by an index
+        if (predicateClass != EqualPredicate.class && predicateClass != InPredicate.class
+                && predicateClass != GreaterLessPredicate.class && predicateClass != BetweenPredicate.class) {
+            return UNKNOWN;
+        }
+        Index index = indexes.getIndex(((AbstractPredicate) predicate).attributeName);
+        IndexStatistics statistics = getStatistics(index);
+        if (statistics == null) {
+            return UNKNOWN;
+        }
+        TypeConverter converter = index.getConverter();
+        if (converter == null) {
+            return 0;
+        }
+
+        if (predicate instanceof EqualPredicate) {
+            return statistics.estimateEqualCount(1);
+        }
+        if (predicate instanceof InPredicate) {
+            return statistics.estimateEqualCount(((InPredicate) predicate).values.length);
+        }
+        if (predicate instanceof GreaterLessPredicate) {
+            GreaterLessPredicate greaterLess = (GreaterLessPredicate) predicate;
+            if (greaterLess.value == null) {
+                return UNKNOWN;
+            }
+            Comparable value = converter.convert(greaterLess.value);
+            return greaterLess.less
+                    ? statistics.estimateRangeCount(null, false, value, greaterLess.equal)
+                    : statistics.estimateRangeCount(value, greaterLess.equal, null, false);
+        }
+        BetweenPredicate between = (BetweenPredicate) predicate;
+        if (between.from == null || between.to == null) {
+            return UNKNOWN;
+        }
+        return statistics.estimateRangeCount(converter.convert(between.from), true, converter.convert(between.to), true);
+    }
+
+    private static final class Estimation implements Comparable<Estimation> {
+
+        final Predicate predicate;
+        final long count;
+
+        Estimation(Predicate predicate, long count) {
+            this.predicate = predicate;
+            this.count = count;
+        }
+
+        @Override
+        public int compareTo(Estimation other) {
+            return count < other.count ? -1 : (count == other.count ? 0 : 1);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Estimation && compareTo((Estimation) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (count ^ (count >>> 32));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.util.Map;
+
+/**
+ * Evaluates the wrapped predicate entry by entry, hiding the fact it could be served by an index.
+ * <p>
+ * Created by the {@link SelectivityVisitor} for predicates whose index lookup is estimated to be more expensive
+ * than filtering, and only used on the member optimizing the query, so it is never serialized.
+ */
+@SuppressFBWarnings(value = "SE_BAD_FIELD", justification = "Never serialized, only used on the member running the query.")
+final class SkipIndexPredicate implements Predicate {
+
+    final Predicate predicate;
+
+    SkipIndexPredicate(Predicate predicate) {
+        this.predicate = predicate;
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        return predicate.apply(mapEntry);
+    }
+
+    @Override
+    public String toString() {
+        return "skipIndex(" + predicate + ")";
+    }
+}
@@ -19,6 +19,7 @@ package com.hazelcast.spi;
 import com.hazelcast.nio.Address;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -58,6 +59,25 @@ public interface OperationService {
 
     <E> InternalCompletableFuture<E> invokeOnTarget(String serviceName, Operation op, Address target);
 
+    /**
+     * Invokes a batch of partition operations on a single member.
+     * <p/>
+     * The operations are sent as a single operation and the member answers with a single compound response,
+     * so there is only one remote invocation for the whole batch. On the target member each operation is
+     * still executed on the thread of its partition. Operations which can't be executed on the target, e.g.
+     * because their partition has been migrated, are retried with a regular partition invocation.
+     * <p/>
+     * This method doesn't block.
+     *
+     * @param serviceName the name of the service
+     * @param operations  the operations to invoke, each having its partition ID set
+     * @param target      the address of the member owning the partitions of the operations
+     * @param <E>         the return type of the operation responses
+     * @return a future per operation, in the order of the given operations
+     * @throws IllegalArgumentException if the partition ID of one of the operations is not set
+     */
+    <E> List<InternalCompletableFuture<E>> invokeOnTargetBatch(String serviceName, List<Operation> operations, Address target);
+
     InvocationBuilder createInvocationBuilder(String serviceName, Operation op, int partitionId);
 
     InvocationBuilder createInvocationBuilder(String serviceName, Operation op, Address target);
@@ -20,6 +20,7 @@ import com.hazelcast.instance.NodeExtension;
 import com.hazelcast.internal.metrics.MetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
 import com.hazelcast.internal.util.concurrent.MPSCQueue;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.LoggingService;
@@ -39,6 +40,7 @@ import com.hazelcast.spi.properties.HazelcastProperty;
 import com.hazelcast.util.concurrent.IdleStrategy;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
@@ -55,7 +57,8 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 /**
  * A {@link com.hazelcast.spi.impl.operationexecutor.OperationExecutor} that schedules:
  * <ol>
- * <li>partition specific operations to a specific partition-operation-thread (using a mod on the partition ID)</li>
+ * <li>partition specific operations to a specific partition-operation-thread (using a mod on the partition ID,
+ * or the {@link PartitionAssignment} when the partition threads are balanced adaptively)</li>
  * <li>non specific operations to generic-operation-threads</li>
  * </ol>
  * The {@link #execute(Object, int, boolean)} accepts an Object instead of a runnable to prevent needing to
@@ -78,6 +81,23 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
     public static final HazelcastProperty IDLE_STRATEGY
             = new HazelcastProperty("hazelcast.operation.partitionthread.idlestrategy", "block");
 
+    /**
+     * The interval in seconds between two rounds of the {@link PartitionThreadBalancer}, which moves hot partitions
+     * from busy partition threads to idle ones. A value smaller than 1 (the default) disables the balancer and
+     * partitions are statically assigned to partition threads using a mod on the partition ID.
+     */
+    public static final HazelcastProperty PARTITION_THREAD_BALANCER_INTERVAL_SECONDS
+            = new HazelcastProperty("hazelcast.operation.partitionthread.balancer.interval.seconds", 0, SECONDS);
+
+    /**
+     * If enabled, every generic operation thread takes the normal operations from its own MPSC queue, and the
+     * operations are spread randomly over these queues, instead of all generic threads contending on a single
+     * blocking queue. Priority operations are still taken from a shared queue. The downside is that a long
+     * running operation delays the operations queued behind it, even if other generic threads are idle.
+     */
+    public static final HazelcastProperty GENERIC_QUEUE_MPSC
+            = new HazelcastProperty("hazelcast.operation.generic.queue.mpsc", false);
+
     private static final int TERMINATION_TIMEOUT_SECONDS = 3;
 
     private final ILogger logger;
@@ -85,9 +105,15 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
     // all operations for specific partitions will be executed on these threads, e.g. map.put(key, value)
     private final PartitionOperationThread[] partitionThreads;
     private final OperationRunner[] partitionOperationRunners;
+    // null if partitions are statically assigned to partition threads
+    private final PartitionAssignment partitionAssignment;
+    private final PartitionThreadBalancer partitionThreadBalancer;
 
+    private final BlockingQueue<Object> genericPriorityQueue = new LinkedBlockingQueue<Object>();
     private final OperationQueue genericQueue
-            = new DefaultOperationQueue(new LinkedBlockingQueue<Object>(), new LinkedBlockingQueue<Object>());
+            = new DefaultOperationQueue(new LinkedBlockingQueue<Object>(), genericPriorityQueue);
+    // the queues of the non priority generic threads if they have their own queue, null otherwise
+    private final OperationQueue[] genericThreadQueues;
 
     // all operations that are not specific for a partition will be executed here, e.g. heartbeat or map.size()
     private final GenericOperationThread[] genericThreads;
@@ -110,10 +136,19 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         this.adHocOperationRunner = runnerFactory.createAdHocRunner();
 
         this.partitionOperationRunners = initPartitionOperationRunners(properties, runnerFactory);
-        this.partitionThreads = initPartitionThreads(properties, hzName, nodeExtension, configClassLoader);
+        int partitionThreadCount = getPartitionThreadCount(properties);
+        int balancerIntervalSeconds = properties.getSeconds(PARTITION_THREAD_BALANCER_INTERVAL_SECONDS);
+        this.partitionAssignment = balancerIntervalSeconds > 0
+                ? new PartitionAssignment(partitionOperationRunners, partitionThreadCount) : null;
+        this.partitionThreads = initPartitionThreads(properties, partitionThreadCount, hzName, nodeExtension,
+                configClassLoader);
+        this.partitionThreadBalancer = partitionAssignment == null ? null : new PartitionThreadBalancer(partitionAssignment,
+                partitionThreads, SECONDS.toMillis(balancerIntervalSeconds), hzName, logger);
 
         this.priorityThreadCount = properties.getInteger(PRIORITY_GENERIC_OPERATION_THREAD_COUNT);
         this.genericOperationRunners = initGenericOperationRunners(properties, runnerFactory);
+        this.genericThreadQueues = properties.getBoolean(GENERIC_QUEUE_MPSC)
+                ? new OperationQueue[genericOperationRunners.length - priorityThreadCount] : null;
         this.genericThreads = initGenericThreads(hzName, nodeExtension, configClassLoader);
     }
 
@@ -142,16 +177,18 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         return operationRunners;
     }
 
-    private PartitionOperationThread[] initPartitionThreads(HazelcastProperties properties, String hzName,
-                                                            NodeExtension nodeExtension, ClassLoader configClassLoader) {
-
+    private static int getPartitionThreadCount(HazelcastProperties properties) {
         int threadCount = properties.getInteger(PARTITION_OPERATION_THREAD_COUNT);
         if (threadCount <= 0) {
             // default partition operation thread count
             int coreSize = Runtime.getRuntime().availableProcessors();
             threadCount = Math.max(2, coreSize);
         }
+        return threadCount;
+    }
 
+    private PartitionOperationThread[] initPartitionThreads(HazelcastProperties properties, int threadCount, String hzName,
+                                                            NodeExtension nodeExtension, ClassLoader configClassLoader) {
         IdleStrategy idleStrategy = getIdleStrategy(properties, IDLE_STRATEGY);
         PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
         for (int threadId = 0; threadId < threads.length; threadId++) {
@@ -162,7 +199,7 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
             OperationQueue operationQueue = new DefaultOperationQueue(normalQueue, new ConcurrentLinkedQueue<Object>());
 
             PartitionOperationThread partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
-                    nodeExtension, partitionOperationRunners, configClassLoader);
+                    nodeExtension, partitionOperationRunners, configClassLoader, partitionAssignment);
 
             threads[threadId] = partitionThread;
             normalQueue.setConsumerThread(partitionThread);
@@ -170,19 +207,18 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
 
         // we need to assign the PartitionOperationThreads to all OperationRunners they own
         for (int partitionId = 0; partitionId < partitionOperationRunners.length; partitionId++) {
-            int threadId = getPartitionThreadId(partitionId, threadCount);
+            int threadId = partitionId % threadCount;
             Thread thread = threads[threadId];
             OperationRunner runner = partitionOperationRunners[partitionId];
             runner.setCurrentThread(thread);
         }
 
+        if (partitionAssignment != null) {
+            partitionAssignment.setPartitionThreads(threads);
+        }
         return threads;
     }
 
-    private static int getPartitionThreadId(int partitionId, int partitionThreadCount) {
-        return partitionId % partitionThreadCount;
-    }
-
     private GenericOperationThread[] initGenericThreads(String hzName, NodeExtension nodeExtension,
                                                         ClassLoader configClassLoader) {
         // we created as many generic operation handlers, as there are generic threads
@@ -197,11 +233,23 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
             String threadName = createThreadPoolName(hzName, baseName) + threadId;
             OperationRunner operationRunner = genericOperationRunners[threadIndex];
 
+            MPSCQueue<Object> normalQueue = null;
+            OperationQueue operationQueue = genericQueue;
+            if (!priority && genericThreadQueues != null) {
+                // the normalQueue will block, just like the shared generic queue
+                normalQueue = new MPSCQueue<Object>(null);
+                operationQueue = new DefaultOperationQueue(normalQueue, genericPriorityQueue);
+                genericThreadQueues[threadIndex - priorityThreadCount] = operationQueue;
+            }
+
             GenericOperationThread operationThread = new GenericOperationThread(
-                    threadName, threadIndex, genericQueue, logger, nodeExtension, operationRunner, priority, configClassLoader);
+                    threadName, threadIndex, operationQueue, logger, nodeExtension, operationRunner, priority, configClassLoader);
 
             threads[threadIndex] = operationThread;
             operationRunner.setCurrentThread(operationThread);
+            if (normalQueue != null) {
+                normalQueue.setConsumerThread(operationThread);
+            }
 
             if (threadIndex == priorityThreadCount - 1) {
                 threadId = 0;
@@ -222,6 +270,9 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         registry.collectMetrics(adHocOperationRunner);
         registry.collectMetrics((Object[]) genericOperationRunners);
         registry.collectMetrics((Object[]) partitionOperationRunners);
+        if (partitionThreadBalancer != null) {
+            registry.scanAndRegister(partitionThreadBalancer, "operation.partitionThreadBalancer");
+        }
     }
 
     @SuppressFBWarnings("EI_EXPOSE_REP")
@@ -286,8 +337,7 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         for (PartitionOperationThread partitionThread : partitionThreads) {
             size += partitionThread.queue.normalSize();
         }
-        size += genericQueue.normalSize();
-        return size;
+        return size + getGenericQueueSize();
     }
 
     @Override
@@ -297,13 +347,18 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         for (PartitionOperationThread partitionThread : partitionThreads) {
             size += partitionThread.queue.prioritySize();
         }
-        size += genericQueue.prioritySize();
-        return size;
+        return size + getGenericPriorityQueueSize();
     }
 
     @Probe
     private int getGenericQueueSize() {
-        return genericQueue.normalSize();
+        int size = genericQueue.normalSize();
+        if (genericThreadQueues != null) {
+            for (OperationQueue queue : genericThreadQueues) {
+                size += queue.normalSize();
+            }
+        }
+        return size;
     }
 
     @Probe
@@ -338,6 +393,22 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         return genericThreads.length;
     }
 
+    // for testing purposes
+    PartitionAssignment getPartitionAssignment() {
+        return partitionAssignment;
+    }
+
+    // for testing purposes
+    PartitionThreadBalancer getPartitionThreadBalancer() {
+        return partitionThreadBalancer;
+    }
+
+    // for testing purposes
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    PartitionOperationThread[] getPartitionThreads() {
+        return partitionThreads;
+    }
+
     @Override
     public boolean isOperationThread() {
         return Thread.currentThread() instanceof OperationThread;
@@ -345,7 +416,7 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
 
     @Override
     public int getPartitionThreadId(int partitionId) {
-        return getPartitionThreadId(partitionId, partitionThreads.length);
+        return toPartitionThreadIndex(partitionId);
     }
 
     @Override
@@ -369,13 +440,22 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
 
     private void execute(Object task, int partitionId, boolean priority) {
         if (partitionId < 0) {
-            genericQueue.add(task, priority);
+            getGenericQueue().add(task, priority);
+        } else if (partitionAssignment != null) {
+            partitionAssignment.execute(task, partitionId, priority);
         } else {
             OperationThread partitionThread = partitionThreads[toPartitionThreadIndex(partitionId)];
             partitionThread.queue.add(task, priority);
         }
     }
 
+    private OperationQueue getGenericQueue() {
+        if (genericThreadQueues == null) {
+            return genericQueue;
+        }
+        return genericThreadQueues[ThreadLocalRandomProvider.get().nextInt(genericThreadQueues.length)];
+    }
+
     @Override
     public void executeOnPartitionThreads(Runnable task) {
         checkNotNull(task, "task can't be null");
@@ -461,7 +541,14 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
 
         // so it's a partition operation thread, now we need to make sure that this operation thread is allowed
         // to execute operations for this particular partitionId
-        return toPartitionThreadIndex(partitionId) == partitionThread.threadId;
+        if (partitionAssignment == null) {
+            return toPartitionThreadIndex(partitionId) == partitionThread.threadId;
+        }
+
+        // a partition which is being moved away from this thread is still run here until it's handed off
+        OperationRunner runner = partitionThread.currentRunner;
+        return (runner != null && runner.getPartitionId() == partitionId)
+                || partitionAssignment.isRunAllowed(partitionId, partitionThread.threadId);
     }
 
     @Override
@@ -503,6 +590,9 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
 
     // public for testing purposes
     public int toPartitionThreadIndex(int partitionId) {
+        if (partitionAssignment != null) {
+            return partitionAssignment.getOwner(partitionId);
+        }
         return partitionId % partitionThreads.length;
     }
 
@@ -514,6 +604,11 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         logger.info("Starting " + genericThreads.length + " generic threads ("
                 + priorityThreadCount + " dedicated for priority tasks)");
         startAll(genericThreads);
+
+        if (partitionThreadBalancer != null) {
+            logger.info("Starting partition thread balancer");
+            partitionThreadBalancer.start();
+        }
     }
 
     private static void startAll(OperationThread[] operationThreads) {
@@ -524,6 +619,9 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
 
     @Override
     public void shutdown() {
+        if (partitionThreadBalancer != null) {
+            partitionThreadBalancer.shutdown();
+        }
         shutdownAll(partitionThreads);
         shutdownAll(genericThreads);
         awaitTermination(partitionThreads);
@@ -107,7 +107,7 @@ public abstract class OperationThread extends HazelcastManagedThread implements
         }
     }
 
-    private void process(Object task) {
+    void process(Object task) {
         try {
             if (task.getClass() == Packet.class) {
                 Packet packet = (Packet) task;
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.util.concurrent.IdleStrategy;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Keeps track of the {@link PartitionOperationThread} owning each partition when partitions are
+ * assigned to partition threads adaptively (see
+ * {@link OperationExecutorImpl#PARTITION_THREAD_BALANCER_INTERVAL_SECONDS}) instead of using a mod on the
+ * partition ID.
+ * <p>
+ * A partition is moved from its current owner to another partition thread without breaking the ordering of
+ * its tasks:
+ * <ol>
+ * <li>the partition is marked as moving and the new owner is published. From now on producers enqueue the
+ * tasks of the partition on the new owner, which stashes them instead of running them.</li>
+ * <li>the mover waits until no producer, which could still have seen the old owner, is enqueueing. Producers
+ * are counted per partition in one of two slots, and the mover switches the partition to the other slot right
+ * after publishing the new owner. So it only waits for the few producers which entered before the switch, new
+ * producers can't hold it up no matter how hot the partition is. The wait backs off and gives up after
+ * {@link #MOVE_DRAIN_TIMEOUT_MILLIS}; the move then stays pending and is completed by a later
+ * {@link #tryCompleteMove(int)}. The new owner can't hand the partition back at this point, since it may
+ * already have stashed tasks of it.</li>
+ * <li>a handoff task is enqueued on the old owner. It is queued behind all tasks of the partition, so when
+ * the old owner runs it, the partition is quiesced. The handoff re-binds the {@link OperationRunner} of the
+ * partition to the new owner and sends it a takeover task.</li>
+ * <li>the new owner runs the takeover by clearing the moving mark and running the stashed tasks in order.</li>
+ * </ol>
+ * Besides the ownership, the time spent on running the tasks of each partition is tracked, so that the
+ * {@link PartitionThreadBalancer} can find the partitions worth moving.
+ */
+final class PartitionAssignment {
+
+    static final long MOVE_DRAIN_TIMEOUT_MILLIS = 10;
+
+    private static final int NO_PENDING_MOVE = -1;
+    private static final long DRAIN_MAX_SPINS = 100;
+    private static final long DRAIN_MAX_YIELDS = 10;
+    private static final IdleStrategy DRAIN_IDLER = new BackoffIdleStrategy(
+            DRAIN_MAX_SPINS, DRAIN_MAX_YIELDS, MICROSECONDS.toNanos(1), MICROSECONDS.toNanos(100));
+
+    private final OperationRunner[] partitionOperationRunners;
+    private final AtomicIntegerArray owners;
+    // two producer counters per partition, the producers use the one selected by producerSlots
+    private final AtomicIntegerArray producers;
+    private final AtomicIntegerArray producerSlots;
+    private final AtomicIntegerArray moving;
+    private final AtomicLongArray loadNanos;
+    // the previous owner of each partition whose move waits for the handoff, only accessed by the mover
+    private final int[] pendingMoveSources;
+    private PartitionOperationThread[] partitionThreads;
+
+    PartitionAssignment(OperationRunner[] partitionOperationRunners, int partitionThreadCount) {
+        int partitionCount = partitionOperationRunners.length;
+        this.partitionOperationRunners = partitionOperationRunners;
+        this.owners = new AtomicIntegerArray(partitionCount);
+        this.producers = new AtomicIntegerArray(2 * partitionCount);
+        this.producerSlots = new AtomicIntegerArray(partitionCount);
+        this.moving = new AtomicIntegerArray(partitionCount);
+        this.loadNanos = new AtomicLongArray(partitionCount);
+        this.pendingMoveSources = new int[partitionCount];
+        Arrays.fill(pendingMoveSources, NO_PENDING_MOVE);
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            owners.set(partitionId, partitionId % partitionThreadCount);
+        }
+    }
+
+    /**
+     * Sets the partition threads, must be called before any task is executed.
+     */
+    void setPartitionThreads(PartitionOperationThread[] partitionThreads) {
+        this.partitionThreads = partitionThreads;
+    }
+
+    int getPartitionCount() {
+        return owners.length();
+    }
+
+    int getOwner(int partitionId) {
+        return owners.get(partitionId);
+    }
+
+    int getOwnedPartitionCount(int threadId) {
+        int count = 0;
+        for (int partitionId = 0; partitionId < owners.length(); partitionId++) {
+            if (owners.get(partitionId) == threadId) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    boolean isMoving(int partitionId) {
+        return moving.get(partitionId) == 1;
+    }
+
+    /**
+     * Checks if tasks of the partition are allowed to be run by the given thread: the thread owns the partition
+     * and isn't waiting for the partition to be handed off by its previous owner.
+     */
+    boolean isRunAllowed(int partitionId, int threadId) {
+        return owners.get(partitionId) == threadId && moving.get(partitionId) == 0;
+    }
+
+    /**
+     * Checks if the given thread should stash the tasks of the partition since the partition is being moved to it.
+     */
+    boolean isMovingTo(int partitionId, int threadId) {
+        return moving.get(partitionId) == 1 && owners.get(partitionId) == threadId;
+    }
+
+    void execute(Object task, int partitionId, boolean priority) {
+        int producerIndex = 2 * partitionId + producerSlots.get(partitionId);
+        producers.incrementAndGet(producerIndex);
+        try {
+            partitionThreads[owners.get(partitionId)].queue.add(task, priority);
+        } finally {
+            producers.decrementAndGet(producerIndex);
+        }
+    }
+
+    void recordLoad(int partitionId, long nanos) {
+        loadNanos.addAndGet(partitionId, nanos);
+    }
+
+    /**
+     * Returns the time spent on the tasks of the partition since the previous call.
+     */
+    long takeLoad(int partitionId) {
+        return loadNanos.getAndSet(partitionId, 0);
+    }
+
+    /**
+     * Starts moving the partition to the given partition thread. Only a single thread is allowed to move
+     * partitions and a partition must not be moved again until the previous move completed.
+     * <p>
+     * If the producers which could have seen the previous owner don't finish in time, the handoff is left
+     * pending, see {@link #tryCompleteMove(int)}.
+     *
+     * @return {@code true} if the move was started, {@code false} if the thread already owns the partition
+     */
+    boolean move(int partitionId, int targetThreadId) {
+        int sourceThreadId = owners.get(partitionId);
+        if (sourceThreadId == targetThreadId) {
+            return false;
+        }
+
+        moving.set(partitionId, 1);
+        owners.set(partitionId, targetThreadId);
+        // producers entering from now on count in the other slot; they read the owner after this switch,
+        // so they are guaranteed to see the new owner and the handoff doesn't need to wait for them
+        producerSlots.set(partitionId, producerSlots.get(partitionId) ^ 1);
+        pendingMoveSources[partitionId] = sourceThreadId;
+        tryCompleteMove(partitionId);
+        return true;
+    }
+
+    /**
+     * Hands the partition off to its new owner once the producers which could have seen the previous owner
+     * are done, waiting at most {@link #MOVE_DRAIN_TIMEOUT_MILLIS}. Only called by the thread moving partitions.
+     *
+     * @return {@code true} if there is no pending move of the partition anymore, {@code false} if the producers
+     * didn't finish in time and the move is still pending
+     */
+    boolean tryCompleteMove(int partitionId) {
+        int sourceThreadId = pendingMoveSources[partitionId];
+        if (sourceThreadId == NO_PENDING_MOVE) {
+            return true;
+        }
+
+        int previousProducerIndex = 2 * partitionId + (producerSlots.get(partitionId) ^ 1);
+        long deadlineNanos = System.nanoTime() + MILLISECONDS.toNanos(MOVE_DRAIN_TIMEOUT_MILLIS);
+        for (long idleCount = 0; producers.get(previousProducerIndex) != 0; idleCount++) {
+            if (System.nanoTime() - deadlineNanos >= 0) {
+                return false;
+            }
+            DRAIN_IDLER.idle(idleCount);
+        }
+
+        pendingMoveSources[partitionId] = NO_PENDING_MOVE;
+        partitionThreads[sourceThreadId].queue.add(new PartitionHandoff(partitionId, owners.get(partitionId)), false);
+        return true;
+    }
+
+    /**
+     * Run by the previous owner once all tasks it had for the partition completed.
+     */
+    private final class PartitionHandoff implements Runnable {
+        private final int partitionId;
+        private final int targetThreadId;
+
+        PartitionHandoff(int partitionId, int targetThreadId) {
+            this.partitionId = partitionId;
+            this.targetThreadId = targetThreadId;
+        }
+
+        @Override
+        public void run() {
+            PartitionOperationThread target = partitionThreads[targetThreadId];
+            partitionOperationRunners[partitionId].setCurrentThread(target);
+            target.queue.add(new PartitionTakeover(partitionId, target), true);
+        }
+
+        @Override
+        public String toString() {
+            return "PartitionHandoff{partitionId=" + partitionId + ", targetThreadId=" + targetThreadId + '}';
+        }
+    }
+
+    /**
+     * Run by the new owner to start running the tasks of the partition.
+     */
+    private final class PartitionTakeover implements Runnable {
+        private final int partitionId;
+        private final PartitionOperationThread target;
+
+        PartitionTakeover(int partitionId, PartitionOperationThread target) {
+            this.partitionId = partitionId;
+            this.target = target;
+        }
+
+        @Override
+        public void run() {
+            moving.set(partitionId, 0);
+            target.processStashed(partitionId);
+        }
+
+        @Override
+        public String toString() {
+            return "PartitionTakeover{partitionId=" + partitionId + '}';
+        }
+    }
+}
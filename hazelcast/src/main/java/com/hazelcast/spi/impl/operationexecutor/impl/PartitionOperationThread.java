@@ -18,23 +18,58 @@ package com.hazelcast.spi.impl.operationexecutor.impl;
 
 import com.hazelcast.instance.NodeExtension;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+
 /**
  * An {@link OperationThread} that executes Operations for a particular partition, e.g. a map.get operation.
+ * <p>
+ * When partitions are assigned to partition threads adaptively, this thread also measures the time spent on
+ * each partition and stashes the tasks of partitions which are being moved to it, until their previous owner
+ * handed them off (see {@link PartitionAssignment}).
  */
 public final class PartitionOperationThread extends OperationThread {
 
     private final OperationRunner[] partitionOperationRunners;
+    private final PartitionAssignment assignment;
+
+    // only accessed by this thread
+    private final Map<Integer, List<Object>> stashedTasks = new HashMap<Integer, List<Object>>();
+
+    // only measured when partitions are assigned adaptively; updated by this thread only and read by
+    // the PartitionThreadBalancer and the MetricsRegistry
+    @Probe
+    private final SwCounter busyNanos = newSwCounter();
+    @Probe
+    private volatile double utilizationPercentage;
 
     @SuppressFBWarnings("EI_EXPOSE_REP")
     public PartitionOperationThread(String name, int threadId,
                                     OperationQueue queue, ILogger logger, NodeExtension nodeExtension,
                                     OperationRunner[] partitionOperationRunners, ClassLoader configClassLoader) {
+        this(name, threadId, queue, logger, nodeExtension, partitionOperationRunners, configClassLoader, null);
+    }
+
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    PartitionOperationThread(String name, int threadId,
+                             OperationQueue queue, ILogger logger, NodeExtension nodeExtension,
+                             OperationRunner[] partitionOperationRunners, ClassLoader configClassLoader,
+                             PartitionAssignment assignment) {
         super(name, threadId, queue, logger, nodeExtension, false, configClassLoader);
         this.partitionOperationRunners = partitionOperationRunners;
+        this.assignment = assignment;
     }
 
     /**
@@ -46,6 +81,77 @@ public final class PartitionOperationThread extends OperationThread {
         return partitionOperationRunners[partitionId];
     }
 
+    @Override
+    void process(Object task) {
+        if (assignment == null) {
+            super.process(task);
+            return;
+        }
+
+        int partitionId = getPartitionId(task);
+        if (partitionId >= 0 && assignment.isMovingTo(partitionId, threadId)) {
+            stash(partitionId, task);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        super.process(task);
+        long durationNanos = System.nanoTime() - startNanos;
+        busyNanos.inc(durationNanos);
+        if (partitionId >= 0) {
+            assignment.recordLoad(partitionId, durationNanos);
+        }
+    }
+
+    private void stash(int partitionId, Object task) {
+        List<Object> tasks = stashedTasks.get(partitionId);
+        if (tasks == null) {
+            tasks = new ArrayList<Object>();
+            stashedTasks.put(partitionId, tasks);
+        }
+        tasks.add(task);
+    }
+
+    /**
+     * Runs the tasks stashed while the partition was being moved to this thread, in the order they were received.
+     * Called by this thread once the partition has been handed off.
+     */
+    void processStashed(int partitionId) {
+        List<Object> tasks = stashedTasks.remove(partitionId);
+        if (tasks == null) {
+            return;
+        }
+        for (Object task : tasks) {
+            // the time spent is already counted as busy time by the task taking over the partition
+            long startNanos = System.nanoTime();
+            super.process(task);
+            assignment.recordLoad(partitionId, System.nanoTime() - startNanos);
+        }
+    }
+
+    private static int getPartitionId(Object task) {
+        if (task.getClass() == Packet.class) {
+            return ((Packet) task).getPartitionId();
+        } else if (task instanceof Operation) {
+            return ((Operation) task).getPartitionId();
+        } else if (task instanceof PartitionSpecificRunnable) {
+            return ((PartitionSpecificRunnable) task).getPartitionId();
+        }
+        return -1;
+    }
+
+    long getBusyNanos() {
+        return busyNanos.get();
+    }
+
+    void setUtilizationPercentage(double utilizationPercentage) {
+        this.utilizationPercentage = utilizationPercentage;
+    }
+
+    double getUtilizationPercentage() {
+        return utilizationPercentage;
+    }
+
     @Probe
     int priorityPendingCount() {
         return queue.prioritySize();
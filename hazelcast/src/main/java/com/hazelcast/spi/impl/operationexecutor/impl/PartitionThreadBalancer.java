@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.SwCounter;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.util.EmptyStatement;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.util.ThreadUtil.createThreadName;
+
+/**
+ * Periodically moves a hot partition from the most utilized {@link PartitionOperationThread} to the least
+ * utilized one.
+ * <p>
+ * Every round the utilization of each partition thread over the last interval is calculated and published
+ * on the thread. If the utilization of the busiest and the idlest thread differs by more than
+ * {@link #IMBALANCE_THRESHOLD_PERCENTAGE}, the busiest partition of the busiest thread whose load is at most
+ * half of the difference is moved; a partition with a bigger load would just move the imbalance to the other
+ * thread. At most a single partition is moved at a time, see {@link PartitionAssignment} for the move itself.
+ */
+final class PartitionThreadBalancer extends Thread {
+
+    static final int IMBALANCE_THRESHOLD_PERCENTAGE = 20;
+
+    private static final String THREAD_NAME_PREFIX = "PartitionThreadBalancer";
+    private static final double HUNDRED_PERCENT = 100d;
+
+    @Probe
+    private final SwCounter movedPartitionCount = newSwCounter();
+
+    private final PartitionAssignment assignment;
+    private final PartitionOperationThread[] partitionThreads;
+    private final long intervalMillis;
+    private final ILogger logger;
+    private final long[] lastBusyNanos;
+    private long lastRoundNanos;
+    private int lastMovedPartitionId = -1;
+    private volatile boolean shutdown;
+
+    PartitionThreadBalancer(PartitionAssignment assignment, PartitionOperationThread[] partitionThreads,
+                            long intervalMillis, String hzName, ILogger logger) {
+        super(createThreadName(hzName, THREAD_NAME_PREFIX));
+        this.assignment = assignment;
+        this.partitionThreads = partitionThreads;
+        this.intervalMillis = intervalMillis;
+        this.logger = logger;
+        this.lastBusyNanos = new long[partitionThreads.length];
+        this.lastRoundNanos = System.nanoTime();
+    }
+
+    void shutdown() {
+        shutdown = true;
+        interrupt();
+    }
+
+    @Override
+    public void run() {
+        try {
+            logger.finest("Starting PartitionThreadBalancer thread");
+            while (!shutdown) {
+                TimeUnit.MILLISECONDS.sleep(intervalMillis);
+                rebalance();
+            }
+        } catch (InterruptedException e) {
+            logger.finest("PartitionThreadBalancer thread stopped");
+            // this thread is about to exit, no reason restoring the interrupt flag
+            EmptyStatement.ignore(e);
+        } catch (Throwable e) {
+            logger.severe("PartitionThreadBalancer failed", e);
+        }
+    }
+
+    /**
+     * Runs a single balancing round, only called by this thread (or by tests when the thread isn't started).
+     */
+    void rebalance() {
+        long nowNanos = System.nanoTime();
+        long elapsedNanos = Math.max(1, nowNanos - lastRoundNanos);
+        lastRoundNanos = nowNanos;
+
+        long[] busyNanos = updateUtilization(elapsedNanos);
+        long[] partitionLoads = takePartitionLoads();
+        if (lastMovedPartitionId >= 0
+                && (!assignment.tryCompleteMove(lastMovedPartitionId) || assignment.isMoving(lastMovedPartitionId))) {
+            // the previous move is still in progress
+            return;
+        }
+
+        int busiest = 0;
+        int idlest = 0;
+        for (int threadId = 1; threadId < busyNanos.length; threadId++) {
+            if (busyNanos[threadId] > busyNanos[busiest]) {
+                busiest = threadId;
+            }
+            if (busyNanos[threadId] < busyNanos[idlest]) {
+                idlest = threadId;
+            }
+        }
+
+        long imbalanceNanos = busyNanos[busiest] - busyNanos[idlest];
+        if (toPercentage(imbalanceNanos, elapsedNanos) < IMBALANCE_THRESHOLD_PERCENTAGE) {
+            return;
+        }
+
+        int partitionId = findPartitionToMove(busiest, partitionLoads, imbalanceNanos / 2);
+        if (partitionId < 0 || !assignment.move(partitionId, idlest)) {
+            return;
+        }
+
+        lastMovedPartitionId = partitionId;
+        movedPartitionCount.inc();
+        if (logger.isFineEnabled()) {
+            long loadNanos = partitionLoads[partitionId];
+            logger.fine(String.format("Moved partition %d from %s to %s. Utilization before: %.1f%% and %.1f%%,"
+                            + " expected after: %.1f%% and %.1f%%. All partition threads: %s",
+                    partitionId, partitionThreads[busiest].getName(), partitionThreads[idlest].getName(),
+                    toPercentage(busyNanos[busiest], elapsedNanos), toPercentage(busyNanos[idlest], elapsedNanos),
+                    toPercentage(busyNanos[busiest] - loadNanos, elapsedNanos),
+                    toPercentage(busyNanos[idlest] + loadNanos, elapsedNanos), utilizationToString()));
+        }
+    }
+
+    private long[] updateUtilization(long elapsedNanos) {
+        long[] busyNanos = new long[partitionThreads.length];
+        for (int threadId = 0; threadId < partitionThreads.length; threadId++) {
+            PartitionOperationThread thread = partitionThreads[threadId];
+            long totalBusyNanos = thread.getBusyNanos();
+            busyNanos[threadId] = totalBusyNanos - lastBusyNanos[threadId];
+            lastBusyNanos[threadId] = totalBusyNanos;
+            thread.setUtilizationPercentage(Math.min(HUNDRED_PERCENT, toPercentage(busyNanos[threadId], elapsedNanos)));
+        }
+        return busyNanos;
+    }
+
+    private long[] takePartitionLoads() {
+        long[] partitionLoads = new long[assignment.getPartitionCount()];
+        for (int partitionId = 0; partitionId < partitionLoads.length; partitionId++) {
+            partitionLoads[partitionId] = assignment.takeLoad(partitionId);
+        }
+        return partitionLoads;
+    }
+
+    private int findPartitionToMove(int threadId, long[] partitionLoads, long maxLoadNanos) {
+        int result = -1;
+        long resultLoadNanos = 0;
+        for (int partitionId = 0; partitionId < partitionLoads.length; partitionId++) {
+            long loadNanos = partitionLoads[partitionId];
+            if (loadNanos > resultLoadNanos && loadNanos <= maxLoadNanos && assignment.getOwner(partitionId) == threadId) {
+                result = partitionId;
+                resultLoadNanos = loadNanos;
+            }
+        }
+        return result;
+    }
+
+    private String utilizationToString() {
+        double[] utilization = new double[partitionThreads.length];
+        for (int threadId = 0; threadId < partitionThreads.length; threadId++) {
+            utilization[threadId] = partitionThreads[threadId].getUtilizationPercentage();
+        }
+        return Arrays.toString(utilization);
+    }
+
+    long getMovedPartitionCount() {
+        return movedPartitionCount.get();
+    }
+
+    private static double toPercentage(long nanos, long elapsedNanos) {
+        return nanos * HUNDRED_PERCENT / elapsedNanos;
+    }
+}
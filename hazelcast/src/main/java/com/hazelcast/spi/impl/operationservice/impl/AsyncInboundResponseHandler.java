@@ -60,6 +60,14 @@ public class AsyncInboundResponseHandler implements PacketHandler, MetricsProvid
     public static final HazelcastProperty IDLE_STRATEGY
             = new HazelcastProperty("hazelcast.operation.responsequeue.idlestrategy", "block");
 
+    /**
+     * If disabled, the responses are processed by the io thread receiving them instead of being handed to the
+     * response thread. This saves a thread hop per invocation, but the io thread pays for deserializing the
+     * response and completing the invocation future.
+     */
+    public static final HazelcastProperty RESPONSE_THREAD_ENABLED
+            = new HazelcastProperty("hazelcast.operation.response.thread.enabled", true);
+
     private static final long IDLE_MAX_SPINS = 20;
     private static final long IDLE_MAX_YIELDS = 50;
     private static final long IDLE_MIN_PARK_NS = NANOSECONDS.toNanos(1);
@@ -21,6 +21,7 @@ import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.partition.ReplicaErrorLogger;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.logging.ILogger;
@@ -34,15 +35,26 @@ import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import java.nio.ByteOrder;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_BOOLEAN;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_INTEGER;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_LONG;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_NULL;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.nio.Bits.NULL_ARRAY_LENGTH;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.BACKUP_ACK_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.CALL_TIMEOUT_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.ERROR_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.NORMAL_RESPONSE;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_BACKUP_ACKS;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_DATA_LENGTH;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_DATA_PAYLOAD;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_IS_DATA;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_NOT_DATA;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_NOT_DATA_PAYLOAD;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_CALL_ID;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_TYPE_ID;
+import static java.util.Arrays.copyOfRange;
 
 /**
  * Responsible for handling responses for invocations. Based on the content of the response packet, it will lookup the
@@ -92,7 +104,7 @@ public final class InboundResponseHandler implements PacketHandler, MetricsProvi
             switch (typeId) {
                 case NORMAL_RESPONSE:
                     byte backupAcks = bytes[OFFSET_BACKUP_ACKS];
-                    notifyNormalResponse(callId, packet, backupAcks, sender);
+                    notifyNormalResponse(callId, decodeNormalResponseValue(packet), backupAcks, sender);
                     break;
                 case BACKUP_ACK_RESPONSE:
                     notifyBackupComplete(callId);
@@ -112,6 +124,41 @@ public final class InboundResponseHandler implements PacketHandler, MetricsProvi
         }
     }
 
+    /**
+     * Decodes the value of a normal response packet. Data, null, boolean, int and long values are read
+     * straight from the packet bytes, so no NormalResponse and no input stream is created for them and the
+     * payload of the packet can be released. Any other value is returned as the packet itself and is
+     * deserialized by the {@link InvocationFuture} on the thread picking up the result.
+     */
+    Object decodeNormalResponseValue(Packet packet) {
+        byte[] bytes = packet.toByteArray();
+        Object value;
+        if (bytes[OFFSET_IS_DATA] != 0) {
+            int dataLength = Bits.readInt(bytes, OFFSET_DATA_LENGTH, useBigEndian);
+            value = dataLength == NULL_ARRAY_LENGTH ? null
+                    : new HeapData(copyOfRange(bytes, OFFSET_DATA_PAYLOAD, OFFSET_DATA_PAYLOAD + dataLength));
+        } else {
+            switch (Bits.readInt(bytes, OFFSET_NOT_DATA, useBigEndian)) {
+                case CONSTANT_TYPE_NULL:
+                    value = null;
+                    break;
+                case CONSTANT_TYPE_BOOLEAN:
+                    value = bytes[OFFSET_NOT_DATA_PAYLOAD] != 0;
+                    break;
+                case CONSTANT_TYPE_INTEGER:
+                    value = Bits.readInt(bytes, OFFSET_NOT_DATA_PAYLOAD, useBigEndian);
+                    break;
+                case CONSTANT_TYPE_LONG:
+                    value = Bits.readLong(bytes, OFFSET_NOT_DATA_PAYLOAD, useBigEndian);
+                    break;
+                default:
+                    return packet;
+            }
+        }
+        packet.releasePayload();
+        return value;
+    }
+
     public void notifyBackupComplete(long callId) {
         responsesBackup.inc();
 
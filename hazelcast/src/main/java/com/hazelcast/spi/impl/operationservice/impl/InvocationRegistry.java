@@ -24,17 +24,20 @@ import com.hazelcast.internal.metrics.MetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.util.collection.Long2ObjectHashMap;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeoutException;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.spi.OperationAccessor.deactivate;
 import static com.hazelcast.spi.OperationAccessor.setCallId;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
 
 /**
  * Responsible for the registration of all pending invocations.
@@ -45,13 +48,16 @@ import static com.hazelcast.spi.OperationAccessor.setCallId;
  * {@link com.hazelcast.spi.impl.operationservice.impl.responses.Response} comes in, the
  * appropriate invocation can be looked up.
  * <p>
+ * The invocations are stored in a fixed number of stripes, each being a {@link Long2ObjectHashMap} guarded by its own
+ * lock. So registering and deregistering an invocation doesn't box the call ID or allocate a map entry, and since call
+ * IDs are handed out sequentially, concurrent invocations spread evenly over the stripes. Iterating the registry is
+ * weakly consistent: every stripe is copied when the iteration reaches it, so invocations registered or deregistered
+ * concurrently may or may not be returned.
+ * <p>
  * Some ideas:
  * <ul>
- * <li>Use a ringbuffer to store all invocations instead of a CHM. The call ID can be used as sequence ID for this
- * ringbuffer. It can be that you run in slots that have not been released; if that happens, just keep increasing
- * the sequence (although you now get sequence-gaps).</li>
- * <li>Pre-allocate all invocations. Because the ringbuffer has a fixed capacity, pre-allocation should be easy. Also
- * the PartitionInvocation and TargetInvocation can be folded into Invocation.</li>
+ * <li>Pre-allocate all invocations. Because the number of concurrent invocations is bounded, pre-allocation should be
+ * easy. Also the PartitionInvocation and TargetInvocation can be folded into Invocation.</li>
  * </ul>
  */
 public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider {
@@ -61,11 +67,12 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
     private static final int CONCURRENCY_LEVEL = 16;
 
     private static final int INITIAL_CAPACITY = 1000;
-    private static final float LOAD_FACTOR = 0.75f;
+    private static final double LOAD_FACTOR = 0.6d;
     private static final double HUNDRED_PERCENT = 100d;
+    private static final Invocation[] EMPTY_SNAPSHOT = new Invocation[0];
 
-    @Probe(name = "invocations.pending", level = MANDATORY)
-    private final ConcurrentMap<Long, Invocation> invocations;
+    private final Stripe[] stripes;
+    private final int stripeMask;
     private final ILogger logger;
     private final CallIdSequence callIdSequence;
 
@@ -79,7 +86,13 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
         boolean reallyMultiCore = coreSize >= CORE_SIZE_CHECK;
         int concurrencyLevel = reallyMultiCore ? coreSize * CORE_SIZE_FACTOR : CONCURRENCY_LEVEL;
 
-        this.invocations = new ConcurrentHashMap<Long, Invocation>(INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
+        int stripeCount = nextPowerOfTwo(concurrencyLevel);
+        int stripeCapacity = Math.max(INITIAL_CAPACITY / stripeCount, Long2ObjectHashMap.DEFAULT_INITIAL_CAPACITY);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+        this.stripeMask = stripeCount - 1;
     }
 
     @Override
@@ -94,7 +107,7 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
             return 0;
         }
 
-        return (HUNDRED_PERCENT * invocations.size()) / maxConcurrentInvocations;
+        return (HUNDRED_PERCENT * size()) / maxConcurrentInvocations;
     }
 
     @Probe(name = "invocations.lastCallId")
@@ -123,7 +136,7 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
             callIdSequence.complete();
             throw e;
         }
-        invocations.put(callId, invocation);
+        stripe(callId).put(callId, invocation);
         if (!alive) {
             invocation.notifyError(new HazelcastInstanceNotActiveException());
             return false;
@@ -142,7 +155,8 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
         if (!deactivate(invocation.op)) {
             return false;
         }
-        invocations.remove(invocation.op.getCallId());
+        long callId = invocation.op.getCallId();
+        stripe(callId).remove(callId);
         callIdSequence.complete();
         return true;
     }
@@ -152,22 +166,32 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
      *
      * @return the number of pending invocations
      */
+    @Probe(name = "invocations.pending", level = MANDATORY)
     public int size() {
-        return invocations.size();
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
     }
 
     @Override
     public Iterator<Invocation> iterator() {
-        return invocations.values().iterator();
+        return new InvocationIterator();
     }
 
     /**
-     * Intention to expose the entry set is to mutate it.
+     * Returns a snapshot of the call IDs and invocations in this registry. Changing the returned set doesn't change
+     * the registry.
      *
      * @return set of invocations in this registry
      */
     public Set<Map.Entry<Long, Invocation>> entrySet() {
-        return invocations.entrySet();
+        Set<Map.Entry<Long, Invocation>> entries = new HashSet<Map.Entry<Long, Invocation>>();
+        for (Invocation invocation : this) {
+            entries.add(new SimpleImmutableEntry<Long, Invocation>(invocation.op.getCallId(), invocation));
+        }
+        return entries;
     }
 
     /**
@@ -177,7 +201,11 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
      * @return the Invocation for the given call ID, or {@code null} if no invocation was found.
      */
     public Invocation get(long callId) {
-        return invocations.get(callId);
+        return stripe(callId).get(callId);
+    }
+
+    private Stripe stripe(long callId) {
+        return stripes[(int) callId & stripeMask];
     }
 
     public void reset(Throwable cause) {
@@ -201,4 +229,72 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
             }
         }
     }
+
+    /**
+     * A part of the registry guarded by its own lock. The size is kept in a volatile field, so it can be read
+     * without taking the lock.
+     */
+    private static final class Stripe {
+
+        private final Long2ObjectHashMap<Invocation> invocations;
+        private volatile int size;
+
+        Stripe(int initialCapacity) {
+            this.invocations = new Long2ObjectHashMap<Invocation>(initialCapacity, LOAD_FACTOR);
+        }
+
+        synchronized void put(long callId, Invocation invocation) {
+            invocations.put(callId, invocation);
+            size = invocations.size();
+        }
+
+        synchronized void remove(long callId) {
+            invocations.remove(callId);
+            size = invocations.size();
+        }
+
+        synchronized Invocation get(long callId) {
+            return invocations.get(callId);
+        }
+
+        synchronized Invocation[] snapshot() {
+            return invocations.values().toArray(new Invocation[invocations.size()]);
+        }
+    }
+
+    /**
+     * Iterates over the invocations of the registry, copying a stripe when the iteration reaches it.
+     */
+    private final class InvocationIterator implements Iterator<Invocation> {
+
+        private int stripeIndex;
+        private Invocation[] snapshot = EMPTY_SNAPSHOT;
+        private int snapshotIndex;
+
+        @Override
+        public boolean hasNext() {
+            while (snapshotIndex == snapshot.length) {
+                if (stripeIndex == stripes.length) {
+                    return false;
+                }
+                Stripe stripe = stripes[stripeIndex++];
+                snapshot = stripe.size == 0 ? EMPTY_SNAPSHOT : stripe.snapshot();
+                snapshotIndex = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public Invocation next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return snapshot[snapshotIndex++];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.InternalCompletableFuture;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.exception.RetryableException;
+import com.hazelcast.spi.impl.AbstractInvocationFuture;
+import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionIteratingOperation.PartitionResponse;
+import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionOperationBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+
+/**
+ * Invokes a batch of partition operations on a single member using a single {@link PartitionOperationBatch}.
+ * <p>
+ * Only the batch is registered in the {@link InvocationRegistry} and sent over the wire; its compound response is
+ * used to complete a future per operation. Operations failing with a {@link RetryableException}, e.g. because
+ * their partition has been migrated in the meantime, are retried with a regular partition invocation.
+ */
+final class InvokeOnTargetBatch {
+
+    private static final int TRY_COUNT = 10;
+    private static final int TRY_PAUSE_MILLIS = 300;
+
+    private final OperationServiceImpl operationService;
+    private final String serviceName;
+    private final List<Operation> operations;
+    private final Address target;
+    private final List<BatchOperationFuture> futures;
+
+    InvokeOnTargetBatch(OperationServiceImpl operationService, String serviceName, List<Operation> operations,
+                        Address target) {
+        this.operationService = operationService;
+        this.serviceName = serviceName;
+        this.operations = operations;
+        this.target = target;
+        this.futures = new ArrayList<BatchOperationFuture>(operations.size());
+    }
+
+    /**
+     * Sends the batch and returns a future per operation, in the order of the operations.
+     */
+    @SuppressWarnings("unchecked")
+    <E> List<InternalCompletableFuture<E>> invoke() {
+        Invocation.Context context = operationService.invocationContext;
+        for (Operation op : operations) {
+            checkNotNull(op, "operation can't be null");
+            if (op.getPartitionId() < 0) {
+                throw new IllegalArgumentException("Partition ID is not set for " + op);
+            }
+            if (op.getServiceName() == null) {
+                op.setServiceName(serviceName);
+            }
+            futures.add(new BatchOperationFuture(context, op));
+        }
+
+        if (!operations.isEmpty()) {
+            PartitionOperationBatch batch = new PartitionOperationBatch(operations);
+            InternalCompletableFuture<Object> future = operationService.createInvocationBuilder(serviceName, batch, target)
+                    .setTryCount(TRY_COUNT)
+                    .setTryPauseMillis(TRY_PAUSE_MILLIS)
+                    .invoke();
+            future.andThen(new BatchCallback());
+        }
+        return (List) futures;
+    }
+
+    private void completeOrRetry(int index, Object result) {
+        BatchOperationFuture future = futures.get(index);
+        if (!(result instanceof RetryableException)) {
+            future.complete(result);
+            return;
+        }
+
+        Operation op = operations.get(index);
+        operationService.invokeOnPartition(op.getServiceName(), op, op.getPartitionId()).andThen(future);
+    }
+
+    private final class BatchCallback implements ExecutionCallback<Object> {
+
+        @Override
+        public void onResponse(Object response) {
+            Object[] results = ((PartitionResponse) operationService.nodeEngine.toObject(response)).getResults();
+            for (int i = 0; i < futures.size(); i++) {
+                completeOrRetry(i, operationService.nodeEngine.toObject(results[i]));
+            }
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            if (operationService.logger.isFinestEnabled()) {
+                operationService.logger.finest("Batch of " + futures.size() + " operations failed on " + target, t);
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                completeOrRetry(i, t);
+            }
+        }
+    }
+
+    /**
+     * The future of a single operation in the batch. It is also registered as callback on the future of the retry,
+     * if the operation had to be retried.
+     */
+    private static final class BatchOperationFuture extends AbstractInvocationFuture<Object>
+            implements ExecutionCallback<Object> {
+
+        private final Operation op;
+
+        BatchOperationFuture(Invocation.Context context, Operation op) {
+            super(context.asyncExecutor, context.logger);
+            this.op = op;
+        }
+
+        @Override
+        public void onResponse(Object response) {
+            complete(response);
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            complete(t);
+        }
+
+        @Override
+        protected String invocationToString() {
+            return op.toString();
+        }
+
+        @Override
+        protected Object resolveAndThrowIfException(Object value) throws ExecutionException, InterruptedException {
+            if (!(value instanceof Throwable)) {
+                return value;
+            } else if (value instanceof CancellationException) {
+                throw (CancellationException) value;
+            } else if (value instanceof ExecutionException) {
+                throw (ExecutionException) value;
+            } else if (value instanceof Error) {
+                throw (Error) value;
+            } else {
+                throw new ExecutionException((Throwable) value);
+            }
+        }
+
+        @Override
+        protected TimeoutException newTimeoutException(long timeout, TimeUnit unit) {
+            return new TimeoutException(String.format("%s failed to complete within %d %s. %s",
+                    op.getClass().getSimpleName(), timeout, unit, op));
+        }
+    }
+}
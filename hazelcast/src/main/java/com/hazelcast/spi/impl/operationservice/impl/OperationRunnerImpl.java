@@ -417,6 +417,8 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
             if (publishCurrentTask) {
                 currentTask = null;
             }
+            // the operation has been deserialized, so a pooled payload can be reused for another packet
+            packet.releasePayload();
         }
     }
 
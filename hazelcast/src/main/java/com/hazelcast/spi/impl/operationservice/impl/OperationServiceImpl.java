@@ -66,6 +66,7 @@ import static com.hazelcast.spi.InvocationBuilder.DEFAULT_DESERIALIZE_RESULT;
 import static com.hazelcast.spi.InvocationBuilder.DEFAULT_REPLICA_INDEX;
 import static com.hazelcast.spi.InvocationBuilder.DEFAULT_TRY_COUNT;
 import static com.hazelcast.spi.InvocationBuilder.DEFAULT_TRY_PAUSE_MILLIS;
+import static com.hazelcast.spi.impl.operationservice.impl.AsyncInboundResponseHandler.RESPONSE_THREAD_ENABLED;
 import static com.hazelcast.spi.impl.operationutil.Operations.isJoinOperation;
 import static com.hazelcast.spi.properties.GroupProperty.OPERATION_CALL_TIMEOUT_MILLIS;
 import static com.hazelcast.util.CollectionUtil.toIntegerList;
@@ -127,6 +128,7 @@ public final class OperationServiceImpl implements InternalOperationService, Met
     private final AsyncInboundResponseHandler asyncInboundResponseHandler;
     private final InternalSerializationService serializationService;
     private final InboundResponseHandler inboundResponseHandler;
+    private final boolean responseThreadEnabled;
     private final Address thisAddress;
 
     // contains the current executing asyncOperations. This information is needed for the operation-ping.
@@ -166,6 +168,7 @@ public final class OperationServiceImpl implements InternalOperationService, Met
         this.asyncInboundResponseHandler = new AsyncInboundResponseHandler(configClassLoader, hzName,
                 node.getLogger(AsyncInboundResponseHandler.class),
                 inboundResponseHandler, node.getProperties());
+        this.responseThreadEnabled = node.getProperties().getBoolean(RESPONSE_THREAD_ENABLED);
 
         this.operationExecutor = new OperationExecutorImpl(
                 node.getProperties(), node.loggingService, thisAddress, new OperationRunnerFactoryImpl(this),
@@ -180,8 +183,14 @@ public final class OperationServiceImpl implements InternalOperationService, Met
         return outboundResponseHandler;
     }
 
+    /**
+     * Returns the handler the received responses are passed to: the {@link AsyncInboundResponseHandler}, or the
+     * {@link InboundResponseHandler} itself if the responses are processed on the io threads.
+     *
+     * @see AsyncInboundResponseHandler#RESPONSE_THREAD_ENABLED
+     */
     public PacketHandler getAsyncInboundResponseHandler() {
-        return asyncInboundResponseHandler;
+        return responseThreadEnabled ? asyncInboundResponseHandler : inboundResponseHandler;
     }
 
     public InvocationMonitor getInvocationMonitor() {
@@ -315,6 +324,15 @@ public final class OperationServiceImpl implements InternalOperationService, Met
                 DEFAULT_TRY_PAUSE_MILLIS, DEFAULT_CALL_TIMEOUT, DEFAULT_DESERIALIZE_RESULT).invoke();
     }
 
+    @Override
+    public <E> List<InternalCompletableFuture<E>> invokeOnTargetBatch(String serviceName, List<Operation> operations,
+                                                                      Address target) {
+        checkNotNull(operations, "operations can't be null");
+        checkNotNull(target, "target can't be null");
+
+        return new InvokeOnTargetBatch(this, serviceName, operations, target).invoke();
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <V> void asyncInvokeOnPartition(String serviceName, Operation op, int partitionId, ExecutionCallback<V> callback) {
@@ -423,7 +441,9 @@ public final class OperationServiceImpl implements InternalOperationService, Met
 
         invocationMonitor.start();
         operationExecutor.start();
-        asyncInboundResponseHandler.start();
+        if (responseThreadEnabled) {
+            asyncInboundResponseHandler.start();
+        }
         slowOperationDetector.start();
     }
 
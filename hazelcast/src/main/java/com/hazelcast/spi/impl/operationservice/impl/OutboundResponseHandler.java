@@ -31,9 +31,14 @@ import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.Response;
 
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_BOOLEAN;
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_DATA_SERIALIZABLE;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_INTEGER;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_LONG;
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_NULL;
+import static com.hazelcast.nio.Bits.BOOLEAN_SIZE_IN_BYTES;
 import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.nio.Bits.writeInt;
 import static com.hazelcast.nio.Bits.writeIntB;
 import static com.hazelcast.nio.Bits.writeLong;
@@ -48,6 +53,7 @@ import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalRespo
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_DATA_PAYLOAD;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_IS_DATA;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_NOT_DATA;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_NOT_DATA_PAYLOAD;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_CALL_ID;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_IDENTIFIED;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_SERIALIZER_TYPE_ID;
@@ -149,11 +155,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
             bytes = new byte[OFFSET_NOT_DATA + INT_SIZE_IN_BYTES];
             writeInt(bytes, OFFSET_NOT_DATA, CONSTANT_TYPE_NULL, useBigEndian);
         } else {
-            // for regular object we currently can't guess how big the bytes will be; so we just hand it
-            // over to the serializationService to deal with it. The negative part is that this does lead to
-            // an intermediate copy of the data.
-
-            bytes = serializationService.toBytes(value, OFFSET_NOT_DATA, false);
+            bytes = toNotDataBytes(value);
         }
 
         writeResponsePrologueBytes(bytes, NORMAL_RESPONSE, callId, urgent);
@@ -167,6 +169,32 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         return newResponsePacket(bytes, urgent);
     }
 
+    private byte[] toNotDataBytes(Object value) {
+        // booleans, ints and longs are the most common non-data responses, so they are written in place
+        // in the same layout as the serializationService would write them
+        byte[] bytes;
+        Class valueClass = value.getClass();
+        if (valueClass == Boolean.class) {
+            bytes = new byte[OFFSET_NOT_DATA_PAYLOAD + BOOLEAN_SIZE_IN_BYTES];
+            writeInt(bytes, OFFSET_NOT_DATA, CONSTANT_TYPE_BOOLEAN, useBigEndian);
+            bytes[OFFSET_NOT_DATA_PAYLOAD] = (byte) ((Boolean) value ? 1 : 0);
+        } else if (valueClass == Integer.class) {
+            bytes = new byte[OFFSET_NOT_DATA_PAYLOAD + INT_SIZE_IN_BYTES];
+            writeInt(bytes, OFFSET_NOT_DATA, CONSTANT_TYPE_INTEGER, useBigEndian);
+            writeInt(bytes, OFFSET_NOT_DATA_PAYLOAD, (Integer) value, useBigEndian);
+        } else if (valueClass == Long.class) {
+            bytes = new byte[OFFSET_NOT_DATA_PAYLOAD + LONG_SIZE_IN_BYTES];
+            writeInt(bytes, OFFSET_NOT_DATA, CONSTANT_TYPE_LONG, useBigEndian);
+            writeLong(bytes, OFFSET_NOT_DATA_PAYLOAD, (Long) value, useBigEndian);
+        } else {
+            // for regular object we currently can't guess how big the bytes will be; so we just hand it
+            // over to the serializationService to deal with it. The negative part is that this does lead to
+            // an intermediate copy of the data.
+            bytes = serializationService.toBytes(value, OFFSET_NOT_DATA, false);
+        }
+        return bytes;
+    }
+
     public void sendBackupAck(Address target, long callId, boolean urgent) {
         checkTarget(target);
 
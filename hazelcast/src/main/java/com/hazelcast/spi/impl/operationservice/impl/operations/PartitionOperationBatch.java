@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl.operations;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.OperationAccessor;
+import com.hazelcast.spi.OperationResponseHandler;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.spi.impl.SpiDataSerializerHook;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionIteratingOperation.PartitionResponse;
+import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
+import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Executes a batch of partition operations which were sent to a member as a single operation.
+ * <p>
+ * The batch itself runs on a generic operation thread and dispatches each of the operations to its partition thread,
+ * just like the {@link PartitionIteratingOperation} does for operations created by a factory. When all operations have
+ * completed, a single {@link PartitionResponse} is sent to the caller; its results are in the order of the operations
+ * in the batch, so several operations can target the same partition.
+ *
+ * @see com.hazelcast.spi.OperationService#invokeOnTargetBatch(String, List, com.hazelcast.nio.Address)
+ */
+public final class PartitionOperationBatch extends Operation implements IdentifiedDataSerializable {
+
+    private static final Object NULL = new Object() {
+        @Override
+        public String toString() {
+            return "null";
+        }
+    };
+
+    private static final PartitionResponse EMPTY_RESPONSE = new PartitionResponse(new int[0], new Object[0]);
+
+    private Operation[] operations;
+
+    public PartitionOperationBatch() {
+    }
+
+    /**
+     * @param operations the partition operations to execute, each having its partition ID set
+     */
+    public PartitionOperationBatch(List<Operation> operations) {
+        this.operations = operations.toArray(new Operation[operations.size()]);
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        // the response is sent when all the operations in the batch have completed
+        return false;
+    }
+
+    @Override
+    public void run() throws Exception {
+        if (operations.length == 0) {
+            sendResponse(EMPTY_RESPONSE);
+            return;
+        }
+
+        getOperationServiceImpl().onStartAsyncOperation(this);
+
+        NodeEngine nodeEngine = getNodeEngine();
+        OperationService operationService = nodeEngine.getOperationService();
+        ResponseCollector collector = new ResponseCollector(operations.length);
+        for (int i = 0; i < operations.length; i++) {
+            Operation op = operations[i];
+            op.setNodeEngine(nodeEngine)
+                    .setOperationResponseHandler(new IndexedResponseHandler(collector, i));
+            if (op.getCallerUuid() == null) {
+                op.setCallerUuid(getCallerUuid());
+            }
+            if (op.getServiceName() == null) {
+                op.setServiceName(getServiceName());
+            }
+            OperationAccessor.setCallerAddress(op, getCallerAddress());
+            operationService.execute(op);
+        }
+    }
+
+    @Override
+    public void onExecutionFailure(Throwable cause) {
+        try {
+            // we also send a response so that the caller doesn't wait indefinitely.
+            sendResponse(new ErrorResponse(cause, getCallId(), isUrgent()));
+        } finally {
+            // in case of an error, we need to de-register to prevent leaks.
+            getOperationServiceImpl().onCompletionAsyncOperation(this);
+        }
+        getLogger().severe(cause);
+    }
+
+    private OperationServiceImpl getOperationServiceImpl() {
+        return (OperationServiceImpl) getNodeEngine().getOperationService();
+    }
+
+    @Override
+    protected void toString(StringBuilder sb) {
+        super.toString(sb);
+
+        sb.append(", batchSize=").append(operations == null ? 0 : operations.length);
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SpiDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getId() {
+        return SpiDataSerializerHook.PARTITION_OPERATION_BATCH;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+
+        out.writeInt(operations.length);
+        for (Operation op : operations) {
+            out.writeObject(op);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+
+        int length = in.readInt();
+        operations = new Operation[length];
+        for (int i = 0; i < length; i++) {
+            operations[i] = in.readObject();
+        }
+    }
+
+    /**
+     * Collects the responses of the operations in the batch and sends the compound response when the last one arrives.
+     */
+    private final class ResponseCollector {
+
+        private final AtomicReferenceArray<Object> responses;
+        private final AtomicInteger pendingOperations;
+
+        ResponseCollector(int size) {
+            this.responses = new AtomicReferenceArray<Object>(size);
+            this.pendingOperations = new AtomicInteger(size);
+        }
+
+        void onResponse(Operation op, int index, Object response) {
+            if (response instanceof NormalResponse) {
+                response = ((NormalResponse) response).getValue();
+            } else if (response == null) {
+                response = NULL;
+            }
+
+            if (!responses.compareAndSet(index, null, response)) {
+                getLogger().warning("Duplicate response for " + op + " second response [" + response + "]"
+                        + "first response [" + responses.get(index) + "]");
+                return;
+            }
+
+            if (pendingOperations.decrementAndGet() == 0) {
+                try {
+                    sendResponse();
+                } finally {
+                    getOperationServiceImpl().onCompletionAsyncOperation(PartitionOperationBatch.this);
+                }
+            }
+        }
+
+        private void sendResponse() {
+            int[] partitions = new int[operations.length];
+            Object[] results = new Object[operations.length];
+            for (int i = 0; i < operations.length; i++) {
+                partitions[i] = operations[i].getPartitionId();
+                Object response = responses.get(i);
+                results[i] = response == NULL ? null : response;
+            }
+
+            PartitionOperationBatch.this.sendResponse(new PartitionResponse(partitions, results));
+        }
+    }
+
+    private static final class IndexedResponseHandler implements OperationResponseHandler {
+
+        private final ResponseCollector collector;
+        private final int index;
+
+        IndexedResponseHandler(ResponseCollector collector, int index) {
+            this.collector = collector;
+            this.index = index;
+        }
+
+        @Override
+        public void sendResponse(Operation op, Object response) {
+            collector.onResponse(op, index, response);
+        }
+    }
+}
@@ -43,6 +43,7 @@ public class NormalResponse extends Response {
     public static final int OFFSET_BACKUP_ACKS = RESPONSE_SIZE_IN_BYTES;
     public static final int OFFSET_IS_DATA = OFFSET_BACKUP_ACKS + 1;
     public static final int OFFSET_NOT_DATA = OFFSET_IS_DATA + 1;
+    public static final int OFFSET_NOT_DATA_PAYLOAD = OFFSET_NOT_DATA + INT_SIZE_IN_BYTES;
     public static final int OFFSET_DATA_LENGTH = OFFSET_IS_DATA + 1;
     public static final int OFFSET_DATA_PAYLOAD = OFFSET_DATA_LENGTH + INT_SIZE_IN_BYTES;
 
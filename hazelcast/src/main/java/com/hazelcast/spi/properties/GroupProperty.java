@@ -26,6 +26,7 @@ import com.hazelcast.map.impl.query.QueryResultSizeLimiter;
 import com.hazelcast.query.TruePredicate;
 import com.hazelcast.query.impl.predicates.QueryOptimizerFactory;
 
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -193,6 +194,36 @@ public final class GroupProperty {
     public static final HazelcastProperty IO_BALANCER_INTERVAL_SECONDS
             = new HazelcastProperty("hazelcast.io.balancer.interval.seconds", 20, SECONDS);
 
+    /**
+     * The maximum number of frames a connection writes to its output buffers before the buffers are written
+     * to the socket. Limiting it gives the other connections of the same output thread a fair chance when
+     * a connection has a lot of pending frames.
+     * <p/>
+     * The default is -1, which means that frames are written until the output buffers are full.
+     */
+    public static final HazelcastProperty IO_WRITE_MAX_FRAMES
+            = new HazelcastProperty("hazelcast.io.write.max.frames", -1);
+
+    /**
+     * The number of output buffers a connection fills before writing them to the socket with a single gathering
+     * write. Every buffer has the size of the socket send buffer and the additional buffers are only created when
+     * a connection has more pending data than fits into a single buffer.
+     * <p/>
+     * The default is 1, which disables gathering writes.
+     */
+    public static final HazelcastProperty IO_WRITE_GATHERING_BUFFER_COUNT
+            = new HazelcastProperty("hazelcast.io.write.gathering.buffer.count", 1);
+
+    /**
+     * The maximum size in bytes of the inbound packet payloads which are taken from a pool instead of being
+     * allocated for every packet. The payload of an operation packet is returned to the pool as soon as the
+     * operation has been deserialized, so recurring packet sizes cause less garbage.
+     * <p/>
+     * The default is 0, which disables the pool.
+     */
+    public static final HazelcastProperty IO_INBOUND_PAYLOAD_POOL_MAX_SIZE
+            = new HazelcastProperty("hazelcast.io.inbound.payload.pool.max.size", 0);
+
     @SuppressWarnings("checkstyle:constantname")
     public static final HazelcastProperty PREFER_IPv4_STACK
             = new HazelcastProperty("hazelcast.prefer.ipv4.stack", true);
@@ -295,6 +326,26 @@ public final class GroupProperty {
     public static final HazelcastProperty SOCKET_CLIENT_BUFFER_DIRECT
             = new HazelcastProperty("hazelcast.socket.client.buffer.direct", false);
 
+    /**
+     * The time in microseconds a member connection waits for more frames before writing a partially filled output
+     * buffer to the socket, similar to Nagle's algorithm but applied before the frames reach the socket. It trades
+     * latency for fewer write calls when many small frames are sent. The output thread keeps serving the other
+     * connections while waiting; it can only block on its selector for whole milliseconds though, so it polls the
+     * selector for the last fraction of a millisecond of the delay.
+     * <p/>
+     * The default is 0, which means that frames are written without any delay.
+     */
+    public static final HazelcastProperty SOCKET_WRITE_COALESCING_DELAY_MICROS
+            = new HazelcastProperty("hazelcast.socket.write.coalescing.delay.micros", 0, MICROSECONDS);
+
+    /**
+     * Overrides {@link #SOCKET_WRITE_COALESCING_DELAY_MICROS} for connections opened by clients.
+     * <p/>
+     * The default is -1 (same as the delay for connections opened by members).
+     */
+    public static final HazelcastProperty SOCKET_CLIENT_WRITE_COALESCING_DELAY_MICROS
+            = new HazelcastProperty("hazelcast.socket.client.write.coalescing.delay.micros", -1, MICROSECONDS);
+
     public static final HazelcastProperty SOCKET_LINGER_SECONDS
             = new HazelcastProperty("hazelcast.socket.linger.seconds", 0, SECONDS);
     public static final HazelcastProperty SOCKET_CONNECT_TIMEOUT_SECONDS
@@ -414,6 +465,14 @@ public final class GroupProperty {
     public static final HazelcastProperty MAP_EXPIRY_DELAY_SECONDS
             = new HazelcastProperty("hazelcast.map.expiry.delay.seconds", 10, SECONDS);
 
+    /**
+     * Enables the open-addressing record storage for on-heap maps. The storage keeps records and their
+     * key hashes in flat arrays instead of a {@link java.util.concurrent.ConcurrentHashMap}, relying on
+     * the fact that a record store is only mutated by its partition thread.
+     */
+    public static final HazelcastProperty MAP_SINGLE_WRITER_STORAGE_ENABLED
+            = new HazelcastProperty("hazelcast.map.single.writer.storage.enabled", false);
+
     public static final HazelcastProperty LOGGING_TYPE
             = new HazelcastProperty("hazelcast.logging.type", "jdk");
 
@@ -690,6 +749,8 @@ public final class GroupProperty {
      * Valid Values:
      * <ul>
      * <li>RULES - for optimizations based on static rules</li>
+     * <li>COST - for optimizations based on static rules and index statistics, only the most selective index
+     * of a conjunction is used and indexes returning a large part of the map are skipped in favor of a scan</li>
      * <li>NONE - optimization are disabled</li>
      * </ul>
      * <p/>
@@ -698,6 +759,17 @@ public final class GroupProperty {
     public static final HazelcastProperty QUERY_OPTIMIZER_TYPE
             = new HazelcastProperty("hazelcast.query.optimizer.type", QueryOptimizerFactory.Type.RULES.toString());
 
+    /**
+     * Backs ordered indexes with a B+tree instead of a {@link java.util.concurrent.ConcurrentSkipListMap}.
+     * <p/>
+     * The B+tree keeps attribute values in flat arrays, which makes range queries over large maps cheaper
+     * and does not allocate a map per distinct attribute value.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty QUERY_INDEX_BPLUS_TREE_ENABLED
+            = new HazelcastProperty("hazelcast.query.index.bplus.tree.enabled", false);
+
 
     /**
      * Forces the JCache provider, which can have values client or server, to force the provider type.
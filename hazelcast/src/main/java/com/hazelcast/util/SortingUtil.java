@@ -20,11 +20,16 @@ import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.PagingPredicateAccessor;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.replicatedmap.impl.record.ResultSet;
+import com.hazelcast.util.collection.TopNCollector;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 import static com.hazelcast.query.PagingPredicateAccessor.getNearestAnchorEntry;
 
@@ -154,17 +159,100 @@ public final class SortingUtil {
         return list;
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Creates a collector keeping the entries of the pages from the nearest anchored page up to the current
+     * page of the {@code pagingPredicate}, so a partition or an index can be scanned without sorting all of
+     * the matching entries.
+     */
+    public static TopNCollector<QueryableEntry> newPagingCollector(PagingPredicate pagingPredicate,
+                                                                   Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
+        return new TopNCollector<QueryableEntry>(newComparator(pagingPredicate),
+                getPagingLimit(pagingPredicate, nearestAnchorEntry.getKey()));
+    }
+
+    /**
+     * Merges already sorted sub lists (e.g. the results of single partitions) into the sorted list of the
+     * entries of the pages from the nearest anchored page up to the current page of the {@code pagingPredicate}.
+     */
+    public static List<QueryableEntry> mergeSortedSubLists(Collection<? extends Collection<QueryableEntry>> sortedSubLists,
+                                                           PagingPredicate pagingPredicate,
+                                                           Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
+        int limit = getPagingLimit(pagingPredicate, nearestAnchorEntry.getKey());
+        return mergeSorted(sortedSubLists, newComparator(pagingPredicate), limit);
+    }
+
+    /**
+     * K-way merges sorted runs, stopping after {@code limit} elements. Only the heads of the runs are
+     * compared, so merging the first {@code limit} elements costs {@code O(limit * log(runCount))}.
+     *
+     * @param sortedRuns runs sorted according to the {@code comparator}
+     * @param comparator the comparator the runs are sorted by
+     * @param limit      the maximum number of merged elements
+     * @param <E>        the type of the elements
+     * @return the {@code limit} smallest elements of all runs in ascending order
+     */
+    public static <E> List<E> mergeSorted(Collection<? extends Iterable<? extends E>> sortedRuns,
+                                          final Comparator<? super E> comparator, int limit) {
+        PriorityQueue<MergeCursor<E>> cursors = new PriorityQueue<MergeCursor<E>>(Math.max(1, sortedRuns.size()),
+                new Comparator<MergeCursor<E>>() {
+                    @Override
+                    public int compare(MergeCursor<E> cursor1, MergeCursor<E> cursor2) {
+                        return comparator.compare(cursor1.head, cursor2.head);
+                    }
+                });
+        for (Iterable<? extends E> run : sortedRuns) {
+            Iterator<? extends E> iterator = run.iterator();
+            if (iterator.hasNext()) {
+                cursors.add(new MergeCursor<E>(iterator));
+            }
+        }
+        List<E> merged = new ArrayList<E>();
+        while (merged.size() < limit && !cursors.isEmpty()) {
+            MergeCursor<E> cursor = cursors.poll();
+            merged.add(cursor.head);
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static int getPagingLimit(PagingPredicate pagingPredicate, int nearestPage) {
+        return pagingPredicate.getPageSize() * (pagingPredicate.getPage() - nearestPage);
+    }
+
     public static ResultSet getSortedQueryResultSet(List<Map.Entry> list,
                                                     PagingPredicate pagingPredicate, IterationType iterationType) {
+        return getSortedQueryResultSet(list, pagingPredicate, iterationType, null);
+    }
+
+    /**
+     * Returns the current page of the {@code pagingPredicate} out of the given entries and sets the anchors
+     * of the pages up to the current one.
+     *
+     * @param list             the entries, e.g. the combined results of the members
+     * @param pagingPredicate  the paging predicate
+     * @param iterationType    the iteration type of the result
+     * @param sortedRunOffsets the offsets of already sorted runs in the {@code list} (e.g. the results of single
+     *                         members) which are merged instead of sorting the whole list, or {@code null}
+     *                         if the list is not made of sorted runs
+     * @return the entries of the current page
+     */
+    @SuppressWarnings("unchecked")
+    public static ResultSet getSortedQueryResultSet(List<Map.Entry> list, PagingPredicate pagingPredicate,
+                                                    IterationType iterationType, List<Integer> sortedRunOffsets) {
         if (list.isEmpty()) {
             return new ResultSet();
         }
         Comparator<Map.Entry> comparator = SortingUtil.newComparator(pagingPredicate.getComparator(), iterationType);
-        Collections.sort(list, comparator);
-
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry(pagingPredicate);
         int nearestPage = nearestAnchorEntry.getKey();
+        if (sortedRunOffsets == null) {
+            Collections.sort(list, comparator);
+        } else {
+            list = mergeSorted(getSortedRuns(list, sortedRunOffsets), comparator, getPagingLimit(pagingPredicate, nearestPage));
+        }
+
         int page = pagingPredicate.getPage();
         int pageSize = pagingPredicate.getPageSize();
         int begin = pageSize * (page - nearestPage - 1);
@@ -181,6 +269,15 @@ public final class SortingUtil {
         return new ResultSet(subList, iterationType);
     }
 
+    private static List<List<Map.Entry>> getSortedRuns(List<Map.Entry> list, List<Integer> sortedRunOffsets) {
+        List<List<Map.Entry>> runs = new ArrayList<List<Map.Entry>>(sortedRunOffsets.size());
+        for (int i = 0; i < sortedRunOffsets.size(); i++) {
+            int end = i + 1 < sortedRunOffsets.size() ? sortedRunOffsets.get(i + 1) : list.size();
+            runs.add(list.subList(sortedRunOffsets.get(i), end));
+        }
+        return runs;
+    }
+
     public static boolean compareAnchor(PagingPredicate pagingPredicate, QueryableEntry queryEntry,
                                         Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
         if (pagingPredicate == null) {
@@ -209,4 +306,22 @@ public final class SortingUtil {
         }
     }
 
+    private static final class MergeCursor<E> {
+
+        private final Iterator<? extends E> iterator;
+        private E head;
+
+        private MergeCursor(Iterator<? extends E> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+
+        private boolean advance() {
+            if (iterator.hasNext()) {
+                head = iterator.next();
+                return true;
+            }
+            return false;
+        }
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util.collection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * Keeps the {@code limit} smallest elements offered to it according to a {@link Comparator}.
+ * <p>
+ * The kept elements are stored in a max-heap, so an offered element is compared with the greatest
+ * kept element only and the memory used does not depend on the number of offered elements.
+ * This is the classic way to answer an {@code ORDER BY ... LIMIT n} query over an unsorted input
+ * in {@code O(size * log(limit))} time instead of sorting the whole input.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <E> the type of the collected elements
+ */
+public final class TopNCollector<E> {
+
+    private static final int INITIAL_HEAP_CAPACITY = 16;
+
+    private final Comparator<? super E> comparator;
+    private final int limit;
+    private final PriorityQueue<E> heap;
+
+    public TopNCollector(Comparator<? super E> comparator, int limit) {
+        checkPositive(limit, "limit should be positive");
+        this.comparator = comparator;
+        this.limit = limit;
+        this.heap = new PriorityQueue<E>(Math.min(limit, INITIAL_HEAP_CAPACITY), Collections.reverseOrder(comparator));
+    }
+
+    /**
+     * Checks whether the given element would be kept if it was offered, without offering it. Useful
+     * when the element has to be copied before it can be kept.
+     *
+     * @param element the element to check
+     * @return {@code true} if the collector is not full or the element is smaller than the greatest kept element
+     */
+    public boolean accepts(E element) {
+        return heap.size() < limit || comparator.compare(element, heap.peek()) < 0;
+    }
+
+    /**
+     * Offers an element to the collector. If the collector is full and the element is smaller than the
+     * greatest kept element, the greatest kept element is dropped.
+     *
+     * @param element the element to offer
+     * @return {@code true} if the element is kept
+     */
+    public boolean offer(E element) {
+        if (heap.size() < limit) {
+            heap.offer(element);
+            return true;
+        }
+        if (comparator.compare(element, heap.peek()) < 0) {
+            heap.poll();
+            heap.offer(element);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} if {@code limit} elements are kept, so any further element has to be smaller
+     * than the greatest kept one to be kept
+     */
+    public boolean isFull() {
+        return heap.size() >= limit;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Drains the kept elements.
+     *
+     * @return the kept elements in ascending order
+     */
+    public List<E> drainSorted() {
+        List<E> sorted = new ArrayList<E>(heap);
+        heap.clear();
+        Collections.sort(sorted, comparator);
+        return sorted;
+    }
+}
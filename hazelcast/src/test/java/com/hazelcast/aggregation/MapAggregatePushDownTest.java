@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.IMap;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Aggregations accumulated right in the partition scan or answered by the indexes.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapAggregatePushDownTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @Test
+    public void testLongAggregators_primitiveValues() {
+        IMap<Integer, Long> map = getMap(InMemoryFormat.BINARY, false);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, (long) i);
+        }
+
+        assertEquals(Long.valueOf(499500), map.aggregate(Aggregators.<Map.Entry<Integer, Long>>longSum()));
+        assertEquals(Double.valueOf(499.5d), map.aggregate(Aggregators.<Map.Entry<Integer, Long>>longAvg()));
+        assertEquals(Long.valueOf(1000), map.aggregate(Aggregators.<Map.Entry<Integer, Long>>count()));
+        assertEquals(Long.valueOf(100), map.aggregate(Aggregators.<Map.Entry<Integer, Long>>count(), lessThan("this", 100L)));
+    }
+
+    @Test
+    public void testDoubleAggregators_primitiveValues() {
+        IMap<Integer, Double> map = getMap(InMemoryFormat.BINARY, false);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i + 0.5d);
+        }
+
+        assertEquals(500000.0d, map.aggregate(Aggregators.<Map.Entry<Integer, Double>>doubleSum()), 0.0d);
+        assertEquals(500.0d, map.aggregate(Aggregators.<Map.Entry<Integer, Double>>doubleAvg()), 0.0d);
+        assertEquals(Double.valueOf(9.0d), map.aggregate(Aggregators.<Map.Entry<Integer, Double>>doubleAvg(),
+                lessThan("this", 18.0d)));
+    }
+
+    @Test
+    public void testAggregators_objectFormat() {
+        IMap<Integer, Long> map = getMap(InMemoryFormat.OBJECT, false);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, (long) i);
+        }
+
+        assertEquals(Long.valueOf(499500), map.aggregate(Aggregators.<Map.Entry<Integer, Long>>longSum()));
+        assertEquals(Long.valueOf(1000), map.aggregate(Aggregators.<Map.Entry<Integer, Long>>count()));
+    }
+
+    @Test
+    public void testMinMax_sortedIndex() {
+        testMinMax(false);
+    }
+
+    @Test
+    public void testMinMax_bPlusTreeIndex() {
+        testMinMax(true);
+    }
+
+    private void testMinMax(boolean bPlusTreeEnabled) {
+        IMap<Integer, Person> map = getMap(InMemoryFormat.BINARY, bPlusTreeEnabled);
+        map.addIndex("age", true);
+
+        assertNull(map.aggregate(Aggregators.<Map.Entry<Integer, Person>>doubleMin("age")));
+        assertNull(map.aggregate(Aggregators.<Map.Entry<Integer, Person>>doubleMax("age")));
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, new Person((double) (i % 100) + 10));
+        }
+
+        assertEquals(Double.valueOf(10.0d), map.aggregate(Aggregators.<Map.Entry<Integer, Person>>doubleMin("age")));
+        assertEquals(Double.valueOf(109.0d), map.aggregate(Aggregators.<Map.Entry<Integer, Person>>doubleMax("age")));
+        assertEquals(Double.valueOf(50.0d), map.aggregate(Aggregators.<Map.Entry<Integer, Person>>doubleMin("age"),
+                greaterEqual("age", 50.0d)));
+
+        map.remove(0);
+        map.remove(100);
+        map.put(ENTRY_COUNT, new Person(200.0d));
+        assertEquals(Double.valueOf(10.0d), map.aggregate(Aggregators.<Map.Entry<Integer, Person>>doubleMin("age")));
+        assertEquals(Double.valueOf(200.0d), map.aggregate(Aggregators.<Map.Entry<Integer, Person>>doubleMax("age")));
+    }
+
+    @Test
+    public void testCount_indexedPredicate() {
+        IMap<Integer, Person> map = getMap(InMemoryFormat.BINARY, false);
+        map.addIndex("age", true);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, new Person((double) i));
+        }
+
+        assertEquals(Long.valueOf(10), map.aggregate(Aggregators.<Map.Entry<Integer, Person>>count(), lessThan("age", 10.0d)));
+        assertEquals(Long.valueOf(10), map.aggregate(Aggregators.<Map.Entry<Integer, Person>>count("age"),
+                lessThan("age", 10.0d)));
+    }
+
+    private <K, V> IMap<K, V> getMap(InMemoryFormat inMemoryFormat, boolean bPlusTreeEnabled) {
+        Config config = getConfig();
+        config.setProperty(GroupProperty.QUERY_INDEX_BPLUS_TREE_ENABLED.getName(), String.valueOf(bPlusTreeEnabled));
+        config.addMapConfig(new MapConfig("aggr").setInMemoryFormat(inMemoryFormat));
+        return createHazelcastInstance(config).getMap("aggr");
+    }
+}
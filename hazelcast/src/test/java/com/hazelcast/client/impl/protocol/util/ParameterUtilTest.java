@@ -31,6 +31,7 @@ import org.junit.runner.RunWith;
 import static com.hazelcast.client.impl.protocol.util.ParameterUtil.UTF8_MAX_BYTES_PER_CHAR;
 import static com.hazelcast.client.impl.protocol.util.ParameterUtil.calculateDataSize;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
@@ -47,7 +48,16 @@ public class ParameterUtilTest extends HazelcastTestSupport {
     public void testCalculateDataSize_withString() {
         int size = calculateDataSize("test");
 
-        assertEquals(Bits.INT_SIZE_IN_BYTES + UTF8_MAX_BYTES_PER_CHAR * 4, size);
+        assertEquals(Bits.INT_SIZE_IN_BYTES + 4, size);
+    }
+
+    @Test
+    public void testCalculateDataSize_withNonAsciiString() {
+        String string = "t\u00e9st\u20ac";
+        int size = calculateDataSize(string);
+
+        assertEquals(Bits.INT_SIZE_IN_BYTES + 3 + 2 * UTF8_MAX_BYTES_PER_CHAR, size);
+        assertTrue(size >= Bits.INT_SIZE_IN_BYTES + string.getBytes(Bits.UTF_8).length);
     }
 
     @Test
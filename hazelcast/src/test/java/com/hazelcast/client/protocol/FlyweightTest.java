@@ -100,6 +100,19 @@ public class FlyweightTest {
         assertThat(byteBuffer.get(11), is((byte) 0xBA));
     }
 
+    @Test
+    public void shouldEncodeAsciiStringUtf8() {
+        flyweight.set("abc");
+        assertEquals(7, flyweight.index());
+        assertThat(byteBuffer.get(0), is((byte) 0x03));
+        assertThat(byteBuffer.get(1), is((byte) 0x00));
+        assertThat(byteBuffer.get(2), is((byte) 0x00));
+        assertThat(byteBuffer.get(3), is((byte) 0x00));
+        assertThat(byteBuffer.get(4), is((byte) 0x61));
+        assertThat(byteBuffer.get(5), is((byte) 0x62));
+        assertThat(byteBuffer.get(6), is((byte) 0x63));
+    }
+
     @Test
     public void shouldEncodeByteArray() {
         byte[] data = new byte[]{(byte) 0x61, (byte) 0x62, (byte) 0x63, (byte) 0xC2, (byte) 0xA9, (byte) 0xE2,
@@ -154,6 +167,15 @@ public class FlyweightTest {
         assertEquals(12, flyweight.index());
     }
 
+    @Test
+    public void shouldDecodeAsciiStringUtf8() {
+        flyweight.set("abc");
+        flyweight.index(0);
+
+        assertThat(flyweight.getStringUtf8(), is("abc"));
+        assertEquals(7, flyweight.index());
+    }
+
     @Test
     public void shouldDecodeByteArray() {
         flyweight.set(DATA);
@@ -179,6 +179,12 @@ class ConfigCompatibilityChecker {
                 (c1 != null && c2 != null && nullSafeEqual(c1.isFsync(), c2.isFsync()));
     }
 
+    private static boolean isCompatible(CompressionConfig c1, CompressionConfig c2) {
+        final boolean c1Disabled = c1 == null || !c1.isEnabled();
+        final boolean c2Disabled = c2 == null || !c2.isEnabled();
+        return c1 == c2 || (c1Disabled && c2Disabled) || (c1 != null && c1.equals(c2));
+    }
+
     // CONFIG CHECKERS
     private static class RingbufferConfigChecker extends ConfigChecker<RingbufferConfig> {
         @Override
@@ -490,7 +496,8 @@ class ConfigCompatibilityChecker {
                     && nullSafeEqual(c1.getQuorumName(), c2.getQuorumName())
                     && nullSafeEqual(c1.getPartitionLostListenerConfigs(), c2.getPartitionLostListenerConfigs())
                     && nullSafeEqual(c1.getMergePolicy(), c2.getMergePolicy())
-                    && ConfigCompatibilityChecker.isCompatible(c1.getHotRestartConfig(), c2.getHotRestartConfig());
+                    && ConfigCompatibilityChecker.isCompatible(c1.getHotRestartConfig(), c2.getHotRestartConfig())
+                    && ConfigCompatibilityChecker.isCompatible(c1.getCompressionConfig(), c2.getCompressionConfig());
         }
 
         private static boolean isCompatible(ExpiryPolicyFactoryConfig c1, ExpiryPolicyFactoryConfig c2) {
@@ -560,7 +567,9 @@ class ConfigCompatibilityChecker {
                     && nullSafeEqual(c1.getMinEvictionCheckMillis(), c2.getMinEvictionCheckMillis())
                     && nullSafeEqual(c1.getMergePolicy(), c2.getMergePolicy())
                     && nullSafeEqual(c1.isReadBackupData(), c2.isReadBackupData())
+                    && nullSafeEqual(c1.isCompactRecordsEnabled(), c2.isCompactRecordsEnabled())
                     && ConfigCompatibilityChecker.isCompatible(c1.getHotRestartConfig(), c2.getHotRestartConfig())
+                    && ConfigCompatibilityChecker.isCompatible(c1.getCompressionConfig(), c2.getCompressionConfig())
                     && isCompatible(c1.getMapStoreConfig(), c2.getMapStoreConfig())
                     && isCompatible(c1.getNearCacheConfig(), c2.getNearCacheConfig())
                     && isCompatible(c1.getWanReplicationRef(), c2.getWanReplicationRef())
@@ -619,7 +628,8 @@ class ConfigCompatibilityChecker {
         boolean check(MapIndexConfig c1, MapIndexConfig c2) {
             return c1 == c2 || !(c1 == null || c2 == null)
                     && nullSafeEqual(c1.getAttribute(), c2.getAttribute())
-                    && nullSafeEqual(c1.isOrdered(), c2.isOrdered());
+                    && nullSafeEqual(c1.isOrdered(), c2.isOrdered())
+                    && nullSafeEqual(c1.isBitmap(), c2.isBitmap());
         }
     }
 
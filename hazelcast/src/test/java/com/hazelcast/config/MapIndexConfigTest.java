@@ -44,4 +44,14 @@ public class MapIndexConfigTest {
     public void testValidation_withKeyKeyword() {
         assertEquals("__key#value", validateIndexAttribute("__key#value"));
     }
+
+    @Test
+    public void testValidation_withCompositeAttribute() {
+        assertEquals("country, age", validateIndexAttribute("country, age"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidation_withEmptyCompositeComponent() {
+        validateIndexAttribute("country, ,age");
+    }
 }
@@ -617,6 +617,41 @@ public class XMLConfigBuilderTest extends HazelcastTestSupport {
         assertEquals(MapConfig.DEFAULT_MIN_EVICTION_CHECK_MILLIS, mapConfig.getMinEvictionCheckMillis());
     }
 
+    @Test
+    public void testMapConfig_compactRecordsEnabled() {
+        String xml = HAZELCAST_START_TAG
+                + "<map name=\"mymap\">"
+                + "<compact-records-enabled>true</compact-records-enabled>"
+                + "</map>"
+                + HAZELCAST_END_TAG;
+
+        Config config = buildConfig(xml);
+        MapConfig mapConfig = config.getMapConfig("mymap");
+
+        assertTrue(mapConfig.isCompactRecordsEnabled());
+    }
+
+    @Test
+    public void testMapConfig_compression() {
+        String xml = HAZELCAST_START_TAG
+                + "<map name=\"mymap\">"
+                + "<compression enabled=\"true\">"
+                + "<codec>deflate</codec>"
+                + "<min-size>128</min-size>"
+                + "<dictionary-id>3</dictionary-id>"
+                + "</compression>"
+                + "</map>"
+                + HAZELCAST_END_TAG;
+
+        Config config = buildConfig(xml);
+        CompressionConfig compressionConfig = config.getMapConfig("mymap").getCompressionConfig();
+
+        assertTrue(compressionConfig.isEnabled());
+        assertEquals("deflate", compressionConfig.getCodec());
+        assertEquals(128, compressionConfig.getMinSize());
+        assertEquals(3, compressionConfig.getDictionaryId());
+    }
+
     @Test
     public void testMapConfig_evictions() {
         String xml = HAZELCAST_START_TAG
@@ -1365,6 +1400,25 @@ public class XMLConfigBuilderTest extends HazelcastTestSupport {
         assertIndexEqual("age", true, mapConfig.getMapIndexConfigs().get(1));
     }
 
+    @Test
+    public void testBitmapIndexConfig() {
+        String xml = HAZELCAST_START_TAG
+                + "   <map name=\"people\">\n"
+                + "       <indexes>\n"
+                + "           <index bitmap=\"true\">status</index>\n"
+                + "           <index ordered=\"true\">age</index>\n"
+                + "       </indexes>"
+                + "   </map>"
+                + HAZELCAST_END_TAG;
+
+        Config config = buildConfig(xml);
+        MapConfig mapConfig = config.getMapConfig("people");
+
+        assertIndexEqual("status", false, mapConfig.getMapIndexConfigs().get(0));
+        assertTrue(mapConfig.getMapIndexConfigs().get(0).isBitmap());
+        assertFalse(mapConfig.getMapIndexConfigs().get(1).isBitmap());
+    }
+
     private static void assertIndexEqual(String expectedAttribute, boolean expectedOrdered, MapIndexConfig indexConfig) {
         assertEquals(expectedAttribute, indexConfig.getAttribute());
         assertEquals(expectedOrdered, indexConfig.isOrdered());
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.networking.nio.NioEventLoopGroup.parseCpuList;
+import static org.junit.Assert.assertArrayEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NioEventLoopGroup_CpuAffinityTest {
+
+    @Test
+    public void parseCpuList_whenEmpty() {
+        assertArrayEquals(new int[0], parseCpuList(""));
+    }
+
+    @Test
+    public void parseCpuList_whenSingleCpus() {
+        assertArrayEquals(new int[]{3, 1}, parseCpuList("3, 1"));
+    }
+
+    @Test
+    public void parseCpuList_whenRanges() {
+        assertArrayEquals(new int[]{0, 4, 5, 6, 7}, parseCpuList("0,4-7"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseCpuList_whenReversedRange() {
+        parseCpuList("7-4");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseCpuList_whenNotANumber() {
+        parseCpuList("0,foo");
+    }
+}
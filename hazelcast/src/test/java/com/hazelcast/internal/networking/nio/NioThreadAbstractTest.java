@@ -36,9 +36,13 @@ import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.doThrow;
@@ -172,6 +176,76 @@ public abstract class NioThreadAbstractTest extends HazelcastTestSupport {
         verify(errorHandler).onError(any(NioChannel.class), any(OutOfMemoryError.class));
     }
 
+    @Test
+    public void whenDelayedTask_thenExecutedOnceDelayElapsed() {
+        startThread();
+
+        final long delayNanos = MILLISECONDS.toNanos(100);
+        final AtomicLong addedNanos = new AtomicLong();
+        final AtomicLong executedNanos = new AtomicLong();
+        addDelayedTask(new Runnable() {
+            @Override
+            public void run() {
+                executedNanos.set(System.nanoTime());
+            }
+        }, delayNanos, addedNanos);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertTrue(executedNanos.get() != 0);
+            }
+        });
+        assertTrue(executedNanos.get() - addedNanos.get() >= delayNanos);
+        assertStillRunning();
+    }
+
+    @Test
+    public void whenDelayedTaskPending_thenOtherHandlersStillHandled() {
+        startThread();
+
+        // e.g. a writer delaying its write to coalesce frames, it must not keep the thread from serving other channels
+        final AtomicLong executedNanos = new AtomicLong();
+        addDelayedTask(new Runnable() {
+            @Override
+            public void run() {
+                executedNanos.set(System.nanoTime());
+            }
+        }, SECONDS.toNanos(30), new AtomicLong());
+
+        final SelectionHandler otherHandler = mock(SelectionHandler.class);
+        SelectionKey selectionKey = mock(SelectionKey.class);
+        selectionKey.attach(otherHandler);
+        when(selectionKey.isValid()).thenReturn(true);
+        selector.scheduleSelectAction(selectionKey);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                verify(otherHandler).handle();
+            }
+        }, 10);
+        assertEquals(0, executedNanos.get());
+        // only the task adding the delayed task was executed, the pending delayed task isn't polled in a busy loop
+        assertEquals(1, thread.completedTaskCount());
+    }
+
+    /**
+     * Adds the delayed task from the io thread, as required by {@link NioThread#addDelayedTask(Runnable, long)}.
+     */
+    private void addDelayedTask(final Runnable task, final long delayNanos, final AtomicLong addedNanos) {
+        thread.addTask(new Runnable() {
+            @Override
+            public void run() {
+                addedNanos.set(System.nanoTime());
+                thread.addDelayedTask(task, delayNanos);
+            }
+        });
+        // a selection key event instead of a wakeup gets the task processed, an empty select would count as
+        // a premature return for the selector bug detection
+        assertStillRunning();
+    }
+
     @Test
     public void testToString() {
         startThread();
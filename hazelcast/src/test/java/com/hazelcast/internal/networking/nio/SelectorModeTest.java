@@ -57,6 +57,16 @@ public class SelectorModeTest {
         assertEquals(SelectorMode.SELECT_NOW, SelectorMode.fromString("selectnow,1,2,3,4"));
     }
 
+    @Test
+    public void fromString_whenSpinSelect() throws Exception {
+        assertEquals(SelectorMode.SPIN_SELECT, SelectorMode.fromString("spinselect"));
+    }
+
+    @Test
+    public void fromString_whenSpinSelectWithConfig() throws Exception {
+        assertEquals(SelectorMode.SPIN_SELECT, SelectorMode.fromString("spinselect,50"));
+    }
+
     @Test
     public void fromString_whenSelect() throws Exception {
         assertEquals(SelectorMode.SELECT, SelectorMode.fromString("select"));
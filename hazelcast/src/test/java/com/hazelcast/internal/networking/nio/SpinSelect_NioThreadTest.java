@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.networking.ChannelErrorHandler;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SpinSelect_NioThreadTest extends NioThreadAbstractTest {
+
+    @Override
+    protected SelectorMode selectorMode() {
+        return SelectorMode.SPIN_SELECT;
+    }
+
+    @Override
+    protected void beforeStartThread() {
+        thread.setSelectSpinNanos(MICROSECONDS.toNanos(10));
+    }
+
+    @Test
+    public void whenBlockedOnRealSelector_thenAddedTaskWakesUpThread() throws Exception {
+        // a real selector blocks for seconds unless it is woken up
+        thread = new NioThread("spin", Logger.getLogger(NioThread.class), mock(ChannelErrorHandler.class),
+                SelectorMode.SPIN_SELECT, null);
+        thread.setSelectSpinNanos(MICROSECONDS.toNanos(10));
+        thread.start();
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertTrue(thread.blockingSelectCount() > 0);
+            }
+        });
+
+        final CountDownLatch executed = new CountDownLatch(1);
+        thread.addTaskAndWakeup(new Runnable() {
+            @Override
+            public void run() {
+                executed.countDown();
+            }
+        });
+        assertOpenEventually(executed, 2);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio.iobalancer;
+
+import com.hazelcast.internal.networking.nio.MigratableHandler;
+import com.hazelcast.internal.networking.nio.NioThread;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.ItemCounter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.test.TestCollectionUtils.setOf;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CostBasedMigrationStrategyTest extends HazelcastTestSupport {
+
+    private Map<NioThread, Set<MigratableHandler>> selectorToHandlers;
+    private ItemCounter<MigratableHandler> handlerCostCounter;
+    private LoadImbalance imbalance;
+    private NioThread sourceSelector;
+    private NioThread destinationSelector;
+
+    private CostBasedMigrationStrategy strategy;
+
+    @Before
+    public void setUp() {
+        selectorToHandlers = new HashMap<NioThread, Set<MigratableHandler>>();
+        handlerCostCounter = new ItemCounter<MigratableHandler>();
+        imbalance = new LoadImbalance(selectorToHandlers, handlerCostCounter);
+        sourceSelector = mock(NioThread.class);
+        destinationSelector = mock(NioThread.class);
+        imbalance.sourceSelector = sourceSelector;
+        imbalance.destinationSelector = destinationSelector;
+        strategy = new CostBasedMigrationStrategy();
+    }
+
+    @Test
+    public void testImbalanceDetected_shouldReturnFalseWhenNoKnownMinimum() {
+        imbalance.minimumEvents = Long.MIN_VALUE;
+
+        assertFalse(strategy.imbalanceDetected(imbalance));
+        assertFalse(strategy.imbalanceDetected(imbalance));
+    }
+
+    @Test
+    public void testImbalanceDetected_shouldReturnFalseWhenSourceIsDestination() {
+        imbalance.maximumEvents = 1000;
+        imbalance.minimumEvents = 0;
+        imbalance.destinationSelector = sourceSelector;
+
+        assertFalse(strategy.imbalanceDetected(imbalance));
+        assertFalse(strategy.imbalanceDetected(imbalance));
+    }
+
+    @Test
+    public void testImbalanceDetected_shouldReturnFalseWhenBalanced() {
+        imbalance.maximumEvents = 1000;
+        imbalance.minimumEvents = 700;
+
+        assertFalse(strategy.imbalanceDetected(imbalance));
+        assertFalse(strategy.imbalanceDetected(imbalance));
+    }
+
+    @Test
+    public void testImbalanceDetected_shouldReturnTrueOnlyWhenImbalancePersists() {
+        imbalance.maximumEvents = 1000;
+        imbalance.minimumEvents = 699;
+
+        assertFalse(strategy.imbalanceDetected(imbalance));
+        assertTrue(strategy.imbalanceDetected(imbalance));
+        // after a detection the imbalance needs to persist again
+        assertFalse(strategy.imbalanceDetected(imbalance));
+        assertTrue(strategy.imbalanceDetected(imbalance));
+    }
+
+    @Test
+    public void testImbalanceDetected_shouldResetWhenBalancedInBetween() {
+        imbalance.maximumEvents = 1000;
+        imbalance.minimumEvents = 100;
+        assertFalse(strategy.imbalanceDetected(imbalance));
+
+        imbalance.minimumEvents = 900;
+        assertFalse(strategy.imbalanceDetected(imbalance));
+
+        imbalance.minimumEvents = 100;
+        assertFalse(strategy.imbalanceDetected(imbalance));
+        assertEquals(1, imbalance.imbalancedRounds);
+    }
+
+    @Test
+    public void testFindHandlerToMigrate_picksBiggestHandlerNotReversingImbalance() {
+        imbalance.minimumEvents = 100;
+        MigratableHandler handler1 = mock(MigratableHandler.class);
+        handlerCostCounter.set(handler1, 100L);
+        selectorToHandlers.put(destinationSelector, singleton(handler1));
+
+        imbalance.maximumEvents = 1000;
+        MigratableHandler handler2 = mock(MigratableHandler.class);
+        MigratableHandler handler3 = mock(MigratableHandler.class);
+        MigratableHandler handler4 = mock(MigratableHandler.class);
+        handlerCostCounter.set(handler2, 500L);
+        handlerCostCounter.set(handler3, 400L);
+        handlerCostCounter.set(handler4, 100L);
+        selectorToHandlers.put(sourceSelector, setOf(handler2, handler3, handler4));
+
+        // handler2 would make the destination busier than the source
+        assertEquals(handler3, strategy.findHandlerToMigrate(imbalance));
+    }
+
+    @Test
+    public void testFindHandlerToMigrate_whenAllHandlersTooBig_thenNull() {
+        imbalance.minimumEvents = 0;
+        imbalance.maximumEvents = 1000;
+        MigratableHandler handler1 = mock(MigratableHandler.class);
+        MigratableHandler handler2 = mock(MigratableHandler.class);
+        handlerCostCounter.set(handler1, 900L);
+        handlerCostCounter.set(handler2, 600L);
+        selectorToHandlers.put(sourceSelector, setOf(handler1, handler2));
+
+        assertNull(strategy.findHandlerToMigrate(imbalance));
+    }
+}
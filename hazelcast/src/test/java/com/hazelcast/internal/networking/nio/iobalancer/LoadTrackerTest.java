@@ -115,4 +115,62 @@ public class LoadTrackerTest {
         assertEquals(selector2, loadImbalance.destinationSelector);
         assertEquals(selector2, loadImbalance.sourceSelector);
     }
+
+    @Test
+    public void testUpdateImbalance_whenCostBased_thenHandleTimeIsTheLoad() {
+        when(selector1.isHandleTimeTracked()).thenReturn(true);
+        when(selector2.isHandleTimeTracked()).thenReturn(true);
+        loadTracker = new LoadTracker(selectors, mock(ILogger.class), true);
+
+        // few events with a lot of time spent on them, e.g. huge packets
+        MigratableHandler selector1Handler = mock(MigratableHandler.class);
+        when(selector1Handler.getLoad()).thenReturn(0L).thenReturn(10L);
+        when(selector1Handler.getHandleNanos()).thenReturn(0L).thenReturn(50000L);
+        when(selector1Handler.getOwner()).thenReturn(selector1);
+        loadTracker.addHandler(selector1Handler);
+
+        // an idle handler, so that the first selector can be a source
+        MigratableHandler selector1IdleHandler = mock(MigratableHandler.class);
+        when(selector1IdleHandler.getOwner()).thenReturn(selector1);
+        loadTracker.addHandler(selector1IdleHandler);
+
+        MigratableHandler selector2Handler = mock(MigratableHandler.class);
+        when(selector2Handler.getLoad()).thenReturn(0L).thenReturn(1000L);
+        when(selector2Handler.getHandleNanos()).thenReturn(0L).thenReturn(20000L);
+        when(selector2Handler.getOwner()).thenReturn(selector2);
+        loadTracker.addHandler(selector2Handler);
+
+        loadTracker.updateImbalance();
+        LoadImbalance loadImbalance = loadTracker.updateImbalance();
+
+        assertEquals(20000L, loadImbalance.minimumEvents);
+        assertEquals(50000L, loadImbalance.maximumEvents);
+        assertEquals(50000L, loadImbalance.getLoad(selector1Handler));
+        assertEquals(selector1, loadImbalance.sourceSelector);
+        assertEquals(selector2, loadImbalance.destinationSelector);
+    }
+
+    @Test
+    public void testUpdateImbalance_whenCostBasedWithoutHandleTime_thenEventsAreTheLoadOfAllHandlers() {
+        // the second thread doesn't track the handle time, so no handler is measured by its time
+        when(selector1.isHandleTimeTracked()).thenReturn(true);
+        loadTracker = new LoadTracker(selectors, mock(ILogger.class), true);
+
+        MigratableHandler selector1Handler = mock(MigratableHandler.class);
+        when(selector1Handler.getLoad()).thenReturn(0L).thenReturn(10L);
+        when(selector1Handler.getHandleNanos()).thenReturn(0L).thenReturn(50000L);
+        when(selector1Handler.getOwner()).thenReturn(selector1);
+        loadTracker.addHandler(selector1Handler);
+
+        MigratableHandler selector2Handler = mock(MigratableHandler.class);
+        when(selector2Handler.getLoad()).thenReturn(0L).thenReturn(1000L);
+        when(selector2Handler.getOwner()).thenReturn(selector2);
+        loadTracker.addHandler(selector2Handler);
+
+        loadTracker.updateImbalance();
+        LoadImbalance loadImbalance = loadTracker.updateImbalance();
+
+        assertEquals(10L, loadImbalance.getLoad(selector1Handler));
+        assertEquals(1000L, loadImbalance.getLoad(selector2Handler));
+    }
 }
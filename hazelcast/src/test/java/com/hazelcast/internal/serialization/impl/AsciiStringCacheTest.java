@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.serialization.impl.AsciiStringCache.MAX_CACHED_LENGTH;
+import static com.hazelcast.nio.Bits.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class AsciiStringCacheTest {
+
+    private final AsciiStringCache cache = new AsciiStringCache();
+
+    @Test
+    public void get_whenRepeated_thenSameInstance() {
+        byte[] bytes = "xxkey-1xx".getBytes(UTF_8);
+
+        String first = cache.get(bytes, 2, 5);
+        String second = cache.get(bytes, 2, 5);
+
+        assertEquals("key-1", first);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void get_whenSlotReplaced_thenNewInstance() {
+        // "Aa" and "BB" have the same hash, so they are mapped to the same slot
+        byte[] aa = "Aa".getBytes(UTF_8);
+        byte[] bb = "BB".getBytes(UTF_8);
+
+        String first = cache.get(aa, 0, 2);
+        assertEquals("BB", cache.get(bb, 0, 2));
+        String second = cache.get(aa, 0, 2);
+
+        assertEquals("Aa", second);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void get_whenLongString_thenNotCached() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i <= MAX_CACHED_LENGTH; i++) {
+            sb.append('a');
+        }
+        byte[] bytes = sb.toString().getBytes(UTF_8);
+
+        String first = cache.get(bytes, 0, bytes.length);
+
+        assertEquals(sb.toString(), first);
+        assertNotSame(first, cache.get(bytes, 0, bytes.length));
+    }
+
+    @Test
+    public void get_emptyString() {
+        assertEquals("", cache.get(new byte[0], 0, 0));
+    }
+}
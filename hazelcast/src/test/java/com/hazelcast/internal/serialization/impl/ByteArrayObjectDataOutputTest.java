@@ -390,6 +390,34 @@ public class ByteArrayObjectDataOutputTest {
         assertEquals(BIG_ENDIAN, outBE.getByteOrder());
     }
 
+    @Test
+    public void testWriteUTF_asciiString() throws Exception {
+        out.writeUTF("abc");
+
+        assertArrayEquals(new byte[]{0, 0, 0, 3, 'a', 'b', 'c'}, out.toByteArray());
+    }
+
+    @Test
+    public void testWriteUTF_nonAsciiString() throws Exception {
+        out.writeUTF("ab\u00e9\u20acc");
+
+        byte[] expected = {0, 0, 0, 5, 'a', 'b', (byte) 0xC3, (byte) 0xA9, (byte) 0xE2, (byte) 0x82, (byte) 0xAC, 'c'};
+        assertArrayEquals(expected, out.toByteArray());
+    }
+
+    @Test
+    public void testWriteUTF_readBack() throws Exception {
+        String[] strings = {"", "key-1", "\u00e9t\u00e9", "ascii prefix \u20ac and suffix", null};
+        for (String string : strings) {
+            out.writeUTF(string);
+        }
+
+        ByteArrayObjectDataInput in = new ByteArrayObjectDataInput(out.toByteArray(), mockSerializationService, BIG_ENDIAN);
+        for (String string : strings) {
+            assertEquals(string, in.readUTF());
+        }
+    }
+
     @Test
     public void testToString() throws Exception {
         assertNotNull(out.toString());
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool.MAX_CLASS_SHIFT;
+import static com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool.sizeClassOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ByteArrayPoolTest extends HazelcastTestSupport {
+
+    private static final int KB = 1024;
+
+    private ByteArrayPool pool;
+
+    @Before
+    public void setup() {
+        pool = new ByteArrayPool(64 * KB, 128 * KB);
+    }
+
+    @Test
+    public void sizeClassOf_boundaries() {
+        assertEquals(-1, sizeClassOf(0));
+        assertEquals(-1, sizeClassOf(2 * KB));
+        assertEquals(0, sizeClassOf(2 * KB + 1));
+        assertEquals(0, sizeClassOf(4 * KB));
+        assertEquals(1, sizeClassOf(4 * KB + 1));
+        assertEquals(MAX_CLASS_SHIFT - ByteArrayPool.MIN_CLASS_SHIFT, sizeClassOf(1 << MAX_CLASS_SHIFT));
+        assertEquals(-1, sizeClassOf((1 << MAX_CLASS_SHIFT) + 1));
+    }
+
+    @Test
+    public void take_whenSmall_thenExactLength() {
+        assertEquals(100, pool.take(100).length);
+        assertEquals(0, pool.misses.get());
+    }
+
+    @Test
+    public void take_whenPooledSize_thenRoundedUpToSizeClass() {
+        assertEquals(8 * KB, pool.take(5 * KB).length);
+        assertEquals(1, pool.misses.get());
+    }
+
+    @Test
+    public void take_afterRelease_thenThreadLocalHit() {
+        byte[] array = pool.take(8 * KB);
+        pool.release(array);
+
+        assertSame(array, pool.take(7 * KB));
+        assertEquals(1, pool.threadLocalHits.get());
+        assertEquals(50d, pool.hitPercentage(), 0);
+    }
+
+    @Test
+    public void release_whenNotSizeClassLength_thenIgnored() {
+        byte[] array = new byte[5 * KB];
+        pool.release(array);
+
+        assertNotSame(array, pool.take(5 * KB));
+        assertEquals(0, pool.discarded.get());
+    }
+
+    @Test
+    public void release_whenThreadBudgetExceeded_thenSharedWithOtherThreads() throws Exception {
+        final byte[] local = new byte[64 * KB];
+        final byte[] shared = new byte[64 * KB];
+        pool.release(local);
+        pool.release(shared);
+        assertEquals(64 * KB, pool.sharedBytes.get());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            byte[] taken = executor.submit(new Callable<byte[]>() {
+                @Override
+                public byte[] call() {
+                    return pool.take(64 * KB);
+                }
+            }).get();
+            assertSame(shared, taken);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, pool.sharedHits.get());
+        assertEquals(0, pool.sharedBytes.get());
+        assertSame(local, pool.take(64 * KB));
+    }
+
+    @Test
+    public void release_whenBothBudgetsExceeded_thenDiscarded() {
+        pool.release(new byte[64 * KB]);
+        pool.release(new byte[128 * KB]);
+        pool.release(new byte[4 * KB]);
+
+        assertEquals(128 * KB, pool.sharedBytes.get());
+        assertEquals(1, pool.discarded.get());
+    }
+
+    @Test
+    public void release_whenThreadSlotsOfSizeClassFull_thenShared() {
+        for (int i = 0; i <= ByteArrayPool.ARRAYS_PER_THREAD_SIZE_CLASS; i++) {
+            pool.release(new byte[4 * KB]);
+        }
+
+        assertEquals(4 * KB, pool.sharedBytes.get());
+    }
+
+    @Test
+    public void deregister_whenLastUserGone_thenRetainedArraysDropped() {
+        pool.register();
+        pool.register();
+        byte[] local = new byte[64 * KB];
+        pool.release(local);
+        pool.release(new byte[64 * KB]);
+
+        pool.deregister();
+        assertEquals(64 * KB, pool.sharedBytes.get());
+
+        pool.deregister();
+        assertEquals(0, pool.sharedBytes.get());
+        assertNotSame(local, pool.take(64 * KB));
+        assertEquals(1, pool.misses.get());
+    }
+}
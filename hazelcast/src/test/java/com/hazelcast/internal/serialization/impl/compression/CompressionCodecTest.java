@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compression;
+
+import com.hazelcast.nio.serialization.CompressionCodec;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.test.HazelcastParametersRunnerFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import static com.hazelcast.nio.Bits.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(HazelcastParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompressionCodecTest {
+
+    @Parameter
+    public CompressionCodec codec;
+
+    @Parameters(name = "codec:{0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{
+                {new Lz4Codec()},
+                {new DeflateCodec()},
+        });
+    }
+
+    @Test
+    public void roundTrip_empty() {
+        assertRoundTrip(new byte[0], null);
+    }
+
+    @Test
+    public void roundTrip_shorterThanMinimumMatch() {
+        assertRoundTrip(new byte[]{1, 2, 3}, null);
+    }
+
+    @Test
+    public void roundTrip_repetitive() {
+        byte[] bytes = new byte[100000];
+        Arrays.fill(bytes, (byte) 'a');
+
+        int compressedLength = assertRoundTrip(bytes, null);
+
+        assertTrue("compressed length: " + compressedLength, compressedLength < bytes.length / 100);
+    }
+
+    @Test
+    public void roundTrip_random() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            byte[] bytes = new byte[random.nextInt(5000)];
+            // a small alphabet, so the input has both matches and literals
+            for (int j = 0; j < bytes.length; j++) {
+                bytes[j] = (byte) random.nextInt(1 + i % 16);
+            }
+            assertRoundTrip(bytes, null);
+        }
+    }
+
+    @Test
+    public void roundTrip_incompressible() {
+        byte[] bytes = new byte[10000];
+        new Random(42).nextBytes(bytes);
+
+        assertRoundTrip(bytes, null);
+    }
+
+    @Test
+    public void roundTrip_withDictionary() {
+        byte[] dictionary = "{\"firstName\":\"\",\"lastName\":\"\",\"email\":\"@example.com\"}".getBytes(UTF_8);
+        byte[] bytes = "{\"firstName\":\"John\",\"lastName\":\"Smith\",\"email\":\"john@example.com\"}".getBytes(UTF_8);
+
+        int withDictionary = assertRoundTrip(bytes, dictionary);
+        int withoutDictionary = assertRoundTrip(bytes, null);
+
+        assertTrue(withDictionary + " vs " + withoutDictionary, withDictionary < withoutDictionary);
+    }
+
+    @Test
+    public void roundTrip_withDictionary_whenMatchRunsIntoInput() {
+        byte[] dictionary = "header|abcdefgh".getBytes(UTF_8);
+        byte[] bytes = "abcdefghabcdefghabcdefgh|tail".getBytes(UTF_8);
+
+        int withDictionary = assertRoundTrip(bytes, dictionary);
+        int withoutDictionary = assertRoundTrip(bytes, null);
+
+        assertTrue(withDictionary + " vs " + withoutDictionary, withDictionary <= withoutDictionary);
+    }
+
+    @Test
+    public void roundTrip_withDictionaryLargerThanWindow() {
+        Random random = new Random(42);
+        byte[] dictionary = new byte[100000];
+        random.nextBytes(dictionary);
+        byte[] bytes = new byte[5000];
+        for (int i = 0; i < bytes.length; i += 100) {
+            int from = random.nextBoolean() ? dictionary.length - 1000 - random.nextInt(1000) : random.nextInt(1000);
+            System.arraycopy(dictionary, from, bytes, i, 100);
+        }
+
+        assertRoundTrip(bytes, dictionary);
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void decompress_whenMalformed_thenFail() {
+        byte[] bytes = new byte[1000];
+        Arrays.fill(bytes, (byte) 'x');
+        byte[] compressed = new byte[codec.maxCompressedLength(bytes.length)];
+        int length = codec.compress(bytes, 0, bytes.length, compressed, 0, null);
+
+        codec.decompress(compressed, 0, length / 2, new byte[bytes.length], 0, bytes.length, null);
+    }
+
+    private int assertRoundTrip(byte[] bytes, byte[] dictionary) {
+        int offset = 3;
+        byte[] src = new byte[bytes.length + offset];
+        System.arraycopy(bytes, 0, src, offset, bytes.length);
+        byte[] compressed = new byte[offset + codec.maxCompressedLength(bytes.length)];
+
+        int length = codec.compress(src, offset, bytes.length, compressed, offset, dictionary);
+        assertTrue(length <= codec.maxCompressedLength(bytes.length));
+
+        byte[] decompressed = new byte[bytes.length + offset];
+        codec.decompress(compressed, offset, length, decompressed, offset, bytes.length, dictionary);
+        assertArrayEquals(bytes, Arrays.copyOfRange(decompressed, offset, decompressed.length));
+        return length;
+    }
+}
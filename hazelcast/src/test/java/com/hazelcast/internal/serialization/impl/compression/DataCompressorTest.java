@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compression;
+
+import com.hazelcast.config.CompressionConfig;
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.CompressionCodec;
+import com.hazelcast.nio.serialization.CompressionDictionaryTrainer;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.internal.serialization.impl.SerializationUtil.isCompressed;
+import static com.hazelcast.nio.Bits.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class DataCompressorTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void compress_thenToObjectReturnsOriginal() {
+        String value = jsonLikeValue(0, 50);
+        Data data = serializationService.toData(value);
+
+        for (String codec : new String[]{CompressionCodec.LZ4, CompressionCodec.DEFLATE}) {
+            Data compressed = serializationService.compress(data, enabledConfig().setCodec(codec));
+
+            assertTrue(isCompressed(compressed));
+            assertTrue(compressed.totalSize() < data.totalSize());
+            assertEquals(data, serializationService.decompress(compressed));
+            assertEquals(value, serializationService.toObject(compressed));
+            assertEquals(value, serializationService.toObject(compressed, String.class));
+        }
+    }
+
+    @Test
+    public void compress_whenDisabled_thenSameData() {
+        Data data = serializationService.toData(jsonLikeValue(0, 50));
+
+        assertSame(data, serializationService.compress(data, new CompressionConfig()));
+        assertSame(data, serializationService.compress(data, null));
+        assertSame(null, serializationService.compress(null, enabledConfig()));
+    }
+
+    @Test
+    public void compress_whenSmallerThanMinSize_thenSameData() {
+        Data data = serializationService.toData(jsonLikeValue(0, 50));
+
+        assertSame(data, serializationService.compress(data, enabledConfig().setMinSize(data.totalSize() + 1)));
+    }
+
+    @Test
+    public void compress_whenNotSmaller_thenSameData() {
+        byte[] bytes = new byte[1000];
+        new java.util.Random(42).nextBytes(bytes);
+        Data data = serializationService.toData(bytes);
+
+        assertSame(data, serializationService.compress(data, enabledConfig()));
+    }
+
+    @Test
+    public void compress_whenAlreadyCompressed_thenSameData() {
+        Data compressed = serializationService.compress(serializationService.toData(jsonLikeValue(0, 50)), enabledConfig());
+
+        assertSame(compressed, serializationService.compress(compressed, enabledConfig()));
+    }
+
+    @Test
+    public void decompress_whenNotCompressed_thenSameData() {
+        Data data = serializationService.toData("value");
+
+        assertSame(data, serializationService.decompress(data));
+        assertSame(null, serializationService.decompress(null));
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void compress_whenUnknownCodec_thenFail() {
+        serializationService.compress(serializationService.toData(jsonLikeValue(0, 50)), enabledConfig().setCodec("unknown"));
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void compress_whenUnknownDictionary_thenFail() {
+        serializationService.compress(serializationService.toData(jsonLikeValue(0, 50)), enabledConfig().setDictionaryId(5));
+    }
+
+    @Test
+    public void compress_withTrainedDictionary() {
+        List<byte[]> samples = new ArrayList<byte[]>();
+        for (int i = 0; i < 100; i++) {
+            samples.add(jsonLikeValue(i, 1).getBytes(UTF_8));
+        }
+        byte[] dictionary = CompressionDictionaryTrainer.train(samples, 1024);
+        SerializationConfig config = new SerializationConfig().addCompressionDictionary(1, dictionary);
+        InternalSerializationService service = new DefaultSerializationServiceBuilder().setConfig(config).build();
+        String value = jsonLikeValue(1000, 1);
+        Data data = service.toData(value);
+
+        Data withDictionary = service.compress(data, enabledConfig().setMinSize(0).setDictionaryId(1));
+        Data withoutDictionary = service.compress(data, enabledConfig().setMinSize(0));
+
+        assertTrue(isCompressed(withDictionary));
+        assertTrue(withDictionary.totalSize() < withoutDictionary.totalSize());
+        assertEquals(value, service.toObject(withDictionary));
+    }
+
+    @Test
+    public void compress_withCustomCodec() {
+        SerializationConfig config = new SerializationConfig().addCompressionCodec(new NamedLz4Codec(16, "custom"));
+        InternalSerializationService service = new DefaultSerializationServiceBuilder().setConfig(config).build();
+        String value = jsonLikeValue(0, 50);
+
+        Data compressed = service.compress(service.toData(value), enabledConfig().setCodec("custom"));
+
+        assertTrue(isCompressed(compressed));
+        assertEquals(value, service.toObject(compressed));
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void toObject_whenCodecNotRegistered_thenFail() {
+        SerializationConfig config = new SerializationConfig().addCompressionCodec(new NamedLz4Codec(16, "custom"));
+        InternalSerializationService service = new DefaultSerializationServiceBuilder().setConfig(config).build();
+        Data compressed = service.compress(service.toData(jsonLikeValue(0, 50)), enabledConfig().setCodec("custom"));
+
+        serializationService.toObject(compressed);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void register_whenReservedId_thenFail() {
+        new DataCompressor().register(new NamedLz4Codec(CompressionCodec.MAX_RESERVED_ID, "custom"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void register_whenDuplicateName_thenFail() {
+        new DataCompressor().register(new NamedLz4Codec(16, CompressionCodec.LZ4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void registerDictionary_whenDuplicate_thenFail() {
+        DataCompressor compressor = new DataCompressor();
+        compressor.registerDictionary(1, new byte[1]);
+        compressor.registerDictionary(1, new byte[1]);
+    }
+
+    @Test
+    public void compressedLayout() {
+        Data data = serializationService.toData(jsonLikeValue(0, 50));
+
+        Data compressed = serializationService.compress(data, enabledConfig().setCodec(CompressionCodec.DEFLATE));
+
+        byte[] payload = compressed.toByteArray();
+        assertEquals(DeflateCodec.ID, payload[DataCompressor.CODEC_ID_OFFSET]);
+        assertFalse(compressed.hasPartitionHash());
+    }
+
+    private static CompressionConfig enabledConfig() {
+        return new CompressionConfig().setEnabled(true);
+    }
+
+    private static String jsonLikeValue(int firstId, int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = firstId; i < firstId + count; i++) {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"customer-").append(i)
+                    .append("\",\"email\":\"customer-").append(i).append("@example.com\",\"active\":true},");
+        }
+        return sb.append("{}]").toString();
+    }
+
+    private static class NamedLz4Codec implements CompressionCodec {
+
+        private final Lz4Codec delegate = new Lz4Codec();
+        private final int id;
+        private final String name;
+
+        NamedLz4Codec(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int maxCompressedLength(int length) {
+            return delegate.maxCompressedLength(length);
+        }
+
+        @Override
+        public int compress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, byte[] dictionary) {
+            return delegate.compress(src, srcOffset, length, dst, dstOffset, dictionary);
+        }
+
+        @Override
+        public void decompress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, int decompressedLength,
+                               byte[] dictionary) {
+            delegate.decompress(src, srcOffset, length, dst, dstOffset, decompressedLength, dictionary);
+        }
+    }
+}
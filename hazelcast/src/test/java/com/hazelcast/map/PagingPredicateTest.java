@@ -19,9 +19,17 @@ package com.hazelcast.map;
 import com.hazelcast.config.Config;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.impl.query.DefaultIndexProvider;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.Predicates;
+import com.hazelcast.query.QueryConstants;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.TestHazelcastInstanceFactory;
@@ -41,6 +49,7 @@ import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -261,6 +270,77 @@ public class PagingPredicateTest extends HazelcastTestSupport {
         assertEquals(0, values.size());
     }
 
+    @Test
+    public void testValuePagingWithSortedIndex() {
+        map.addIndex("this", true);
+        // keys[50-99] values[0-49]
+        for (int i = size; i < 2 * size; i++) {
+            map.put(i, i - size);
+        }
+
+        PagingPredicate<Integer, Integer> predicate = new PagingPredicate<Integer, Integer>(pageSize);
+        Set<Integer> keys = new HashSet<Integer>();
+        int expectedValueIndex = 0;
+        Set<Map.Entry<Integer, Integer>> entries = map.entrySet(predicate);
+        while (entries.size() > 0) {
+            assertEquals(pageSize, entries.size());
+            for (Map.Entry<Integer, Integer> entry : entries) {
+                assertEquals(expectedValueIndex++ / 2, (int) entry.getValue());
+                assertTrue(keys.add(entry.getKey()));
+            }
+            predicate.nextPage();
+            entries = map.entrySet(predicate);
+        }
+        assertEquals(2 * size, keys.size());
+
+        PagingPredicate<Integer, Integer> deepPage = new PagingPredicate<Integer, Integer>(pageSize);
+        deepPage.setPage(7);
+        assertIterableEquals(map.values(deepPage), 17, 17, 18, 18, 19);
+    }
+
+    @Test
+    public void testKeyPagingWithSortedIndexAndNotIndexedPredicate() {
+        map.addIndex("__key", true);
+
+        PagingPredicate<Integer, Integer> predicate = new PagingPredicate<Integer, Integer>(new EvenValuePredicate(), pageSize);
+        predicate.setPage(2);
+        assertIterableEquals(map.keySet(predicate), 20, 22, 24, 26, 28);
+
+        predicate.nextPage();
+        assertIterableEquals(map.keySet(predicate), 30, 32, 34, 36, 38);
+
+        predicate.setPage(4);
+        assertIterableEquals(map.keySet(predicate), 40, 42, 44, 46, 48);
+
+        predicate.nextPage();
+        assertEquals(0, map.keySet(predicate).size());
+    }
+
+    @Test
+    public void testFilterWithSortedIndex_whenNoMatches_thenEmptySetInsteadOfFallback() {
+        InternalSerializationService ss = getSerializationService(local);
+        Indexes indexes = new Indexes(ss, new DefaultIndexProvider(), Extractors.empty(), true);
+        indexes.addOrGetIndex(QueryConstants.KEY_ATTRIBUTE_NAME.value(), true);
+        for (int i = 0; i < 10; i++) {
+            // odd values only, none of them matches the inner predicate
+            indexes.saveEntryIndex(new QueryEntry(ss, ss.toData(i), 2 * i + 1, Extractors.empty()), null);
+        }
+
+        PagingPredicate<Integer, Integer> predicate = new PagingPredicate<Integer, Integer>(new EvenValuePredicate(), pageSize);
+        predicate.setIterationType(IterationType.KEY);
+        Set<QueryableEntry<Integer, Integer>> result = predicate.filter(new QueryContext(indexes));
+        assertNotNull(result);
+        assertEquals(0, result.size());
+    }
+
+    static class EvenValuePredicate implements Predicate<Integer, Integer>, Serializable {
+
+        @Override
+        public boolean apply(Map.Entry<Integer, Integer> mapEntry) {
+            return mapEntry.getValue() % 2 == 0;
+        }
+    }
+
     static class TestComparator implements Comparator<Map.Entry<Integer, Integer>>, Serializable {
 
         int ascending = 1;
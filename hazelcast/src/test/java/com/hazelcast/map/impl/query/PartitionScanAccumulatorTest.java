@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.CountAggregator;
+import com.hazelcast.aggregation.impl.DoubleAverageAggregator;
+import com.hazelcast.aggregation.impl.DoubleSumAggregator;
+import com.hazelcast.aggregation.impl.LongSumAggregator;
+import com.hazelcast.aggregation.impl.MaxAggregator;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteOrder;
+import java.util.Map;
+
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PartitionScanAccumulatorTest {
+
+    private static final String THIS = THIS_ATTRIBUTE_NAME.value();
+
+    private InternalSerializationService serializationService;
+    private PartitionScanBatch batch;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        batch = new PartitionScanBatch(serializationService, Extractors.empty());
+    }
+
+    @Test
+    public void testLongSum_serializedValues() {
+        Aggregator<Map.Entry, Long> aggregator = new LongSumAggregator<Map.Entry>();
+        for (long i = 0; i < 10; i++) {
+            batch.add(serializationService.toData(i), serializationService.toData(i));
+        }
+
+        accumulate(aggregator, greaterEqual(THIS, 5L));
+
+        assertEquals(Long.valueOf(35), aggregator.aggregate());
+    }
+
+    @Test
+    public void testLongSum_deserializedValues() {
+        Aggregator<Map.Entry, Long> aggregator = new LongSumAggregator<Map.Entry>();
+        for (long i = 0; i < 10; i++) {
+            batch.add(serializationService.toData(i), i);
+        }
+
+        accumulate(aggregator, TruePredicate.INSTANCE);
+
+        assertEquals(Long.valueOf(45), aggregator.aggregate());
+    }
+
+    @Test
+    public void testDoubleAggregators_serializedValues() {
+        Aggregator<Map.Entry, Double> sum = new DoubleSumAggregator<Map.Entry>();
+        Aggregator<Map.Entry, Double> average = new DoubleAverageAggregator<Map.Entry>();
+        for (int i = 0; i < 4; i++) {
+            batch.add(serializationService.toData(i), serializationService.toData(i + 0.5d));
+        }
+
+        accumulate(sum, TruePredicate.INSTANCE);
+        for (int i = 0; i < 4; i++) {
+            batch.add(serializationService.toData(i), serializationService.toData(i + 0.5d));
+        }
+        accumulate(average, TruePredicate.INSTANCE);
+
+        assertEquals(8.0d, sum.aggregate(), 0.0d);
+        assertEquals(2.0d, average.aggregate(), 0.0d);
+    }
+
+    @Test
+    public void testLongSum_littleEndian() {
+        serializationService = new DefaultSerializationServiceBuilder().setByteOrder(ByteOrder.LITTLE_ENDIAN).build();
+        batch = new PartitionScanBatch(serializationService, Extractors.empty());
+        Aggregator<Map.Entry, Long> aggregator = new LongSumAggregator<Map.Entry>();
+        batch.add(serializationService.toData(1), serializationService.toData(Long.MAX_VALUE - 1));
+        batch.add(serializationService.toData(2), serializationService.toData(1L));
+
+        new PartitionScanAccumulator(aggregator, false).accumulate(batch, TruePredicate.INSTANCE);
+
+        assertEquals(Long.valueOf(Long.MAX_VALUE), aggregator.aggregate());
+    }
+
+    @Test
+    public void testCount_entriesCountedAtOnce() {
+        Aggregator<Map.Entry, Long> aggregator = new CountAggregator<Map.Entry>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(serializationService.toData(i), serializationService.toData(i));
+        }
+
+        accumulate(aggregator, greaterEqual(THIS, 3));
+
+        assertEquals(Long.valueOf(7), aggregator.aggregate());
+    }
+
+    @Test
+    public void testAttributeAggregator() {
+        Aggregator<Map.Entry, Integer> aggregator = new MaxAggregator<Map.Entry, Integer>(THIS);
+        for (int i = 0; i < 10; i++) {
+            batch.add(serializationService.toData(i), serializationService.toData(i));
+        }
+
+        accumulate(aggregator, TruePredicate.INSTANCE);
+
+        assertEquals(Integer.valueOf(9), aggregator.aggregate());
+    }
+
+    private void accumulate(Aggregator aggregator, Predicate predicate) {
+        boolean bigEndian = serializationService.getByteOrder() == ByteOrder.BIG_ENDIAN;
+        new PartitionScanAccumulator(aggregator, bigEndian).accumulate(batch, predicate);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PartitionScanBatchTest {
+
+    private static final String THIS = THIS_ATTRIBUTE_NAME.value();
+
+    private InternalSerializationService serializationService;
+    private PartitionScanBatch batch;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        batch = new PartitionScanBatch(serializationService, Extractors.empty());
+    }
+
+    @Test
+    public void testFill() {
+        assertTrue(batch.isEmpty());
+
+        fill(0, PartitionScanBatch.BATCH_SIZE);
+
+        assertFalse(batch.isEmpty());
+        assertTrue(batch.isFull());
+
+        batch.clear();
+        assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    public void testFilter_singlePredicate() {
+        fill(0, 10);
+
+        int selected = batch.filter(lessThan(THIS, 3));
+
+        assertEquals(3, selected);
+        for (int i = 0; i < selected; i++) {
+            assertEquals(i, batch.getSelected(i).getValue());
+        }
+    }
+
+    @Test
+    public void testFilter_conjunction() {
+        fill(0, 20);
+        Predicate predicate = and(greaterEqual(THIS, 5), lessThan(THIS, 15), equal(THIS, 7));
+
+        assertEquals(1, batch.filter(predicate));
+        assertEquals(7, batch.getSelected(0).getValue());
+
+        assertEquals(0, batch.filter(and(lessThan(THIS, 5), greaterEqual(THIS, 5))));
+    }
+
+    @Test
+    public void testDetachSelected_entryNotReused() {
+        fill(0, 5);
+        batch.filter(equal(THIS, 2));
+        QueryableEntry kept = batch.getSelected(0);
+        QueryableEntry detached = batch.detachSelected(0);
+        batch.clear();
+
+        fill(10, 5);
+        batch.filter(greaterEqual(THIS, 0));
+
+        assertSame(kept, detached);
+        assertEquals(2, detached.getValue());
+        for (int i = 0; i < 5; i++) {
+            assertNotSame(detached, batch.getSelected(i));
+            assertEquals(10 + i, batch.getSelected(i).getValue());
+        }
+    }
+
+    @Test
+    public void testGetSelectedValue_asAdded() {
+        Data value = serializationService.toData(3);
+        batch.add(serializationService.toData(1), value);
+        batch.add(serializationService.toData(2), 4);
+
+        assertEquals(2, batch.filter(greaterEqual(THIS, 0)));
+
+        assertSame(value, batch.getSelectedValue(0));
+        assertEquals(4, batch.getSelectedValue(1));
+    }
+
+    private void fill(int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            batch.add(serializationService.toData(i), serializationService.toData(i));
+        }
+    }
+}
@@ -29,6 +29,9 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.Collections;
+
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
@@ -58,6 +61,30 @@ public class QueryResultTest extends HazelcastTestSupport {
         assertEquals(row, actual.iterator().next());
     }
 
+    @Test
+    public void combine_recordsOffsetsOfCombinedResults() {
+        QueryResult combined = new QueryResult(IterationType.ENTRY, 100);
+        combined.setPartitionIds(Collections.singletonList(0));
+        combined.addRow(newRow("1"));
+        QueryResult first = new QueryResult(IterationType.ENTRY, 100);
+        first.setPartitionIds(Collections.singletonList(1));
+        first.addRow(newRow("2"));
+        first.addRow(newRow("3"));
+        QueryResult second = new QueryResult(IterationType.ENTRY, 100);
+        second.setPartitionIds(Collections.singletonList(2));
+        second.addRow(newRow("4"));
+
+        combined.combine(first);
+        combined.combine(second);
+
+        assertEquals(4, combined.size());
+        assertEquals(asList(0, 1, 3), combined.getCombinedResultOffsets());
+    }
+
+    private QueryResultRow newRow(String key) {
+        return new QueryResultRow(serializationService.toData(key), serializationService.toData("row"));
+    }
+
     private QueryResult clone(QueryResult result) {
         Data data = serializationService.toData(result);
         return serializationService.toObject(data);
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.map.impl.record.CompactDataRecord.EPOCH_TIME;
+import static com.hazelcast.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompactDataRecordTest extends HazelcastTestSupport {
+
+    private InternalSerializationService serializationService;
+    private PartitioningStrategy partitioningStrategy;
+
+    private Data key;
+    private Data value;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        partitioningStrategy = mock(PartitioningStrategy.class);
+        key = serializationService.toData("key");
+        value = serializationService.toData("value");
+    }
+
+    @Test
+    public void givenCompactRecordsEnabled_thenCreateCompactDataRecord() {
+        MapConfig mapConfig = new MapConfig().setCompactRecordsEnabled(true).setStatisticsEnabled(true);
+        CompactDataRecordFactory factory = new CompactDataRecordFactory(mapConfig, serializationService, partitioningStrategy);
+
+        Record<Data> record = factory.newRecord("value");
+
+        assertInstanceOf(CompactDataRecord.class, record);
+        assertEquals(value, record.getValue());
+    }
+
+    @Test
+    public void testTimestamps_areRoundedUpToSeconds() {
+        long now = EPOCH_TIME + 123456789L;
+        CompactDataRecord record = new CompactDataRecord(value);
+
+        record.setCreationTime(now);
+        record.setLastAccessTime(now + 1000);
+        record.onUpdate(now + 2500);
+
+        assertEquals(EPOCH_TIME + 123457000L, record.getCreationTime());
+        assertEquals(EPOCH_TIME + 123460000L, record.getLastAccessTime());
+        assertEquals(EPOCH_TIME + 123460000L, record.getLastUpdateTime());
+    }
+
+    @Test
+    public void testTimestamps_wholeSecondsAreKept() {
+        CompactDataRecord record = new CompactDataRecord(value);
+
+        record.setCreationTime(EPOCH_TIME + 5000);
+
+        assertEquals(EPOCH_TIME + 5000, record.getCreationTime());
+    }
+
+    @Test
+    public void testTtl_neverExpiresEarlyAtSubSecondBoundaries() {
+        long secondBoundary = EPOCH_TIME + 42000;
+        long[] startTimes = {secondBoundary - 1, secondBoundary, secondBoundary + 1, secondBoundary + 999};
+        long[] ttls = {1, 999, 1000, 1001, 2500};
+        for (long startTime : startTimes) {
+            for (long ttl : ttls) {
+                CompactDataRecord record = new CompactDataRecord(value);
+                record.setCreationTime(startTime);
+                record.setLastAccessTime(startTime);
+                record.setTtl(ttl);
+
+                // the same elapsed time check as the record store's expiration check, just before the TTL elapses
+                long now = startTime + ttl - 1;
+                assertTrue("start " + startTime + ", ttl " + ttl, now - record.getCreationTime() < record.getTtl());
+                assertTrue("start " + startTime + ", ttl " + ttl, now - record.getLastAccessTime() < ttl);
+            }
+        }
+    }
+
+    @Test
+    public void testTimestamps_unsetTimeIsKept() {
+        CompactDataRecord record = new CompactDataRecord(value);
+
+        record.setLastAccessTime(0);
+
+        assertEquals(0, record.getCreationTime());
+        assertEquals(0, record.getLastAccessTime());
+        assertEquals(0, record.getLastUpdateTime());
+    }
+
+    @Test
+    public void testTtl_isRoundedUpToSeconds() {
+        CompactDataRecord record = new CompactDataRecord(value);
+
+        record.setTtl(1500);
+        assertEquals(2000, record.getTtl());
+
+        record.setTtl(3000);
+        assertEquals(3000, record.getTtl());
+
+        record.setTtl(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, record.getTtl());
+
+        record.setTtl(0);
+        assertEquals(0, record.getTtl());
+    }
+
+    @Test
+    public void testHits_saturate() {
+        CompactDataRecord record = new CompactDataRecord(value);
+
+        record.setHits(Long.MAX_VALUE);
+        record.onAccess(EPOCH_TIME);
+
+        assertEquals(Integer.MAX_VALUE, record.getHits());
+    }
+
+    @Test
+    public void testOnUpdate_incrementsVersionAndHits() {
+        CompactDataRecord record = new CompactDataRecord(value);
+
+        record.onUpdate(EPOCH_TIME);
+        record.onUpdate(EPOCH_TIME);
+
+        assertEquals(2, record.getVersion());
+        assertEquals(2, record.getHits());
+    }
+
+    @Test
+    public void testStatisticsFields_notAvailable() {
+        CompactDataRecord record = new CompactDataRecord(value);
+
+        record.setExpirationTime(42);
+        record.setLastStoredTime(42);
+        record.onStore();
+
+        assertEquals(Record.NOT_AVAILABLE, record.getExpirationTime());
+        assertEquals(Record.NOT_AVAILABLE, record.getLastStoredTime());
+        assertEquals(Record.NOT_CACHED, record.getCachedValueUnsafe());
+    }
+
+    @Test
+    public void testGetCost_lowerThanDataRecordFactoryRecords() {
+        MapConfig mapConfig = new MapConfig().setStatisticsEnabled(true)
+                .setCacheDeserializedValues(CacheDeserializedValues.NEVER);
+        Record<Data> compactRecord = new CompactDataRecordFactory(mapConfig, serializationService, partitioningStrategy)
+                .newRecord(value);
+        Record<Data> recordWithStats = new DataRecordFactory(mapConfig, serializationService, partitioningStrategy)
+                .newRecord(value);
+        Record<Data> record = new DataRecordFactory(mapConfig.setStatisticsEnabled(false), serializationService,
+                partitioningStrategy).newRecord(value);
+
+        long valueCost = value.getHeapCost();
+        assertTrue(compactRecord.getCost() < record.getCost());
+        assertTrue(record.getCost() < recordWithStats.getCost());
+        // key and value references, version and five int fields
+        assertEquals(valueCost + 8 + 2 * REFERENCE_COST_IN_BYTES + 5 * 4, compactRecord.getCost());
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        CompactDataRecord record = newRecord();
+        CompactDataRecord sameRecord = newRecord();
+        CompactDataRecord otherRecord = newRecord();
+        otherRecord.setVersion(23);
+
+        assertEquals(record, record);
+        assertEquals(record, sameRecord);
+        assertEquals(record.hashCode(), sameRecord.hashCode());
+        assertNotEquals(record, otherRecord);
+        assertNotEquals(record, null);
+    }
+
+    private CompactDataRecord newRecord() {
+        CompactDataRecord record = new CompactDataRecord(value);
+        record.setKey(key);
+        record.setCreationTime(EPOCH_TIME + 5000);
+        record.setTtl(1000);
+        return record;
+    }
+}
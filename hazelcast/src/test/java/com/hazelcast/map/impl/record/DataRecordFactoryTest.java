@@ -17,8 +17,11 @@
 package com.hazelcast.map.impl.record;
 
 import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.serialization.SerializationService;
@@ -31,6 +34,10 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static com.hazelcast.internal.serialization.impl.SerializationUtil.isCompressed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -93,6 +100,50 @@ public class DataRecordFactoryTest extends HazelcastTestSupport {
         assertInstanceOf(CachedDataRecord.class, dataRecord);
     }
 
+    @Test
+    public void givenCompressionEnabled_thenValuesAreStoredCompressed() {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        MapConfig mapConfig = new MapConfig().setCacheDeserializedValues(CacheDeserializedValues.NEVER);
+        mapConfig.getCompressionConfig().setEnabled(true);
+        DataRecordFactory compressingFactory = new DataRecordFactory(mapConfig, serializationService, mockPartitioningStrategy);
+        DataRecordFactory plainFactory = new DataRecordFactory(new MapConfig()
+                .setCacheDeserializedValues(CacheDeserializedValues.NEVER), serializationService, mockPartitioningStrategy);
+        String value = jsonLikeValue();
+
+        Record<Data> compressed = compressingFactory.newRecord(value);
+        Record<Data> plain = plainFactory.newRecord(value);
+
+        assertTrue(isCompressed(compressed.getValue()));
+        assertFalse(isCompressed(plain.getValue()));
+        assertTrue(compressed.getCost() < plain.getCost());
+        assertEquals(value, serializationService.toObject(compressed.getValue()));
+        assertTrue(compressingFactory.isEquals(value, compressed.getValue()));
+        assertTrue(compressingFactory.isEquals(plain.getValue(), compressed.getValue()));
+
+        compressingFactory.setValue(compressed, plain.getValue());
+        assertTrue(isCompressed(compressed.getValue()));
+    }
+
+    @Test
+    public void givenCompressionEnabledWithObjectFormat_thenValuesAreNotCompressed() {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        MapConfig mapConfig = new MapConfig().setInMemoryFormat(InMemoryFormat.OBJECT);
+        mapConfig.getCompressionConfig().setEnabled(true);
+        DataRecordFactory dataRecordFactory = new DataRecordFactory(mapConfig, serializationService, mockPartitioningStrategy);
+
+        Record<Data> record = dataRecordFactory.newRecord(jsonLikeValue());
+
+        assertFalse(isCompressed(record.getValue()));
+    }
+
+    private static String jsonLikeValue() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 50; i++) {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"customer-").append(i).append("\",\"active\":true},");
+        }
+        return sb.append("{}]").toString();
+    }
+
     private Record<Data> newDataRecord(DataRecordFactory dataRecordFactory) {
         Record<Data> record = dataRecordFactory.newRecord(object);
         ((AbstractRecord) record).setKey(data);
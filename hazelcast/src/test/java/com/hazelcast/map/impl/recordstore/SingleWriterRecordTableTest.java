@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SingleWriterRecordTableTest extends HazelcastTestSupport {
+
+    private InternalSerializationService serializationService;
+    private DataRecordFactory recordFactory;
+    private SingleWriterRecordTable<Record> table;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        recordFactory = new DataRecordFactory(new MapConfig(), serializationService, null);
+        table = new SingleWriterRecordTable<Record>(4);
+    }
+
+    @Test
+    public void testPutAndGet() {
+        Record record = put(1);
+
+        assertSame(record, table.get(key(1)));
+        assertTrue(table.containsKey(key(1)));
+        assertNull(table.get(key(2)));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testPut_replacesExisting() {
+        Record first = put(1);
+        Record second = newRecord(1);
+
+        assertSame(first, table.put(key(1), second));
+        assertSame(second, table.get(key(1)));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testRemove() {
+        Record record = put(1);
+
+        assertSame(record, table.remove(key(1)));
+        assertNull(table.remove(key(1)));
+        assertNull(table.get(key(1)));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    public void testGrow_keepsAllEntries() {
+        int count = 10000;
+        for (int i = 0; i < count; i++) {
+            put(i);
+        }
+
+        assertEquals(count, table.size());
+        assertTrue(table.capacity() >= count);
+        for (int i = 0; i < count; i++) {
+            assertEquals(key(i), table.get(key(i)).getKey());
+        }
+    }
+
+    @Test
+    public void testRemoveAndPut_doesNotGrowTable() {
+        for (int i = 0; i < 1000; i++) {
+            put(i);
+            table.remove(key(i));
+        }
+
+        assertTrue(table.isEmpty());
+        assertEquals(4, table.capacity());
+    }
+
+    @Test
+    public void testValues_iteratorRemove() {
+        for (int i = 0; i < 100; i++) {
+            put(i);
+        }
+
+        Iterator<Record> iterator = table.values().iterator();
+        int iterated = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            iterated++;
+        }
+
+        assertEquals(100, iterated);
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    public void testValues_iterationSurvivesRehash() {
+        for (int i = 0; i < 10; i++) {
+            put(i);
+        }
+
+        Set<Data> seen = new HashSet<Data>();
+        Iterator<Record> iterator = table.values().iterator();
+        for (int i = 10; i < 1000; i++) {
+            put(i);
+        }
+        while (iterator.hasNext()) {
+            seen.add(iterator.next().getKey());
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(seen.contains(key(i)));
+        }
+    }
+
+    @Test
+    public void testGetRandomSamples() {
+        for (int i = 0; i < 100; i++) {
+            put(i);
+        }
+
+        List<Record> samples = table.getRandomSamples(15);
+
+        Set<Data> keys = new HashSet<Data>();
+        for (Record sample : samples) {
+            keys.add(sample.getKey());
+        }
+        assertEquals(15, keys.size());
+    }
+
+    @Test
+    public void testGetRandomSamples_whenEmpty() {
+        assertTrue(table.getRandomSamples(15).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetRandomSamples_whenNegativeCount() {
+        table.getRandomSamples(-1);
+    }
+
+    @Test
+    public void testFetchKeys_returnsAllKeysInBatches() {
+        int count = 500;
+        for (int i = 0; i < count; i++) {
+            put(i);
+        }
+
+        List<Data> keys = new ArrayList<Data>();
+        int tableIndex = Integer.MAX_VALUE;
+        do {
+            tableIndex = table.fetchKeys(tableIndex, 50, keys);
+        } while (tableIndex >= 0);
+
+        assertEquals(count, keys.size());
+        assertEquals(count, new HashSet<Data>(keys).size());
+    }
+
+    @Test
+    public void testFetchEntries_returnsAllEntriesInBatches() {
+        int count = 500;
+        for (int i = 0; i < count; i++) {
+            put(i);
+        }
+
+        List<Map.Entry<Data, Record>> entries = new ArrayList<Map.Entry<Data, Record>>();
+        int tableIndex = Integer.MAX_VALUE;
+        do {
+            tableIndex = table.fetchEntries(tableIndex, 50, entries);
+        } while (tableIndex >= 0);
+
+        assertEquals(count, entries.size());
+        for (Map.Entry<Data, Record> entry : entries) {
+            assertSame(entry.getValue(), table.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        for (int i = 0; i < 100; i++) {
+            put(i);
+        }
+
+        table.clear();
+
+        assertTrue(table.isEmpty());
+        assertFalse(table.values().iterator().hasNext());
+        assertNull(table.get(key(1)));
+    }
+
+    private Record put(int i) {
+        Record record = newRecord(i);
+        table.put(record.getKey(), record);
+        return record;
+    }
+
+    private Record newRecord(int i) {
+        Record record = recordFactory.newRecord("value-" + i);
+        record.setKey(key(i));
+        return record;
+    }
+
+    private Data key(int i) {
+        return serializationService.toData("key-" + i);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+
+import static com.hazelcast.nio.PacketPayloadPool.SLOTS_PER_SIZE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PacketPayloadPoolTest extends HazelcastTestSupport {
+
+    private PacketPayloadPool pool;
+
+    @Before
+    public void setup() {
+        pool = new PacketPayloadPool(1024);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenZeroMaxSize() {
+        new PacketPayloadPool(0);
+    }
+
+    @Test
+    public void testTake_whenEmpty_thenNewArray() {
+        byte[] payload = pool.take(100);
+
+        assertEquals(100, payload.length);
+    }
+
+    @Test
+    public void testTake_whenReleased_thenReused() {
+        byte[] payload = pool.take(100);
+        pool.release(payload);
+
+        assertSame(payload, pool.take(100));
+        assertNotSame(payload, pool.take(100));
+    }
+
+    @Test
+    public void testTake_whenReleasedWithOtherSize_thenNotReused() {
+        byte[] payload = pool.take(100);
+        pool.release(payload);
+
+        assertEquals(101, pool.take(101).length);
+    }
+
+    @Test
+    public void testRelease_whenBiggerThanMaxSize_thenNotPooled() {
+        byte[] payload = pool.take(2048);
+        pool.release(payload);
+
+        assertNotSame(payload, pool.take(2048));
+    }
+
+    @Test
+    public void testRelease_whenSlotsFull_thenDropped() {
+        for (int i = 0; i < SLOTS_PER_SIZE + 1; i++) {
+            pool.release(new byte[10]);
+        }
+
+        for (int i = 0; i < SLOTS_PER_SIZE; i++) {
+            pool.take(10);
+        }
+        byte[] payload = new byte[10];
+        pool.release(payload);
+        assertSame(payload, pool.take(10));
+    }
+
+    @Test
+    public void testPacket_readFromAndRelease() {
+        byte[] bytes = generateRandomString(100).getBytes();
+        Packet originalPacket = new Packet(bytes);
+        ByteBuffer bb = ByteBuffer.allocate(1000);
+        originalPacket.writeTo(bb);
+        bb.flip();
+
+        Packet packet = new Packet(pool);
+        assertTrue(packet.readFrom(bb));
+        assertArrayEquals(bytes, packet.toByteArray());
+
+        byte[] payload = packet.toByteArray();
+        packet.releasePayload();
+        assertNull(packet.toByteArray());
+
+        // a second release must not put the payload into the pool twice
+        packet.releasePayload();
+        assertSame(payload, pool.take(payload.length));
+        assertNotSame(payload, pool.take(payload.length));
+    }
+
+    @Test
+    public void testPacket_releaseWithoutPool() {
+        byte[] bytes = generateRandomString(100).getBytes();
+        Packet packet = new Packet(bytes);
+
+        packet.releasePayload();
+
+        assertSame(bytes, packet.toByteArray());
+    }
+}
@@ -0,0 +1,473 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultCompactReader;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.SerializationUtil;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompactSerializationTest {
+
+    private static final int FACTORY_ID = 1;
+    private static final int ALL_TYPES = 1;
+    private static final int PERSON = 2;
+    private static final int ADDRESS = 3;
+    private static final int NAMED = 4;
+
+    private InternalSerializationService serializationService;
+
+    @Before
+    public void setup() {
+        serializationService = createSerializationService(new TestCompactFactory());
+    }
+
+    @Test
+    public void testAllTypes() {
+        AllTypesCompact object = new AllTypesCompact();
+        object.b = 1;
+        object.bool = true;
+        object.c = 'c';
+        object.s = 2;
+        object.i = 3;
+        object.l = 4;
+        object.f = 5.5f;
+        object.d = 6.6;
+        object.str = "string";
+        object.address = new AddressCompact("Istanbul", 34000);
+        object.bytes = new byte[]{1, 2, 3};
+        object.booleans = new boolean[]{true, false};
+        object.chars = new char[]{'a', 'b'};
+        object.shorts = new short[]{4, 5};
+        object.ints = new int[]{6, 7};
+        object.longs = new long[]{8, 9};
+        object.floats = new float[]{1.5f, 2.5f};
+        object.doubles = new double[]{3.5, 4.5};
+        object.strings = new String[]{"a", null, "c"};
+        object.addresses = new Compact[]{new AddressCompact("London", 1), new AddressCompact("Paris", 2)};
+
+        Data data = serializationService.toData(object);
+
+        assertTrue(SerializationUtil.isCompact(data));
+        assertEquals(object, serializationService.toObject(data));
+    }
+
+    @Test
+    public void testAllTypes_withNullFields() {
+        AllTypesCompact object = new AllTypesCompact();
+
+        Data data = serializationService.toData(object);
+
+        assertEquals(object, serializationService.toObject(data));
+    }
+
+    @Test
+    public void testLargeObject_usesWiderOffsets() {
+        char[] chars = new char[70000];
+        Arrays.fill(chars, 'x');
+        AllTypesCompact object = new AllTypesCompact();
+        object.str = new String(chars);
+        object.ints = new int[]{1, 2, 3};
+        object.address = new AddressCompact("Istanbul", 34000);
+
+        Data data = serializationService.toData(object);
+
+        assertEquals(object, serializationService.toObject(data));
+    }
+
+    @Test
+    public void testSerializedForm_smallerThanPortable() {
+        Data compactData = serializationService.toData(new NamedCompact("name", 5));
+
+        SerializationConfig config = new SerializationConfig().addPortableFactory(TestSerializationConstants.PORTABLE_FACTORY_ID,
+                new PortableFactory() {
+                    @Override
+                    public Portable create(int classId) {
+                        return new NamedPortable();
+                    }
+                });
+        InternalSerializationService portableService = new DefaultSerializationServiceBuilder().setConfig(config).build();
+        Data portableData = portableService.toData(new NamedPortable("name", 5));
+
+        assertTrue(compactData.totalSize() < portableData.totalSize());
+    }
+
+    @Test
+    public void testReader_fieldMetadata() throws IOException {
+        Data data = serializationService.toData(new PersonCompact("joe", 30, null, null));
+
+        CompactReader reader = serializationService.createCompactReader(data);
+
+        assertTrue(reader.hasField("age"));
+        assertFalse(reader.hasField("salary"));
+        assertEquals(FieldType.INT, reader.getFieldType("age"));
+        assertEquals(FieldType.UTF, reader.getFieldType("name"));
+        assertEquals(FieldType.PORTABLE, reader.getFieldType("address"));
+        assertEquals(FieldType.PORTABLE_ARRAY, reader.getFieldType("previousAddresses"));
+    }
+
+    @Test
+    public void testReadPath() throws IOException {
+        PersonCompact person = new PersonCompact("joe", 30, new AddressCompact("Istanbul", 34000),
+                new AddressCompact[]{new AddressCompact("London", 1), new AddressCompact("Paris", 2)});
+        Data data = serializationService.toData(person);
+
+        DefaultCompactReader reader = (DefaultCompactReader) serializationService.createCompactReader(data);
+
+        assertEquals("joe", reader.read("name"));
+        assertEquals(30, reader.read("age"));
+        assertEquals("Istanbul", reader.read("address.city"));
+        assertEquals(34000, reader.read("address.zip"));
+        assertEquals("Paris", reader.read("previousAddresses[1].city"));
+        assertEquals(new AddressCompact("London", 1), reader.read("previousAddresses[0]"));
+        assertNull(reader.read("previousAddresses[2].city"));
+        assertNull(reader.read("unknown"));
+        assertNull(reader.read("address.unknown"));
+    }
+
+    @Test
+    public void testReadPath_nullNestedObject() throws IOException {
+        Data data = serializationService.toData(new PersonCompact("joe", 30, null, null));
+
+        DefaultCompactReader reader = (DefaultCompactReader) serializationService.createCompactReader(data);
+
+        assertNull(reader.read("address.city"));
+        assertNull(reader.read("previousAddresses[0].city"));
+    }
+
+    @Test
+    public void testExtractors_readFromSerializedForm() {
+        PersonCompact person = new PersonCompact("joe", 30, new AddressCompact("Istanbul", 34000), null);
+        Extractors extractors = Extractors.empty();
+
+        assertEquals("Istanbul", extractors.extract(serializationService, serializationService.toData(person), "address.city"));
+        assertEquals(30, extractors.extract(serializationService, person, "age"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateCompactReader_nonCompactData() throws IOException {
+        serializationService.createCompactReader(serializationService.toData("string"));
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testRead_withoutFactory() {
+        Data data = serializationService.toData(new NamedCompact("name", 5));
+
+        new DefaultSerializationServiceBuilder().build().toObject(data);
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testRead_withDifferentSchema() {
+        Data data = serializationService.toData(new NamedCompact("name", 5));
+
+        InternalSerializationService otherService = createSerializationService(new CompactFactory() {
+            @Override
+            public Compact create(int classId) {
+                return classId == NAMED ? new NamedCompactV2() : null;
+            }
+        });
+        otherService.toObject(data);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConfig_nonPositiveFactoryId() {
+        SerializationConfig config = new SerializationConfig().addCompactFactory(0, new TestCompactFactory());
+
+        new DefaultSerializationServiceBuilder().setConfig(config).build();
+    }
+
+    private static InternalSerializationService createSerializationService(CompactFactory factory) {
+        SerializationConfig config = new SerializationConfig().addCompactFactory(FACTORY_ID, factory);
+        return new DefaultSerializationServiceBuilder().setConfig(config).build();
+    }
+
+    private static class TestCompactFactory implements CompactFactory {
+
+        @Override
+        public Compact create(int classId) {
+            switch (classId) {
+                case ALL_TYPES:
+                    return new AllTypesCompact();
+                case PERSON:
+                    return new PersonCompact();
+                case ADDRESS:
+                    return new AddressCompact();
+                case NAMED:
+                    return new NamedCompact();
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private abstract static class TestCompact implements Compact {
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+    }
+
+    private static class AddressCompact extends TestCompact {
+
+        String city;
+        int zip;
+
+        AddressCompact() {
+        }
+
+        AddressCompact(String city, int zip) {
+            this.city = city;
+            this.zip = zip;
+        }
+
+        @Override
+        public int getClassId() {
+            return ADDRESS;
+        }
+
+        @Override
+        public void writeCompact(CompactWriter writer) throws IOException {
+            writer.writeUTF("city", city);
+            writer.writeInt("zip", zip);
+        }
+
+        @Override
+        public void readCompact(CompactReader reader) throws IOException {
+            city = reader.readUTF("city");
+            zip = reader.readInt("zip");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AddressCompact)) {
+                return false;
+            }
+            AddressCompact that = (AddressCompact) o;
+            return zip == that.zip && (city != null ? city.equals(that.city) : that.city == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (city != null ? city.hashCode() : 0) + zip;
+        }
+    }
+
+    private static class PersonCompact extends TestCompact {
+
+        String name;
+        int age;
+        AddressCompact address;
+        AddressCompact[] previousAddresses;
+
+        PersonCompact() {
+        }
+
+        PersonCompact(String name, int age, AddressCompact address, AddressCompact[] previousAddresses) {
+            this.name = name;
+            this.age = age;
+            this.address = address;
+            this.previousAddresses = previousAddresses;
+        }
+
+        @Override
+        public int getClassId() {
+            return PERSON;
+        }
+
+        @Override
+        public void writeCompact(CompactWriter writer) throws IOException {
+            writer.writeUTF("name", name);
+            writer.writeInt("age", age);
+            writer.writeCompact("address", address);
+            writer.writeCompactArray("previousAddresses", previousAddresses);
+        }
+
+        @Override
+        public void readCompact(CompactReader reader) throws IOException {
+            name = reader.readUTF("name");
+            age = reader.readInt("age");
+            address = (AddressCompact) reader.readCompact("address");
+            Compact[] addresses = reader.readCompactArray("previousAddresses");
+            if (addresses != null) {
+                previousAddresses = Arrays.copyOf(addresses, addresses.length, AddressCompact[].class);
+            }
+        }
+    }
+
+    private static class NamedCompact extends TestCompact {
+
+        String name;
+        int k;
+
+        NamedCompact() {
+        }
+
+        NamedCompact(String name, int k) {
+            this.name = name;
+            this.k = k;
+        }
+
+        @Override
+        public int getClassId() {
+            return NAMED;
+        }
+
+        @Override
+        public void writeCompact(CompactWriter writer) throws IOException {
+            writer.writeUTF("name", name);
+            writer.writeInt("myint", k);
+        }
+
+        @Override
+        public void readCompact(CompactReader reader) throws IOException {
+            name = reader.readUTF("name");
+            k = reader.readInt("myint");
+        }
+    }
+
+    private static class NamedCompactV2 extends NamedCompact {
+
+        @Override
+        public void writeCompact(CompactWriter writer) throws IOException {
+            super.writeCompact(writer);
+            writer.writeLong("mylong", 0);
+        }
+    }
+
+    private static class AllTypesCompact extends TestCompact {
+
+        byte b;
+        boolean bool;
+        char c;
+        short s;
+        int i;
+        long l;
+        float f;
+        double d;
+        String str;
+        Compact address;
+        byte[] bytes;
+        boolean[] booleans;
+        char[] chars;
+        short[] shorts;
+        int[] ints;
+        long[] longs;
+        float[] floats;
+        double[] doubles;
+        String[] strings;
+        Compact[] addresses;
+
+        @Override
+        public int getClassId() {
+            return ALL_TYPES;
+        }
+
+        @Override
+        public void writeCompact(CompactWriter writer) throws IOException {
+            writer.writeByte("b", b);
+            writer.writeBoolean("bool", bool);
+            writer.writeChar("c", c);
+            writer.writeShort("s", s);
+            writer.writeInt("i", i);
+            writer.writeLong("l", l);
+            writer.writeFloat("f", f);
+            writer.writeDouble("d", d);
+            writer.writeUTF("str", str);
+            writer.writeCompact("address", address);
+            writer.writeByteArray("bytes", bytes);
+            writer.writeBooleanArray("booleans", booleans);
+            writer.writeCharArray("chars", chars);
+            writer.writeShortArray("shorts", shorts);
+            writer.writeIntArray("ints", ints);
+            writer.writeLongArray("longs", longs);
+            writer.writeFloatArray("floats", floats);
+            writer.writeDoubleArray("doubles", doubles);
+            writer.writeUTFArray("strings", strings);
+            writer.writeCompactArray("addresses", addresses);
+        }
+
+        @Override
+        public void readCompact(CompactReader reader) throws IOException {
+            b = reader.readByte("b");
+            bool = reader.readBoolean("bool");
+            c = reader.readChar("c");
+            s = reader.readShort("s");
+            i = reader.readInt("i");
+            l = reader.readLong("l");
+            f = reader.readFloat("f");
+            d = reader.readDouble("d");
+            str = reader.readUTF("str");
+            address = reader.readCompact("address");
+            bytes = reader.readByteArray("bytes");
+            booleans = reader.readBooleanArray("booleans");
+            chars = reader.readCharArray("chars");
+            shorts = reader.readShortArray("shorts");
+            ints = reader.readIntArray("ints");
+            longs = reader.readLongArray("longs");
+            floats = reader.readFloatArray("floats");
+            doubles = reader.readDoubleArray("doubles");
+            strings = reader.readUTFArray("strings");
+            addresses = reader.readCompactArray("addresses");
+        }
+
+        @Override
+        @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+        public boolean equals(Object o) {
+            if (!(o instanceof AllTypesCompact)) {
+                return false;
+            }
+            AllTypesCompact that = (AllTypesCompact) o;
+            return b == that.b && bool == that.bool && c == that.c && s == that.s && i == that.i && l == that.l
+                    && f == that.f && d == that.d
+                    && (str != null ? str.equals(that.str) : that.str == null)
+                    && (address != null ? address.equals(that.address) : that.address == null)
+                    && Arrays.equals(bytes, that.bytes) && Arrays.equals(booleans, that.booleans)
+                    && Arrays.equals(chars, that.chars) && Arrays.equals(shorts, that.shorts)
+                    && Arrays.equals(ints, that.ints) && Arrays.equals(longs, that.longs)
+                    && Arrays.equals(floats, that.floats) && Arrays.equals(doubles, that.doubles)
+                    && Arrays.equals(strings, that.strings) && Arrays.equals(addresses, that.addresses);
+        }
+
+        @Override
+        public int hashCode() {
+            return i;
+        }
+    }
+}
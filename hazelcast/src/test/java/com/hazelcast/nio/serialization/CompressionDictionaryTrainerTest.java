@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.hazelcast.nio.Bits.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompressionDictionaryTrainerTest {
+
+    @Test
+    public void train_keepsCommonSequences() {
+        List<byte[]> samples = new ArrayList<byte[]>();
+        for (int i = 0; i < 20; i++) {
+            samples.add(("{\"customerName\":\"" + i + "\",\"customerEmail\":\"" + i + "\"}").getBytes(UTF_8));
+        }
+
+        String dictionary = new String(CompressionDictionaryTrainer.train(samples, 1024), UTF_8);
+
+        assertTrue(dictionary, dictionary.contains("Name\":\""));
+        assertTrue(dictionary, dictionary.contains("\",\"customerEmail\":\""));
+        // the shifted copies of a common sequence are joined, so it is kept only once
+        assertEquals(dictionary, dictionary.indexOf("customerEmail"), dictionary.lastIndexOf("customerEmail"));
+    }
+
+    @Test
+    public void train_mostCommonSequenceLast() {
+        List<byte[]> samples = new ArrayList<byte[]>();
+        for (int i = 0; i < 10; i++) {
+            samples.add(("AAAAAAAAAAAA" + i + "-BBBBBBBBBBBB").getBytes(UTF_8));
+        }
+        for (int i = 0; i < 5; i++) {
+            samples.add(("CCCCCCCCCCCC" + i + "-BBBBBBBBBBBB").getBytes(UTF_8));
+        }
+
+        String dictionary = new String(CompressionDictionaryTrainer.train(samples, 1024), UTF_8);
+
+        assertTrue(dictionary, dictionary.endsWith("BBBBBBBB"));
+    }
+
+    @Test
+    public void train_boundedBySize() {
+        List<byte[]> samples = new ArrayList<byte[]>();
+        for (int i = 0; i < 10; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < 100; j++) {
+                sb.append("field").append(j).append('=');
+            }
+            samples.add(sb.toString().getBytes(UTF_8));
+        }
+
+        assertEquals(100, CompressionDictionaryTrainer.train(samples, 100).length);
+    }
+
+    @Test
+    public void train_whenNothingShared_thenEmpty() {
+        List<byte[]> samples = new ArrayList<byte[]>();
+        samples.add("abcdefghijkl".getBytes(UTF_8));
+        samples.add("mnopqrstuvwx".getBytes(UTF_8));
+
+        assertEquals(0, CompressionDictionaryTrainer.train(samples, 100).length);
+        assertEquals(0, CompressionDictionaryTrainer.train(Collections.<byte[]>emptyList(), 100).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void train_whenSizeNotPositive_thenFail() {
+        CompressionDictionaryTrainer.train(Collections.<byte[]>emptyList(), 0);
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.config.GlobalSerializerConfig;
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PojoSerializerTest {
+
+    @Test
+    public void testRegisteredClass() {
+        InternalSerializationService ss = createSerializationService(new PojoSerializer()
+                .register(1, AllTypesPojo.class)
+                .register(2, Address.class), false);
+        AllTypesPojo pojo = AllTypesPojo.create();
+
+        AllTypesPojo result = ss.toObject(ss.toData(pojo));
+
+        assertEquals(pojo, result);
+        assertEquals("transient fields are not serialized", 0, result.transientValue);
+    }
+
+    @Test
+    public void testNullFields() {
+        InternalSerializationService ss = createSerializationService(new PojoSerializer().register(1, AllTypesPojo.class), false);
+        AllTypesPojo pojo = new AllTypesPojo();
+
+        AllTypesPojo result = ss.toObject(ss.toData(pojo));
+
+        assertEquals(pojo, result);
+        assertNull(result.address);
+    }
+
+    @Test
+    public void testUnregisteredClass() {
+        InternalSerializationService ss = createSerializationService(new PojoSerializer(), false);
+        Address address = new Address("Istanbul", 34000);
+
+        Data data = ss.toData(address);
+
+        assertEquals(address, ss.toObject(data));
+    }
+
+    @Test
+    public void testSuperclassFields() {
+        InternalSerializationService ss = createSerializationService(new PojoSerializer()
+                .register(1, ExtendedAddress.class), false);
+        ExtendedAddress address = new ExtendedAddress("Istanbul", 34000, "Kadikoy");
+
+        ExtendedAddress result = ss.toObject(ss.toData(address));
+
+        assertEquals(address, result);
+        assertEquals("Kadikoy", result.district);
+    }
+
+    @Test
+    public void testRegisteredClass_smallerThanUnregistered() {
+        Address address = new Address("Istanbul", 34000);
+        Data registered = createSerializationService(new PojoSerializer().register(1, Address.class), false).toData(address);
+        Data unregistered = createSerializationService(new PojoSerializer(), false).toData(address);
+
+        assertTrue(registered.totalSize() < unregistered.totalSize());
+    }
+
+    @Test
+    public void testSerializableClass_whenRegisteredAndOverridingJavaSerialization() {
+        InternalSerializationService ss = createSerializationService(new PojoSerializer()
+                .register(1, SerializableAddress.class), true);
+        SerializableAddress address = new SerializableAddress();
+        address.city = "Istanbul";
+
+        Data data = ss.toData(address);
+
+        assertEquals(new PojoSerializer().getTypeId(), data.getType());
+        assertEquals("Istanbul", ((SerializableAddress) ss.toObject(data)).city);
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testSerializableClass_whenNotRegistered() {
+        InternalSerializationService ss = createSerializationService(new PojoSerializer(), true);
+
+        ss.toData(new SerializableAddress());
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testRead_withUnknownClassId() {
+        Data data = createSerializationService(new PojoSerializer().register(1, Address.class), false)
+                .toData(new Address("Istanbul", 34000));
+
+        createSerializationService(new PojoSerializer(), false).toObject(data);
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testRegister_withoutNoArgConstructor() {
+        new PojoSerializer().register(1, NoDefaultConstructor.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegister_duplicateClassId() {
+        new PojoSerializer().register(1, Address.class).register(1, AllTypesPojo.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegister_nonPositiveClassId() {
+        new PojoSerializer().register(0, Address.class);
+    }
+
+    private static InternalSerializationService createSerializationService(PojoSerializer serializer,
+                                                                           boolean overrideJavaSerialization) {
+        GlobalSerializerConfig globalSerializerConfig = new GlobalSerializerConfig()
+                .setImplementation(serializer)
+                .setOverrideJavaSerialization(overrideJavaSerialization);
+        SerializationConfig config = new SerializationConfig().setGlobalSerializerConfig(globalSerializerConfig);
+        return new DefaultSerializationServiceBuilder().setConfig(config).build();
+    }
+
+    static class Address {
+
+        String city;
+        int zip;
+
+        Address() {
+        }
+
+        Address(String city, int zip) {
+            this.city = city;
+            this.zip = zip;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Address that = (Address) o;
+            return zip == that.zip && (city != null ? city.equals(that.city) : that.city == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (city != null ? city.hashCode() : 0) + zip;
+        }
+    }
+
+    static class ExtendedAddress extends Address {
+
+        String district;
+
+        ExtendedAddress() {
+        }
+
+        ExtendedAddress(String city, int zip, String district) {
+            super(city, zip);
+            this.district = district;
+        }
+    }
+
+    static class SerializableAddress implements Serializable {
+
+        String city;
+    }
+
+    static class NoDefaultConstructor {
+
+        final int value;
+
+        NoDefaultConstructor(int value) {
+            this.value = value;
+        }
+    }
+
+    static class AllTypesPojo {
+
+        boolean bool;
+        byte b;
+        char c;
+        short s;
+        int i;
+        long l;
+        float f;
+        double d;
+        final long finalValue;
+        transient int transientValue;
+        String str;
+        byte[] bytes;
+        int[] ints;
+        long[] longs;
+        double[] doubles;
+        String[] strings;
+        char[] chars;
+        Date date;
+        Address address;
+
+        AllTypesPojo() {
+            this(0);
+        }
+
+        AllTypesPojo(long finalValue) {
+            this.finalValue = finalValue;
+        }
+
+        static AllTypesPojo create() {
+            AllTypesPojo pojo = new AllTypesPojo(99);
+            pojo.bool = true;
+            pojo.b = 1;
+            pojo.c = 'c';
+            pojo.s = 2;
+            pojo.i = 3;
+            pojo.l = 4;
+            pojo.f = 5.5f;
+            pojo.d = 6.6;
+            pojo.transientValue = 7;
+            pojo.str = "string";
+            pojo.bytes = new byte[]{1, 2};
+            pojo.ints = new int[]{3, 4};
+            pojo.longs = new long[]{5, 6};
+            pojo.doubles = new double[]{7.5, 8.5};
+            pojo.strings = new String[]{"a", null};
+            pojo.chars = new char[]{'x', 'y'};
+            pojo.date = new Date(1000);
+            pojo.address = new Address("Istanbul", 34000);
+            return pojo;
+        }
+
+        @Override
+        @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+        public boolean equals(Object o) {
+            if (!(o instanceof AllTypesPojo)) {
+                return false;
+            }
+            AllTypesPojo that = (AllTypesPojo) o;
+            return bool == that.bool && b == that.b && c == that.c && s == that.s && i == that.i && l == that.l
+                    && f == that.f && d == that.d && finalValue == that.finalValue
+                    && (str != null ? str.equals(that.str) : that.str == null)
+                    && Arrays.equals(bytes, that.bytes) && Arrays.equals(ints, that.ints)
+                    && Arrays.equals(longs, that.longs) && Arrays.equals(doubles, that.doubles)
+                    && Arrays.equals(strings, that.strings) && Arrays.equals(chars, that.chars)
+                    && (date != null ? date.equals(that.date) : that.date == null)
+                    && (address != null ? address.equals(that.address) : that.address == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return i;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import com.hazelcast.nio.Address;
 import com.hazelcast.nio.IOService;
 import com.hazelcast.nio.MemberSocketInterceptor;
 import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketPayloadPool;
 import com.hazelcast.spi.EventFilter;
 import com.hazelcast.spi.EventRegistration;
 import com.hazelcast.spi.EventService;
@@ -180,6 +181,16 @@ public class MockIOService implements IOService {
         return 32;
     }
 
+    @Override
+    public long getSocketWriteCoalescingDelayNanos() {
+        return 0;
+    }
+
+    @Override
+    public long getSocketClientWriteCoalescingDelayNanos() {
+        return 0;
+    }
+
     @Override
     public boolean useDirectSocketBuffer() {
         return false;
@@ -213,6 +224,21 @@ public class MockIOService implements IOService {
         return 1;
     }
 
+    @Override
+    public int getWriteMaxFrames() {
+        return -1;
+    }
+
+    @Override
+    public int getWriteGatheringBufferCount() {
+        return 1;
+    }
+
+    @Override
+    public PacketPayloadPool getInboundPayloadPool() {
+        return null;
+    }
+
     @Override
     public long getConnectionMonitorInterval() {
         return 0;
@@ -98,6 +98,31 @@ public abstract class TcpIpConnection_BaseTest extends TcpIpConnection_AbstractT
         assertEquals(packet, found);
     }
 
+    @Test
+    public void write_whenSendingThreadInterrupted_thenConnectionStaysOpen() {
+        TcpIpConnection c = connect(connManagerA, addressB);
+
+        Packet packet = new Packet(serializationService.toBytes("foo"));
+
+        Thread.currentThread().interrupt();
+        boolean result;
+        try {
+            result = c.write(packet);
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertTrue(result);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(1, packetsB.size());
+            }
+        });
+        assertEquals(packet, packetsB.get(0));
+        assertTrue(c.isAlive());
+    }
+
     @Test
     public void lastWriteTimeMillis_whenPacketWritten() {
         TcpIpConnection connAB = connect(connManagerA, addressB);
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class BPlusTreeIndexStoreTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 2000;
+    private static final int VALUE_RANGE = 500;
+
+    private final Random random = new Random();
+
+    private InternalSerializationService ss;
+    private IndexImpl expected;
+    private IndexImpl actual;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        expected = new IndexImpl(THIS_ATTRIBUTE_NAME.value(), true, ss, Extractors.empty());
+        actual = new IndexImpl(THIS_ATTRIBUTE_NAME.value(), true, ss, Extractors.empty(), true);
+    }
+
+    @Test
+    public void testCreateIndexStore() {
+        assertInstanceOf(BPlusTreeIndexStore.class, actual.createIndexStore(true));
+        assertInstanceOf(SortedIndexStore.class, expected.createIndexStore(true));
+        assertInstanceOf(UnsortedIndexStore.class, actual.createIndexStore(false));
+    }
+
+    @Test
+    public void testQueries_sameAsSortedIndexStore() {
+        Map<Integer, Integer> values = new HashMap<Integer, Integer>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            int key = random.nextInt(ENTRY_COUNT);
+            int newValue = random.nextInt(VALUE_RANGE);
+            save(key, newValue, values.put(key, newValue));
+        }
+        for (int i = 0; i < ENTRY_COUNT / 2; i++) {
+            int key = random.nextInt(ENTRY_COUNT);
+            if (values.containsKey(key)) {
+                Integer value = values.remove(key);
+                Data keyData = ss.toData(key);
+                expected.removeEntryIndex(keyData, value);
+                actual.removeEntryIndex(keyData, value);
+            }
+        }
+
+        assertQueriesSame();
+    }
+
+    @Test
+    public void testQueries_uniqueValues() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            save(i, i, null);
+        }
+
+        assertQueriesSame();
+        assertEquals(ENTRY_COUNT, actual.getSubRecords(ComparisonType.GREATER_EQUAL, 0).size());
+        assertEquals(1, actual.getRecords(42).size());
+    }
+
+    @Test
+    public void testUpdate_movesEntryBetweenValues() {
+        save(1, 10, null);
+        save(2, 10, null);
+        save(1, 20, 10);
+        save(2, 20, 10);
+
+        assertEquals(0, actual.getRecords(10).size());
+        assertEquals(2, actual.getRecords(20).size());
+        assertEquals(2, actual.getSubRecordsBetween(0, 100).size());
+        assertQueriesSame();
+    }
+
+    @Test
+    public void testNullValues_keptOutOfRanges() {
+        BPlusTreeIndexStore store = new BPlusTreeIndexStore();
+        QueryEntry nullEntry = new QueryEntry(ss, ss.toData(1), null, Extractors.empty());
+        QueryEntry entry = new QueryEntry(ss, ss.toData(2), 5, Extractors.empty());
+
+        store.newIndex(IndexImpl.NULL, nullEntry);
+        store.newIndex(5, entry);
+
+        assertEquals(1, store.getRecords(IndexImpl.NULL).size());
+        assertEquals(1, store.getSubRecords(ComparisonType.NOT_EQUAL, 4).size());
+        assertEquals(1, store.getSubRecordsBetween(0, 10).size());
+
+        store.removeIndex(IndexImpl.NULL, nullEntry.getKeyData());
+        assertEquals(0, store.getRecords(IndexImpl.NULL).size());
+    }
+
+    @Test
+    public void testMinMaxValues_sameAsSortedIndexStore() {
+        assertNull(actual.getMinValue());
+        assertNull(actual.getMaxValue());
+
+        Map<Integer, Integer> values = new HashMap<Integer, Integer>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            int key = random.nextInt(ENTRY_COUNT);
+            int newValue = random.nextInt(VALUE_RANGE);
+            save(key, newValue, values.put(key, newValue));
+        }
+        save(ENTRY_COUNT, null, null);
+
+        assertEquals(expected.getMinValue(), actual.getMinValue());
+        assertEquals(expected.getMaxValue(), actual.getMaxValue());
+        assertEquals(Collections.min(values.values()), actual.getMinValue());
+        assertEquals(Collections.max(values.values()), actual.getMaxValue());
+    }
+
+    @Test
+    public void testClear() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            save(i, i % VALUE_RANGE, null);
+        }
+
+        actual.clear();
+
+        assertEquals(0, actual.getSubRecords(ComparisonType.NOT_EQUAL, -1).size());
+        assertEquals(0, actual.getRecords(1).size());
+    }
+
+    private void save(int key, Integer value, Integer oldValue) {
+        expected.saveEntryIndex(new QueryEntry(ss, ss.toData(key), value, Extractors.empty()), oldValue);
+        actual.saveEntryIndex(new QueryEntry(ss, ss.toData(key), value, Extractors.empty()), oldValue);
+    }
+
+    private void assertQueriesSame() {
+        for (int i = 0; i < 100; i++) {
+            int from = random.nextInt(VALUE_RANGE + 20) - 10;
+            int to = from + random.nextInt(VALUE_RANGE / 4);
+
+            assertSame(expected.getRecords(from), actual.getRecords(from));
+            assertSame(expected.getRecords(new Comparable[]{from, to}), actual.getRecords(new Comparable[]{from, to}));
+            assertSame(expected.getSubRecordsBetween(from, to), actual.getSubRecordsBetween(from, to));
+            for (ComparisonType comparisonType : ComparisonType.values()) {
+                assertSame(expected.getSubRecords(comparisonType, from), actual.getSubRecords(comparisonType, from));
+            }
+        }
+    }
+
+    private static void assertSame(Set<QueryableEntry> expected, Set<QueryableEntry> actual) {
+        assertEquals(keys(expected), keys(actual));
+    }
+
+    private static Set<Data> keys(Set<QueryableEntry> entries) {
+        Set<Data> keys = new HashSet<Data>();
+        for (QueryableEntry entry : entries) {
+            keys.add(entry.getKeyData());
+        }
+        return keys;
+    }
+}
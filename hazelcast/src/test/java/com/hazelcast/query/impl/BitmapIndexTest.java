@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapIndexConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.query.DefaultIndexProvider;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.lessEqual;
+import static com.hazelcast.query.Predicates.not;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class BitmapIndexTest extends HazelcastTestSupport {
+
+    private static final String[] COUNTRIES = {"pl", "de", "uk", null};
+
+    private HazelcastInstance instance;
+    private IMap<Integer, Person> map;
+    private IMap<Integer, Person> mapWithoutIndex;
+
+    @Before
+    public void setUp() {
+        Config config = getConfig();
+        config.getMapConfig("persons")
+              .addMapIndexConfig(new MapIndexConfig("country", false).setBitmap(true))
+              .addMapIndexConfig(new MapIndexConfig("status", false).setBitmap(true))
+              .addMapIndexConfig(new MapIndexConfig("age", true));
+        instance = createHazelcastInstance(config);
+        map = instance.getMap("persons");
+        mapWithoutIndex = instance.getMap("personsWithoutIndex");
+
+        Random random = new Random();
+        for (int i = 0; i < 1000; i++) {
+            Person person = new Person(COUNTRIES[random.nextInt(COUNTRIES.length)],
+                    Status.values()[random.nextInt(Status.values().length)], random.nextInt(100));
+            map.put(i, person);
+            mapWithoutIndex.put(i, person);
+        }
+    }
+
+    @Test
+    public void testBitmapIndexCreated() {
+        Indexes indexes = new Indexes(getSerializationService(instance), new DefaultIndexProvider(), Extractors.empty(), true,
+                Collections.singleton("country"));
+
+        assertInstanceOf(BitmapIndex.class, indexes.addOrGetIndex("country", false));
+        assertInstanceOf(IndexImpl.class, indexes.addOrGetIndex("age", true));
+    }
+
+    @Test
+    public void testEquality() {
+        assertQuery(equal("country", "pl"));
+        assertQuery(equal("country", null));
+        assertQuery(equal("status", Status.ACTIVE));
+        assertQuery(in("country", "pl", "uk"));
+        assertQuery(notEqual("country", "de"));
+    }
+
+    @Test
+    public void testCombinations() {
+        assertQuery(and(equal("country", "pl"), equal("status", Status.BLOCKED)));
+        assertQuery(or(equal("country", "pl"), equal("status", Status.BLOCKED)));
+        assertQuery(not(equal("country", "uk")));
+        assertQuery(and(not(equal("status", Status.ACTIVE)), in("country", "de", "uk")));
+        assertQuery(and(notEqual("country", "pl"), equal("status", Status.NEW), greaterThan("age", 50)));
+        assertQuery(or(and(equal("country", "de"), lessEqual("age", 20)), equal("status", Status.NEW)));
+    }
+
+    @Test
+    public void testRanges() {
+        assertQuery(greaterThan("country", "de"));
+        assertQuery(lessEqual("country", "pl"));
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        for (int i = 0; i < 100; i++) {
+            Person person = new Person("pl", Status.ACTIVE, i);
+            map.put(i, person);
+            mapWithoutIndex.put(i, person);
+        }
+        for (int i = 100; i < 200; i++) {
+            map.remove(i);
+            mapWithoutIndex.remove(i);
+        }
+
+        assertQuery(equal("country", "pl"));
+        assertQuery(and(equal("country", "pl"), equal("status", Status.ACTIVE)));
+        assertQuery(not(equal("status", Status.ACTIVE)));
+    }
+
+    @Test
+    public void testClear() {
+        map.clear();
+        mapWithoutIndex.clear();
+        map.put(1, new Person("pl", Status.NEW, 1));
+        mapWithoutIndex.put(1, new Person("pl", Status.NEW, 1));
+
+        assertQuery(equal("country", "pl"));
+        assertQuery(not(equal("status", Status.ACTIVE)));
+    }
+
+    private void assertQuery(Predicate<Integer, Person> predicate) {
+        Set<Integer> expected = mapWithoutIndex.keySet(predicate);
+        assertEquals(predicate.toString(), expected, map.keySet(predicate));
+    }
+
+    public enum Status {
+        NEW,
+        ACTIVE,
+        BLOCKED
+    }
+
+    public static class Person implements Serializable {
+        private final String country;
+        private final Status status;
+        private final int age;
+
+        Person(String country, Status status, int age) {
+            this.country = country;
+            this.status = status;
+            this.age = age;
+        }
+
+        public String getCountry() {
+            return country;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public int getAge() {
+            return age;
+        }
+    }
+}
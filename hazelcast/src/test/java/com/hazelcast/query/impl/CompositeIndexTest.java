@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapIndexConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.query.DefaultIndexProvider;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Random;
+import java.util.Set;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.lessEqual;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompositeIndexTest extends HazelcastTestSupport {
+
+    private static final String[] COUNTRIES = {"pl", "de", "uk", null};
+
+    private HazelcastInstance instance;
+    private IMap<Integer, Person> map;
+    private IMap<Integer, Person> mapWithoutIndex;
+    private IMap<Integer, Person> mapWithSingleAttributeIndexes;
+
+    @Before
+    public void setUp() {
+        Config config = getConfig();
+        config.getMapConfig("persons").addMapIndexConfig(new MapIndexConfig("country, age", true));
+        config.getMapConfig("personsWithSingleAttributeIndexes")
+              .addMapIndexConfig(new MapIndexConfig("country", false))
+              .addMapIndexConfig(new MapIndexConfig("age", true));
+        instance = createHazelcastInstance(config);
+        map = instance.getMap("persons");
+        mapWithoutIndex = instance.getMap("personsWithoutIndex");
+        mapWithSingleAttributeIndexes = instance.getMap("personsWithSingleAttributeIndexes");
+
+        Random random = new Random();
+        for (int i = 0; i < 1000; i++) {
+            // every tenth age is null, range predicates never match null attributes
+            Integer age = i % 10 == 0 ? null : random.nextInt(100);
+            Person person = new Person(COUNTRIES[random.nextInt(COUNTRIES.length)], age, "name" + i % 5);
+            map.put(i, person);
+            mapWithoutIndex.put(i, person);
+            mapWithSingleAttributeIndexes.put(i, person);
+        }
+    }
+
+    @Test
+    public void testComponentNames() {
+        assertTrue(CompositeIndex.isComposite("country, age"));
+        assertFalse(CompositeIndex.isComposite("country"));
+        assertArrayEquals(new String[]{"country", "age"}, CompositeIndex.getComponents(" country , age"));
+        assertEquals("country,age", CompositeIndex.canonicalize("country , age "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyComponent() {
+        CompositeIndex.getComponents("country,,age");
+    }
+
+    @Test
+    public void testEqualityOnAllComponents() {
+        assertQuery(and(equal("country", "pl"), equal("age", 42)));
+        assertQuery(and(equal("age", "42"), equal("country", "de"), equal("name", "name1")));
+    }
+
+    @Test
+    public void testEqualityPrefixAndRange() {
+        assertQuery(and(equal("country", "pl"), greaterThan("age", 30)));
+        assertQuery(and(equal("country", "pl"), greaterEqual("age", 30), lessThan("age", 40)));
+        assertQuery(and(equal("country", "de"), lessEqual("age", 15)));
+        assertQuery(and(equal("country", "de"), between("age", 10, 20), equal("name", "name3")));
+        assertQuery(and(equal("country", "uk"), greaterThan("age", 50), lessThan("age", 40)));
+        assertQuery(or(and(equal("country", "uk"), lessThan("age", 10)), equal("name", "name2")));
+    }
+
+    @Test
+    public void testRangeOnNullableComponent_sameAsSingleAttributeIndexes() {
+        assertQuery(and(equal("country", "pl"), lessThan("age", 30)));
+        assertQuery(and(equal("country", "pl"), lessEqual("age", 30)));
+        assertQuery(and(equal("country", "de"), greaterThan("age", 30)));
+        assertQuery(and(equal("country", "de"), greaterEqual("age", 0)));
+        assertQuery(and(equal("country", "uk"), greaterThan("age", 10), lessThan("age", 60)));
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        for (int i = 0; i < 100; i++) {
+            Person person = new Person("pl", i, "updated");
+            map.put(i, person);
+            mapWithoutIndex.put(i, person);
+            mapWithSingleAttributeIndexes.put(i, person);
+        }
+        for (int i = 100; i < 200; i++) {
+            map.remove(i);
+            mapWithoutIndex.remove(i);
+            mapWithSingleAttributeIndexes.remove(i);
+        }
+
+        assertQuery(and(equal("country", "pl"), greaterThan("age", 50)));
+        assertQuery(and(equal("country", "pl"), equal("age", 7)));
+    }
+
+    @Test
+    public void testIndexLookup_sameForEquivalentNames() {
+        Indexes indexes = new Indexes(getSerializationService(instance), new DefaultIndexProvider(), Extractors.empty(), true);
+
+        Index index = indexes.addOrGetIndex("country, age", true);
+
+        assertInstanceOf(CompositeIndex.class, index);
+        assertEquals(index, indexes.getIndex("country,age"));
+        assertEquals(index, indexes.addOrGetIndex(" country ,age", true));
+        assertArrayEquals(new CompositeIndex[]{(CompositeIndex) index}, indexes.getCompositeIndexes());
+    }
+
+    private void assertQuery(Predicate<Integer, Person> predicate) {
+        Set<Integer> expected = mapWithoutIndex.keySet(predicate);
+        assertEquals(predicate.toString(), expected, mapWithSingleAttributeIndexes.keySet(predicate));
+        assertEquals(predicate.toString(), expected, map.keySet(predicate));
+    }
+
+    public static class Person implements Serializable {
+        private final String country;
+        private final Integer age;
+        private final String name;
+
+        Person(String country, Integer age, String name) {
+            this.country = country;
+            this.age = age;
+            this.name = name;
+        }
+
+        public String getCountry() {
+            return country;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
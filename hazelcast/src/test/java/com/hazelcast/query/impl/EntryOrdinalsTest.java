@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class EntryOrdinalsTest extends HazelcastTestSupport {
+
+    private static final int THREAD_COUNT = 4;
+    private static final int KEYS_PER_THREAD = 1000;
+
+    private InternalSerializationService serializationService;
+    private EntryOrdinals entryOrdinals;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        entryOrdinals = new EntryOrdinals();
+    }
+
+    @Test
+    public void testAcquire_sameOrdinalForSameKey() {
+        int ordinal = entryOrdinals.acquire(entry(1, "a"));
+        QueryableEntry updated = entry(1, "b");
+
+        assertEquals(ordinal, entryOrdinals.acquire(updated));
+        assertEquals(ordinal, entryOrdinals.getOrdinal(key(1)));
+        assertEquals(updated, entryOrdinals.getEntries(bitmap(ordinal)).iterator().next());
+        assertEquals(1, entryOrdinals.size());
+    }
+
+    @Test
+    public void testRelease_ordinalNotReusedImmediately() {
+        int ordinal = entryOrdinals.acquire(entry(1, "a"));
+
+        entryOrdinals.release(key(1));
+
+        assertEquals(-1, entryOrdinals.getOrdinal(key(1)));
+        assertTrue(entryOrdinals.getEntries(bitmap(ordinal)).isEmpty());
+        assertNotEquals(ordinal, entryOrdinals.acquire(entry(2, "b")));
+        assertEquals(1, entryOrdinals.getAllOrdinals().cardinality());
+    }
+
+    @Test
+    public void testConcurrentAcquireAndRelease() throws Exception {
+        Future[] futures = new Future[THREAD_COUNT];
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            final int firstKey = i * KEYS_PER_THREAD;
+            futures[i] = spawn(new Runnable() {
+                @Override
+                public void run() {
+                    for (int key = firstKey; key < firstKey + KEYS_PER_THREAD; key++) {
+                        entryOrdinals.acquire(entry(key, "value"));
+                        if (key % 2 == 0) {
+                            entryOrdinals.release(key(key));
+                        }
+                    }
+                }
+            });
+        }
+        for (Future future : futures) {
+            future.get();
+        }
+
+        int expectedSize = THREAD_COUNT * KEYS_PER_THREAD / 2;
+        assertEquals(expectedSize, entryOrdinals.size());
+        assertEquals(expectedSize, entryOrdinals.getAllOrdinals().cardinality());
+        assertEquals(expectedSize, entryOrdinals.getEntries(entryOrdinals.getAllOrdinals()).size());
+        Set<Integer> distinctOrdinals = new HashSet<Integer>();
+        for (int key = 1; key < THREAD_COUNT * KEYS_PER_THREAD; key += 2) {
+            assertTrue(distinctOrdinals.add(entryOrdinals.getOrdinal(key(key))));
+        }
+    }
+
+    private QueryableEntry entry(int key, String value) {
+        return new QueryEntry(serializationService, key(key), value, Extractors.empty());
+    }
+
+    private Data key(int key) {
+        return serializationService.toData(key);
+    }
+
+    private static SparseBitmap bitmap(int ordinal) {
+        SparseBitmap bitmap = new SparseBitmap();
+        bitmap.add(ordinal);
+        return bitmap;
+    }
+}
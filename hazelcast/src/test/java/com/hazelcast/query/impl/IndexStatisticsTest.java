@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.Future;
+
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class IndexStatisticsTest extends HazelcastTestSupport {
+
+    private final IndexStatistics statistics = new IndexStatistics();
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, statistics.getEntryCount());
+        assertEquals(0, statistics.getDistinctValueCount());
+        assertEquals(0, statistics.estimateEqualCount(1));
+        assertEquals(0, statistics.estimateRangeCount(1, true, 2, true));
+    }
+
+    @Test
+    public void testEntryCount() {
+        for (int i = 0; i < 100; i++) {
+            statistics.onEntryAdded(i);
+        }
+        statistics.onEntryUpdated(5, 105);
+        statistics.onEntryRemoved(6);
+
+        assertEquals(99, statistics.getEntryCount());
+    }
+
+    @Test
+    public void testEqualCount_lowCardinality() {
+        for (int i = 0; i < 10000; i++) {
+            statistics.onEntryAdded(i % 4 == 0 ? null : i % 4);
+        }
+
+        assertEquals(4, statistics.getDistinctValueCount());
+        assertEquals(2500, statistics.estimateEqualCount(1));
+        assertEquals(5000, statistics.estimateEqualCount(2));
+    }
+
+    @Test
+    public void testEqualCount_uniqueValues() {
+        for (int i = 0; i < 10000; i++) {
+            statistics.onEntryAdded("value" + i);
+        }
+
+        long distinct = statistics.getDistinctValueCount();
+        assertTrue("distinct " + distinct, distinct > 9000 && distinct <= 10000);
+        assertTrue(statistics.estimateEqualCount(1) <= 2);
+    }
+
+    @Test
+    public void testRangeCount() {
+        for (int i = 0; i < 10000; i++) {
+            statistics.onEntryAdded(i % 100);
+        }
+
+        assertEquals(10000, statistics.estimateRangeCount(null, false, null, false));
+        assertEquals(0, statistics.estimateRangeCount(100, true, null, false));
+        assertEquals(0, statistics.estimateRangeCount(null, false, 0, false));
+        assertInRange(5000, statistics.estimateRangeCount(50, true, null, false));
+        assertInRange(2000, statistics.estimateRangeCount(null, false, 20, false));
+        assertInRange(1000, statistics.estimateRangeCount(40, true, 49, true));
+    }
+
+    @Test
+    public void testClear() {
+        for (int i = 0; i < 100; i++) {
+            statistics.onEntryAdded(i);
+        }
+
+        statistics.clear();
+
+        assertEquals(0, statistics.getEntryCount());
+        assertEquals(0, statistics.estimateRangeCount(null, false, null, false));
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        final int threadCount = 4;
+        final int valuesPerThread = 2500;
+        Future[] futures = new Future[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final int firstValue = i * valuesPerThread;
+            futures[i] = spawn(new Runnable() {
+                @Override
+                public void run() {
+                    for (int value = firstValue; value < firstValue + valuesPerThread; value++) {
+                        statistics.onEntryAdded("value" + value);
+                    }
+                }
+            });
+        }
+        for (Future future : futures) {
+            future.get();
+        }
+
+        assertEquals(threadCount * valuesPerThread, statistics.getEntryCount());
+        long distinct = statistics.getDistinctValueCount();
+        assertTrue("distinct " + distinct, distinct > 9000 && distinct <= 10000);
+        assertEquals(10000, statistics.estimateRangeCount(null, false, null, false));
+    }
+
+    @Test
+    public void testIndex_collectsStatisticsOnlyWhenEnabled() {
+        assertNull(new IndexImpl("age", true, null, Extractors.empty()).getStatistics());
+        assertNotNull(new IndexImpl("age", true, null, Extractors.empty(), false, true).getStatistics());
+    }
+
+    @Test
+    public void testIndex_forgetsUpdatedAndRemovedValues_unordered() {
+        assertIndexForgetsUpdatedAndRemovedValues(false, false);
+    }
+
+    @Test
+    public void testIndex_forgetsUpdatedAndRemovedValues_ordered() {
+        assertIndexForgetsUpdatedAndRemovedValues(true, false);
+    }
+
+    @Test
+    public void testIndex_forgetsUpdatedAndRemovedValues_bPlusTree() {
+        assertIndexForgetsUpdatedAndRemovedValues(true, true);
+    }
+
+    private static void assertIndexForgetsUpdatedAndRemovedValues(boolean ordered, boolean bPlusTreeEnabled) {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+        IndexImpl index = new IndexImpl(THIS_ATTRIBUTE_NAME.value(), ordered, ss, Extractors.empty(), bPlusTreeEnabled, true);
+        for (int key = 0; key < 10000; key++) {
+            index.saveEntryIndex(new QueryEntry(ss, ss.toData(key), key, Extractors.empty()), null);
+        }
+        // the values of the first half are updated to 100 distinct values below 100, the second half is removed
+        for (int key = 0; key < 5000; key++) {
+            index.saveEntryIndex(new QueryEntry(ss, ss.toData(key), key % 100, Extractors.empty()), key);
+        }
+        for (int key = 5000; key < 10000; key++) {
+            index.removeEntryIndex(ss.toData(key), key);
+        }
+
+        IndexStatistics indexStatistics = index.getStatistics();
+
+        assertEquals(5000, indexStatistics.getEntryCount());
+        long distinct = indexStatistics.getDistinctValueCount();
+        assertTrue("distinct " + distinct, distinct >= 95 && distinct <= 105);
+        assertEquals(5000, indexStatistics.estimateRangeCount(null, false, 100, false));
+        assertEquals(0, indexStatistics.estimateRangeCount(100, true, null, false));
+    }
+
+    private static void assertInRange(long expected, long actual) {
+        // the sample is small, allow a generous error
+        assertTrue("expected about " + expected + " but was " + actual, Math.abs(expected - actual) < 1500);
+    }
+}
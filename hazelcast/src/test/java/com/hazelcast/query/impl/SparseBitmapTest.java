@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SparseBitmapTest {
+
+    private static final int[] RANGES = {100, 5000, 70000, 300000};
+
+    private final Random random = new Random();
+
+    @Test
+    public void testAddRemoveContains() {
+        SparseBitmap bitmap = new SparseBitmap();
+
+        bitmap.add(3);
+        bitmap.add(70000);
+        bitmap.add(3);
+
+        assertTrue(bitmap.contains(3));
+        assertTrue(bitmap.contains(70000));
+        assertFalse(bitmap.contains(4));
+        assertEquals(2, bitmap.cardinality());
+        assertArrayEquals(new int[]{3, 70000}, bitmap.toArray());
+
+        bitmap.remove(3);
+        bitmap.remove(70000);
+        bitmap.remove(5);
+
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAdd_negative() {
+        new SparseBitmap().add(-1);
+    }
+
+    @Test
+    public void testDenseBitmap() {
+        SparseBitmap bitmap = new SparseBitmap();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 200000; i++) {
+            bitmap.add(i);
+            expected.set(i);
+        }
+        assertBitmap(expected, bitmap);
+
+        for (int i = 0; i < 200000; i++) {
+            if (random.nextBoolean()) {
+                bitmap.remove(i);
+                expected.clear(i);
+            }
+        }
+        assertBitmap(expected, bitmap);
+
+        for (int i = 0; i < 200000; i++) {
+            bitmap.remove(i);
+        }
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    public void testOperations_againstBitSet() {
+        for (int round = 0; round < 40; round++) {
+            int range = RANGES[round % RANGES.length];
+            SparseBitmap left = new SparseBitmap();
+            SparseBitmap right = new SparseBitmap();
+            BitSet expectedLeft = fill(left, range);
+            BitSet expectedRight = fill(right, range);
+            for (int i = 0; i < 5000; i++) {
+                int value = random.nextInt(range);
+                left.remove(value);
+                expectedLeft.clear(value);
+            }
+
+            assertBitmap(expectedLeft, left);
+            assertBitmap(expectedRight, right);
+
+            BitSet expected = (BitSet) expectedLeft.clone();
+            expected.and(expectedRight);
+            assertBitmap(expected, left.and(right));
+
+            expected = (BitSet) expectedLeft.clone();
+            expected.or(expectedRight);
+            assertBitmap(expected, left.or(right));
+
+            expected = (BitSet) expectedLeft.clone();
+            expected.andNot(expectedRight);
+            assertBitmap(expected, left.andNot(right));
+
+            assertBitmap(expectedLeft, left.copy());
+            assertBitmap(expectedLeft, left);
+        }
+    }
+
+    @Test
+    public void testHeapCost_lowerForDenseBitmaps() {
+        SparseBitmap sparse = new SparseBitmap();
+        SparseBitmap dense = new SparseBitmap();
+        for (int i = 0; i < 65536; i++) {
+            dense.add(i);
+        }
+        for (int i = 0; i < 16; i++) {
+            sparse.add(i * 65536);
+        }
+
+        // 16 values in separate chunks and 65536 values in a single chunk
+        assertTrue(dense.getHeapCost() < 65536 / 4);
+        assertTrue(sparse.getHeapCost() < dense.getHeapCost());
+    }
+
+    private BitSet fill(SparseBitmap bitmap, int range) {
+        BitSet expected = new BitSet();
+        int count = random.nextInt(20000);
+        for (int i = 0; i < count; i++) {
+            int value = random.nextInt(range);
+            bitmap.add(value);
+            expected.set(value);
+        }
+        return expected;
+    }
+
+    private static void assertBitmap(BitSet expected, SparseBitmap actual) {
+        int[] expectedValues = new int[expected.cardinality()];
+        int position = 0;
+        for (int i = expected.nextSetBit(0); i >= 0; i = expected.nextSetBit(i + 1)) {
+            expectedValues[position++] = i;
+        }
+        assertArrayEquals(expectedValues, actual.toArray());
+        assertEquals(expected.cardinality(), actual.cardinality());
+    }
+}
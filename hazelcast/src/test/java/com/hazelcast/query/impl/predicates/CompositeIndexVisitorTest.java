@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompositeIndex;
+import com.hazelcast.query.impl.CompositeValue;
+import com.hazelcast.query.impl.IndexImpl;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.lessEqual;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.impl.CompositeValue.NEGATIVE_INFINITY;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompositeIndexVisitorTest {
+
+    private CompositeIndexVisitor visitor;
+    private Indexes mockIndexes;
+
+    @Before
+    public void setUp() {
+        mockIndexes = mock(Indexes.class);
+        visitor = new CompositeIndexVisitor();
+        useIndexes(new CompositeIndex("country, age", true, null, Extractors.empty(), false));
+    }
+
+    @Test
+    public void whenEqualOnAllComponents_thenRewriteToCompositeEqual() {
+        Predicate country = equal("country", "pl");
+        Predicate age = equal("age", 30);
+        Predicate and = and(age, country);
+
+        CompositeEqualPredicate result = (CompositeEqualPredicate) visitor.visit((AndPredicate) and, mockIndexes);
+
+        assertEquals("country,age", result.indexName);
+        assertEquals(value("pl", 30), result.value);
+        assertArrayEquals(new Predicate[]{country, age}, result.predicates);
+    }
+
+    @Test
+    public void whenEqualPrefixAndExclusiveLowerBound_thenRewriteToCompositeRange() {
+        Predicate and = and(equal("country", "pl"), greaterThan("age", 30));
+
+        CompositeRangePredicate result = (CompositeRangePredicate) visitor.visit((AndPredicate) and, mockIndexes);
+
+        assertEquals(value("pl", 30, POSITIVE_INFINITY), result.from);
+        assertEquals(value("pl", POSITIVE_INFINITY), result.to);
+    }
+
+    @Test
+    public void whenEqualPrefixAndInclusiveUpperBound_thenRewriteToCompositeRange() {
+        Predicate and = and(equal("country", "pl"), lessEqual("age", 30));
+
+        CompositeRangePredicate result = (CompositeRangePredicate) visitor.visit((AndPredicate) and, mockIndexes);
+
+        assertEquals(value("pl", IndexImpl.NULL, POSITIVE_INFINITY), result.from);
+        assertEquals(value("pl", 30, POSITIVE_INFINITY), result.to);
+    }
+
+    @Test
+    public void whenEqualPrefixAndBetween_thenRewriteAndKeepOtherPredicates() {
+        Predicate name = equal("name", "foo");
+        Predicate and = and(equal("country", "pl"), name, between("age", 10, 20));
+
+        AndPredicate result = (AndPredicate) visitor.visit((AndPredicate) and, mockIndexes);
+
+        assertEquals(2, result.predicates.length);
+        CompositeRangePredicate range = (CompositeRangePredicate) result.predicates[0];
+        assertEquals(value("pl", 10, NEGATIVE_INFINITY), range.from);
+        assertEquals(value("pl", 20, POSITIVE_INFINITY), range.to);
+        assertSame(name, result.predicates[1]);
+    }
+
+    @Test
+    public void whenNoEqualOnFirstComponent_thenReturnOriginal() {
+        Predicate and = and(equal("age", 30), equal("name", "foo"));
+
+        Predicate result = visitor.visit((AndPredicate) and, mockIndexes);
+
+        assertSame(and, result);
+    }
+
+    @Test
+    public void whenOnlySinglePredicateMatched_thenReturnOriginal() {
+        Predicate and = and(equal("country", "pl"), notEqual("age", 30));
+
+        Predicate result = visitor.visit((AndPredicate) and, mockIndexes);
+
+        assertSame(and, result);
+    }
+
+    @Test
+    public void whenUnorderedIndexAndRange_thenReturnOriginal() {
+        useIndexes(new CompositeIndex("country, age", false, null, Extractors.empty(), false));
+        Predicate and = and(equal("country", "pl"), greaterThan("age", 30));
+
+        Predicate result = visitor.visit((AndPredicate) and, mockIndexes);
+
+        assertSame(and, result);
+    }
+
+    @Test
+    public void whenNoCompositeIndex_thenReturnOriginal() {
+        useIndexes();
+        Predicate and = and(equal("country", "pl"), equal("age", 30));
+
+        Predicate result = visitor.visit((AndPredicate) and, mockIndexes);
+
+        assertSame(and, result);
+    }
+
+    private void useIndexes(CompositeIndex... indexes) {
+        when(mockIndexes.getCompositeIndexes()).thenReturn(indexes);
+    }
+
+    private static CompositeValue value(Comparable... components) {
+        return new CompositeValue(components);
+    }
+}
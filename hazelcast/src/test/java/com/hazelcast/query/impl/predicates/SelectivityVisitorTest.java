@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.query.DefaultIndexProvider;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.like;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SelectivityVisitorTest {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private SelectivityVisitor visitor;
+    private Indexes indexes;
+
+    @Before
+    public void setUp() {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+        visitor = new SelectivityVisitor();
+        indexes = new Indexes(ss, new DefaultIndexProvider(false, true), Extractors.empty(), true);
+        indexes.addOrGetIndex("id", false);
+        indexes.addOrGetIndex("gender", false);
+        indexes.addOrGetIndex("age", true);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Person person = new Person(i, i % 2 == 0 ? "f" : "m", i % 100);
+            indexes.saveEntryIndex(new QueryEntry(ss, ss.toData(i), person, Extractors.empty()), null);
+        }
+    }
+
+    @Test
+    public void whenSelectiveIndex_thenOnlyItIsUsed() {
+        Predicate id = equal("id", 5);
+        Predicate gender = equal("gender", "m");
+        Predicate age = greaterThan("age", 90);
+
+        AndPredicate result = (AndPredicate) visitor.visit((AndPredicate) and(gender, age, id), indexes);
+
+        assertSame(id, result.predicates[0]);
+        assertSkipIndex(age, result.predicates[1]);
+        assertSkipIndex(gender, result.predicates[2]);
+    }
+
+    @Test
+    public void whenNotIndexedPredicates_thenKeptAfterIndexedOnes() {
+        Predicate id = in("id", 5, 6);
+        Predicate name = like("name", "a%");
+        Predicate age = between("age", 10, 12);
+
+        AndPredicate result = (AndPredicate) visitor.visit((AndPredicate) and(name, age, id), indexes);
+
+        assertArrayEquals(new Predicate[]{id, result.predicates[1], name}, result.predicates);
+        assertSkipIndex(age, result.predicates[1]);
+    }
+
+    @Test
+    public void whenNoSelectiveIndex_thenScan() {
+        Predicate and = and(equal("gender", "m"), greaterEqual("age", 50));
+
+        Predicate result = visitor.visit((AndPredicate) and, indexes);
+
+        assertSkipIndex(and, result);
+    }
+
+    @Test
+    public void whenMostSelectiveIsFirst_thenUnchanged() {
+        Predicate and = and(equal("id", 5), like("name", "a%"));
+
+        assertSame(and, visitor.visit((AndPredicate) and, indexes));
+    }
+
+    @Test
+    public void whenUnselectiveDisjunction_thenScan() {
+        Predicate or = or(equal("id", 5), equal("gender", "f"));
+        Predicate selectiveOr = or(equal("id", 5), equal("age", 7));
+
+        assertSkipIndex(or, visitor.visit((OrPredicate) or, indexes));
+        assertSame(selectiveOr, visitor.visit((OrPredicate) selectiveOr, indexes));
+    }
+
+    @Test
+    public void whenSinglePredicate_thenScanIfUnselective() {
+        Predicate id = equal("id", 5);
+        Predicate age = greaterEqual("age", 10);
+
+        assertSame(id, SelectivityVisitor.visitSingle(id, indexes));
+        assertSkipIndex(age, SelectivityVisitor.visitSingle(age, indexes));
+    }
+
+    @Test
+    public void testEstimateCount() {
+        assertEquals(1, SelectivityVisitor.estimateCount(equal("id", 5), indexes));
+        assertEquals(ENTRY_COUNT / 2, SelectivityVisitor.estimateCount(equal("gender", "m"), indexes));
+        assertEquals(SelectivityVisitor.UNKNOWN, SelectivityVisitor.estimateCount(equal("name", "a"), indexes));
+        assertEquals(SelectivityVisitor.UNKNOWN, SelectivityVisitor.estimateCount(like("id", "a"), indexes));
+        long count = SelectivityVisitor.estimateCount(greaterEqual("age", 50), indexes);
+        assertTrue("count " + count, count > 300 && count < 700);
+    }
+
+    @Test
+    public void whenIndexesNull_thenUnchanged() {
+        Predicate and = and(equal("gender", "m"), greaterEqual("age", 50));
+
+        assertSame(and, visitor.visit((AndPredicate) and, null));
+    }
+
+    private static void assertSkipIndex(Predicate expected, Predicate actual) {
+        assertTrue(actual instanceof SkipIndexPredicate);
+        assertSame(expected, ((SkipIndexPredicate) actual).predicate);
+    }
+
+    public static class Person {
+        private final int id;
+        private final String gender;
+        private final int age;
+
+        Person(int id, String gender, int age) {
+            this.id = id;
+            this.gender = gender;
+            this.age = age;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getGender() {
+            return gender;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public String getName() {
+            return "name" + id;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.GENERIC_QUEUE_MPSC;
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.PARTITION_THREAD_BALANCER_INTERVAL_SECONDS;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static java.lang.Boolean.FALSE;
+import static java.lang.Boolean.TRUE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class OperationExecutorImpl_PartitionThreadBalancerTest extends OperationExecutorImpl_AbstractTest {
+
+    @Before
+    public void setupBalancer() {
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "2");
+        // long enough for the balancer to never run a round by itself during a test
+        config.setProperty(PARTITION_THREAD_BALANCER_INTERVAL_SECONDS.getName(), "3600");
+    }
+
+    @Test
+    public void testBalancerDisabledByDefault() {
+        config.setProperty(PARTITION_THREAD_BALANCER_INTERVAL_SECONDS.getName(), "0");
+        initExecutor();
+
+        assertNull(executor.getPartitionAssignment());
+        assertNull(executor.getPartitionThreadBalancer());
+        assertEquals(3, executor.toPartitionThreadIndex(3));
+    }
+
+    @Test
+    public void testInitialAssignment_sameAsStatic() {
+        initExecutor();
+
+        for (int partitionId = 0; partitionId < 10; partitionId++) {
+            assertEquals(partitionId % 2, executor.toPartitionThreadIndex(partitionId));
+        }
+    }
+
+    @Test
+    public void testMove_keepsTaskOrder() throws Exception {
+        initExecutor();
+        PartitionAssignment assignment = executor.getPartitionAssignment();
+        final PartitionOperationThread[] threads = executor.getPartitionThreads();
+        final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Thread> executingThreads = Collections.synchronizedList(new ArrayList<Thread>());
+
+        CountDownLatch blockLatch = blockPartitionThread(0);
+        for (int i = 0; i < 100; i++) {
+            executor.execute(new RecordingTask(0, i, executed, executingThreads));
+        }
+        assertTrue(assignment.move(0, 1));
+        for (int i = 100; i < 200; i++) {
+            executor.execute(new RecordingTask(0, i, executed, executingThreads));
+        }
+        blockLatch.countDown();
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(200, executed.size());
+            }
+        });
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, (int) executed.get(i));
+            assertSame(i < 100 ? threads[0] : threads[1], executingThreads.get(i));
+        }
+        assertEquals(1, executor.toPartitionThreadIndex(0));
+        assertFalse(assignment.isMoving(0));
+        assertSame(threads[1], executor.getPartitionOperationRunners()[0].currentThread());
+    }
+
+    @Test
+    public void testMove_whenProducersKeepExecuting_thenMoveCompletes() throws Exception {
+        initExecutor();
+        final PartitionAssignment assignment = executor.getPartitionAssignment();
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicLong executedCount = new AtomicLong();
+        Thread[] producers = new Thread[4];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread() {
+                @Override
+                public void run() {
+                    while (!stop.get()) {
+                        executor.execute(new PartitionSpecificRunnable() {
+                            @Override
+                            public int getPartitionId() {
+                                return 0;
+                            }
+
+                            @Override
+                            public void run() {
+                                executedCount.incrementAndGet();
+                            }
+                        });
+                    }
+                }
+            };
+            producers[i].start();
+        }
+
+        try {
+            sleepMillis(100);
+            assertTrue(assignment.move(0, 1));
+            assertTrueEventually(new AssertTask() {
+                @Override
+                public void run() throws Exception {
+                    assertTrue(assignment.tryCompleteMove(0));
+                    assertFalse(assignment.isMoving(0));
+                }
+            });
+        } finally {
+            stop.set(true);
+            for (Thread producer : producers) {
+                producer.join();
+            }
+        }
+        assertEquals(1, executor.toPartitionThreadIndex(0));
+        assertTrue(executedCount.get() > 0);
+    }
+
+    @Test
+    public void testIsRunAllowed_afterMove() {
+        initExecutor();
+        final PartitionAssignment assignment = executor.getPartitionAssignment();
+        assignment.move(0, 1);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertFalse(assignment.isMoving(0));
+            }
+        });
+
+        final DummyOperation operation = new DummyOperation(0);
+        PartitionSpecificCallable oldOwnerTask = new PartitionSpecificCallable(2) {
+            @Override
+            public Object call() {
+                return executor.isRunAllowed(operation);
+            }
+        };
+        PartitionSpecificCallable newOwnerTask = new PartitionSpecificCallable(1) {
+            @Override
+            public Object call() {
+                return executor.isRunAllowed(operation);
+            }
+        };
+        executor.execute(oldOwnerTask);
+        executor.execute(newOwnerTask);
+
+        assertEqualsEventually(oldOwnerTask, FALSE);
+        assertEqualsEventually(newOwnerTask, TRUE);
+    }
+
+    @Test
+    public void testRebalance_movesPartitionFromBusiestToIdlestThread() {
+        initExecutor();
+        final PartitionAssignment assignment = executor.getPartitionAssignment();
+        final PartitionThreadBalancer balancer = executor.getPartitionThreadBalancer();
+        final PartitionOperationThread[] threads = executor.getPartitionThreads();
+
+        // partitions 0 and 2 are both owned by the first thread
+        final PartitionSpecificCallable hot = sleepingTask(0, 300);
+        final PartitionSpecificCallable warm = sleepingTask(2, 100);
+        executor.execute(hot);
+        executor.execute(warm);
+        assertEqualsEventually(hot, TRUE);
+        assertEqualsEventually(warm, TRUE);
+
+        balancer.rebalance();
+
+        // moving the hot partition would only move the imbalance to the other thread
+        assertEquals(0, assignment.getOwner(0));
+        assertEquals(1, assignment.getOwner(2));
+        assertEquals(1, balancer.getMovedPartitionCount());
+        assertTrue(threads[0].getUtilizationPercentage() > threads[1].getUtilizationPercentage());
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertFalse(assignment.isMoving(2));
+                assertSame(threads[1], executor.getPartitionOperationRunners()[2].currentThread());
+            }
+        });
+    }
+
+    @Test
+    public void testRebalance_whenBalanced_thenNothingMoved() {
+        initExecutor();
+        PartitionThreadBalancer balancer = executor.getPartitionThreadBalancer();
+
+        balancer.rebalance();
+
+        assertEquals(0, balancer.getMovedPartitionCount());
+        assertEquals(0, executor.toPartitionThreadIndex(0));
+    }
+
+    @Test
+    public void testGenericQueueMpsc() {
+        config.setProperty(GENERIC_QUEUE_MPSC.getName(), "true");
+        initExecutor();
+
+        final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+        for (int i = 0; i < 100; i++) {
+            final int value = i;
+            executor.execute(new PartitionSpecificCallable(-1) {
+                @Override
+                public Object call() {
+                    executed.add(value);
+                    return null;
+                }
+            });
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(100, executed.size());
+                assertEquals(0, executor.getQueueSize());
+            }
+        });
+    }
+
+    private CountDownLatch blockPartitionThread(int partitionId) {
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(new PartitionSpecificCallable(partitionId) {
+            @Override
+            public Object call() {
+                assertOpenEventually(latch);
+                return null;
+            }
+        });
+        return latch;
+    }
+
+    private static PartitionSpecificCallable sleepingTask(int partitionId, final int durationMs) {
+        return new PartitionSpecificCallable(partitionId) {
+            @Override
+            public Object call() {
+                sleepMillis(durationMs);
+                return TRUE;
+            }
+        };
+    }
+
+    private static class RecordingTask implements PartitionSpecificRunnable {
+
+        private final int partitionId;
+        private final int value;
+        private final List<Integer> executed;
+        private final List<Thread> executingThreads;
+
+        RecordingTask(int partitionId, int value, List<Integer> executed, List<Thread> executingThreads) {
+            this.partitionId = partitionId;
+            this.value = value;
+            this.executed = executed;
+            this.executingThreads = executingThreads;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public void run() {
+            executed.add(value);
+            executingThreads.add(Thread.currentThread());
+        }
+    }
+}
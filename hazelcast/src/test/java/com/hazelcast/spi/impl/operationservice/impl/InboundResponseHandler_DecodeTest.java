@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.instance.Node;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class InboundResponseHandler_DecodeTest {
+
+    private InternalSerializationService serializationService;
+    private OutboundResponseHandler outboundResponseHandler;
+    private InboundResponseHandler inboundResponseHandler;
+
+    @Before
+    public void setup() throws Exception {
+        ILogger logger = Logger.getLogger(InboundResponseHandler_DecodeTest.class);
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        outboundResponseHandler = new OutboundResponseHandler(
+                new Address("127.0.0.1", 5701), serializationService, mock(Node.class), logger);
+        inboundResponseHandler = new InboundResponseHandler(logger, serializationService, null, null);
+    }
+
+    @Test
+    public void decode_whenNull() {
+        assertNull(decode(null));
+    }
+
+    @Test
+    public void decode_whenBoolean() {
+        assertEquals(true, decode(true));
+        assertEquals(false, decode(false));
+    }
+
+    @Test
+    public void decode_whenInteger() {
+        assertEquals(Integer.MIN_VALUE, decode(Integer.MIN_VALUE));
+        assertEquals(42, decode(42));
+    }
+
+    @Test
+    public void decode_whenLong() {
+        assertEquals(Long.MAX_VALUE, decode(Long.MAX_VALUE));
+        assertEquals(-1L, decode(-1L));
+    }
+
+    @Test
+    public void decode_whenData() {
+        Data data = serializationService.toData("foobar");
+
+        Object value = decode(data);
+
+        assertEquals(data, value);
+        assertEquals("foobar", serializationService.toObject(value));
+    }
+
+    @Test
+    public void decode_whenOtherValue_thenPacketReturned() {
+        Packet packet = outboundResponseHandler.toNormalResponsePacket(1, 0, false, "foobar");
+
+        Object value = inboundResponseHandler.decodeNormalResponseValue(packet);
+
+        assertSame(packet, value);
+        NormalResponse response = serializationService.toObject(value);
+        assertEquals("foobar", response.getValue());
+    }
+
+    private Object decode(Object value) {
+        Packet packet = outboundResponseHandler.toNormalResponsePacket(1, 0, false, value);
+        return inboundResponseHandler.decodeNormalResponseValue(packet);
+    }
+}
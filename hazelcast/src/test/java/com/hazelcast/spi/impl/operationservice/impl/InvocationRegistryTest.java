@@ -31,6 +31,12 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
@@ -149,6 +155,71 @@ public class InvocationRegistryTest extends HazelcastTestSupport {
         assertEquals(2, invocationRegistry.size());
     }
 
+    // ===================== iteration ============================
+
+    @Test
+    public void iterator_returnsAllInvocations() {
+        invocationRegistry = new InvocationRegistry(logger, new CallIdSequenceWithBackpressure(1000, 1000));
+        Set<Invocation> invocations = new HashSet<Invocation>();
+        for (int i = 0; i < 500; i++) {
+            Invocation invocation = newInvocation();
+            invocationRegistry.register(invocation);
+            invocations.add(invocation);
+        }
+
+        Set<Invocation> iterated = new HashSet<Invocation>();
+        for (Invocation invocation : invocationRegistry) {
+            iterated.add(invocation);
+        }
+
+        assertEquals(500, invocationRegistry.size());
+        assertEquals(invocations, iterated);
+    }
+
+    @Test
+    public void iterator_whenDeregistered_thenNotReturned() {
+        invocationRegistry = new InvocationRegistry(logger, new CallIdSequenceWithBackpressure(1000, 1000));
+        List<Invocation> invocations = new ArrayList<Invocation>();
+        for (int i = 0; i < 100; i++) {
+            Invocation invocation = newInvocation();
+            invocationRegistry.register(invocation);
+            invocations.add(invocation);
+        }
+        for (int i = 0; i < 100; i += 2) {
+            invocationRegistry.deregister(invocations.get(i));
+        }
+
+        int count = 0;
+        for (Invocation invocation : invocationRegistry) {
+            assertEquals(0, invocation.op.getCallId() % 2);
+            count++;
+        }
+        assertEquals(50, count);
+        assertEquals(50, invocationRegistry.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void iterator_remove() {
+        invocationRegistry.register(newInvocation());
+
+        Iterator<Invocation> iterator = invocationRegistry.iterator();
+        iterator.next();
+        iterator.remove();
+    }
+
+    @Test
+    public void entrySet_containsCallIds() {
+        Invocation invocation = newInvocation();
+        invocationRegistry.register(invocation);
+
+        Set<Map.Entry<Long, Invocation>> entries = invocationRegistry.entrySet();
+
+        assertEquals(1, entries.size());
+        Map.Entry<Long, Invocation> entry = entries.iterator().next();
+        assertEquals(invocation.op.getCallId(), entry.getKey().longValue());
+        assertSame(invocation, entry.getValue());
+    }
+
 
     // ===================== reset ============================
 
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.InternalCompletableFuture;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
+import com.hazelcast.test.ExpectedRuntimeException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class OperationServiceImpl_invokeOnTargetBatchTest extends HazelcastTestSupport {
+
+    private HazelcastInstance local;
+    private HazelcastInstance remote;
+    private OperationServiceImpl operationService;
+
+    @Before
+    public void setup() {
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances();
+        local = instances[0];
+        remote = instances[1];
+        warmUpPartitions(instances);
+        operationService = getOperationServiceImpl(local);
+    }
+
+    @Test
+    public void whenRemoteTarget() throws Exception {
+        assertBatchCompletes(remote);
+    }
+
+    @Test
+    public void whenLocalTarget() throws Exception {
+        assertBatchCompletes(local);
+    }
+
+    @Test
+    public void whenEmptyBatch() {
+        List<InternalCompletableFuture<Object>> futures = operationService.invokeOnTargetBatch(null,
+                Collections.<Operation>emptyList(), getAddress(remote));
+
+        assertTrue(futures.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenPartitionIdNotSet() {
+        operationService.invokeOnTargetBatch(null, Collections.<Operation>singletonList(new PartitionThreadOperation()),
+                getAddress(remote));
+    }
+
+    @Test
+    public void whenOperationFails_thenOnlyItsFutureFails() throws Exception {
+        List<Integer> partitions = getPartitionService(local).getMemberPartitions(getAddress(remote));
+        List<Operation> operations = new ArrayList<Operation>();
+        operations.add(new PartitionThreadOperation().setPartitionId(partitions.get(0)));
+        operations.add(new FailingOperation().setPartitionId(partitions.get(1)));
+
+        List<InternalCompletableFuture<Boolean>> futures = operationService.invokeOnTargetBatch(null, operations,
+                getAddress(remote));
+
+        assertTrue(futures.get(0).get());
+        try {
+            futures.get(1).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertInstanceOf(ExpectedRuntimeException.class, e.getCause());
+        }
+    }
+
+    @Test
+    public void whenPartitionNotOwnedByTarget_thenOperationIsRetried() throws Exception {
+        List<Integer> partitions = getPartitionService(local).getMemberPartitions(getAddress(local));
+        List<Operation> operations = new ArrayList<Operation>();
+        for (int i = 0; i < 3; i++) {
+            operations.add(new PartitionThreadOperation().setPartitionId(partitions.get(i)));
+        }
+
+        List<InternalCompletableFuture<Boolean>> futures = operationService.invokeOnTargetBatch(null, operations,
+                getAddress(remote));
+
+        for (InternalCompletableFuture<Boolean> future : futures) {
+            assertTrue(future.get());
+        }
+    }
+
+    private void assertBatchCompletes(HazelcastInstance target) throws Exception {
+        Address address = getAddress(target);
+        List<Integer> partitions = getPartitionService(local).getMemberPartitions(address);
+        List<Operation> operations = new ArrayList<Operation>();
+        for (int partitionId : partitions) {
+            operations.add(new DummyOperation(partitionId).setPartitionId(partitionId));
+            operations.add(new PartitionThreadOperation().setPartitionId(partitionId));
+        }
+
+        List<InternalCompletableFuture<Object>> futures = operationService.invokeOnTargetBatch(null, operations, address);
+
+        assertEquals(operations.size(), futures.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            assertEquals(partitions.get(i), futures.get(2 * i).get());
+            assertEquals(Boolean.TRUE, futures.get(2 * i + 1).get());
+        }
+    }
+
+    public static class PartitionThreadOperation extends Operation {
+
+        private boolean response;
+
+        @Override
+        public void run() throws Exception {
+            response = Thread.currentThread() instanceof PartitionOperationThread;
+        }
+
+        @Override
+        public Object getResponse() {
+            return response;
+        }
+    }
+
+    public static class FailingOperation extends Operation {
+
+        @Override
+        public void run() throws Exception {
+            throw new ExpectedRuntimeException();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spi.InternalCompletableFuture;
+import com.hazelcast.spi.impl.operationservice.InternalOperationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.spi.impl.operationservice.impl.AsyncInboundResponseHandler.RESPONSE_THREAD_ENABLED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class OperationServiceImpl_responseWithoutResponseThreadTest extends HazelcastTestSupport {
+
+    private HazelcastInstance local;
+    private HazelcastInstance remote;
+
+    @Before
+    public void setup() {
+        Config config = new Config().setProperty(RESPONSE_THREAD_ENABLED.getName(), "false");
+        HazelcastInstance[] nodes = createHazelcastInstanceFactory(2).newInstances(config);
+        warmUpPartitions(nodes);
+
+        local = nodes[0];
+        remote = nodes[1];
+    }
+
+    @Test
+    public void whenResponseThreadDisabled_thenResponsesHandledDirectly() {
+        OperationServiceImpl operationService = (OperationServiceImpl) getOperationService(local);
+
+        assertSame(operationService.getInboundResponseHandler(), operationService.getAsyncInboundResponseHandler());
+    }
+
+    @Test
+    public void whenRemoteInvocation_thenResponseReceived() {
+        InternalOperationService operationService = getOperationService(local);
+        String expected = "foobar";
+
+        InternalCompletableFuture<String> invocation = operationService.invokeOnTarget(
+                null, new DummyOperation(expected), getAddress(remote));
+
+        assertEquals(expected, invocation.join());
+    }
+
+    @Test
+    public void whenRemotePartitionInvocation_thenResponseReceived() {
+        InternalOperationService operationService = getOperationService(local);
+        int partitionId = getPartitionId(remote);
+        String expected = "foobar";
+
+        InternalCompletableFuture<String> invocation = operationService.invokeOnPartition(
+                null, new DummyOperation(expected), partitionId);
+
+        assertEquals(expected, invocation.join());
+    }
+}
@@ -207,6 +207,24 @@ public class OutboundResponseHandlerTest {
         testToNormalResponsePacket(null, 1, 2, false);
     }
 
+    @Test
+    public void toNormalResponsePacket_whenBooleanValue() {
+        testToNormalResponsePacket(true, 1, 0, false);
+        testToNormalResponsePacket(false, 2, 1, true);
+    }
+
+    @Test
+    public void toNormalResponsePacket_whenIntegerValue() {
+        testToNormalResponsePacket(42, 1, 0, false);
+        testToNormalResponsePacket(Integer.MIN_VALUE, 2, 1, true);
+    }
+
+    @Test
+    public void toNormalResponsePacket_whenLongValue() {
+        testToNormalResponsePacket(42L, 1, 0, false);
+        testToNormalResponsePacket(Long.MAX_VALUE, 2, 1, true);
+    }
+
     @Test
     public void toNormalResponsePacket_whenDataValue() {
         testToNormalResponsePacket(serializationService.toBytes("foobar"), 1, 2, false);
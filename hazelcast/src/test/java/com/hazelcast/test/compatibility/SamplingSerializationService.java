@@ -16,6 +16,7 @@
 
 package com.hazelcast.test.compatibility;
 
+import com.hazelcast.config.CompressionConfig;
 import com.hazelcast.core.ManagedContext;
 import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.internal.serialization.InternalSerializationService;
@@ -24,6 +25,7 @@ import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.CompactReader;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.DataType;
 import com.hazelcast.nio.serialization.PortableReader;
@@ -164,6 +166,22 @@ public class SamplingSerializationService implements InternalSerializationServic
         return delegate.createPortableReader(data);
     }
 
+    @Override
+    public CompactReader createCompactReader(Data data)
+            throws IOException {
+        return delegate.createCompactReader(data);
+    }
+
+    @Override
+    public Data compress(Data data, CompressionConfig config) {
+        return delegate.compress(data, config);
+    }
+
+    @Override
+    public Data decompress(Data data) {
+        return delegate.decompress(data);
+    }
+
     @Override
     public PortableContext getPortableContext() {
         return delegate.getPortableContext();
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util.collection;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.SortingUtil;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class TopNCollectorTest {
+
+    private static final Comparator<Integer> NATURAL_ORDER = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withZeroLimit() {
+        new TopNCollector<Integer>(NATURAL_ORDER, 0);
+    }
+
+    @Test
+    public void testOffer_keepsSmallestElements() {
+        TopNCollector<Integer> collector = new TopNCollector<Integer>(NATURAL_ORDER, 3);
+
+        assertTrue(collector.offer(5));
+        assertTrue(collector.offer(8));
+        assertTrue(collector.offer(1));
+        assertTrue(collector.isFull());
+        assertFalse(collector.offer(9));
+        assertTrue(collector.offer(2));
+
+        assertEquals(3, collector.size());
+        assertEquals(asList(1, 2, 5), collector.drainSorted());
+        assertEquals(0, collector.size());
+    }
+
+    @Test
+    public void testAccepts() {
+        TopNCollector<Integer> collector = new TopNCollector<Integer>(NATURAL_ORDER, 2);
+        assertTrue(collector.accepts(10));
+
+        collector.offer(3);
+        collector.offer(7);
+
+        assertTrue(collector.accepts(6));
+        assertFalse(collector.accepts(7));
+        assertFalse(collector.accepts(8));
+    }
+
+    @Test
+    public void testOffer_randomInput() {
+        Random random = new Random();
+        List<Integer> input = new ArrayList<Integer>();
+        TopNCollector<Integer> collector = new TopNCollector<Integer>(NATURAL_ORDER, 50);
+        for (int i = 0; i < 1000; i++) {
+            int element = random.nextInt(500);
+            input.add(element);
+            collector.offer(element);
+        }
+
+        Collections.sort(input);
+        assertEquals(input.subList(0, 50), collector.drainSorted());
+    }
+
+    @Test
+    public void testMergeSorted() {
+        List<List<Integer>> runs = new ArrayList<List<Integer>>();
+        runs.add(asList(1, 4, 7, 10));
+        runs.add(Collections.<Integer>emptyList());
+        runs.add(asList(2, 3, 8));
+        runs.add(asList(5, 6, 9, 11, 12));
+
+        assertEquals(asList(1, 2, 3, 4, 5, 6, 7), SortingUtil.mergeSorted(runs, NATURAL_ORDER, 7));
+        assertEquals(asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12), SortingUtil.mergeSorted(runs, NATURAL_ORDER, 100));
+    }
+}